@@ -0,0 +1,438 @@
+package net.breezeware.dynamo.aws.dynamodb;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import net.breezeware.dynamo.aws.dynamodb.DynamoDbTableProperties.TableCapacity;
+import net.breezeware.dynamo.utils.exception.DynamoSdkException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.waiters.DynamoDbAsyncWaiter;
+
+/**
+ * Asynchronous counterpart of {@link AwsDynamoDbEntityManager}, backed by the
+ * {@link DynamoDbEnhancedAsyncClient}. Requests do not block the calling thread;
+ * their number in flight is bounded by the connection pool of the asynchronous
+ * client, configured through {@link DynamoDbClientProperties}. Single item
+ * reads are served from, and cached in, the {@link DynamoDbItemCache} shared
+ * with {@link AwsDynamoDbEntityManager}, and writes invalidate it once they
+ * complete. The asynchronous clients are injected lazily, so that
+ * applications using only {@link AwsDynamoDbEntityManager} never start the
+ * Netty HTTP client and its event loop.
+ */
+@Service
+@Slf4j
+public class AwsDynamoDbAsyncEntityManager<T extends DynamoDbEntity> {
+
+    @Autowired
+    @Lazy
+    DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient;
+
+    @Autowired
+    @Lazy
+    DynamoDbAsyncClient dynamoDbAsyncClient;
+
+    @Autowired
+    DynamoDbTableProperties dynamoDbTableProperties;
+
+    @Autowired
+    DynamoDbItemCache dynamoDbItemCache;
+
+    /**
+     * Tables of the entities, keyed by entity class.
+     */
+    private final Map<Class<?>, DynamoDbAsyncTable<?>> dynamoDbAsyncTables = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the table of an entity in the background, so that callers such as
+     * application startup are not blocked while the table becomes active. The
+     * table is created and awaited without holding a thread while waiting. The
+     * capacity of the table is resolved as by
+     * {@link AwsDynamoDbEntityManager#createTableForEntity(Class)}.
+     * @param  entityClass the class of the entity.
+     * @return             a future completed once the table is active, or
+     *                     completed exceptionally with a
+     *                     {@link DynamoSdkException} if it cannot be created.
+     */
+    public CompletableFuture<Void> createTableForEntity(Class<T> entityClass) {
+        log.info("Entering createTableForEntity(). Entity type = {}", entityClass);
+
+        CompletableFuture<Void> tableCreation;
+        try {
+            String tableName = DynamoDbEntityMetadata.retrieveTableName(entityClass);
+            DynamoDbAsyncTable<T> entityTable = buildDynamoDbAsyncTable(entityClass);
+            TableCapacity tableCapacity =
+                    DynamoDbTableDefinitions.resolveTableCapacity(entityClass, tableName, dynamoDbTableProperties);
+            log.info("Creating table {} with billing mode = {}, read capacity units = {}, write capacity units = {}",
+                    tableName, tableCapacity.getBillingMode(), tableCapacity.getReadCapacityUnits(),
+                    tableCapacity.getWriteCapacityUnits());
+
+            DynamoDbAsyncWaiter waiter = DynamoDbAsyncWaiter.builder().client(dynamoDbAsyncClient).build();
+            tableCreation = entityTable
+                    .createTable(DynamoDbTableDefinitions.buildCreateTableRequest(entityTable.tableSchema(),
+                            tableCapacity))
+                    .thenCompose(created -> waiter.waitUntilTableExists(builder -> builder.tableName(tableName)))
+                    .thenCompose(waiterResponse -> {
+                        waiterResponse.matched().response().orElseThrow(() -> new CompletionException(
+                                new DynamoSdkException(tableName + " table was not created.")));
+                        log.info(tableName + " was created.");
+                        return enableTimeToLive(tableName, tableCapacity.getTimeToLiveAttribute());
+                    }).handle((result, e) -> {
+                        waiter.close();
+                        if (e != null) {
+                            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                            log.error("Exception occured while creating DynamoDB table. E = {}", cause.getMessage());
+                            throw new CompletionException(cause instanceof DynamoSdkException ? cause
+                                    : new DynamoSdkException(cause.getMessage(), cause));
+                        }
+
+                        return result;
+                    });
+        } catch (DynamoSdkException e) {
+            tableCreation = CompletableFuture.failedFuture(e);
+        }
+
+        log.info("Leaving createTableForEntity()");
+        return tableCreation;
+    }
+
+    /**
+     * Creates an item.
+     * @param  entityClass the class of the item.
+     * @param  item        the item to create.
+     * @return             a future completed with the created item.
+     */
+    public CompletableFuture<T> createItem(Class<T> entityClass, T item) {
+        log.info("Entering createItem()");
+
+        CompletableFuture<T> createdItem;
+        try {
+            DynamoDbAsyncTable<T> entityTable = buildDynamoDbAsyncTable(entityClass);
+            createdItem = entityTable.putItem(item).thenApply(response -> {
+                dynamoDbItemCache.invalidate(entityClass, entityTable.keyFrom(item));
+                return item;
+            });
+        } catch (DynamoSdkException e) {
+            createdItem = CompletableFuture.failedFuture(e);
+        }
+
+        log.info("Leaving createItem()");
+        return createdItem;
+    }
+
+    /**
+     * Creates an item, failing if the request does not complete within the given
+     * timeout.
+     * @param  entityClass the class of the item.
+     * @param  item        the item to create.
+     * @param  timeout     the maximum time of the request.
+     * @return             a future completed with the created item.
+     * @see                #withTimeout(CompletableFuture, Duration)
+     */
+    public CompletableFuture<T> createItem(Class<T> entityClass, T item, Duration timeout) {
+        return withTimeout(createItem(entityClass, item), timeout);
+    }
+
+    /**
+     * Retrieves an item by its partition key.
+     * @param  entityClass     the class of the item.
+     * @param  partitionKeyVal the partition key value of the item.
+     * @return                 a future completed with the item, or an empty
+     *                         {@link Optional} if it does not exist.
+     */
+    public CompletableFuture<Optional<T>> retrieveItem(Class<T> entityClass, String partitionKeyVal) {
+        log.info("Entering retrieveItem(). Partition Key Value = {}", partitionKeyVal);
+
+        CompletableFuture<Optional<T>> item =
+                retrieveItem(entityClass, Key.builder().partitionValue(partitionKeyVal).build());
+
+        log.info("Leaving retrieveItem()");
+        return item;
+    }
+
+    /**
+     * Retrieves an item by its partition key, failing if the request does not
+     * complete within the given timeout.
+     * @param  entityClass     the class of the item.
+     * @param  partitionKeyVal the partition key value of the item.
+     * @param  timeout         the maximum time of the request.
+     * @return                 a future completed with the item, or an empty
+     *                         {@link Optional} if it does not exist.
+     * @see                    #withTimeout(CompletableFuture, Duration)
+     */
+    public CompletableFuture<Optional<T>> retrieveItem(Class<T> entityClass, String partitionKeyVal,
+            Duration timeout) {
+        return withTimeout(retrieveItem(entityClass, partitionKeyVal), timeout);
+    }
+
+    /**
+     * Retrieves an item by its partition and sort keys.
+     * @param  entityClass     the class of the item.
+     * @param  partitionKeyVal the partition key value of the item.
+     * @param  sortKeyVal      the sort key value of the item.
+     * @return                 a future completed with the item, or an empty
+     *                         {@link Optional} if it does not exist.
+     */
+    public CompletableFuture<Optional<T>> retrieveItem(Class<T> entityClass, String partitionKeyVal,
+            String sortKeyVal) {
+        log.info("Entering retrieveItem(). Partition Key Value = {}, Sort Key Value = {}", partitionKeyVal,
+                sortKeyVal);
+
+        CompletableFuture<Optional<T>> item = retrieveItem(entityClass,
+                Key.builder().partitionValue(partitionKeyVal).sortValue(sortKeyVal).build());
+
+        log.info("Leaving retrieveItem()");
+        return item;
+    }
+
+    /**
+     * Retrieves an item by its partition and sort keys, failing if the request
+     * does not complete within the given timeout.
+     * @param  entityClass     the class of the item.
+     * @param  partitionKeyVal the partition key value of the item.
+     * @param  sortKeyVal      the sort key value of the item.
+     * @param  timeout         the maximum time of the request.
+     * @return                 a future completed with the item, or an empty
+     *                         {@link Optional} if it does not exist.
+     * @see                    #withTimeout(CompletableFuture, Duration)
+     */
+    public CompletableFuture<Optional<T>> retrieveItem(Class<T> entityClass, String partitionKeyVal,
+            String sortKeyVal, Duration timeout) {
+        return withTimeout(retrieveItem(entityClass, partitionKeyVal, sortKeyVal), timeout);
+    }
+
+    /**
+     * Retrieves the items with the given keys, looking them up concurrently.
+     * @param  entityClass the class of the items.
+     * @param  keys        the keys of the items to retrieve.
+     * @return             a future completed with the items, in the order of the
+     *                     keys. Keys without a matching item are skipped.
+     */
+    public CompletableFuture<List<T>> retrieveItems(Class<T> entityClass, List<Key> keys) {
+        log.info("Entering retrieveItems(). Number of keys = {}", keys.size());
+
+        List<CompletableFuture<Optional<T>>> itemFutures =
+                keys.stream().map(key -> retrieveItem(entityClass, key)).toList();
+        CompletableFuture<List<T>> items = CompletableFuture.allOf(itemFutures.toArray(CompletableFuture[]::new))
+                .thenApply(completed -> itemFutures.stream().map(CompletableFuture::join).flatMap(Optional::stream)
+                        .toList());
+
+        log.info("Leaving retrieveItems()");
+        return items;
+    }
+
+    /**
+     * Retrieves the items with the given keys, failing if the lookups do not all
+     * complete within the given timeout.
+     * @param  entityClass the class of the items.
+     * @param  keys        the keys of the items to retrieve.
+     * @param  timeout     the maximum time of the lookups.
+     * @return             a future completed with the items, in the order of the
+     *                     keys. Keys without a matching item are skipped.
+     * @see                #withTimeout(CompletableFuture, Duration)
+     */
+    public CompletableFuture<List<T>> retrieveItems(Class<T> entityClass, List<Key> keys, Duration timeout) {
+        return withTimeout(retrieveItems(entityClass, keys), timeout);
+    }
+
+    /**
+     * Deletes an item by its partition and sort keys.
+     * @param  entityClass     the class of the item.
+     * @param  partitionKeyVal the partition key value of the item.
+     * @param  sortKeyVal      the sort key value of the item.
+     * @return                 a future completed with the deleted item, or
+     *                         completed exceptionally with a
+     *                         {@link DynamoSdkException} if the item does not
+     *                         exist.
+     */
+    public CompletableFuture<T> deleteItem(Class<T> entityClass, String partitionKeyVal, String sortKeyVal) {
+        log.info("Entering deleteItem(). Partition Key Value = {}, Sort Key Value = {}", partitionKeyVal, sortKeyVal);
+
+        Key key = Key.builder().partitionValue(partitionKeyVal).sortValue(sortKeyVal).build();
+        CompletableFuture<T> deletedItem;
+        try {
+            deletedItem = buildDynamoDbAsyncTable(entityClass).deleteItem(key).thenApply(item -> {
+                dynamoDbItemCache.invalidate(entityClass, key);
+                if (item == null) {
+                    log.error("Could not delete the item with ID = {}. Item may not exist in the table.",
+                            partitionKeyVal);
+                    throw new CompletionException(
+                            new DynamoSdkException("Could not delete item with ID " + partitionKeyVal));
+                }
+
+                return item;
+            });
+        } catch (DynamoSdkException e) {
+            deletedItem = CompletableFuture.failedFuture(e);
+        }
+
+        log.info("Leaving deleteItem()");
+        return deletedItem;
+    }
+
+    /**
+     * Deletes an item by its partition and sort keys, failing if the request does
+     * not complete within the given timeout.
+     * @param  entityClass     the class of the item.
+     * @param  partitionKeyVal the partition key value of the item.
+     * @param  sortKeyVal      the sort key value of the item.
+     * @param  timeout         the maximum time of the request.
+     * @return                 a future completed with the deleted item.
+     * @see                    #withTimeout(CompletableFuture, Duration)
+     */
+    public CompletableFuture<T> deleteItem(Class<T> entityClass, String partitionKeyVal, String sortKeyVal,
+            Duration timeout) {
+        return withTimeout(deleteItem(entityClass, partitionKeyVal, sortKeyVal), timeout);
+    }
+
+    /**
+     * Queries a page of items of the table, or of one of its secondary indexes.
+     * @param  entityClass       the class of the items.
+     * @param  queryConditional  the key condition of the query.
+     * @param  indexName         the name of the global or local secondary index to
+     *                           query, or {@code null} to query the table.
+     * @param  limit             the maximum number of items evaluated, or
+     *                           {@code null} for no limit.
+     * @param  exclusiveStartKey the {@link Page#lastEvaluatedKey()} of the
+     *                           previous page, or {@code null} for the first page.
+     * @return                   a future completed with the page of items.
+     */
+    public CompletableFuture<Page<T>> query(Class<T> entityClass, QueryConditional queryConditional,
+            String indexName, Integer limit, Map<String, AttributeValue> exclusiveStartKey) {
+        log.info("Entering query(). Index = {}, Limit = {}", indexName, limit);
+
+        QueryEnhancedRequest queryRequest = QueryEnhancedRequest.builder().queryConditional(queryConditional)
+                .limit(limit).exclusiveStartKey(exclusiveStartKey).build();
+        CompletableFuture<Page<T>> page;
+        try {
+            DynamoDbAsyncTable<T> entityTable = buildDynamoDbAsyncTable(entityClass);
+            SdkPublisher<Page<T>> pages = indexName == null ? entityTable.query(queryRequest)
+                    : entityTable.index(indexName).query(queryRequest);
+            AtomicReference<Page<T>> firstPage = new AtomicReference<>();
+            page = pages.limit(1).subscribe(firstPage::set).thenApply(completed -> firstPage.get());
+        } catch (DynamoSdkException e) {
+            page = CompletableFuture.failedFuture(e);
+        }
+
+        log.info("Leaving query()");
+        return page;
+    }
+
+    /**
+     * Queries a page of items of the table, or of one of its secondary indexes,
+     * failing if the query does not complete within the given timeout.
+     * @param  entityClass       the class of the items.
+     * @param  queryConditional  the key condition of the query.
+     * @param  indexName         the name of the global or local secondary index to
+     *                           query, or {@code null} to query the table.
+     * @param  limit             the maximum number of items evaluated, or
+     *                           {@code null} for no limit.
+     * @param  exclusiveStartKey the {@link Page#lastEvaluatedKey()} of the
+     *                           previous page, or {@code null} for the first page.
+     * @param  timeout           the maximum time of the query.
+     * @return                   a future completed with the page of items.
+     * @see                      #withTimeout(CompletableFuture, Duration)
+     */
+    public CompletableFuture<Page<T>> query(Class<T> entityClass, QueryConditional queryConditional,
+            String indexName, Integer limit, Map<String, AttributeValue> exclusiveStartKey, Duration timeout) {
+        return withTimeout(query(entityClass, queryConditional, indexName, limit, exclusiveStartKey), timeout);
+    }
+
+    /**
+     * Retrieves an item by its key, from the item cache when cached. The read item
+     * is cached only if it was not written while being read.
+     */
+    private CompletableFuture<Optional<T>> retrieveItem(Class<T> entityClass, Key key) {
+        Optional<T> cachedItem = dynamoDbItemCache.get(entityClass, key);
+        if (cachedItem.isPresent()) {
+            log.info("Item retrieved from cache");
+            return CompletableFuture.completedFuture(cachedItem);
+        }
+
+        try {
+            long readGeneration = dynamoDbItemCache.currentGeneration();
+            return buildDynamoDbAsyncTable(entityClass).getItem(key).thenApply(item -> {
+                dynamoDbItemCache.putIfUnchanged(entityClass, item, readGeneration);
+                return Optional.ofNullable(item);
+            });
+        } catch (DynamoSdkException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+    }
+
+    /**
+     * Enables Time to Live on an attribute of a table, unless the attribute name
+     * is empty.
+     */
+    private CompletableFuture<Void> enableTimeToLive(String tableName, String timeToLiveAttribute) {
+        if (timeToLiveAttribute.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        log.info("Enabling Time to Live on attribute {} of table {}", timeToLiveAttribute, tableName);
+        return dynamoDbAsyncClient.updateTimeToLive(builder -> builder.tableName(tableName)
+                .timeToLiveSpecification(spec -> spec.attributeName(timeToLiveAttribute).enabled(true)))
+                .thenApply(response -> null);
+    }
+
+    /**
+     * Bounds the time of a request below the {@code api-call-timeout} of the
+     * client. The enhanced requests of the SDK do not carry a request override
+     * configuration, so the returned future is completed exceptionally with a
+     * {@link DynamoSdkException} once the timeout elapses, and the result of the
+     * request, still bounded by the timeouts of the client, is discarded.
+     */
+    private static <V> CompletableFuture<V> withTimeout(CompletableFuture<V> future, Duration timeout) {
+        return future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).handle((value, e) -> {
+            if (e instanceof TimeoutException) {
+                log.error("Request did not complete within {}", timeout);
+                throw new CompletionException(new DynamoSdkException("Request did not complete within " + timeout, e));
+            }
+
+            if (e != null) {
+                throw e instanceof CompletionException completionException ? completionException
+                        : new CompletionException(e);
+            }
+
+            return value;
+        });
+    }
+
+    /**
+     * Retrieves the table of an entity, built once per entity class.
+     */
+    @SuppressWarnings("unchecked")
+    private DynamoDbAsyncTable<T> buildDynamoDbAsyncTable(Class<T> entityClass) throws DynamoSdkException {
+        DynamoDbAsyncTable<T> entityTable = (DynamoDbAsyncTable<T>) dynamoDbAsyncTables.get(entityClass);
+        if (entityTable == null) {
+            entityTable = dynamoDbEnhancedAsyncClient.table(DynamoDbEntityMetadata.retrieveTableName(entityClass),
+                    DynamoDbEntityMetadata.retrieveTableSchema(entityClass));
+            dynamoDbAsyncTables.putIfAbsent(entityClass, entityTable);
+        }
+
+        return entityTable;
+    }
+}
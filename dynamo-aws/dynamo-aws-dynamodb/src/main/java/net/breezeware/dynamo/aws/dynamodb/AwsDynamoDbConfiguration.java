@@ -1,38 +1,139 @@
 package net.breezeware.dynamo.aws.dynamodb;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
 
 @Component
 public class AwsDynamoDbConfiguration {
 
-    Region region = Region.US_EAST_1;
-
     /**
-     * Creates an Amazon S3 client from the AWS credentials.
-     * @return AmazonS3 Returns an Amazon S3 client.
+     * Creates a DynamoDB client from the AWS credentials, backed by an Apache
+     * HTTP client with a bounded connection pool. Its API calls are bounded by
+     * the same timeouts as those of the asynchronous client.
+     * @param  dynamoDbClientProperties DynamoDB client properties.
+     * @return                          Returns a DynamoDB client.
      */
     @Bean(name = "dynamoDbClient")
-    public DynamoDbClient buildDynamoDbClient() {
-        DynamoDbClient ddb = DynamoDbClient.builder().region(region)
-                .credentialsProvider(EnvironmentVariableCredentialsProvider.create()).build();
+    public DynamoDbClient buildDynamoDbClient(DynamoDbClientProperties dynamoDbClientProperties) {
+        SdkHttpClient httpClient = ApacheHttpClient.builder()
+                .maxConnections(dynamoDbClientProperties.getMaxConcurrency())
+                .connectionAcquisitionTimeout(dynamoDbClientProperties.getConnectionAcquisitionTimeout()).build();
+
+        DynamoDbClientBuilder ddbBuilder = DynamoDbClient.builder()
+                .region(Region.of(dynamoDbClientProperties.getRegion()))
+                .credentialsProvider(EnvironmentVariableCredentialsProvider.create()).httpClient(httpClient)
+                .overrideConfiguration(buildClientOverrideConfiguration(dynamoDbClientProperties));
+        if (dynamoDbClientProperties.getEndpointOverride() != null) {
+            ddbBuilder.endpointOverride(dynamoDbClientProperties.getEndpointOverride());
+        }
+
+        DynamoDbClient ddb = ddbBuilder.build();
 
         return ddb;
     }
 
     /**
-     * Creates an Amazon S3 client from the AWS credentials.
-     * @return AmazonS3 Returns an Amazon S3 client.
+     * Creates a DynamoDB enhanced client from the DynamoDB client.
+     * @param  ddb DynamoDB client.
+     * @return     Returns a DynamoDB enhanced client.
      */
     @Bean(name = "dynamoDbEnhancedClient")
     public DynamoDbEnhancedClient buildDynamoDbEnhancedClient(@Autowired DynamoDbClient ddb) {
         DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder().dynamoDbClient(ddb).build();
         return enhancedClient;
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates an asynchronous DynamoDB client from the AWS credentials, backed by
+     * a Netty HTTP client with a bounded connection pool. Created on first use,
+     * so that applications using only the synchronous client do not start the
+     * Netty event loop.
+     * @param  dynamoDbClientProperties DynamoDB client properties.
+     * @return                          Returns an asynchronous DynamoDB client.
+     */
+    @Bean(name = "dynamoDbAsyncClient")
+    @Lazy
+    public DynamoDbAsyncClient buildDynamoDbAsyncClient(DynamoDbClientProperties dynamoDbClientProperties) {
+        SdkAsyncHttpClient httpClient = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(dynamoDbClientProperties.getMaxConcurrency())
+                .maxPendingConnectionAcquires(dynamoDbClientProperties.getMaxPendingConnectionAcquires())
+                .connectionAcquisitionTimeout(dynamoDbClientProperties.getConnectionAcquisitionTimeout()).build();
+
+        DynamoDbAsyncClientBuilder ddbBuilder = DynamoDbAsyncClient.builder()
+                .region(Region.of(dynamoDbClientProperties.getRegion()))
+                .credentialsProvider(EnvironmentVariableCredentialsProvider.create()).httpClient(httpClient)
+                .overrideConfiguration(buildClientOverrideConfiguration(dynamoDbClientProperties));
+        if (dynamoDbClientProperties.getEndpointOverride() != null) {
+            ddbBuilder.endpointOverride(dynamoDbClientProperties.getEndpointOverride());
+        }
+
+        DynamoDbAsyncClient ddb = ddbBuilder.build();
+
+        return ddb;
+    }
+
+    /**
+     * Creates an asynchronous DynamoDB enhanced client from the asynchronous
+     * DynamoDB client, created on first use.
+     * @param  ddb asynchronous DynamoDB client.
+     * @return     Returns an asynchronous DynamoDB enhanced client.
+     */
+    @Bean(name = "dynamoDbEnhancedAsyncClient")
+    @Lazy
+    public DynamoDbEnhancedAsyncClient buildDynamoDbEnhancedAsyncClient(@Autowired DynamoDbAsyncClient ddb) {
+        DynamoDbEnhancedAsyncClient enhancedClient = DynamoDbEnhancedAsyncClient.builder().dynamoDbClient(ddb).build();
+        return enhancedClient;
+    }
+
+    /**
+     * Creates the executor scanning the segments of parallel scans, shared by all
+     * the scans and bounded to the configured maximum parallelism.
+     * @param  dynamoDbScanProperties parallel scan properties.
+     * @return                        Returns the parallel scan executor.
+     */
+    @Bean(name = "dynamoDbScanExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService buildDynamoDbScanExecutor(DynamoDbScanProperties dynamoDbScanProperties) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "dynamo-dynamodb-scan-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        return new ThreadPoolExecutor(dynamoDbScanProperties.getMaxParallelism(),
+                dynamoDbScanProperties.getMaxParallelism(), 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                threadFactory);
+    }
+
+    /**
+     * Builds the timeouts of the API calls shared by the DynamoDB clients.
+     */
+    private ClientOverrideConfiguration buildClientOverrideConfiguration(
+            DynamoDbClientProperties dynamoDbClientProperties) {
+        return ClientOverrideConfiguration.builder().apiCallTimeout(dynamoDbClientProperties.getApiCallTimeout())
+                .apiCallAttemptTimeout(dynamoDbClientProperties.getApiCallAttemptTimeout()).build();
+    }
+}
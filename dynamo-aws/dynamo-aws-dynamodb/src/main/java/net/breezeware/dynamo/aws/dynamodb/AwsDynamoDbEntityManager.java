@@ -1,43 +1,145 @@
 package net.breezeware.dynamo.aws.dynamodb;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import net.breezeware.dynamo.aws.dynamodb.DynamoDbTableProperties.TableCapacity;
 import net.breezeware.dynamo.utils.exception.DynamoSdkException;
 
 import lombok.extern.slf4j.Slf4j;
 
 import software.amazon.awssdk.core.internal.waiters.ResponseOrException;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.MappedTableResource;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetResultPage;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
 import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.UpdateItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
 import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 import software.amazon.awssdk.services.dynamodb.waiters.DynamoDbWaiter;
 
 @Service
 @Slf4j
 public class AwsDynamoDbEntityManager<T extends DynamoDbEntity> {
 
+    /**
+     * Maximum number of items of a single BatchWriteItem request.
+     */
+    private static final int MAX_BATCH_WRITE_ITEMS = 25;
+
+    /**
+     * Maximum number of items of a single BatchGetItem request.
+     */
+    private static final int MAX_BATCH_GET_ITEMS = 100;
+
+    /**
+     * Maximum number of items of a single TransactWriteItems request.
+     */
+    private static final int MAX_TRANSACT_WRITE_ITEMS = 100;
+
+    /**
+     * Maximum number of attempts of a batch request with unprocessed items.
+     */
+    private static final int MAX_BATCH_ATTEMPTS = 8;
+
+    /**
+     * Maximum number of segments of a parallel scan.
+     */
+    private static final int MAX_SCAN_SEGMENTS = 1_000_000;
+
+    private static final long BASE_BACKOFF_MILLIS = 50L;
+
+    private static final long MAX_BACKOFF_MILLIS = 5_000L;
+
     @Autowired
     DynamoDbEnhancedClient dynamoDbEnhancedClient;
 
+    @Autowired
+    DynamoDbClient dynamoDbClient;
+
+    @Autowired
+    DynamoDbTableProperties dynamoDbTableProperties;
+
+    @Autowired
+    DynamoDbItemCache dynamoDbItemCache;
+
+    @Autowired
+    DynamoDbScanProperties dynamoDbScanProperties;
+
+    @Autowired
+    @Qualifier("dynamoDbScanExecutor")
+    ExecutorService dynamoDbScanExecutor;
+
+    /**
+     * Tables of the entities, keyed by entity class.
+     */
+    private final Map<Class<?>, DynamoDbTable<?>> dynamoDbTables = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the table of an entity and waits until it is active. The billing
+     * mode, throughput of the table and of its global secondary indexes, and the
+     * Time to Live attribute are resolved from {@link DynamoDbTableProperties}
+     * and the {@link DynamoDbTableCapacity} annotation of the entity. Secondary
+     * indexes are created from the index annotations of the entity, projecting
+     * all attributes.
+     * @param  entityClass         the class of the entity.
+     * @throws DynamoSdkException if the table cannot be created.
+     */
     public void createTableForEntity(Class<T> entityClass) throws DynamoSdkException {
         log.info("Entering createTableForEntity(). Entity type = {}", entityClass);
 
         String tableName = getTableName(entityClass);
         DynamoDbTable<T> entityTable = buildDynamoDbTable(entityClass, tableName);
+        TableCapacity tableCapacity =
+                DynamoDbTableDefinitions.resolveTableCapacity(entityClass, tableName, dynamoDbTableProperties);
+        log.info("Creating table {} with billing mode = {}, read capacity units = {}, write capacity units = {}",
+                tableName, tableCapacity.getBillingMode(), tableCapacity.getReadCapacityUnits(),
+                tableCapacity.getWriteCapacityUnits());
 
         try {
-            entityTable.createTable(builder -> builder
-                    .provisionedThroughput(b -> b.readCapacityUnits(10L).writeCapacityUnits(10L).build()));
+            entityTable.createTable(
+                    DynamoDbTableDefinitions.buildCreateTableRequest(entityTable.tableSchema(), tableCapacity));
         } catch (Exception e) {
             log.error("Exception occured while creating DynamoDB table.");
             throw new DynamoSdkException(e.getMessage(), e);
@@ -45,16 +147,29 @@ public class AwsDynamoDbEntityManager<T extends DynamoDbEntity> {
 
         log.info("Waiting for table creation...");
 
-        try (DynamoDbWaiter waiter = DynamoDbWaiter.create()) { // DynamoDbWaiter is Autocloseable
+        try (DynamoDbWaiter waiter = DynamoDbWaiter.builder().client(dynamoDbClient).build()) {
             ResponseOrException<DescribeTableResponse> response =
                     waiter.waitUntilTableExists(builder -> builder.tableName(tableName).build()).matched();
-            DescribeTableResponse tableDescription =
-                    response.response().orElseThrow(() -> new RuntimeException(tableName + " table was not created."));
+            DescribeTableResponse tableDescription = response.response()
+                    .orElseThrow(() -> new DynamoSdkException(tableName + " table was not created."));
 
             // The actual error can be inspected in response.exception()
             log.info(tableDescription.table().tableName() + " was created.");
         }
 
+        String timeToLiveAttribute = tableCapacity.getTimeToLiveAttribute();
+        if (!timeToLiveAttribute.isEmpty()) {
+            log.info("Enabling Time to Live on attribute {} of table {}", timeToLiveAttribute, tableName);
+            try {
+                dynamoDbClient.updateTimeToLive(builder -> builder.tableName(tableName)
+                        .timeToLiveSpecification(spec -> spec.attributeName(timeToLiveAttribute).enabled(true)));
+            } catch (Exception e) {
+                log.error("Exception occured while enabling Time to Live. E = {}", e.getMessage());
+                throw new DynamoSdkException(e.getMessage(), e);
+            }
+
+        }
+
         log.info("Leaving createTableForEntity()");
     }
 
@@ -81,17 +196,163 @@ public class AwsDynamoDbEntityManager<T extends DynamoDbEntity> {
 
         }
 
+        dynamoDbItemCache.invalidate(entityClass, entityTable.keyFrom(item));
+
         log.info("Leaving createItem(). Item created in table successfully.");
         return item;
     }
 
-    public List<T> createMultipleItems(Class<T> entityClass, List<T> items) {
-        log.info("Entering createMultipleItems()");
+    /**
+     * Creates the items in batches of {@value #MAX_BATCH_WRITE_ITEMS} using
+     * BatchWriteItem. Items left unprocessed by DynamoDB are retried with
+     * exponential backoff.
+     * @param  entityClass         the class of the items.
+     * @param  items               the items to create.
+     * @return                     the created items.
+     * @throws DynamoSdkException if an item is still unprocessed after all the
+     *                             retries or the batch write fails.
+     */
+    public List<T> createMultipleItems(Class<T> entityClass, List<T> items) throws DynamoSdkException {
+        log.info("Entering createMultipleItems(). Number of items = {}", items.size());
+
+        DynamoDbTable<T> entityTable = buildDynamoDbTable(entityClass, getTableName(entityClass));
+        for (List<T> chunk : partition(items, MAX_BATCH_WRITE_ITEMS)) {
+            writeBatch(entityClass, entityTable, chunk, List.of());
+        }
 
         log.info("Leaving createMultipleItems()");
         return items;
     }
 
+    /**
+     * Deletes the items with the given keys in batches of
+     * {@value #MAX_BATCH_WRITE_ITEMS} using BatchWriteItem. Keys left unprocessed
+     * by DynamoDB are retried with exponential backoff.
+     * @param  entityClass         the class of the items.
+     * @param  keys                the keys of the items to delete.
+     * @throws DynamoSdkException if a key is still unprocessed after all the
+     *                             retries or the batch write fails.
+     */
+    public void deleteMultipleItems(Class<T> entityClass, List<Key> keys) throws DynamoSdkException {
+        log.info("Entering deleteMultipleItems(). Number of keys = {}", keys.size());
+
+        DynamoDbTable<T> entityTable = buildDynamoDbTable(entityClass, getTableName(entityClass));
+        for (List<Key> chunk : partition(keys, MAX_BATCH_WRITE_ITEMS)) {
+            writeBatch(entityClass, entityTable, List.of(), chunk);
+        }
+
+        log.info("Leaving deleteMultipleItems()");
+    }
+
+    /**
+     * Retrieves the items with the given keys in batches of
+     * {@value #MAX_BATCH_GET_ITEMS} using BatchGetItem. Keys left unprocessed by
+     * DynamoDB are retried with exponential backoff. Keys without a matching item
+     * are skipped.
+     * @param  entityClass         the class of the items.
+     * @param  keys                the keys of the items to retrieve.
+     * @return                     the retrieved items, in no particular order.
+     * @throws DynamoSdkException if a key is still unprocessed after all the
+     *                             retries or the batch get fails.
+     */
+    public List<T> retrieveMultipleItems(Class<T> entityClass, List<Key> keys) throws DynamoSdkException {
+        log.info("Entering retrieveMultipleItems(). Number of keys = {}", keys.size());
+
+        DynamoDbTable<T> entityTable = buildDynamoDbTable(entityClass, getTableName(entityClass));
+        List<T> items = new ArrayList<>(keys.size());
+        for (List<Key> chunk : partition(keys, MAX_BATCH_GET_ITEMS)) {
+            List<Key> pendingKeys = chunk;
+            for (int attempt = 1; !pendingKeys.isEmpty(); attempt++) {
+                if (attempt > 1) {
+                    backoff(attempt, pendingKeys.size());
+                }
+
+                long readGeneration = dynamoDbItemCache.currentGeneration();
+                ReadBatch.Builder<T> readBatch = ReadBatch.builder(entityClass).mappedTableResource(entityTable);
+                pendingKeys.forEach(readBatch::addGetItem);
+                BatchGetItemEnhancedRequest request =
+                        BatchGetItemEnhancedRequest.builder().readBatches(readBatch.build()).build();
+
+                // Only the first page is read, unprocessed keys are retried with backoff below.
+                BatchGetResultPage resultPage;
+                try {
+                    resultPage = dynamoDbEnhancedClient.batchGetItem(request).iterator().next();
+                } catch (Exception e) {
+                    log.error("Exception occured while retrieving items in batch. E = {}", e.getMessage());
+                    throw new DynamoSdkException(e.getMessage(), e);
+                }
+
+                List<T> retrievedItems = resultPage.resultsForTable(entityTable);
+                retrievedItems.forEach(item -> dynamoDbItemCache.putIfUnchanged(entityClass, item, readGeneration));
+                items.addAll(retrievedItems);
+                pendingKeys = resultPage.unprocessedKeysForTable(entityTable);
+                if (!pendingKeys.isEmpty() && attempt == MAX_BATCH_ATTEMPTS) {
+                    log.error("{} keys were not processed after {} attempts", pendingKeys.size(), attempt);
+                    throw new DynamoSdkException(
+                            "Could not retrieve %d items after %d attempts".formatted(pendingKeys.size(), attempt));
+                }
+
+            }
+
+        }
+
+        log.info("Leaving retrieveMultipleItems(). Number of items = {}", items.size());
+        return items;
+    }
+
+    /**
+     * Creates the items atomically using TransactWriteItems. Either all or none of
+     * the items are created.
+     * @param  entityClass         the class of the items.
+     * @param  items               the items to create, at most
+     *                             {@value #MAX_TRANSACT_WRITE_ITEMS}.
+     * @return                     the created items.
+     * @throws DynamoSdkException if there are too many items or the transaction
+     *                             is cancelled.
+     */
+    public List<T> createItemsInTransaction(Class<T> entityClass, List<T> items) throws DynamoSdkException {
+        log.info("Entering createItemsInTransaction(). Number of items = {}", items.size());
+
+        DynamoDbTable<T> entityTable = buildDynamoDbTable(entityClass, getTableName(entityClass));
+        TransactWriteItemsEnhancedRequest.Builder requestBuilder = TransactWriteItemsEnhancedRequest.builder();
+        items.forEach(item -> requestBuilder.addPutItem(entityTable, item));
+        writeTransaction(requestBuilder.build(), items.size());
+        items.forEach(item -> dynamoDbItemCache.invalidate(entityClass, entityTable.keyFrom(item)));
+
+        log.info("Leaving createItemsInTransaction()");
+        return items;
+    }
+
+    /**
+     * Executes a TransactWriteItems request, which may put, update, delete and
+     * condition check items of several entities atomically. The tables of the
+     * entities are obtained from {@link #retrieveTableResource(Class)}.
+     * @param  transactWriteItemsRequest the transaction to write.
+     * @throws DynamoSdkException       if the transaction is cancelled or fails.
+     */
+    public void transactWriteItems(TransactWriteItemsEnhancedRequest transactWriteItemsRequest)
+            throws DynamoSdkException {
+        log.info("Entering transactWriteItems()");
+        writeTransaction(transactWriteItemsRequest, 0);
+        // The items written by the transaction are not known, so no cached item can be trusted.
+        dynamoDbItemCache.invalidateAll();
+        log.info("Leaving transactWriteItems()");
+    }
+
+    /**
+     * Retrieves the table of an entity, to be used when building batch or
+     * transactional requests spanning several entities.
+     * @param  <E>                 the type of the entity.
+     * @param  entityClass         the class of the entity.
+     * @return                     the table of the entity.
+     * @throws DynamoSdkException if the table name of the entity cannot be
+     *                             resolved.
+     */
+    public <E extends DynamoDbEntity> MappedTableResource<E> retrieveTableResource(Class<E> entityClass)
+            throws DynamoSdkException {
+        return buildDynamoDbTable(entityClass, getTableName(entityClass));
+    }
+
     public Optional<T> retrieveItem(Class<T> entityClass, String partitionKeyVal) throws DynamoSdkException {
         log.info("Entering retrieveItem(). Partition Key Value = {}", partitionKeyVal);
 
@@ -100,7 +361,7 @@ public class AwsDynamoDbEntityManager<T extends DynamoDbEntity> {
         Key key = Key.builder().partitionValue(partitionKeyVal).build();
 
         // Get the item by using the key.
-        T result = entityTable.getItem((GetItemEnhancedRequest.Builder requestBuilder) -> requestBuilder.key(key));
+        T result = retrieveItem(entityClass, entityTable, key);
 
         log.info("Leaving retrieveItem()");
 
@@ -121,7 +382,7 @@ public class AwsDynamoDbEntityManager<T extends DynamoDbEntity> {
         Key key = Key.builder().partitionValue(partitionKeyVal).sortValue(sortKeyVal).build();
 
         // Get the item by using the key.
-        T result = entityTable.getItem((GetItemEnhancedRequest.Builder requestBuilder) -> requestBuilder.key(key));
+        T result = retrieveItem(entityClass, entityTable, key);
 
         log.info("Leaving retrieveItem()");
 
@@ -133,12 +394,342 @@ public class AwsDynamoDbEntityManager<T extends DynamoDbEntity> {
 
     }
 
+    /**
+     * Queries a page of items of the table, or of one of its secondary indexes.
+     * @param  entityClass         the class of the items.
+     * @param  queryConditional    the key condition of the query.
+     * @param  indexName           the name of the global or local secondary index
+     *                             to query, or {@code null} to query the table.
+     * @param  limit               the maximum number of items evaluated, or
+     *                             {@code null} for no limit.
+     * @param  exclusiveStartKey   the {@link Page#lastEvaluatedKey()} of the
+     *                             previous page, or {@code null} for the first
+     *                             page.
+     * @return                     the page of items.
+     * @throws DynamoSdkException if the query fails.
+     */
+    public Page<T> query(Class<T> entityClass, QueryConditional queryConditional, String indexName, Integer limit,
+            Map<String, AttributeValue> exclusiveStartKey) throws DynamoSdkException {
+        return query(entityClass, queryConditional, indexName, limit, exclusiveStartKey, List.of());
+    }
+
+    /**
+     * Queries a page of items of the table, or of one of its secondary indexes,
+     * retrieving only the given attributes.
+     * @param  entityClass         the class of the items.
+     * @param  queryConditional    the key condition of the query.
+     * @param  indexName           the name of the global or local secondary index
+     *                             to query, or {@code null} to query the table.
+     * @param  limit               the maximum number of items evaluated, or
+     *                             {@code null} for no limit.
+     * @param  exclusiveStartKey   the {@link Page#lastEvaluatedKey()} of the
+     *                             previous page, or {@code null} for the first
+     *                             page.
+     * @param  attributesToProject the attributes to retrieve, or an empty list to
+     *                             retrieve all the attributes.
+     * @return                     the page of items.
+     * @throws DynamoSdkException if the query fails.
+     */
+    public Page<T> query(Class<T> entityClass, QueryConditional queryConditional, String indexName, Integer limit,
+            Map<String, AttributeValue> exclusiveStartKey, List<String> attributesToProject)
+            throws DynamoSdkException {
+        log.info("Entering query(). Index = {}, Limit = {}, Attributes = {}", indexName, limit, attributesToProject);
+
+        QueryEnhancedRequest.Builder requestBuilder = QueryEnhancedRequest.builder()
+                .queryConditional(queryConditional).limit(limit).exclusiveStartKey(exclusiveStartKey);
+        if (!attributesToProject.isEmpty()) {
+            requestBuilder.attributesToProject(attributesToProject);
+        }
+
+        DynamoDbTable<T> entityTable = buildDynamoDbTable(entityClass, getTableName(entityClass));
+        Page<T> page;
+        try {
+            SdkIterable<Page<T>> pages = indexName == null ? entityTable.query(requestBuilder.build())
+                    : entityTable.index(indexName).query(requestBuilder.build());
+            page = pages.iterator().next();
+        } catch (Exception e) {
+            log.error("Exception occured while querying items. E = {}", e.getMessage());
+            throw new DynamoSdkException(e.getMessage(), e);
+        }
+
+        log.info("Leaving query(). Number of items = {}", page.items().size());
+        return page;
+    }
+
+    /**
+     * Scans the table, or one of its secondary indexes, lazily. Each page is
+     * retrieved only when the iteration reaches it, and errors occurring while
+     * retrieving a page are thrown as unchecked {@code SdkException}s.
+     * @param  entityClass         the class of the items.
+     * @param  indexName           the name of the global or local secondary index
+     *                             to scan, or {@code null} to scan the table.
+     * @param  pageSize            the maximum number of items evaluated per page,
+     *                             or {@code null} for the DynamoDB default.
+     * @param  attributesToProject the attributes to retrieve, or an empty list to
+     *                             retrieve all the attributes.
+     * @return                     the lazily retrieved pages of items.
+     * @throws DynamoSdkException if the table name of the entity cannot be
+     *                             resolved.
+     */
+    public SdkIterable<Page<T>> scan(Class<T> entityClass, String indexName, Integer pageSize,
+            List<String> attributesToProject) throws DynamoSdkException {
+        log.info("Entering scan(). Index = {}, Page size = {}, Attributes = {}", indexName, pageSize,
+                attributesToProject);
+
+        ScanEnhancedRequest scanRequest = buildScanRequest(pageSize, attributesToProject).build();
+        DynamoDbTable<T> entityTable = buildDynamoDbTable(entityClass, getTableName(entityClass));
+        SdkIterable<Page<T>> pages =
+                indexName == null ? entityTable.scan(scanRequest) : entityTable.index(indexName).scan(scanRequest);
+
+        log.info("Leaving scan()");
+        return pages;
+    }
+
+    /**
+     * Scans the table, or one of its secondary indexes, lazily as a stream of
+     * items.
+     * @param  entityClass         the class of the items.
+     * @param  indexName           the name of the global or local secondary index
+     *                             to scan, or {@code null} to scan the table.
+     * @param  attributesToProject the attributes to retrieve, or an empty list to
+     *                             retrieve all the attributes.
+     * @return                     the lazily retrieved items.
+     * @throws DynamoSdkException if the table name of the entity cannot be
+     *                             resolved.
+     * @see                        #scan(Class, String, Integer, List)
+     */
+    public Stream<T> scanItems(Class<T> entityClass, String indexName, List<String> attributesToProject)
+            throws DynamoSdkException {
+        return scan(entityClass, indexName, null, attributesToProject).stream()
+                .flatMap(page -> page.items().stream());
+    }
+
+    /**
+     * Scans the whole table as parallel segments. Intended for full-table jobs,
+     * where a sequential scan is bound by the latency of a single stream of
+     * requests. The segments are scanned on a shared executor of
+     * {@code dynamo.aws.dynamodb.scan.max-parallelism} threads.
+     * @param  entityClass         the class of the items.
+     * @param  totalSegments       the number of segments, at most
+     *                             {@value #MAX_SCAN_SEGMENTS}.
+     * @param  attributesToProject the attributes to retrieve, or an empty list to
+     *                             retrieve all the attributes.
+     * @param  itemConsumer        the consumer of the scanned items, called
+     *                             concurrently from the segment threads.
+     * @throws DynamoSdkException if the scan of a segment fails.
+     */
+    public void parallelScan(Class<T> entityClass, int totalSegments, List<String> attributesToProject,
+            Consumer<T> itemConsumer) throws DynamoSdkException {
+        log.info("Entering parallelScan(). Total segments = {}, Attributes = {}", totalSegments, attributesToProject);
+
+        if (totalSegments < 1 || totalSegments > MAX_SCAN_SEGMENTS) {
+            throw new DynamoSdkException("Total segments must be between 1 and %d, but was %d"
+                    .formatted(MAX_SCAN_SEGMENTS, totalSegments));
+        }
+
+        DynamoDbTable<T> entityTable = buildDynamoDbTable(entityClass, getTableName(entityClass));
+        // each task scans segments until none is left, so a scan queues at most max-parallelism tasks
+        int taskCount = Math.min(totalSegments, dynamoDbScanProperties.getMaxParallelism());
+        AtomicInteger nextSegment = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<?>> segmentFutures = new ArrayList<>(taskCount);
+        try {
+            for (int task = 0; task < taskCount; task++) {
+                segmentFutures.add(dynamoDbScanExecutor.submit(() -> {
+                    int segment;
+                    while (!failed.get() && (segment = nextSegment.getAndIncrement()) < totalSegments) {
+                        ScanEnhancedRequest scanRequest = buildScanRequest(null, attributesToProject)
+                                .segment(segment).totalSegments(totalSegments).build();
+                        try {
+                            entityTable.scan(scanRequest).items().forEach(itemConsumer);
+                        } catch (RuntimeException e) {
+                            failed.set(true);
+                            throw e;
+                        }
+
+                    }
+
+                }));
+            }
+
+            for (Future<?> segmentFuture : segmentFutures) {
+                segmentFuture.get();
+            }
+
+        } catch (ExecutionException e) {
+            log.error("Exception occured while scanning a segment. E = {}", e.getCause().getMessage());
+            throw new DynamoSdkException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DynamoSdkException("Interrupted while scanning segments", e);
+        } finally {
+            failed.set(true);
+            segmentFutures.forEach(segmentFuture -> segmentFuture.cancel(true));
+        }
+
+        log.info("Leaving parallelScan()");
+    }
+
+    /**
+     * Updates the non-null attributes of an item, leaving its other attributes
+     * untouched. Every non-null attribute of the item is sent, whether it changed
+     * or not; use {@link #updateAttributes(Class, Key, Map, long)} to send only
+     * the changed attributes. When the entity has a
+     * {@code @DynamoDbVersionAttribute}, the update only succeeds if the stored
+     * version matches the version of the item, and the version is incremented.
+     * @param  entityClass         the class of the item.
+     * @param  item                the item holding the attributes to update.
+     * @return                     the item with all its attributes after the
+     *                             update.
+     * @throws DynamoSdkException if the item was modified concurrently or the
+     *                             update fails.
+     */
+    public T updateItem(Class<T> entityClass, T item) throws DynamoSdkException {
+        log.info("Entering updateItem()");
+
+        DynamoDbTable<T> entityTable = buildDynamoDbTable(entityClass, getTableName(entityClass));
+        T updatedItem;
+        try {
+            updatedItem = entityTable
+                    .updateItem(UpdateItemEnhancedRequest.builder(entityClass).item(item).ignoreNulls(true).build());
+        } catch (ConditionalCheckFailedException e) {
+            log.error("Item was not updated, its version does not match the stored version");
+            throw new DynamoSdkException("Item was modified concurrently, its version does not match", e);
+        } catch (Exception e) {
+            log.error("Exception occured while updating item. E = {}", e.getMessage());
+            throw new DynamoSdkException(e.getMessage(), e);
+        }
+
+        dynamoDbItemCache.put(entityClass, updatedItem);
+
+        log.info("Leaving updateItem()");
+        return updatedItem;
+    }
+
+    /**
+     * Sets the given attributes of an item with a single update expression,
+     * without reading or sending the other attributes of the item. This is the
+     * partial update path, whereas {@link #updateItem(Class, DynamoDbEntity)}
+     * sends every non-null attribute of the item. When the entity has a
+     * {@code @DynamoDbVersionAttribute}, its version is incremented by the same
+     * expression, and a condition must be given so that concurrent updates are
+     * not lost; {@link #updateAttributes(Class, Key, Map, long)} conditions the
+     * update on the expected version.
+     * @param  entityClass         the class of the item.
+     * @param  key                 the key of the item.
+     * @param  attributesToSet     the values of the attributes to set, keyed by
+     *                             attribute name.
+     * @param  conditionExpression the condition the stored item must meet, e.g.
+     *                             on its version attribute, or {@code null} for
+     *                             an unconditional update of an entity without a
+     *                             version attribute.
+     * @return                     the item with all its attributes after the
+     *                             update.
+     * @throws DynamoSdkException if the entity is versioned and no condition is
+     *                             given, the attributes include the version
+     *                             attribute, the condition is not met or the
+     *                             update fails.
+     */
+    public T updateAttributes(Class<T> entityClass, Key key, Map<String, AttributeValue> attributesToSet,
+            Expression conditionExpression) throws DynamoSdkException {
+        log.info("Entering updateAttributes(). Attributes = {}", attributesToSet.keySet());
+
+        Optional<String> versionAttribute = DynamoDbEntityMetadata.retrieveVersionAttribute(entityClass);
+        if (versionAttribute.isPresent() && conditionExpression == null) {
+            log.error("No condition given to update the versioned entity {}", entityClass.getName());
+            throw new DynamoSdkException("Updating the attributes of a versioned entity requires a condition, "
+                    + "e.g. on its expected version");
+        }
+
+        if (versionAttribute.isPresent() && attributesToSet.containsKey(versionAttribute.get())) {
+            log.error("Version attribute {} cannot be set, it is incremented by the update", versionAttribute.get());
+            throw new DynamoSdkException("The version attribute " + versionAttribute.get() + " cannot be set");
+        }
+
+        Map<String, String> expressionNames = new HashMap<>();
+        Map<String, AttributeValue> expressionValues = new HashMap<>();
+        List<String> assignments = new ArrayList<>(attributesToSet.size() + 1);
+        for (Map.Entry<String, AttributeValue> attribute : attributesToSet.entrySet()) {
+            String placeholder = "upd" + assignments.size();
+            expressionNames.put("#" + placeholder, attribute.getKey());
+            expressionValues.put(":" + placeholder, attribute.getValue());
+            assignments.add("#" + placeholder + " = :" + placeholder);
+        }
+
+        versionAttribute.ifPresent(attributeName -> {
+            expressionNames.put("#updVersion", attributeName);
+            expressionValues.put(":updVersionIncrement", AttributeValue.fromN("1"));
+            assignments.add("#updVersion = #updVersion + :updVersionIncrement");
+        });
+
+        Map<String, AttributeValue> updatedAttributes = updateItem(entityClass, key,
+                "SET " + String.join(", ", assignments), expressionNames, expressionValues, conditionExpression,
+                ReturnValue.ALL_NEW);
+        T updatedItem = DynamoDbEntityMetadata.retrieveTableSchema(entityClass).mapToItem(updatedAttributes);
+        dynamoDbItemCache.put(entityClass, updatedItem);
+
+        log.info("Leaving updateAttributes()");
+        return updatedItem;
+    }
+
+    /**
+     * Sets the given attributes of a versioned item with a single update
+     * expression, provided its stored version is the expected version. The
+     * version is incremented by the same expression.
+     * @param  entityClass         the class of the item, with a
+     *                             {@code @DynamoDbVersionAttribute}.
+     * @param  key                 the key of the item.
+     * @param  attributesToSet     the values of the attributes to set, keyed by
+     *                             attribute name.
+     * @param  expectedVersion     the version the stored item must have.
+     * @return                     the item with all its attributes after the
+     *                             update.
+     * @throws DynamoSdkException if the entity is not versioned, the item was
+     *                             modified concurrently or the update fails.
+     * @see                        #updateAttributes(Class, Key, Map, Expression)
+     */
+    public T updateAttributes(Class<T> entityClass, Key key, Map<String, AttributeValue> attributesToSet,
+            long expectedVersion) throws DynamoSdkException {
+        String versionAttribute = DynamoDbEntityMetadata.retrieveVersionAttribute(entityClass)
+                .orElseThrow(() -> new DynamoSdkException(entityClass.getName() + " has no version attribute"));
+        Expression expectedVersionCondition = Expression.builder().expression("#expectedVersion = :expectedVersion")
+                .putExpressionName("#expectedVersion", versionAttribute)
+                .putExpressionValue(":expectedVersion", AttributeValue.fromN(Long.toString(expectedVersion))).build();
+        return updateAttributes(entityClass, key, attributesToSet, expectedVersionCondition);
+    }
+
+    /**
+     * Atomically adds a delta to a numeric attribute of an item with an
+     * {@code ADD} update expression, without a read-modify-write cycle. The
+     * attribute is created with the delta as value if it does not exist.
+     * @param  entityClass         the class of the item.
+     * @param  key                 the key of the item.
+     * @param  attributeName       the name of the numeric attribute.
+     * @param  delta               the value to add, negative to decrement.
+     * @return                     the value of the attribute after the update.
+     * @throws DynamoSdkException if the update fails.
+     */
+    public long incrementAttribute(Class<T> entityClass, Key key, String attributeName, long delta)
+            throws DynamoSdkException {
+        log.info("Entering incrementAttribute(). Attribute = {}, Delta = {}", attributeName, delta);
+
+        Map<String, AttributeValue> updatedAttributes = updateItem(entityClass, key, "ADD #counter :delta",
+                Map.of("#counter", attributeName), Map.of(":delta", AttributeValue.fromN(Long.toString(delta))), null,
+                ReturnValue.UPDATED_NEW);
+        long value = Long.parseLong(updatedAttributes.get(attributeName).n());
+        dynamoDbItemCache.invalidate(entityClass, key);
+
+        log.info("Leaving incrementAttribute(). Value = {}", value);
+        return value;
+    }
+
     public void deleteItem(Class<T> entityClass, String partitionKeyVal, String sortKeyVal) throws DynamoSdkException {
         log.info("Entering deleteItem(). Partition Key Value = {}, Sort Key Value = {}", partitionKeyVal, sortKeyVal);
 
         Key key = Key.builder().partitionValue(partitionKeyVal).sortValue(sortKeyVal).build();
         DynamoDbTable<T> entityTable = buildDynamoDbTable(entityClass, getTableName(entityClass));
         T deletedItem = entityTable.deleteItem(key);
+        dynamoDbItemCache.invalidate(entityClass, key);
         log.info("Leaving deleteItem()");
 
         if (deletedItem == null) {
@@ -148,38 +739,201 @@ public class AwsDynamoDbEntityManager<T extends DynamoDbEntity> {
 
     }
 
-    private String getTableName(Class<T> entityClass) throws DynamoSdkException {
+    /**
+     * Writes a chunk of items and keys with BatchWriteItem, retrying the
+     * unprocessed ones with exponential backoff. Cached items are invalidated
+     * once their put or delete is processed, so that a concurrent read cannot
+     * cache them again in their previous state.
+     */
+    private void writeBatch(Class<T> entityClass, DynamoDbTable<T> entityTable, List<T> itemsToPut,
+            List<Key> keysToDelete) throws DynamoSdkException {
+        List<T> pendingItems = itemsToPut;
+        List<Key> pendingKeys = keysToDelete;
+        for (int attempt = 1; !pendingItems.isEmpty() || !pendingKeys.isEmpty(); attempt++) {
+            if (attempt > 1) {
+                backoff(attempt, pendingItems.size() + pendingKeys.size());
+            }
+
+            WriteBatch.Builder<T> writeBatch = WriteBatch.builder(entityClass).mappedTableResource(entityTable);
+            pendingItems.forEach(writeBatch::addPutItem);
+            pendingKeys.forEach(writeBatch::addDeleteItem);
+            BatchWriteItemEnhancedRequest request =
+                    BatchWriteItemEnhancedRequest.builder().writeBatches(writeBatch.build()).build();
 
-        String tableName = "";
+            BatchWriteResult result;
+            try {
+                result = dynamoDbEnhancedClient.batchWriteItem(request);
+            } catch (Exception e) {
+                log.error("Exception occured while writing items in batch. E = {}", e.getMessage());
+                // the items may have been partially written
+                invalidateItems(entityClass, entityTable, pendingItems, pendingKeys, Set.of());
+                throw new DynamoSdkException(e.getMessage(), e);
+            }
+
+            List<T> unprocessedItems = result.unprocessedPutItemsForTable(entityTable);
+            List<Key> unprocessedKeys = result.unprocessedDeleteItemsForTable(entityTable);
+            Set<Key> unprocessed = new HashSet<>(unprocessedKeys);
+            unprocessedItems.forEach(item -> unprocessed.add(entityTable.keyFrom(item)));
+            invalidateItems(entityClass, entityTable, pendingItems, pendingKeys, unprocessed);
+
+            pendingItems = unprocessedItems;
+            pendingKeys = unprocessedKeys;
+            int pendingCount = pendingItems.size() + pendingKeys.size();
+            if (pendingCount > 0 && attempt == MAX_BATCH_ATTEMPTS) {
+                log.error("{} items were not processed after {} attempts", pendingCount, attempt);
+                throw new DynamoSdkException(
+                        "Could not write %d items after %d attempts".formatted(pendingCount, attempt));
+            }
+
+        }
+
+    }
+
+    /**
+     * Invalidates the cached items written by a batch, skipping the unprocessed
+     * ones.
+     */
+    private void invalidateItems(Class<T> entityClass, DynamoDbTable<T> entityTable, List<T> items,
+            List<Key> keys, Set<Key> unprocessed) {
+        Stream.concat(items.stream().map(entityTable::keyFrom), keys.stream())
+                .filter(key -> !unprocessed.contains(key))
+                .forEach(key -> dynamoDbItemCache.invalidate(entityClass, key));
+    }
+
+    /**
+     * Executes a TransactWriteItems request, surfacing the cancellation reasons
+     * when the transaction is cancelled.
+     */
+    private void writeTransaction(TransactWriteItemsEnhancedRequest transactWriteItemsRequest, int itemCount)
+            throws DynamoSdkException {
+        if (itemCount > MAX_TRANSACT_WRITE_ITEMS) {
+            log.error("Transaction has {} items, more than the maximum of {}", itemCount, MAX_TRANSACT_WRITE_ITEMS);
+            throw new DynamoSdkException("A transaction can contain at most %d items, but %d were given"
+                    .formatted(MAX_TRANSACT_WRITE_ITEMS, itemCount));
+        }
 
         try {
-            Method method = entityClass.getMethod("getDynamoDbEntityTableName");
-            tableName = (String) method.invoke(entityClass.getDeclaredConstructor(null).newInstance(null));
-            log.info("table name = {}", tableName);
-        } catch (NoSuchMethodException | SecurityException e1) {
-            e1.printStackTrace();
-            throw new DynamoSdkException("Error while getting table name corresponding to the entity", e1);
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
-            throw new DynamoSdkException("Error while getting table name corresponding to the entity", e);
-        } catch (IllegalArgumentException e) {
-            e.printStackTrace();
-            throw new DynamoSdkException("Error while getting table name corresponding to the entity", e);
-        } catch (InvocationTargetException e) {
-            e.printStackTrace();
-            throw new DynamoSdkException("Error while getting table name corresponding to the entity", e);
-        } catch (InstantiationException e) {
-            e.printStackTrace();
-            throw new DynamoSdkException("Error while getting table name corresponding to the entity", e);
-        }
-
-        return tableName;
-    }
-
-    private DynamoDbTable<T> buildDynamoDbTable(Class<T> entityClass, String tableName) {
-        DynamoDbTable<T> entityTable = dynamoDbEnhancedClient.table(tableName, TableSchema.fromBean(entityClass));
-
-        return entityTable;
+            dynamoDbEnhancedClient.transactWriteItems(transactWriteItemsRequest);
+        } catch (TransactionCanceledException e) {
+            String reasons = e.cancellationReasons().stream().map(CancellationReason::code)
+                    .collect(Collectors.joining(", "));
+            log.error("Transaction was cancelled. Cancellation reasons = [{}]", reasons);
+            throw new DynamoSdkException("Transaction was cancelled. Cancellation reasons = [" + reasons + "]", e);
+        } catch (Exception e) {
+            log.error("Exception occured while writing items in transaction. E = {}", e.getMessage());
+            throw new DynamoSdkException(e.getMessage(), e);
+        }
+
+    }
+
+    /**
+     * Sleeps before retrying unprocessed batch items, using exponential backoff
+     * with full jitter.
+     */
+    private void backoff(int attempt, int pendingCount) throws DynamoSdkException {
+        long maxDelayMillis = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt - 2, 16));
+        long delayMillis = ThreadLocalRandom.current().nextLong(maxDelayMillis + 1);
+        log.info("Retrying {} unprocessed items in {} ms, attempt {} of {}", pendingCount, delayMillis, attempt,
+                MAX_BATCH_ATTEMPTS);
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DynamoSdkException("Interrupted while retrying unprocessed items", e);
+        }
+
+    }
+
+    /**
+     * Retrieves an item by its key, from the item cache when cached. The read item
+     * is cached only if it was not written while being read.
+     */
+    private T retrieveItem(Class<T> entityClass, DynamoDbTable<T> entityTable, Key key) {
+        Optional<T> cachedItem = dynamoDbItemCache.get(entityClass, key);
+        if (cachedItem.isPresent()) {
+            log.info("Item retrieved from cache");
+            return cachedItem.get();
+        }
+
+        long readGeneration = dynamoDbItemCache.currentGeneration();
+        T item = entityTable.getItem((GetItemEnhancedRequest.Builder requestBuilder) -> requestBuilder.key(key));
+        dynamoDbItemCache.putIfUnchanged(entityClass, item, readGeneration);
+        return item;
+    }
+
+    /**
+     * Updates an item with an update expression, merging the names and values of
+     * the optional condition expression.
+     */
+    private Map<String, AttributeValue> updateItem(Class<T> entityClass, Key key, String updateExpression,
+            Map<String, String> expressionNames, Map<String, AttributeValue> expressionValues,
+            Expression conditionExpression, ReturnValue returnValue) throws DynamoSdkException {
+        String tableName = getTableName(entityClass);
+        Map<String, AttributeValue> keyAttributes = key.keyMap(DynamoDbEntityMetadata.retrieveTableSchema(entityClass),
+                TableMetadata.primaryIndexName());
+
+        UpdateItemRequest.Builder requestBuilder = UpdateItemRequest.builder().tableName(tableName)
+                .key(keyAttributes).updateExpression(updateExpression).returnValues(returnValue);
+        Map<String, String> names = new HashMap<>(expressionNames);
+        Map<String, AttributeValue> values = new HashMap<>(expressionValues);
+        if (conditionExpression != null) {
+            requestBuilder.conditionExpression(conditionExpression.expression());
+            Optional.ofNullable(conditionExpression.expressionNames()).ifPresent(names::putAll);
+            Optional.ofNullable(conditionExpression.expressionValues()).ifPresent(values::putAll);
+        }
+
+        requestBuilder.expressionAttributeNames(names);
+        if (!values.isEmpty()) {
+            requestBuilder.expressionAttributeValues(values);
+        }
+
+        try {
+            return dynamoDbClient.updateItem(requestBuilder.build()).attributes();
+        } catch (ConditionalCheckFailedException e) {
+            log.error("Item was not updated, the condition is not met");
+            throw new DynamoSdkException("Item was not updated, the condition is not met", e);
+        } catch (Exception e) {
+            log.error("Exception occured while updating item. E = {}", e.getMessage());
+            throw new DynamoSdkException(e.getMessage(), e);
+        }
+
+    }
+
+    /**
+     * Builds a scan request with the given page size and projected attributes.
+     */
+    private ScanEnhancedRequest.Builder buildScanRequest(Integer pageSize, List<String> attributesToProject) {
+        ScanEnhancedRequest.Builder requestBuilder = ScanEnhancedRequest.builder().limit(pageSize);
+        if (!attributesToProject.isEmpty()) {
+            requestBuilder.attributesToProject(attributesToProject);
+        }
+
+        return requestBuilder;
+    }
+
+    /**
+     * Splits the values into consecutive chunks of at most the given size.
+     */
+    private static <V> List<List<V>> partition(List<V> values, int chunkSize) {
+        List<List<V>> chunks = new ArrayList<>((values.size() + chunkSize - 1) / chunkSize);
+        for (int start = 0; start < values.size(); start += chunkSize) {
+            chunks.add(values.subList(start, Math.min(values.size(), start + chunkSize)));
+        }
+
+        return chunks;
+    }
+
+    private <E extends DynamoDbEntity> String getTableName(Class<E> entityClass) throws DynamoSdkException {
+        return DynamoDbEntityMetadata.retrieveTableName(entityClass);
+    }
+
+    /**
+     * Retrieves the table of an entity, built once per entity class.
+     */
+    @SuppressWarnings("unchecked")
+    private <E extends DynamoDbEntity> DynamoDbTable<E> buildDynamoDbTable(Class<E> entityClass, String tableName) {
+        return (DynamoDbTable<E>) dynamoDbTables.computeIfAbsent(entityClass, key -> dynamoDbEnhancedClient
+                .table(tableName, DynamoDbEntityMetadata.retrieveTableSchema(entityClass)));
     }
 
     // public void deleteTableForEntity(Class<T> entityClass) throws DynamoException
@@ -0,0 +1,63 @@
+package net.breezeware.dynamo.aws.dynamodb;
+
+import java.net.URI;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DynamoDB client properties, bound from the {@code dynamo.aws.dynamodb.client}
+ * prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Configuration
+@ConfigurationProperties(prefix = "dynamo.aws.dynamodb.client")
+public class DynamoDbClientProperties {
+
+    /**
+     * The region of the DynamoDB clients.
+     */
+    private String region = "us-east-1";
+
+    /**
+     * The endpoint the DynamoDB clients connect to instead of the regional
+     * endpoint, e.g. {@code http://localhost:8000} for DynamoDB Local.
+     */
+    private URI endpointOverride;
+
+    /**
+     * The maximum number of concurrent requests, and connections, of each
+     * DynamoDB client.
+     */
+    private int maxConcurrency = 50;
+
+    /**
+     * The maximum number of requests of the asynchronous client waiting for a
+     * connection.
+     */
+    private int maxPendingConnectionAcquires = 10_000;
+
+    /**
+     * The maximum time a request of the DynamoDB clients waits for a connection.
+     */
+    private Duration connectionAcquisitionTimeout = Duration.ofSeconds(10);
+
+    /**
+     * The maximum time of an API call of the DynamoDB clients, including its
+     * retries.
+     */
+    private Duration apiCallTimeout = Duration.ofSeconds(30);
+
+    /**
+     * The maximum time of a single attempt of an API call of the DynamoDB
+     * clients.
+     */
+    private Duration apiCallAttemptTimeout = Duration.ofSeconds(10);
+}
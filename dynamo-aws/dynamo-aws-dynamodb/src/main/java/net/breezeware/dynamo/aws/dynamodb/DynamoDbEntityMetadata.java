@@ -0,0 +1,99 @@
+package net.breezeware.dynamo.aws.dynamodb;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.breezeware.dynamo.utils.exception.DynamoSdkException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+/**
+ * Resolves and caches the table name and table schema of the entities, shared by
+ * the synchronous and asynchronous entity managers. Resolving the table name
+ * instantiates the entity reflectively and building a bean table schema
+ * introspects the entity class, so both are resolved once per entity class.
+ */
+@Slf4j
+final class DynamoDbEntityMetadata {
+
+    /**
+     * Custom table metadata key under which the bean table schema records the
+     * {@code @DynamoDbVersionAttribute} of an entity.
+     */
+    private static final String VERSION_ATTRIBUTE_METADATA_KEY = "VersionedRecordExtension:VersionAttribute";
+
+    /**
+     * Table names of the entities, keyed by entity class.
+     */
+    private static final Map<Class<?>, String> TABLE_NAMES = new ConcurrentHashMap<>();
+
+    /**
+     * Table schemas of the entities, keyed by entity class.
+     */
+    private static final Map<Class<?>, TableSchema<?>> TABLE_SCHEMAS = new ConcurrentHashMap<>();
+
+    private DynamoDbEntityMetadata() {
+    }
+
+    /**
+     * Retrieves the table name of an entity.
+     * @param  <E>                 the type of the entity.
+     * @param  entityClass         the class of the entity.
+     * @return                     the table name of the entity.
+     * @throws DynamoSdkException if the table name cannot be resolved.
+     */
+    static <E extends DynamoDbEntity> String retrieveTableName(Class<E> entityClass) throws DynamoSdkException {
+        String tableName = TABLE_NAMES.get(entityClass);
+        if (tableName == null) {
+            tableName = resolveTableName(entityClass);
+            TABLE_NAMES.putIfAbsent(entityClass, tableName);
+        }
+
+        return tableName;
+    }
+
+    /**
+     * Retrieves the bean table schema of an entity.
+     * @param  <E>         the type of the entity.
+     * @param  entityClass the class of the entity.
+     * @return             the table schema of the entity.
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends DynamoDbEntity> TableSchema<E> retrieveTableSchema(Class<E> entityClass) {
+        return (TableSchema<E>) TABLE_SCHEMAS.computeIfAbsent(entityClass, key -> TableSchema.fromBean(entityClass));
+    }
+
+    /**
+     * Retrieves the name of the {@code @DynamoDbVersionAttribute} of an entity.
+     * @param  <E>         the type of the entity.
+     * @param  entityClass the class of the entity.
+     * @return             the name of the version attribute, or an empty
+     *                     {@link Optional} if the entity is not versioned.
+     */
+    static <E extends DynamoDbEntity> Optional<String> retrieveVersionAttribute(Class<E> entityClass) {
+        return retrieveTableSchema(entityClass).tableMetadata().customMetadataObject(VERSION_ATTRIBUTE_METADATA_KEY,
+                String.class);
+    }
+
+    private static <E extends DynamoDbEntity> String resolveTableName(Class<E> entityClass) throws DynamoSdkException {
+
+        String tableName = "";
+
+        try {
+            Method method = entityClass.getMethod("getDynamoDbEntityTableName");
+            tableName = (String) method.invoke(entityClass.getDeclaredConstructor(null).newInstance(null));
+            log.info("table name = {}", tableName);
+        } catch (NoSuchMethodException | SecurityException | IllegalAccessException | IllegalArgumentException
+                | InvocationTargetException | InstantiationException e) {
+            log.error("Error while getting table name corresponding to the entity {}", entityClass.getName(), e);
+            throw new DynamoSdkException("Error while getting table name corresponding to the entity", e);
+        }
+
+        return tableName;
+    }
+}
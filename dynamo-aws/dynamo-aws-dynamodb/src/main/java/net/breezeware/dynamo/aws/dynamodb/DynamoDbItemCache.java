@@ -0,0 +1,258 @@
+package net.breezeware.dynamo.aws.dynamodb;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Optional in-process, write-through cache of items keyed by entity class and
+ * primary key. Items are stored as attribute maps, so that callers modifying a
+ * returned item do not modify the cached one. Entries expire after the
+ * configured time to live and the least recently read entries are evicted
+ * beyond the configured size.
+ * <p>
+ * Every write of an item bumps the write generation of its key, and items read
+ * from DynamoDB are cached with {@link #putIfUnchanged(Class, DynamoDbEntity,
+ * long)} only if their key was not written since the generation captured with
+ * {@link #currentGeneration()} before the read. A read racing with a write
+ * therefore cannot cache the item in its previous state. For entities with a
+ * {@code @DynamoDbVersionAttribute}, an item never replaces a cached item of a
+ * greater version.
+ */
+@Slf4j
+@Component
+public class DynamoDbItemCache {
+
+    private final DynamoDbItemCacheProperties dynamoDbItemCacheProperties;
+
+    private final Map<CacheKey, CacheEntry> cacheEntries;
+
+    /**
+     * Generation of the latest write, guarded by {@link #cacheEntries}.
+     */
+    private long generation;
+
+    /**
+     * Greatest write generation of the entries removed from the cache, guarded by
+     * {@link #cacheEntries}. Reads started before it cannot tell whether their key
+     * was written, so their items are not cached.
+     */
+    private long removedWriteGeneration;
+
+    /**
+     * Builds the {@link DynamoDbItemCache}.
+     * @param dynamoDbItemCacheProperties item cache properties.
+     */
+    public DynamoDbItemCache(DynamoDbItemCacheProperties dynamoDbItemCacheProperties) {
+        this.dynamoDbItemCacheProperties = dynamoDbItemCacheProperties;
+        this.cacheEntries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+                if (size() <= dynamoDbItemCacheProperties.getMaxSize()) {
+                    return false;
+                }
+
+                removedWriteGeneration = Math.max(removedWriteGeneration, eldest.getValue().writeGeneration());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Retrieves a cached item.
+     * @param  <E>         the type of the entity.
+     * @param  entityClass the class of the entity.
+     * @param  key         the primary key of the item.
+     * @return             the cached item, or an empty {@link Optional} if the
+     *                     cache is disabled, or the item is not cached or has
+     *                     expired.
+     */
+    public <E extends DynamoDbEntity> Optional<E> get(Class<E> entityClass, Key key) {
+        if (!dynamoDbItemCacheProperties.isEnabled()) {
+            return Optional.empty();
+        }
+
+        CacheKey cacheKey = CacheKey.of(entityClass, key);
+        CacheEntry cacheEntry;
+        synchronized (cacheEntries) {
+            cacheEntry = cacheEntries.get(cacheKey);
+            if (cacheEntry != null && cacheEntry.expiresAt() <= System.nanoTime()) {
+                cacheEntries.remove(cacheKey);
+                removedWriteGeneration = Math.max(removedWriteGeneration, cacheEntry.writeGeneration());
+                cacheEntry = null;
+            }
+
+        }
+
+        if (cacheEntry == null || cacheEntry.attributes() == null) {
+            log.debug("Item cache miss, key = {}", cacheKey);
+            return Optional.empty();
+        }
+
+        TableSchema<E> tableSchema = DynamoDbEntityMetadata.retrieveTableSchema(entityClass);
+        return Optional.of(tableSchema.mapToItem(cacheEntry.attributes()));
+    }
+
+    /**
+     * Captures the current write generation, before reading items from DynamoDB
+     * to be cached with {@link #putIfUnchanged(Class, DynamoDbEntity, long)}.
+     * @return the current write generation.
+     */
+    public long currentGeneration() {
+        synchronized (cacheEntries) {
+            return generation;
+        }
+
+    }
+
+    /**
+     * Caches an item just written to DynamoDB, bumping the write generation of its
+     * key and replacing any previously cached version of it, unless the cached
+     * item has a greater version.
+     * @param <E>         the type of the entity.
+     * @param entityClass the class of the entity.
+     * @param item        the written item to cache.
+     */
+    public <E extends DynamoDbEntity> void put(Class<E> entityClass, E item) {
+        if (!dynamoDbItemCacheProperties.isEnabled() || item == null) {
+            return;
+        }
+
+        Map<String, AttributeValue> attributes =
+                DynamoDbEntityMetadata.retrieveTableSchema(entityClass).itemToMap(item, true);
+        CacheKey cacheKey = CacheKey.of(entityClass, keyOf(entityClass, attributes));
+        long expiresAt = System.nanoTime() + dynamoDbItemCacheProperties.getTimeToLive().toNanos();
+        synchronized (cacheEntries) {
+            long writeGeneration = ++generation;
+            CacheEntry cacheEntry = cacheEntries.get(cacheKey);
+            if (cacheEntry != null && isNewer(entityClass, cacheEntry.attributes(), attributes)) {
+                log.debug("Cached item is newer than the written item, key = {}", cacheKey);
+                cacheEntries.put(cacheKey, new CacheEntry(cacheEntry.attributes(), cacheEntry.expiresAt(),
+                        writeGeneration));
+            } else {
+                cacheEntries.put(cacheKey, new CacheEntry(attributes, expiresAt, writeGeneration));
+            }
+
+        }
+
+    }
+
+    /**
+     * Caches an item read from DynamoDB, provided its key was not written since
+     * the given generation and no item of a greater version is cached.
+     * @param  <E>            the type of the entity.
+     * @param  entityClass    the class of the entity.
+     * @param  item           the read item to cache.
+     * @param  readGeneration the generation captured with
+     *                        {@link #currentGeneration()} before the read.
+     * @return                {@code true} if the item was cached.
+     */
+    public <E extends DynamoDbEntity> boolean putIfUnchanged(Class<E> entityClass, E item, long readGeneration) {
+        if (!dynamoDbItemCacheProperties.isEnabled() || item == null) {
+            return false;
+        }
+
+        Map<String, AttributeValue> attributes =
+                DynamoDbEntityMetadata.retrieveTableSchema(entityClass).itemToMap(item, true);
+        CacheKey cacheKey = CacheKey.of(entityClass, keyOf(entityClass, attributes));
+        long expiresAt = System.nanoTime() + dynamoDbItemCacheProperties.getTimeToLive().toNanos();
+        synchronized (cacheEntries) {
+            CacheEntry cacheEntry = cacheEntries.get(cacheKey);
+            long writeGeneration = cacheEntry == null ? 0L : cacheEntry.writeGeneration();
+            if (Math.max(writeGeneration, removedWriteGeneration) > readGeneration
+                    || cacheEntry != null && isNewer(entityClass, cacheEntry.attributes(), attributes)) {
+                log.debug("Item was written since it was read, not caching it, key = {}", cacheKey);
+                return false;
+            }
+
+            cacheEntries.put(cacheKey, new CacheEntry(attributes, expiresAt, writeGeneration));
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes an item from the cache, bumping the write generation of its key.
+     * @param entityClass the class of the entity.
+     * @param key         the primary key of the item.
+     */
+    public void invalidate(Class<? extends DynamoDbEntity> entityClass, Key key) {
+        if (!dynamoDbItemCacheProperties.isEnabled()) {
+            return;
+        }
+
+        long expiresAt = System.nanoTime() + dynamoDbItemCacheProperties.getTimeToLive().toNanos();
+        synchronized (cacheEntries) {
+            // the entry is kept without attributes to record the write generation of the key
+            cacheEntries.put(CacheKey.of(entityClass, key), new CacheEntry(null, expiresAt, ++generation));
+        }
+
+    }
+
+    /**
+     * Removes all the items from the cache, bumping the write generation of all
+     * the keys.
+     */
+    public void invalidateAll() {
+        synchronized (cacheEntries) {
+            cacheEntries.clear();
+            removedWriteGeneration = ++generation;
+        }
+
+    }
+
+    /**
+     * Builds the primary key of an item from its attributes.
+     */
+    private Key keyOf(Class<? extends DynamoDbEntity> entityClass, Map<String, AttributeValue> attributes) {
+        TableMetadata tableMetadata = DynamoDbEntityMetadata.retrieveTableSchema(entityClass).tableMetadata();
+        Key.Builder keyBuilder =
+                Key.builder().partitionValue(attributes.get(tableMetadata.primaryPartitionKey()));
+        tableMetadata.primarySortKey().ifPresent(sortKey -> keyBuilder.sortValue(attributes.get(sortKey)));
+        return keyBuilder.build();
+    }
+
+    /**
+     * Tells whether the cached attributes hold a greater version than the given
+     * attributes, when the entity has a version attribute.
+     */
+    private boolean isNewer(Class<? extends DynamoDbEntity> entityClass, Map<String, AttributeValue> cached,
+            Map<String, AttributeValue> attributes) {
+        Optional<String> versionAttribute = DynamoDbEntityMetadata.retrieveVersionAttribute(entityClass);
+        if (cached == null || versionAttribute.isEmpty()) {
+            return false;
+        }
+
+        AttributeValue cachedVersion = cached.get(versionAttribute.get());
+        AttributeValue version = attributes.get(versionAttribute.get());
+        return cachedVersion != null && version != null
+                && Long.parseLong(cachedVersion.n()) > Long.parseLong(version.n());
+    }
+
+    /**
+     * Cache key of an item.
+     */
+    private record CacheKey(Class<?> entityClass, AttributeValue partitionKeyValue, AttributeValue sortKeyValue) {
+
+        static CacheKey of(Class<?> entityClass, Key key) {
+            return new CacheKey(entityClass, key.partitionKeyValue(), key.sortKeyValue().orElse(null));
+        }
+    }
+
+    /**
+     * Cached attributes of an item along with their expiry time, in
+     * {@link System#nanoTime()}, and the generation of the latest write of the
+     * item. The attributes are {@code null} once the item is invalidated.
+     */
+    private record CacheEntry(Map<String, AttributeValue> attributes, long expiresAt, long writeGeneration) {
+    }
+}
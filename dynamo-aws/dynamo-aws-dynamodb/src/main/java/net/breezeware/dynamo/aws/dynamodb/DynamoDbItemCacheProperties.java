@@ -0,0 +1,39 @@
+package net.breezeware.dynamo.aws.dynamodb;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Item cache properties, bound from the {@code dynamo.aws.dynamodb.cache}
+ * prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Configuration
+@ConfigurationProperties(prefix = "dynamo.aws.dynamodb.cache")
+public class DynamoDbItemCacheProperties {
+
+    /**
+     * Enables the in-process cache of items read by key.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The time after which a cached item is read from DynamoDB again, bounding
+     * the staleness of items written by other processes.
+     */
+    private Duration timeToLive = Duration.ofSeconds(60);
+
+    /**
+     * The maximum number of cached items. The least recently read items are
+     * evicted first.
+     */
+    private int maxSize = 10_000;
+}
@@ -0,0 +1,26 @@
+package net.breezeware.dynamo.aws.dynamodb;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Parallel scan properties, bound from the {@code dynamo.aws.dynamodb.scan}
+ * prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Configuration
+@ConfigurationProperties(prefix = "dynamo.aws.dynamodb.scan")
+public class DynamoDbScanProperties {
+
+    /**
+     * The number of threads scanning segments, shared by all the parallel scans.
+     * Segments beyond this number wait for a thread.
+     */
+    private int maxParallelism = 8;
+}
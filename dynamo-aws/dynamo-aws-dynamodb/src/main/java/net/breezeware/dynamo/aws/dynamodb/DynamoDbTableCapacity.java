@@ -0,0 +1,84 @@
+package net.breezeware.dynamo.aws.dynamodb;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+
+/**
+ * Configures the capacity of the table created for a {@link DynamoDbEntity}.
+ * Entities without this annotation, and attributes left to their defaults, use
+ * the defaults of {@link DynamoDbTableProperties}. The per-table entries of
+ * {@link DynamoDbTableProperties#getTables()} take precedence over it.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DynamoDbTableCapacity {
+
+    /**
+     * Value of the capacity units using the default of
+     * {@link DynamoDbTableProperties}.
+     */
+    long DEFAULT_CAPACITY_UNITS = -1L;
+
+    /**
+     * The billing mode of the table. Defaults to
+     * {@link BillingMode#UNKNOWN_TO_SDK_VERSION}, which uses the default billing
+     * mode of {@link DynamoDbTableProperties}.
+     */
+    BillingMode billingMode() default BillingMode.UNKNOWN_TO_SDK_VERSION;
+
+    /**
+     * The provisioned read capacity units of the table, or
+     * {@link #DEFAULT_CAPACITY_UNITS} to use the default of
+     * {@link DynamoDbTableProperties}.
+     */
+    long readCapacityUnits() default DEFAULT_CAPACITY_UNITS;
+
+    /**
+     * The provisioned write capacity units of the table, or
+     * {@link #DEFAULT_CAPACITY_UNITS} to use the default of
+     * {@link DynamoDbTableProperties}.
+     */
+    long writeCapacityUnits() default DEFAULT_CAPACITY_UNITS;
+
+    /**
+     * The provisioned throughput of the global secondary indexes. Indexes not
+     * listed use the throughput of the table.
+     */
+    DynamoDbIndexCapacity[] indexes() default {};
+
+    /**
+     * The name of the attribute holding the expiry time of the items, in epoch
+     * seconds, or an empty string to disable Time to Live.
+     */
+    String timeToLiveAttribute() default "";
+
+    /**
+     * Configures the provisioned throughput of a global secondary index.
+     */
+    @Documented
+    @Target({})
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface DynamoDbIndexCapacity {
+
+        /**
+         * The name of the global secondary index.
+         */
+        String indexName();
+
+        /**
+         * The provisioned read capacity units of the index.
+         */
+        long readCapacityUnits();
+
+        /**
+         * The provisioned write capacity units of the index.
+         */
+        long writeCapacityUnits();
+    }
+}
@@ -0,0 +1,138 @@
+package net.breezeware.dynamo.aws.dynamodb;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+import net.breezeware.dynamo.aws.dynamodb.DynamoDbTableCapacity.DynamoDbIndexCapacity;
+import net.breezeware.dynamo.aws.dynamodb.DynamoDbTableProperties.IndexCapacity;
+import net.breezeware.dynamo.aws.dynamodb.DynamoDbTableProperties.TableCapacity;
+
+import software.amazon.awssdk.enhanced.dynamodb.IndexMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.CreateTableEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.EnhancedGlobalSecondaryIndex;
+import software.amazon.awssdk.enhanced.dynamodb.model.EnhancedLocalSecondaryIndex;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+import software.amazon.awssdk.services.dynamodb.model.Projection;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+
+/**
+ * Resolves the capacity of entity tables and builds their create table
+ * requests, shared by the synchronous and asynchronous entity managers.
+ */
+final class DynamoDbTableDefinitions {
+
+    private DynamoDbTableDefinitions() {
+    }
+
+    /**
+     * Resolves the capacity of the table of an entity. Per-table properties take
+     * precedence over the {@link DynamoDbTableCapacity} annotation of the entity,
+     * which takes precedence over the default properties. Annotation attributes
+     * left to their defaults keep the default properties.
+     * @param  entityClass             the class of the entity.
+     * @param  tableName               the name of the table of the entity.
+     * @param  dynamoDbTableProperties table creation properties.
+     * @return                         the capacity of the table.
+     */
+    static TableCapacity resolveTableCapacity(Class<?> entityClass, String tableName,
+            DynamoDbTableProperties dynamoDbTableProperties) {
+        TableCapacity tableCapacity = new TableCapacity(dynamoDbTableProperties.getBillingMode(),
+                dynamoDbTableProperties.getReadCapacityUnits(), dynamoDbTableProperties.getWriteCapacityUnits(),
+                new HashMap<>(), "");
+
+        DynamoDbTableCapacity capacityAnnotation = entityClass.getAnnotation(DynamoDbTableCapacity.class);
+        if (capacityAnnotation != null) {
+            if (capacityAnnotation.billingMode() != BillingMode.UNKNOWN_TO_SDK_VERSION) {
+                tableCapacity.setBillingMode(capacityAnnotation.billingMode());
+            }
+
+            if (capacityAnnotation.readCapacityUnits() != DynamoDbTableCapacity.DEFAULT_CAPACITY_UNITS) {
+                tableCapacity.setReadCapacityUnits(capacityAnnotation.readCapacityUnits());
+            }
+
+            if (capacityAnnotation.writeCapacityUnits() != DynamoDbTableCapacity.DEFAULT_CAPACITY_UNITS) {
+                tableCapacity.setWriteCapacityUnits(capacityAnnotation.writeCapacityUnits());
+            }
+
+            tableCapacity.setTimeToLiveAttribute(capacityAnnotation.timeToLiveAttribute());
+            for (DynamoDbIndexCapacity indexCapacity : capacityAnnotation.indexes()) {
+                tableCapacity.getIndexes().put(indexCapacity.indexName(),
+                        new IndexCapacity(indexCapacity.readCapacityUnits(), indexCapacity.writeCapacityUnits()));
+            }
+
+        }
+
+        TableCapacity configuredCapacity = dynamoDbTableProperties.getTables().get(tableName);
+        if (configuredCapacity != null) {
+            Optional.ofNullable(configuredCapacity.getBillingMode()).ifPresent(tableCapacity::setBillingMode);
+            Optional.ofNullable(configuredCapacity.getReadCapacityUnits())
+                    .ifPresent(tableCapacity::setReadCapacityUnits);
+            Optional.ofNullable(configuredCapacity.getWriteCapacityUnits())
+                    .ifPresent(tableCapacity::setWriteCapacityUnits);
+            Optional.ofNullable(configuredCapacity.getTimeToLiveAttribute())
+                    .ifPresent(tableCapacity::setTimeToLiveAttribute);
+            tableCapacity.getIndexes().putAll(configuredCapacity.getIndexes());
+        }
+
+        return tableCapacity;
+    }
+
+    /**
+     * Builds the create table request of an entity table, along with its
+     * secondary indexes. Provisioned throughput is omitted in on-demand billing
+     * mode, which the enhanced client maps to {@code PAY_PER_REQUEST}.
+     * @param  tableSchema   the table schema of the entity.
+     * @param  tableCapacity the capacity of the table.
+     * @return               the create table request.
+     */
+    static CreateTableEnhancedRequest buildCreateTableRequest(TableSchema<?> tableSchema,
+            TableCapacity tableCapacity) {
+        boolean provisioned = tableCapacity.getBillingMode() == BillingMode.PROVISIONED;
+        CreateTableEnhancedRequest.Builder requestBuilder = CreateTableEnhancedRequest.builder();
+        if (provisioned) {
+            requestBuilder.provisionedThroughput(throughput -> throughput
+                    .readCapacityUnits(tableCapacity.getReadCapacityUnits())
+                    .writeCapacityUnits(tableCapacity.getWriteCapacityUnits()));
+        }
+
+        List<EnhancedGlobalSecondaryIndex> globalSecondaryIndexes = new ArrayList<>();
+        List<EnhancedLocalSecondaryIndex> localSecondaryIndexes = new ArrayList<>();
+        Projection allAttributes = Projection.builder().projectionType(ProjectionType.ALL).build();
+        for (IndexMetadata index : tableSchema.tableMetadata().indices()) {
+            if (TableMetadata.primaryIndexName().equals(index.name())) {
+                continue;
+            }
+
+            if (index.partitionKey().isEmpty()) {
+                localSecondaryIndexes.add(EnhancedLocalSecondaryIndex.create(index.name(), allAttributes));
+                continue;
+            }
+
+            EnhancedGlobalSecondaryIndex.Builder indexBuilder =
+                    EnhancedGlobalSecondaryIndex.builder().indexName(index.name()).projection(allAttributes);
+            if (provisioned) {
+                IndexCapacity indexCapacity = tableCapacity.getIndexes().getOrDefault(index.name(),
+                        new IndexCapacity(tableCapacity.getReadCapacityUnits(), tableCapacity.getWriteCapacityUnits()));
+                indexBuilder.provisionedThroughput(throughput -> throughput
+                        .readCapacityUnits(indexCapacity.getReadCapacityUnits())
+                        .writeCapacityUnits(indexCapacity.getWriteCapacityUnits()));
+            }
+
+            globalSecondaryIndexes.add(indexBuilder.build());
+        }
+
+        if (!globalSecondaryIndexes.isEmpty()) {
+            requestBuilder.globalSecondaryIndices(globalSecondaryIndexes);
+        }
+
+        if (!localSecondaryIndexes.isEmpty()) {
+            requestBuilder.localSecondaryIndices(localSecondaryIndexes);
+        }
+
+        return requestBuilder.build();
+    }
+}
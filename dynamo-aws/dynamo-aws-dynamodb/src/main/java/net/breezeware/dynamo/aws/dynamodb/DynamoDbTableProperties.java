@@ -0,0 +1,72 @@
+package net.breezeware.dynamo.aws.dynamodb;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+
+/**
+ * Table creation properties, bound from the {@code dynamo.aws.dynamodb.table}
+ * prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Configuration
+@ConfigurationProperties(prefix = "dynamo.aws.dynamodb.table")
+public class DynamoDbTableProperties {
+
+    /**
+     * The default billing mode of tables.
+     */
+    private BillingMode billingMode = BillingMode.PROVISIONED;
+
+    /**
+     * The default provisioned read capacity units of tables and their indexes.
+     */
+    private long readCapacityUnits = 10L;
+
+    /**
+     * The default provisioned write capacity units of tables and their indexes.
+     */
+    private long writeCapacityUnits = 10L;
+
+    /**
+     * Capacity of individual tables, keyed by table name. Takes precedence over
+     * the {@link DynamoDbTableCapacity} annotation of the entity.
+     */
+    private Map<String, TableCapacity> tables = new HashMap<>();
+
+    /**
+     * Capacity of a table. Unset values fall back to the annotation of the entity
+     * or the defaults.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TableCapacity {
+        private BillingMode billingMode;
+        private Long readCapacityUnits;
+        private Long writeCapacityUnits;
+        private Map<String, IndexCapacity> indexes = new HashMap<>();
+        private String timeToLiveAttribute;
+    }
+
+    /**
+     * Provisioned throughput of a global secondary index.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IndexCapacity {
+        private long readCapacityUnits;
+        private long writeCapacityUnits;
+    }
+}
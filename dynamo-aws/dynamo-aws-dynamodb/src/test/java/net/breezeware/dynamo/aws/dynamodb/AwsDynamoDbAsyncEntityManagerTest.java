@@ -0,0 +1,75 @@
+package net.breezeware.dynamo.aws.dynamodb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+import net.breezeware.dynamo.utils.exception.DynamoSdkException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+@Slf4j
+class AwsDynamoDbAsyncEntityManagerTest {
+
+    @Test
+    void failsRequestNotCompletedWithinTimeout() {
+        log.info("Testing failsRequestNotCompletedWithinTimeout()");
+
+        // given
+        AwsDynamoDbAsyncEntityManager<Customer> entityManager = buildEntityManager(new CompletableFuture<>());
+        // when
+        CompletableFuture<Optional<Customer>> item =
+                entityManager.retrieveItem(Customer.class, "ID-1", "abc@example.com", Duration.ofMillis(50));
+        // then
+        assertThatThrownBy(item::get).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(DynamoSdkException.class).hasMessageContaining("did not complete within");
+
+        log.info("Completed testing failsRequestNotCompletedWithinTimeout()");
+    }
+
+    @Test
+    void completesRequestWithinTimeout() throws Exception {
+        log.info("Testing completesRequestWithinTimeout()");
+
+        // given
+        Customer customer = Customer.getSampleCustomer();
+        AwsDynamoDbAsyncEntityManager<Customer> entityManager =
+                buildEntityManager(CompletableFuture.completedFuture(customer));
+        // when
+        Optional<Customer> item = entityManager
+                .retrieveItem(Customer.class, customer.getId(), customer.getEmail(), Duration.ofSeconds(5)).get();
+        // then
+        assertThat(item).contains(customer);
+
+        log.info("Completed testing completesRequestWithinTimeout()");
+    }
+
+    @SuppressWarnings("unchecked")
+    private AwsDynamoDbAsyncEntityManager<Customer> buildEntityManager(CompletableFuture<Customer> getItemResult) {
+        DynamoDbAsyncTable<Customer> entityTable = mock(DynamoDbAsyncTable.class);
+        when(entityTable.getItem(any(Key.class))).thenReturn(getItemResult);
+        DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient = mock(DynamoDbEnhancedAsyncClient.class);
+        when(dynamoDbEnhancedAsyncClient.table(anyString(), any(TableSchema.class))).thenReturn(entityTable);
+
+        AwsDynamoDbAsyncEntityManager<Customer> entityManager = new AwsDynamoDbAsyncEntityManager<>();
+        entityManager.dynamoDbEnhancedAsyncClient = dynamoDbEnhancedAsyncClient;
+        entityManager.dynamoDbItemCache =
+                new DynamoDbItemCache(new DynamoDbItemCacheProperties(false, Duration.ofMinutes(1), 10));
+        return entityManager;
+    }
+}
@@ -1,6 +1,8 @@
 package net.breezeware.dynamo.aws.dynamodb;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -14,6 +16,10 @@ import net.breezeware.dynamo.utils.exception.DynamoSdkException;
 
 import lombok.extern.slf4j.Slf4j;
 
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+
 @Slf4j
 @SpringBootTest
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -67,11 +73,36 @@ public class AwsDynamoDbEntityManagerTest {
     }
 
     // @Test
-    // @Order(4)
-    // void testCreateMultipleItems() {
-    // fail("Not yet implemented");
-    // }
-    //
+    @Order(4)
+    void testCreateMultipleItems_validItems_retrievedInBatch() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Customer batchCustomer = Customer.getSampleCustomer();
+            batchCustomer.setId("ID-BATCH-" + i);
+            customers.add(batchCustomer);
+        }
+
+        List<Key> keys = customers.stream()
+                .map(c -> Key.builder().partitionValue(c.getId()).sortValue(c.getEmail()).build()).toList();
+
+        Assertions.assertAll("GroupedAssertionHeading",
+                () -> Assertions.assertDoesNotThrow(
+                        () -> awsDynamoDbEntityManager.createMultipleItems(Customer.class, customers)),
+                () -> Assertions.assertEquals(customers.size(),
+                        awsDynamoDbEntityManager.retrieveMultipleItems(Customer.class, keys).size()),
+                () -> Assertions.assertDoesNotThrow(
+                        () -> awsDynamoDbEntityManager.deleteMultipleItems(Customer.class, keys)));
+    }
+
+    // @Test
+    @Order(4)
+    void testCreateItemsInTransaction_validItems_noException() {
+        Customer transactionCustomer = Customer.getSampleCustomer();
+        transactionCustomer.setId("ID-TRANSACTION-1");
+        Assertions.assertDoesNotThrow(() -> {
+            awsDynamoDbEntityManager.createItemsInTransaction(Customer.class, List.of(transactionCustomer));
+        });
+    }
 
     // @Test
     @Order(5)
@@ -84,6 +115,40 @@ public class AwsDynamoDbEntityManagerTest {
                 }));
     }
 
+    // @Test
+    @Order(5)
+    void testQuery_validPartitionKey_returnsItems() {
+        QueryConditional queryConditional =
+                QueryConditional.keyEqualTo(Key.builder().partitionValue(customer.getId()).build());
+        Assertions.assertDoesNotThrow(() -> {
+            Page<Customer> page = awsDynamoDbEntityManager.query(Customer.class, queryConditional, null, 10, null,
+                    List.of("id", "email"));
+            Assertions.assertFalse(page.items().isEmpty());
+        });
+    }
+
+    // @Test
+    @Order(5)
+    void testScanItems_validTable_noException() {
+        Assertions.assertDoesNotThrow(() -> {
+            Assertions.assertTrue(awsDynamoDbEntityManager.scanItems(Customer.class, null, List.of()).findAny()
+                    .isPresent());
+        });
+    }
+
+    // @Test
+    @Order(5)
+    void testUpdateItem_changedAttributes_noException() {
+        Customer changedCustomer = new Customer();
+        changedCustomer.setId(customer.getId());
+        changedCustomer.setEmail(customer.getEmail());
+        changedCustomer.setCustName("ABC Company Ltd");
+        Assertions.assertDoesNotThrow(() -> {
+            Customer updatedCustomer = awsDynamoDbEntityManager.updateItem(Customer.class, changedCustomer);
+            Assertions.assertNotNull(updatedCustomer.getRegistrationDate());
+        });
+    }
+
     // @Test
     @Order(6)
     void testRetrieveItem_validTable_invalidKey() {
@@ -0,0 +1,86 @@
+package net.breezeware.dynamo.aws.dynamodb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import net.breezeware.dynamo.utils.exception.DynamoSdkException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+@Slf4j
+class AwsDynamoDbEntityManagerUpdateTest {
+
+    private static final Key KEY = Key.builder().partitionValue("ID-1").sortValue("help@abccompany.com").build();
+
+    @Test
+    void incrementsVersionOfExpectedVersion() throws DynamoSdkException {
+        log.info("Testing incrementsVersionOfExpectedVersion()");
+
+        // given
+        DynamoDbClient dynamoDbClient = mock(DynamoDbClient.class);
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder()
+                .attributes(Map.of("id", AttributeValue.fromS("ID-1"), "email", AttributeValue.fromS(
+                        "help@abccompany.com"), "custName", AttributeValue.fromS("New"), "version",
+                        AttributeValue.fromN("4")))
+                .build());
+        AwsDynamoDbEntityManager<VersionedCustomer> entityManager = buildEntityManager(dynamoDbClient);
+        // when
+        VersionedCustomer updatedCustomer = entityManager.updateAttributes(VersionedCustomer.class, KEY,
+                Map.of("custName", AttributeValue.fromS("New")), 3L);
+        // then
+        ArgumentCaptor<UpdateItemRequest> request = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(request.capture());
+        assertThat(request.getValue().updateExpression())
+                .isEqualTo("SET #upd0 = :upd0, #updVersion = #updVersion + :updVersionIncrement");
+        assertThat(request.getValue().conditionExpression()).isEqualTo("#expectedVersion = :expectedVersion");
+        assertThat(request.getValue().expressionAttributeNames()).containsEntry("#updVersion", "version")
+                .containsEntry("#expectedVersion", "version");
+        assertThat(request.getValue().expressionAttributeValues()).containsEntry(":expectedVersion",
+                AttributeValue.fromN("3"));
+        assertThat(updatedCustomer.getVersion()).isEqualTo(4L);
+
+        log.info("Completed testing incrementsVersionOfExpectedVersion()");
+    }
+
+    @Test
+    void rejectsUnconditionalUpdateOfVersionedEntity() {
+        log.info("Testing rejectsUnconditionalUpdateOfVersionedEntity()");
+
+        // given
+        DynamoDbClient dynamoDbClient = mock(DynamoDbClient.class);
+        AwsDynamoDbEntityManager<VersionedCustomer> entityManager = buildEntityManager(dynamoDbClient);
+        // when / then
+        assertThatThrownBy(() -> entityManager.updateAttributes(VersionedCustomer.class, KEY,
+                Map.of("custName", AttributeValue.fromS("New")), (Expression) null))
+                .isInstanceOf(DynamoSdkException.class).hasMessageContaining("requires a condition");
+        verifyNoInteractions(dynamoDbClient);
+
+        log.info("Completed testing rejectsUnconditionalUpdateOfVersionedEntity()");
+    }
+
+    private <E extends DynamoDbEntity> AwsDynamoDbEntityManager<E> buildEntityManager(DynamoDbClient dynamoDbClient) {
+        AwsDynamoDbEntityManager<E> entityManager = new AwsDynamoDbEntityManager<>();
+        entityManager.dynamoDbClient = dynamoDbClient;
+        entityManager.dynamoDbItemCache =
+                new DynamoDbItemCache(new DynamoDbItemCacheProperties(false, Duration.ofMinutes(1), 10));
+        return entityManager;
+    }
+}
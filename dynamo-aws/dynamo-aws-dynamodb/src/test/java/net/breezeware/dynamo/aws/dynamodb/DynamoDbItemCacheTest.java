@@ -0,0 +1,186 @@
+package net.breezeware.dynamo.aws.dynamodb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import lombok.extern.slf4j.Slf4j;
+
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+
+@Slf4j
+class DynamoDbItemCacheTest {
+
+    @Test
+    void returnsCopyOfCachedItem() {
+        log.info("Testing returnsCopyOfCachedItem()");
+
+        // given
+        DynamoDbItemCache dynamoDbItemCache = buildDynamoDbItemCache(Duration.ofMinutes(1), 10);
+        Customer customer = buildCustomer("ID-1");
+        dynamoDbItemCache.put(Customer.class, customer);
+        // when
+        Customer cachedCustomer = dynamoDbItemCache.get(Customer.class, keyOf(customer)).orElseThrow();
+        cachedCustomer.setCustName("Modified");
+        // then
+        assertThat(cachedCustomer).isNotSameAs(customer);
+        assertThat(dynamoDbItemCache.get(Customer.class, keyOf(customer)).orElseThrow().getCustName())
+                .isEqualTo("ABC Company");
+
+        log.info("Completed testing returnsCopyOfCachedItem()");
+    }
+
+    @Test
+    void evictsLeastRecentlyReadItemBeyondMaxSize() {
+        log.info("Testing evictsLeastRecentlyReadItemBeyondMaxSize()");
+
+        // given
+        DynamoDbItemCache dynamoDbItemCache = buildDynamoDbItemCache(Duration.ofMinutes(1), 2);
+        Customer first = buildCustomer("ID-1");
+        Customer second = buildCustomer("ID-2");
+        Customer third = buildCustomer("ID-3");
+        dynamoDbItemCache.put(Customer.class, first);
+        dynamoDbItemCache.put(Customer.class, second);
+        // when
+        dynamoDbItemCache.get(Customer.class, keyOf(first));
+        dynamoDbItemCache.put(Customer.class, third);
+        // then
+        assertThat(dynamoDbItemCache.get(Customer.class, keyOf(first))).isPresent();
+        assertThat(dynamoDbItemCache.get(Customer.class, keyOf(second))).isEmpty();
+        assertThat(dynamoDbItemCache.get(Customer.class, keyOf(third))).isPresent();
+
+        log.info("Completed testing evictsLeastRecentlyReadItemBeyondMaxSize()");
+    }
+
+    @Test
+    void expiresItemAfterTimeToLive() {
+        log.info("Testing expiresItemAfterTimeToLive()");
+
+        // given
+        DynamoDbItemCache dynamoDbItemCache = buildDynamoDbItemCache(Duration.ZERO, 10);
+        Customer customer = buildCustomer("ID-1");
+        // when
+        dynamoDbItemCache.put(Customer.class, customer);
+        // then
+        assertThat(dynamoDbItemCache.get(Customer.class, keyOf(customer))).isEmpty();
+
+        log.info("Completed testing expiresItemAfterTimeToLive()");
+    }
+
+    @Test
+    void removesInvalidatedItem() {
+        log.info("Testing removesInvalidatedItem()");
+
+        // given
+        DynamoDbItemCache dynamoDbItemCache = buildDynamoDbItemCache(Duration.ofMinutes(1), 10);
+        Customer first = buildCustomer("ID-1");
+        Customer second = buildCustomer("ID-2");
+        dynamoDbItemCache.put(Customer.class, first);
+        dynamoDbItemCache.put(Customer.class, second);
+        // when
+        dynamoDbItemCache.invalidate(Customer.class, keyOf(first));
+        // then
+        assertThat(dynamoDbItemCache.get(Customer.class, keyOf(first))).isEmpty();
+        assertThat(dynamoDbItemCache.get(Customer.class, keyOf(second))).isPresent();
+
+        // when
+        dynamoDbItemCache.invalidateAll();
+        // then
+        assertThat(dynamoDbItemCache.get(Customer.class, keyOf(second))).isEmpty();
+
+        log.info("Completed testing removesInvalidatedItem()");
+    }
+
+    @Test
+    void cachesNothingWhenDisabled() {
+        log.info("Testing cachesNothingWhenDisabled()");
+
+        // given
+        DynamoDbItemCache dynamoDbItemCache =
+                new DynamoDbItemCache(new DynamoDbItemCacheProperties(false, Duration.ofMinutes(1), 10));
+        Customer customer = buildCustomer("ID-1");
+        // when
+        dynamoDbItemCache.put(Customer.class, customer);
+        // then
+        assertThat(dynamoDbItemCache.get(Customer.class, keyOf(customer))).isEmpty();
+
+        log.info("Completed testing cachesNothingWhenDisabled()");
+    }
+
+    @Test
+    void skipsReadItemWrittenSinceRead() {
+        log.info("Testing skipsReadItemWrittenSinceRead()");
+
+        // given
+        DynamoDbItemCache dynamoDbItemCache = buildDynamoDbItemCache(Duration.ofMinutes(1), 10);
+        Customer staleCustomer = buildCustomer("ID-1");
+        long readGeneration = dynamoDbItemCache.currentGeneration();
+        dynamoDbItemCache.invalidate(Customer.class, keyOf(staleCustomer));
+        // when
+        boolean cached = dynamoDbItemCache.putIfUnchanged(Customer.class, staleCustomer, readGeneration);
+        // then
+        assertThat(cached).isFalse();
+        assertThat(dynamoDbItemCache.get(Customer.class, keyOf(staleCustomer))).isEmpty();
+
+        log.info("Completed testing skipsReadItemWrittenSinceRead()");
+    }
+
+    @Test
+    void cachesReadItemOfKeyNotWrittenSinceRead() {
+        log.info("Testing cachesReadItemOfKeyNotWrittenSinceRead()");
+
+        // given
+        DynamoDbItemCache dynamoDbItemCache = buildDynamoDbItemCache(Duration.ofMinutes(1), 10);
+        Customer customer = buildCustomer("ID-1");
+        long readGeneration = dynamoDbItemCache.currentGeneration();
+        dynamoDbItemCache.invalidate(Customer.class, keyOf(buildCustomer("ID-2")));
+        // when
+        boolean cached = dynamoDbItemCache.putIfUnchanged(Customer.class, customer, readGeneration);
+        // then
+        assertThat(cached).isTrue();
+        assertThat(dynamoDbItemCache.get(Customer.class, keyOf(customer))).isPresent();
+
+        log.info("Completed testing cachesReadItemOfKeyNotWrittenSinceRead()");
+    }
+
+    @Test
+    void keepsCachedItemOfGreaterVersion() {
+        log.info("Testing keepsCachedItemOfGreaterVersion()");
+
+        // given
+        DynamoDbItemCache dynamoDbItemCache = buildDynamoDbItemCache(Duration.ofMinutes(1), 10);
+        VersionedCustomer newerCustomer = buildVersionedCustomer(2L);
+        dynamoDbItemCache.put(VersionedCustomer.class, newerCustomer);
+        // when
+        dynamoDbItemCache.put(VersionedCustomer.class, buildVersionedCustomer(1L));
+        // then
+        assertThat(dynamoDbItemCache.get(VersionedCustomer.class, keyOf(newerCustomer)).orElseThrow().getVersion())
+                .isEqualTo(2L);
+
+        log.info("Completed testing keepsCachedItemOfGreaterVersion()");
+    }
+
+    private DynamoDbItemCache buildDynamoDbItemCache(Duration timeToLive, int maxSize) {
+        return new DynamoDbItemCache(new DynamoDbItemCacheProperties(true, timeToLive, maxSize));
+    }
+
+    private Customer buildCustomer(String id) {
+        Customer customer = Customer.getSampleCustomer();
+        customer.setId(id);
+        return customer;
+    }
+
+    private VersionedCustomer buildVersionedCustomer(long version) {
+        VersionedCustomer customer = new VersionedCustomer();
+        customer.setId("ID-1");
+        customer.setEmail("help@abccompany.com");
+        customer.setVersion(version);
+        return customer;
+    }
+
+    private Key keyOf(Customer customer) {
+        return Key.builder().partitionValue(customer.getId()).sortValue(customer.getEmail()).build();
+    }
+}
@@ -0,0 +1,24 @@
+package net.breezeware.dynamo.aws.dynamodb;
+
+import software.amazon.awssdk.enhanced.dynamodb.extensions.annotations.DynamoDbVersionAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+
+@DynamoDbBean
+public class VersionedCustomer extends Customer {
+
+    private Long version;
+
+    @DynamoDbVersionAttribute
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String getDynamoDbEntityTableName() {
+        return "versioned-customer-db-entity-table";
+    }
+}
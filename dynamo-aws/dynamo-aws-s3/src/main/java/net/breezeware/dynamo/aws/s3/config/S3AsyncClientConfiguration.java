@@ -0,0 +1,102 @@
+package net.breezeware.dynamo.aws.s3.config;
+
+import java.net.URI;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import lombok.extern.slf4j.Slf4j;
+
+import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3CrtAsyncClientBuilder;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+
+/**
+ * AWS S3 asynchronous client configuration, active when
+ * {@code dynamo.aws.s3.client.implementation} is {@code async}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "dynamo.aws.s3.client", name = "implementation", havingValue = "async")
+public class S3AsyncClientConfiguration {
+
+    /**
+     * Builds a CRT based {@link S3AsyncClient} pointing to development
+     * endpoint.<br>
+     * Overrides credential provider to {@link ProfileCredentialsProvider} and
+     * endpoint to <a href="http://localhost:4566">Localstack Local URI</a> for
+     * <b>development</b> profile.
+     * @param  awsRegion            region of the client.
+     * @param  s3ClientProperties   connection and checksum settings of the
+     *                              client.
+     * @param  s3TransferProperties multipart threshold and part size of the
+     *                              client.
+     * @return                      {@link S3AsyncClient}.
+     */
+    @Profile("development")
+    @Bean("s3AsyncClient")
+    public S3AsyncClient buildS3DevAsyncClient(@Value("${aws.region}") String awsRegion,
+            S3ClientProperties s3ClientProperties, S3TransferProperties s3TransferProperties) {
+        log.debug("Entering buildS3DevAsyncClient(), awsRegion = {}", awsRegion);
+
+        S3AsyncClient s3AsyncClient = buildCrtClient(awsRegion, s3ClientProperties, s3TransferProperties)
+                .credentialsProvider(ProfileCredentialsProvider.create())
+                .endpointOverride(URI.create("http://localhost:4566")).build();
+
+        log.debug("Leaving buildS3DevAsyncClient(), s3AsyncClient = {}", s3AsyncClient);
+        return s3AsyncClient;
+    }
+
+    /**
+     * Builds a CRT based {@link S3AsyncClient} pointing to cloud.
+     * @param  awsRegion            region of the client.
+     * @param  s3ClientProperties   connection and checksum settings of the
+     *                              client.
+     * @param  s3TransferProperties multipart threshold and part size of the
+     *                              client.
+     * @return                      {@link S3AsyncClient}.
+     */
+    @Profile("!development")
+    @Bean("s3AsyncClient")
+    public S3AsyncClient buildS3AsyncClient(@Value("${aws.region}") String awsRegion,
+            S3ClientProperties s3ClientProperties, S3TransferProperties s3TransferProperties) {
+        log.debug("Entering buildS3AsyncClient(), awsRegion = {}", awsRegion);
+
+        S3AsyncClient s3AsyncClient = buildCrtClient(awsRegion, s3ClientProperties, s3TransferProperties).build();
+
+        log.debug("Leaving buildS3AsyncClient(), s3AsyncClient = {}", s3AsyncClient);
+        return s3AsyncClient;
+    }
+
+    /**
+     * Builds an {@link S3TransferManager} on the asynchronous client.
+     * @param  s3AsyncClient client the transfers are sent with.
+     * @return               {@link S3TransferManager}.
+     */
+    @Bean("s3TransferManager")
+    public S3TransferManager buildS3TransferManager(S3AsyncClient s3AsyncClient) {
+        log.debug("Entering buildS3TransferManager()");
+
+        S3TransferManager s3TransferManager = S3TransferManager.builder().s3Client(s3AsyncClient).build();
+
+        log.debug("Leaving buildS3TransferManager(), s3TransferManager = {}", s3TransferManager);
+        return s3TransferManager;
+    }
+
+    private S3CrtAsyncClientBuilder buildCrtClient(String awsRegion, S3ClientProperties s3ClientProperties,
+            S3TransferProperties s3TransferProperties) {
+        return S3AsyncClient.crtBuilder().region(Region.of(awsRegion))
+                .targetThroughputInGbps(s3ClientProperties.getTargetThroughputInGbps())
+                .maxConcurrency(s3ClientProperties.getMaxConcurrency())
+                .httpConfiguration(httpConfiguration -> httpConfiguration
+                        .connectionTimeout(s3ClientProperties.getConnectionTimeout()))
+                .checksumValidationEnabled(s3ClientProperties.isChecksumValidationEnabled())
+                .thresholdInBytes(s3TransferProperties.getMultipartThreshold().toBytes())
+                .minimumPartSizeInBytes(s3TransferProperties.getPartSize().toBytes());
+    }
+}
@@ -14,6 +14,7 @@ import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 /**
  * AWS S3 Client configuration class.
@@ -60,4 +61,41 @@ public class S3ClientConfiguration {
         log.debug("Leaving buildS3Client(), s3Client = {}", s3Client);
         return s3Client;
     }
+
+    /**
+     * Builds an {@link S3Presigner} pointing to development endpoint.<br>
+     * Overrides credential provider to {@link ProfileCredentialsProvider} and
+     * endpoint to <a href="http://localhost:4566">Localstack Local URI</a> for
+     * <b>development</b> profile.
+     * @param  awsRegion region of the presigner.
+     * @return           {@link S3Presigner}.
+     */
+    @Profile("development")
+    @Bean("s3Presigner")
+    public S3Presigner buildS3DevPresigner(@Value("${aws.region}") String awsRegion) {
+        log.debug("Entering buildS3DevPresigner(), awsRegion = {}", awsRegion);
+
+        S3Presigner s3Presigner = S3Presigner.builder().region(Region.of(awsRegion))
+                .credentialsProvider(ProfileCredentialsProvider.create())
+                .endpointOverride(URI.create("http://localhost:4566")).build();
+
+        log.debug("Leaving buildS3DevPresigner(), s3Presigner = {}", s3Presigner);
+        return s3Presigner;
+    }
+
+    /**
+     * Builds an {@link S3Presigner} pointing to cloud.
+     * @param  awsRegion region of the presigner.
+     * @return           {@link S3Presigner}.
+     */
+    @Profile("!development")
+    @Bean("s3Presigner")
+    public S3Presigner buildS3Presigner(@Value("${aws.region}") String awsRegion) {
+        log.debug("Entering buildS3Presigner(), awsRegion = {}", awsRegion);
+
+        S3Presigner s3Presigner = S3Presigner.builder().region(Region.of(awsRegion)).build();
+
+        log.debug("Leaving buildS3Presigner(), s3Presigner = {}", s3Presigner);
+        return s3Presigner;
+    }
 }
@@ -0,0 +1,66 @@
+package net.breezeware.dynamo.aws.s3.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+
+/**
+ * S3 client properties, bound from the {@code dynamo.aws.s3.client} prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Configuration
+@ConfigurationProperties(prefix = "dynamo.aws.s3.client")
+public class S3ClientProperties {
+
+    /**
+     * The implementation of the S3 service. {@code sync} transfers objects with
+     * the synchronous client, {@code async} with the transfer manager on the
+     * CRT based asynchronous client.
+     */
+    private Implementation implementation = Implementation.SYNC;
+
+    /**
+     * The throughput the asynchronous client aims for, in gigabits per second.
+     * Used to size its connection pool when maxConcurrency is not set.
+     */
+    private double targetThroughputInGbps = 10.0;
+
+    /**
+     * The maximum number of concurrent connections of the asynchronous client,
+     * or {@code null} to derive it from targetThroughputInGbps.
+     */
+    private Integer maxConcurrency;
+
+    /**
+     * The maximum time the asynchronous client waits to establish a connection.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Whether the asynchronous client validates the checksums of downloaded
+     * objects.
+     */
+    private boolean checksumValidationEnabled = true;
+
+    /**
+     * The algorithm of the checksum the asynchronous client computes for
+     * uploaded objects.
+     */
+    private ChecksumAlgorithm checksumAlgorithm = ChecksumAlgorithm.CRC32;
+
+    /**
+     * The implementations of the S3 service.
+     */
+    public enum Implementation {
+        SYNC, ASYNC
+    }
+}
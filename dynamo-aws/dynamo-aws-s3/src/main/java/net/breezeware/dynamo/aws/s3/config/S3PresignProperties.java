@@ -0,0 +1,35 @@
+package net.breezeware.dynamo.aws.s3.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * S3 presigned URL properties, bound from the {@code dynamo.aws.s3.presign}
+ * prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Configuration
+@ConfigurationProperties(prefix = "dynamo.aws.s3.presign")
+public class S3PresignProperties {
+
+    /**
+     * The time presigned URLs and POSTs are valid for when no expiry is given.
+     * At most 7 days.
+     */
+    private Duration expiry = Duration.ofMinutes(15);
+
+    /**
+     * The maximum size of an object uploaded with a presigned POST when no
+     * maximum is given.
+     */
+    private DataSize maxContentLength = DataSize.ofMegabytes(100);
+}
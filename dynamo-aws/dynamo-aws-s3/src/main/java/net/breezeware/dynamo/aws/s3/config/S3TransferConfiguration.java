@@ -0,0 +1,47 @@
+package net.breezeware.dynamo.aws.s3.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AWS S3 transfer configuration class.
+ */
+@Slf4j
+@Configuration
+public class S3TransferConfiguration {
+
+    /**
+     * Builds the executor transferring the parts of multipart uploads and
+     * downloads and sending batch deletes, shared by all the transfers and
+     * bounded to the configured maximum parallelism.
+     * @param  s3TransferProperties transfer properties.
+     * @return                      the transfer executor.
+     */
+    @Bean(name = "s3TransferExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService buildS3TransferExecutor(S3TransferProperties s3TransferProperties) {
+        log.debug("Entering buildS3TransferExecutor(), maxParallelism = {}", s3TransferProperties.getMaxParallelism());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "dynamo-s3-transfer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        ExecutorService s3TransferExecutor = new ThreadPoolExecutor(s3TransferProperties.getMaxParallelism(),
+                s3TransferProperties.getMaxParallelism(), 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                threadFactory);
+
+        log.debug("Leaving buildS3TransferExecutor()");
+        return s3TransferExecutor;
+    }
+}
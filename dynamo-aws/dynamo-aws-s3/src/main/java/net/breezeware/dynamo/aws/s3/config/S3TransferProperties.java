@@ -0,0 +1,50 @@
+package net.breezeware.dynamo.aws.s3.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * S3 object transfer properties, bound from the {@code dynamo.aws.s3.transfer}
+ * prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Configuration
+@ConfigurationProperties(prefix = "dynamo.aws.s3.transfer")
+public class S3TransferProperties {
+
+    /**
+     * The size above which objects are uploaded as multipart uploads instead of
+     * a single PUT, and downloaded to an output stream with parallel ranged GETs
+     * instead of a single GET.
+     */
+    private DataSize multipartThreshold = DataSize.ofMegabytes(16);
+
+    /**
+     * The size of the parts of a multipart upload or download. Raised to the S3
+     * minimum of 5MB, and further when the object would otherwise exceed 10,000
+     * parts.
+     */
+    private DataSize partSize = DataSize.ofMegabytes(8);
+
+    /**
+     * The maximum number of parts of a single multipart upload or download
+     * transferred in parallel. Each part is buffered on the heap while it is
+     * transferred, so a transfer holds at most {@code concurrency × partSize}
+     * bytes.
+     */
+    private int concurrency = 4;
+
+    /**
+     * The number of threads of the executor shared by all the multipart
+     * transfers and batch deletes, bounding the parts transferred in parallel
+     * across all the transfers.
+     */
+    private int maxParallelism = 16;
+}
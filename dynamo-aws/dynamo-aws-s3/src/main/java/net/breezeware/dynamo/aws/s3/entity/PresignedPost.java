@@ -0,0 +1,36 @@
+package net.breezeware.dynamo.aws.s3.entity;
+
+import java.io.Serializable;
+import java.net.URL;
+import java.time.Instant;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Represents a presigned POST, which lets a browser upload an object directly
+ * to an S3 bucket with an HTML form. The form is posted to the URL with the
+ * form fields, followed by the object content as the last field named
+ * {@code file}.
+ */
+@Data
+@Builder
+public class PresignedPost implements Serializable {
+
+    /**
+     * The URL of the bucket the form is posted to.
+     */
+    private URL url;
+
+    /**
+     * The form fields, including the signed policy, to be posted before the
+     * object content.
+     */
+    private Map<String, String> formFields;
+
+    /**
+     * The time after which the form is no longer accepted.
+     */
+    private Instant expiration;
+}
@@ -1,7 +1,19 @@
 package net.breezeware.dynamo.aws.s3.service.api;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import net.breezeware.dynamo.aws.s3.entity.PresignedPost;
 import net.breezeware.dynamo.aws.s3.exception.DynamoS3Exception;
 
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
 /**
  * S3 service.
  */
@@ -18,6 +30,68 @@ public interface S3Service {
      */
     String uploadObject(String bucketName, String objectKey, byte[] uploadObject) throws DynamoS3Exception;
 
+    /**
+     * Uploads the content of a stream to the Amazon S3. Objects larger than the
+     * multipart threshold are uploaded as a multipart upload whose parts are
+     * transferred in parallel; a failed multipart upload is aborted.
+     * @param  bucketName        Name of the bucket.
+     * @param  objectKey         Uniquely identifies the object.
+     * @param  inputStream       stream of the object to be uploaded. It is read
+     *                           up to contentLength bytes and not closed.
+     * @param  contentLength     length of the object in bytes.
+     * @return                   Server-side ETag value for the newly created
+     *                           object.
+     * @throws DynamoS3Exception if the stream could not be read or the object
+     *                           could not be uploaded.
+     */
+    String uploadObject(String bucketName, String objectKey, InputStream inputStream, long contentLength)
+            throws DynamoS3Exception;
+
+    /**
+     * Uploads a file to the Amazon S3. Files larger than the multipart threshold
+     * are uploaded as a multipart upload whose parts are transferred in
+     * parallel; a failed multipart upload is aborted.
+     * @param  bucketName        Name of the bucket.
+     * @param  objectKey         Uniquely identifies the object.
+     * @param  path              file to be uploaded.
+     * @return                   Server-side ETag value for the newly created
+     *                           object.
+     * @throws DynamoS3Exception if the file could not be read or the object
+     *                           could not be uploaded.
+     */
+    String uploadObject(String bucketName, String objectKey, Path path) throws DynamoS3Exception;
+
+    /**
+     * Uploads the content of a stream to the Amazon S3 under a key derived from
+     * its content, the SHA-256 digest of the content in hex appended to the key
+     * prefix. The digest is computed while the stream is read, and the upload is
+     * skipped when an object with that key already exists, so identical content
+     * is stored once. Streams larger than the multipart threshold are spooled to
+     * a temporary file while they are hashed.
+     * @param  bucketName        Name of the bucket.
+     * @param  keyPrefix         Prefix of the key, e.g. {@code "artifacts/"}.
+     * @param  inputStream       stream of the object to be uploaded. It is read
+     *                           up to contentLength bytes and not closed.
+     * @param  contentLength     length of the object in bytes.
+     * @return                   Key of the object with the content.
+     * @throws DynamoS3Exception if the stream could not be read or the object
+     *                           could not be uploaded.
+     */
+    String uploadContentAddressedObject(String bucketName, String keyPrefix, InputStream inputStream,
+            long contentLength) throws DynamoS3Exception;
+
+    /**
+     * Uploads a file to the Amazon S3 under a key derived from its content, as
+     * {@link #uploadContentAddressedObject(String, String, InputStream, long)}.
+     * @param  bucketName        Name of the bucket.
+     * @param  keyPrefix         Prefix of the key, e.g. {@code "artifacts/"}.
+     * @param  path              file to be uploaded.
+     * @return                   Key of the object with the content.
+     * @throws DynamoS3Exception if the file could not be read or the object
+     *                           could not be uploaded.
+     */
+    String uploadContentAddressedObject(String bucketName, String keyPrefix, Path path) throws DynamoS3Exception;
+
     /**
      * Deletes object from the Amazon S3.
      * @param  bucketName        Name of the bucket.
@@ -26,6 +100,41 @@ public interface S3Service {
      */
     void deleteObject(String bucketName, String objectKey) throws DynamoS3Exception;
 
+    /**
+     * Deletes objects from the Amazon S3 with multi-object delete requests of up
+     * to 1,000 keys each, sent in parallel.
+     * @param  bucketName        Name of the bucket.
+     * @param  objectKeys        Keys of the objects to delete.
+     * @throws DynamoS3Exception if any of the objects could not be deleted. The
+     *                           remaining objects are deleted nevertheless.
+     */
+    void deleteObjects(String bucketName, List<String> objectKeys) throws DynamoS3Exception;
+
+    /**
+     * Deletes all objects whose key starts with a prefix from the Amazon S3,
+     * e.g. a folder. The objects are listed page by page, and each page is
+     * deleted with a multi-object delete request while the next is listed.
+     * @param  bucketName        Name of the bucket.
+     * @param  prefix            Prefix of the keys of the objects to delete.
+     * @return                   Number of deleted objects.
+     * @throws DynamoS3Exception if the objects could not be listed or any of
+     *                           them could not be deleted.
+     */
+    long deletePrefix(String bucketName, String prefix) throws DynamoS3Exception;
+
+    /**
+     * Copies an object within the Amazon S3, without transferring its content
+     * through the service. Objects of up to 5 GB can be copied.
+     * @param  sourceBucketName      Name of the bucket of the object.
+     * @param  sourceObjectKey       Key of the object.
+     * @param  destinationBucketName Name of the bucket of the copy.
+     * @param  destinationObjectKey  Key of the copy.
+     * @return                       Server-side ETag value of the copy.
+     * @throws DynamoS3Exception     Throws user defined exception.
+     */
+    String copyObject(String sourceBucketName, String sourceObjectKey, String destinationBucketName,
+            String destinationObjectKey) throws DynamoS3Exception;
+
     /**
      * Downloads object from the Amazon S3 as byte array.
      * @param  bucketName        Name of the bucket.
@@ -35,4 +144,153 @@ public interface S3Service {
      *                           from the object.
      */
     byte[] downloadObject(String bucketName, String objectKey) throws DynamoS3Exception;
+
+    /**
+     * Downloads object from the Amazon S3 as a stream, without buffering it on
+     * the heap. The stream must be closed by the caller to release its
+     * connection.
+     * @param  bucketName        Name of the bucket.
+     * @param  objectKey         Uniquely identifies the object.
+     * @return                   Stream of the object content, whose
+     *                           {@link ResponseInputStream#response()} holds
+     *                           the object metadata.
+     * @throws DynamoS3Exception in case of any error while downloading the
+     *                           object.
+     */
+    ResponseInputStream<GetObjectResponse> downloadObjectAsStream(String bucketName, String objectKey)
+            throws DynamoS3Exception;
+
+    /**
+     * Downloads a byte range of an object from the Amazon S3 as a stream, as
+     * with the HTTP {@code Range: bytes=firstByte-lastByte} header. The stream
+     * must be closed by the caller to release its connection.
+     * @param  bucketName        Name of the bucket.
+     * @param  objectKey         Uniquely identifies the object.
+     * @param  firstByte         Zero based position of the first byte of the
+     *                           range.
+     * @param  lastByte          Zero based position of the last byte of the
+     *                           range, inclusive. Ranges past the end of the
+     *                           object end at its last byte.
+     * @return                   Stream of the range, whose
+     *                           {@link GetObjectResponse#contentRange()} holds
+     *                           the returned range and the object size.
+     * @throws DynamoS3Exception if the range is invalid or in case of any error
+     *                           while downloading the object.
+     */
+    ResponseInputStream<GetObjectResponse> downloadObjectAsStream(String bucketName, String objectKey, long firstByte,
+            long lastByte) throws DynamoS3Exception;
+
+    /**
+     * Downloads object from the Amazon S3 to an output stream, such as the
+     * output stream of a servlet response. Objects larger than the multipart
+     * threshold are downloaded with parallel ranged GETs and written in order.
+     * @param  bucketName        Name of the bucket.
+     * @param  objectKey         Uniquely identifies the object.
+     * @param  outputStream      stream the object is written to. It is not
+     *                           closed.
+     * @return                   Number of bytes written.
+     * @throws DynamoS3Exception in case of any error while downloading or
+     *                           writing the object.
+     */
+    long downloadObject(String bucketName, String objectKey, OutputStream outputStream) throws DynamoS3Exception;
+
+    /**
+     * Generates a presigned URL a client can download an object with directly
+     * from the Amazon S3, using an HTTP GET.
+     * @param  bucketName        Name of the bucket.
+     * @param  objectKey         Uniquely identifies the object.
+     * @param  expiry            Time the URL is valid for, or {@code null} for
+     *                           the configured default. At most 7 days.
+     * @return                   Presigned URL.
+     * @throws DynamoS3Exception if the expiry is invalid or the URL could not be
+     *                           presigned.
+     */
+    URL generatePresignedDownloadUrl(String bucketName, String objectKey, Duration expiry) throws DynamoS3Exception;
+
+    /**
+     * Generates a presigned URL a client can upload an object with directly to
+     * the Amazon S3, using an HTTP PUT. The content type and length, when given,
+     * are signed into the URL, so the client must send the same
+     * {@code Content-Type} and {@code Content-Length} headers.
+     * @param  bucketName        Name of the bucket.
+     * @param  objectKey         Uniquely identifies the object.
+     * @param  contentType       Content type of the object, or {@code null}.
+     * @param  contentLength     Length of the object in bytes, or {@code null}.
+     * @param  expiry            Time the URL is valid for, or {@code null} for
+     *                           the configured default. At most 7 days.
+     * @return                   Presigned URL.
+     * @throws DynamoS3Exception if the expiry is invalid or the URL could not be
+     *                           presigned.
+     */
+    URL generatePresignedUploadUrl(String bucketName, String objectKey, String contentType, Long contentLength,
+            Duration expiry) throws DynamoS3Exception;
+
+    /**
+     * Generates a presigned POST a browser can upload an object with directly to
+     * the Amazon S3, using an HTML form. Unlike a presigned PUT, the size of the
+     * object is limited to a range instead of an exact length.
+     * @param  bucketName        Name of the bucket.
+     * @param  objectKey         Uniquely identifies the object.
+     * @param  contentType       Content type of the object, or {@code null} to
+     *                           accept any.
+     * @param  maxContentLength  Maximum length of the object in bytes, or
+     *                           {@code null} for the configured default.
+     * @param  expiry            Time the form is valid for, or {@code null} for
+     *                           the configured default. At most 7 days.
+     * @return                   Presigned POST with the URL and form fields.
+     * @throws DynamoS3Exception if the expiry is invalid or the policy could not
+     *                           be signed.
+     */
+    PresignedPost generatePresignedPost(String bucketName, String objectKey, String contentType,
+            Long maxContentLength, Duration expiry) throws DynamoS3Exception;
+
+    /**
+     * Starts a multipart upload, whose parts can be uploaded by a client with
+     * {@link #generatePresignedUploadPartUrl(String, String, String, int, Duration)}.
+     * @param  bucketName        Name of the bucket.
+     * @param  objectKey         Uniquely identifies the object.
+     * @return                   Upload ID of the multipart upload.
+     * @throws DynamoS3Exception Throws user defined exception.
+     */
+    String createMultipartUpload(String bucketName, String objectKey) throws DynamoS3Exception;
+
+    /**
+     * Generates a presigned URL a client can upload a part of a multipart upload
+     * with directly to the Amazon S3, using an HTTP PUT. The client returns the
+     * {@code ETag} header of the response, which is needed to complete the
+     * upload.
+     * @param  bucketName        Name of the bucket.
+     * @param  objectKey         Uniquely identifies the object.
+     * @param  uploadId          Upload ID of the multipart upload.
+     * @param  partNumber        Number of the part, from 1 to 10,000.
+     * @param  expiry            Time the URL is valid for, or {@code null} for
+     *                           the configured default. At most 7 days.
+     * @return                   Presigned URL.
+     * @throws DynamoS3Exception if the expiry is invalid or the URL could not be
+     *                           presigned.
+     */
+    URL generatePresignedUploadPartUrl(String bucketName, String objectKey, String uploadId, int partNumber,
+            Duration expiry) throws DynamoS3Exception;
+
+    /**
+     * Completes a multipart upload from its uploaded parts.
+     * @param  bucketName        Name of the bucket.
+     * @param  objectKey         Uniquely identifies the object.
+     * @param  uploadId          Upload ID of the multipart upload.
+     * @param  completedParts    Part numbers and ETags of the uploaded parts.
+     * @return                   Server-side ETag value for the newly created
+     *                           object.
+     * @throws DynamoS3Exception Throws user defined exception.
+     */
+    String completeMultipartUpload(String bucketName, String objectKey, String uploadId,
+            List<CompletedPart> completedParts) throws DynamoS3Exception;
+
+    /**
+     * Aborts a multipart upload, discarding its uploaded parts.
+     * @param  bucketName        Name of the bucket.
+     * @param  objectKey         Uniquely identifies the object.
+     * @param  uploadId          Upload ID of the multipart upload.
+     * @throws DynamoS3Exception Throws user defined exception.
+     */
+    void abortMultipartUpload(String bucketName, String objectKey, String uploadId) throws DynamoS3Exception;
 }
@@ -0,0 +1,116 @@
+package net.breezeware.dynamo.aws.s3.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import software.amazon.awssdk.identity.spi.AwsCredentialsIdentity;
+import software.amazon.awssdk.identity.spi.AwsSessionCredentialsIdentity;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.utils.BinaryUtils;
+
+/**
+ * Builds the signed form fields of an S3 presigned POST, as described in
+ * <a href="https://docs.aws.amazon.com/AmazonS3/latest/API/sigv4-HTTPPOSTConstructPolicy.html">Creating
+ * a POST policy</a>. The {@code S3Presigner} of the AWS SDK only presigns
+ * requests with a method, so the policy is signed here with AWS Signature
+ * Version 4.
+ */
+final class S3PostPolicySigner {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private S3PostPolicySigner() {
+    }
+
+    /**
+     * Builds the form fields of a presigned POST. The policy restricts the
+     * upload to the object key, the content type when given, and a content
+     * length of at most maxContentLength bytes.
+     * @param  credentials      the credentials the policy is signed with.
+     * @param  region           the region of the bucket.
+     * @param  bucketName       the name of the bucket.
+     * @param  objectKey        the key of the uploaded object.
+     * @param  contentType      the content type of the uploaded object, or
+     *                          {@code null} to accept any.
+     * @param  maxContentLength the maximum size of the uploaded object in bytes.
+     * @param  signingTime      the time the policy is signed at.
+     * @param  expiration       the time after which the policy is rejected.
+     * @return                  the form fields, in the order they are posted.
+     */
+    static Map<String, String> buildFormFields(AwsCredentialsIdentity credentials, Region region, String bucketName,
+            String objectKey, String contentType, long maxContentLength, Instant signingTime, Instant expiration) {
+        String date = DATE_FORMATTER.format(signingTime);
+        Map<String, String> formFields = new LinkedHashMap<>();
+        formFields.put("key", objectKey);
+        if (contentType != null) {
+            formFields.put("Content-Type", contentType);
+        }
+
+        formFields.put("x-amz-algorithm", ALGORITHM);
+        formFields.put("x-amz-credential",
+                credentials.accessKeyId() + "/" + date + "/" + region.id() + "/s3/aws4_request");
+        formFields.put("x-amz-date", DATE_TIME_FORMATTER.format(signingTime));
+        if (credentials instanceof AwsSessionCredentialsIdentity sessionCredentials) {
+            formFields.put("x-amz-security-token", sessionCredentials.sessionToken());
+        }
+
+        StringBuilder policy = new StringBuilder("{\"expiration\":")
+                .append(quote(DateTimeFormatter.ISO_INSTANT.format(expiration.truncatedTo(ChronoUnit.SECONDS))))
+                .append(",\"conditions\":[{\"bucket\":").append(quote(bucketName)).append('}');
+        formFields.forEach((name, value) -> policy.append(",{").append(quote(name)).append(':').append(quote(value))
+                .append('}'));
+        policy.append(",[\"content-length-range\",0,").append(maxContentLength).append("]]}");
+
+        String encodedPolicy = Base64.getEncoder().encodeToString(policy.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] signingKey = hmac(hmac(hmac(hmac(("AWS4" + credentials.secretAccessKey())
+                .getBytes(StandardCharsets.UTF_8), date), region.id()), "s3"), "aws4_request");
+        formFields.put("policy", encodedPolicy);
+        formFields.put("x-amz-signature", BinaryUtils.toHex(hmac(signingKey, encodedPolicy)));
+        return formFields;
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+
+    }
+
+    /**
+     * Quotes a value as a JSON string.
+     */
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+
+        }
+
+        return quoted.append('"').toString();
+    }
+}
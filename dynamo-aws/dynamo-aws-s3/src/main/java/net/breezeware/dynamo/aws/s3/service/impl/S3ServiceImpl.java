@@ -1,47 +1,316 @@
 package net.breezeware.dynamo.aws.s3.service.impl;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
+import net.breezeware.dynamo.aws.s3.config.S3PresignProperties;
+import net.breezeware.dynamo.aws.s3.config.S3TransferProperties;
+import net.breezeware.dynamo.aws.s3.entity.PresignedPost;
 import net.breezeware.dynamo.aws.s3.exception.DynamoS3Exception;
 import net.breezeware.dynamo.aws.s3.service.api.S3Service;
 
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.identity.spi.AwsCredentialsIdentity;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ServiceClientConfiguration;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.GetUrlRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.InvalidObjectStateException;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Error;
 import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+import software.amazon.awssdk.utils.BinaryUtils;
+import software.amazon.awssdk.utils.http.SdkHttpUtils;
 
 /**
- * S3 service implementation.
+ * S3 service implementation on the synchronous {@link S3Client}, active unless
+ * {@code dynamo.aws.s3.client.implementation} is {@code async}.
  */
 @Service
 @Slf4j
-@AllArgsConstructor
+@ConditionalOnProperty(prefix = "dynamo.aws.s3.client", name = "implementation", havingValue = "sync",
+        matchIfMissing = true)
 public class S3ServiceImpl implements S3Service {
 
+    /**
+     * The minimum size of all but the last part of a multipart upload.
+     */
+    private static final long MIN_PART_SIZE = DataSize.ofMegabytes(5).toBytes();
+
+    /**
+     * The maximum number of parts of a multipart upload.
+     */
+    private static final int MAX_PART_COUNT = 10_000;
+
+    /**
+     * The maximum time an aborted multipart upload waits for its parts in flight
+     * before the upload is aborted.
+     */
+    private static final long PART_TERMINATION_TIMEOUT_SECONDS = 30;
+
+    /**
+     * The maximum expiry of a request signed with AWS Signature Version 4.
+     */
+    private static final Duration MAX_PRESIGN_EXPIRY = Duration.ofDays(7);
+
+    /**
+     * The maximum number of keys of a multi-object delete request.
+     */
+    private static final int MAX_DELETE_BATCH_SIZE = 1000;
+
+    /**
+     * The digest algorithm of the keys of content addressed objects.
+     */
+    private static final String CONTENT_DIGEST_ALGORITHM = "SHA-256";
+
     private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
+    private final S3TransferProperties s3TransferProperties;
+    private final S3PresignProperties s3PresignProperties;
+    private final ExecutorService s3TransferExecutor;
+
+    /**
+     * Builds the S3 service.
+     * @param s3Client             client of the S3 operations.
+     * @param s3Presigner          presigner of the presigned URLs.
+     * @param s3TransferProperties multipart settings.
+     * @param s3PresignProperties  presigned URL settings.
+     * @param s3TransferExecutor   executor shared by the multipart transfers.
+     */
+    public S3ServiceImpl(S3Client s3Client, S3Presigner s3Presigner, S3TransferProperties s3TransferProperties,
+            S3PresignProperties s3PresignProperties,
+            @Qualifier("s3TransferExecutor") ExecutorService s3TransferExecutor) {
+        this.s3Client = s3Client;
+        this.s3Presigner = s3Presigner;
+        this.s3TransferProperties = s3TransferProperties;
+        this.s3PresignProperties = s3PresignProperties;
+        this.s3TransferExecutor = s3TransferExecutor;
+    }
 
     @Override
     public String uploadObject(String bucketName, String objectKey, byte[] uploadObject) throws DynamoS3Exception {
         log.info("Entering uploadObject(), bucketName = {}, objectKey = {}", bucketName, objectKey);
+        String etag = putObject(bucketName, objectKey, RequestBody.fromBytes(uploadObject));
+        log.info("Leaving uploadObject, etag = {}", etag);
+        return etag;
+    }
+
+    @Override
+    public String uploadObject(String bucketName, String objectKey, InputStream inputStream, long contentLength)
+            throws DynamoS3Exception {
+        log.info("Entering uploadObject(), bucketName = {}, objectKey = {}, contentLength = {}", bucketName, objectKey,
+                contentLength);
+        String etag;
+        if (contentLength <= s3TransferProperties.getMultipartThreshold().toBytes()) {
+            etag = putObject(bucketName, objectKey, RequestBody.fromInputStream(inputStream, contentLength));
+        } else {
+            etag = uploadMultipartObject(bucketName, objectKey, inputStream, contentLength);
+        }
+
+        log.info("Leaving uploadObject, etag = {}", etag);
+        return etag;
+    }
+
+    @Override
+    public String uploadObject(String bucketName, String objectKey, Path path) throws DynamoS3Exception {
+        log.info("Entering uploadObject(), bucketName = {}, objectKey = {}, path = {}", bucketName, objectKey, path);
+        String etag;
+        try {
+            long contentLength = Files.size(path);
+            if (contentLength <= s3TransferProperties.getMultipartThreshold().toBytes()) {
+                etag = putObject(bucketName, objectKey, RequestBody.fromFile(path));
+            } else {
+                try (InputStream inputStream = Files.newInputStream(path)) {
+                    etag = uploadMultipartObject(bucketName, objectKey, inputStream, contentLength);
+                }
+
+            }
+
+        } catch (IOException e) {
+            log.error("Error while reading file to upload to the S3 bucket, error = {}", e.getMessage());
+            throw new DynamoS3Exception(e.getMessage(), e);
+        }
+
+        log.info("Leaving uploadObject, etag = {}", etag);
+        return etag;
+    }
+
+    @Override
+    public String uploadContentAddressedObject(String bucketName, String keyPrefix, InputStream inputStream,
+            long contentLength) throws DynamoS3Exception {
+        log.info("Entering uploadContentAddressedObject(), bucketName = {}, keyPrefix = {}, contentLength = {}",
+                bucketName, keyPrefix, contentLength);
+        MessageDigest messageDigest = createContentDigest();
+        DigestInputStream digestInputStream = new DigestInputStream(inputStream, messageDigest);
+        String objectKey;
+        try {
+            if (contentLength <= s3TransferProperties.getMultipartThreshold().toBytes()) {
+                byte[] content = digestInputStream.readNBytes(Math.toIntExact(contentLength));
+                if (content.length < contentLength) {
+                    throw new EOFException("Stream ended before the content length of " + contentLength
+                            + " bytes was read");
+                }
+
+                objectKey = keyPrefix + BinaryUtils.toHex(messageDigest.digest());
+                if (!objectExists(bucketName, objectKey)) {
+                    uploadObject(bucketName, objectKey, content);
+                }
+
+            } else {
+                // Spooled to a temporary file, since the key is only known once the whole stream is read.
+                Path spoolFile = Files.createTempFile("dynamo-s3-", ".upload");
+                try {
+                    try (OutputStream spoolStream = Files.newOutputStream(spoolFile)) {
+                        long spooled = digestInputStream.transferTo(spoolStream);
+                        if (spooled != contentLength) {
+                            throw new EOFException("Stream of " + spooled + " bytes does not match the content length"
+                                    + " of " + contentLength + " bytes");
+                        }
+
+                    }
+
+                    objectKey = keyPrefix + BinaryUtils.toHex(messageDigest.digest());
+                    if (!objectExists(bucketName, objectKey)) {
+                        uploadObject(bucketName, objectKey, spoolFile);
+                    }
+
+                } finally {
+                    Files.deleteIfExists(spoolFile);
+                }
+
+            }
+
+        } catch (IOException e) {
+            log.error("Error while reading object to upload to the S3 bucket, error = {}", e.getMessage());
+            throw new DynamoS3Exception(e.getMessage(), e);
+        }
+
+        log.info("Leaving uploadContentAddressedObject(), objectKey = {}", objectKey);
+        return objectKey;
+    }
+
+    @Override
+    public String uploadContentAddressedObject(String bucketName, String keyPrefix, Path path)
+            throws DynamoS3Exception {
+        log.info("Entering uploadContentAddressedObject(), bucketName = {}, keyPrefix = {}, path = {}", bucketName,
+                keyPrefix, path);
+        MessageDigest messageDigest = createContentDigest();
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(path), messageDigest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            log.error("Error while reading file to upload to the S3 bucket, error = {}", e.getMessage());
+            throw new DynamoS3Exception(e.getMessage(), e);
+        }
+
+        String objectKey = keyPrefix + BinaryUtils.toHex(messageDigest.digest());
+        if (!objectExists(bucketName, objectKey)) {
+            uploadObject(bucketName, objectKey, path);
+        }
+
+        log.info("Leaving uploadContentAddressedObject(), objectKey = {}", objectKey);
+        return objectKey;
+    }
+
+    private MessageDigest createContentDigest() {
+        try {
+            return MessageDigest.getInstance(CONTENT_DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(CONTENT_DIGEST_ALGORITHM + " is not available", e);
+        }
+
+    }
+
+    /**
+     * Checks whether an object exists with a HEAD request.
+     */
+    private boolean objectExists(String bucketName, String objectKey) throws DynamoS3Exception {
+        try {
+            s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(objectKey).build());
+            log.info("Object with key = {} already exists in bucket = {}, skipping upload", objectKey, bucketName);
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+
+            throw buildDynamoS3Exception("checking", e);
+        } catch (SdkClientException e) {
+            throw buildDynamoS3Exception("checking", e);
+        }
+
+    }
+
+    /**
+     * Uploads an object with a single PUT request.
+     */
+    private String putObject(String bucketName, String objectKey, RequestBody requestBody)
+            throws DynamoS3Exception {
         try {
             PutObjectRequest putObjectRequest = PutObjectRequest.builder().bucket(bucketName).key(objectKey).build();
-            RequestBody requestBody = RequestBody.fromBytes(uploadObject);
             PutObjectResponse putObjectResponse = s3Client.putObject(putObjectRequest, requestBody);
-            String etag = putObjectResponse.eTag();
-
-            log.info("Leaving uploadObject, etag = {}", etag);
-            return etag;
+            return putObjectResponse.eTag();
         } catch (S3Exception e) {
             log.error("AWS S3 service error while uploading object, error = {}", e.awsErrorDetails().errorMessage());
             throw new DynamoS3Exception(e.getMessage(), e);
@@ -52,6 +321,196 @@ public class S3ServiceImpl implements S3Service {
 
     }
 
+    /**
+     * Uploads an object as a multipart upload. The parts are read from the
+     * stream one after another and uploaded in parallel on the shared transfer
+     * executor, with at most {@link S3TransferProperties#getConcurrency()} parts
+     * buffered at a time. The upload is aborted if reading or uploading any of
+     * the parts fails.
+     */
+    private String uploadMultipartObject(String bucketName, String objectKey, InputStream inputStream,
+            long contentLength) throws DynamoS3Exception {
+        log.debug("Entering uploadMultipartObject(), bucketName = {}, objectKey = {}, contentLength = {}", bucketName,
+                objectKey, contentLength);
+        int partSize = resolvePartSize(contentLength);
+        int partCount = Math.toIntExact((contentLength + partSize - 1) / partSize);
+        int concurrency = Math.max(1, Math.min(s3TransferProperties.getConcurrency(), partCount));
+        String uploadId = createMultipartUpload(bucketName, objectKey);
+        log.debug("Created multipart upload, uploadId = {}, partSize = {}, partCount = {}", uploadId, partSize,
+                partCount);
+
+        Semaphore bufferPermits = new Semaphore(concurrency);
+        AtomicBoolean partFailed = new AtomicBoolean();
+        List<Future<CompletedPart>> partFutures = new ArrayList<>(partCount);
+        try {
+            for (int partNumber = 1; partNumber <= partCount && !partFailed.get(); partNumber++) {
+                int partLength = (int) Math.min(partSize, contentLength - (long) (partNumber - 1) * partSize);
+                bufferPermits.acquire();
+                byte[] partBytes = new byte[partLength];
+                try {
+                    if (inputStream.readNBytes(partBytes, 0, partLength) < partLength) {
+                        throw new EOFException("Stream ended before the content length of " + contentLength
+                                + " bytes was read");
+                    }
+
+                } catch (IOException e) {
+                    bufferPermits.release();
+                    throw e;
+                }
+
+                int uploadedPartNumber = partNumber;
+                partFutures.add(s3TransferExecutor.submit(() -> {
+                    try {
+                        if (partFailed.get()) {
+                            // skipped, the failure of another part is surfaced instead
+                            return null;
+                        }
+
+                        return uploadPart(bucketName, objectKey, uploadId, uploadedPartNumber, partBytes);
+                    } catch (RuntimeException e) {
+                        partFailed.set(true);
+                        throw e;
+                    } finally {
+                        bufferPermits.release();
+                    }
+
+                }));
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>(partCount);
+            for (Future<CompletedPart> partFuture : partFutures) {
+                completedParts.add(partFuture.get());
+            }
+
+            String etag = sendCompleteMultipartUpload(bucketName, objectKey, uploadId, completedParts);
+
+            log.debug("Leaving uploadMultipartObject(), etag = {}", etag);
+            return etag;
+        } catch (IOException e) {
+            log.error("Error while reading object to upload to the S3 bucket, error = {}", e.getMessage());
+            cancelMultipartUpload(bucketName, objectKey, uploadId, partFailed, bufferPermits, concurrency);
+            throw new DynamoS3Exception(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while uploading object to the S3 bucket, uploadId = {}", uploadId);
+            cancelMultipartUpload(bucketName, objectKey, uploadId, partFailed, bufferPermits, concurrency);
+            throw new DynamoS3Exception("Interrupted while uploading object to the S3 bucket", e);
+        } catch (ExecutionException e) {
+            cancelMultipartUpload(bucketName, objectKey, uploadId, partFailed, bufferPermits, concurrency);
+            throw buildDynamoS3Exception("uploading", e.getCause());
+        } catch (SdkException e) {
+            cancelMultipartUpload(bucketName, objectKey, uploadId, partFailed, bufferPermits, concurrency);
+            throw buildDynamoS3Exception("uploading", e);
+        }
+
+    }
+
+    /**
+     * Resolves the part size of a multipart upload, raising the configured part
+     * size to the S3 minimum and to the size that keeps the object within the
+     * maximum number of parts.
+     */
+    private int resolvePartSize(long contentLength) {
+        long partSize = Math.max(s3TransferProperties.getPartSize().toBytes(), MIN_PART_SIZE);
+        partSize = Math.max(partSize, (contentLength + MAX_PART_COUNT - 1) / MAX_PART_COUNT);
+        return Math.toIntExact(partSize);
+    }
+
+    @Override
+    public String createMultipartUpload(String bucketName, String objectKey) throws DynamoS3Exception {
+        log.debug("Entering createMultipartUpload(), bucketName = {}, objectKey = {}", bucketName, objectKey);
+        try {
+            CreateMultipartUploadRequest createMultipartUploadRequest =
+                    CreateMultipartUploadRequest.builder().bucket(bucketName).key(objectKey).build();
+            String uploadId = s3Client.createMultipartUpload(createMultipartUploadRequest).uploadId();
+            log.debug("Leaving createMultipartUpload(), uploadId = {}", uploadId);
+            return uploadId;
+        } catch (SdkException e) {
+            throw buildDynamoS3Exception("uploading", e);
+        }
+
+    }
+
+    @Override
+    public String completeMultipartUpload(String bucketName, String objectKey, String uploadId,
+            List<CompletedPart> completedParts) throws DynamoS3Exception {
+        log.debug("Entering completeMultipartUpload(), bucketName = {}, objectKey = {}, uploadId = {}", bucketName,
+                objectKey, uploadId);
+        try {
+            String etag = sendCompleteMultipartUpload(bucketName, objectKey, uploadId, completedParts);
+            log.debug("Leaving completeMultipartUpload(), etag = {}", etag);
+            return etag;
+        } catch (SdkException e) {
+            throw buildDynamoS3Exception("uploading", e);
+        }
+
+    }
+
+    @Override
+    public void abortMultipartUpload(String bucketName, String objectKey, String uploadId) throws DynamoS3Exception {
+        log.debug("Entering abortMultipartUpload(), bucketName = {}, objectKey = {}, uploadId = {}", bucketName,
+                objectKey, uploadId);
+        try {
+            AbortMultipartUploadRequest abortMultipartUploadRequest =
+                    AbortMultipartUploadRequest.builder().bucket(bucketName).key(objectKey).uploadId(uploadId).build();
+            s3Client.abortMultipartUpload(abortMultipartUploadRequest);
+            log.debug("Leaving abortMultipartUpload()");
+        } catch (SdkException e) {
+            throw buildDynamoS3Exception("aborting the upload of", e);
+        }
+
+    }
+
+    private String sendCompleteMultipartUpload(String bucketName, String objectKey, String uploadId,
+            List<CompletedPart> completedParts) {
+        CompleteMultipartUploadRequest completeMultipartUploadRequest =
+                CompleteMultipartUploadRequest.builder().bucket(bucketName).key(objectKey).uploadId(uploadId)
+                        .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build()).build();
+        return s3Client.completeMultipartUpload(completeMultipartUploadRequest).eTag();
+    }
+
+    private CompletedPart uploadPart(String bucketName, String objectKey, String uploadId, int partNumber,
+            byte[] partBytes) {
+        log.debug("Uploading part, uploadId = {}, partNumber = {}", uploadId, partNumber);
+        UploadPartRequest uploadPartRequest = UploadPartRequest.builder().bucket(bucketName).key(objectKey)
+                .uploadId(uploadId).partNumber(partNumber).contentLength((long) partBytes.length).build();
+        RequestBody requestBody = RequestBody.fromContentProvider(() -> new ByteArrayInputStream(partBytes),
+                partBytes.length, "application/octet-stream");
+        UploadPartResponse uploadPartResponse = s3Client.uploadPart(uploadPartRequest, requestBody);
+        return CompletedPart.builder().partNumber(partNumber).eTag(uploadPartResponse.eTag()).build();
+    }
+
+    /**
+     * Aborts a multipart upload, so that S3 discards its uploaded parts. The
+     * parts not started yet are skipped and the parts still in flight are
+     * awaited first, by reclaiming all their buffer permits, since a part that
+     * completes after the abort would otherwise be stored again.
+     */
+    private void cancelMultipartUpload(String bucketName, String objectKey, String uploadId,
+            AtomicBoolean partFailed, Semaphore bufferPermits, int concurrency) {
+        log.info("Aborting multipart upload, bucketName = {}, objectKey = {}, uploadId = {}", bucketName, objectKey,
+                uploadId);
+        partFailed.set(true);
+        try {
+            if (!bufferPermits.tryAcquire(concurrency, PART_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Parts of multipart upload still in flight while aborting, uploadId = {}", uploadId);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            AbortMultipartUploadRequest abortMultipartUploadRequest =
+                    AbortMultipartUploadRequest.builder().bucket(bucketName).key(objectKey).uploadId(uploadId).build();
+            s3Client.abortMultipartUpload(abortMultipartUploadRequest);
+        } catch (SdkException e) {
+            log.error("AWS error while aborting multipart upload, uploadId = {}, error = {}", uploadId,
+                    e.getMessage());
+        }
+
+    }
+
     @Override
     public void deleteObject(String bucketName, String objectKey) throws DynamoS3Exception {
         log.debug("Entering deleteObject(), bucketName = {}, objectKey = {}", bucketName, objectKey);
@@ -72,6 +531,106 @@ public class S3ServiceImpl implements S3Service {
 
     }
 
+    @Override
+    public void deleteObjects(String bucketName, List<String> objectKeys) throws DynamoS3Exception {
+        log.debug("Entering deleteObjects(), bucketName = {}, objectKeys = {}", bucketName, objectKeys.size());
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < objectKeys.size(); i += MAX_DELETE_BATCH_SIZE) {
+            batches.add(objectKeys.subList(i, Math.min(i + MAX_DELETE_BATCH_SIZE, objectKeys.size())));
+        }
+
+        long deletedObjects = deleteObjectBatches(bucketName, batches.iterator());
+        log.info("Deleted {} objects from bucket = {}", deletedObjects, bucketName);
+        log.debug("Leaving deleteObjects()");
+    }
+
+    @Override
+    public long deletePrefix(String bucketName, String prefix) throws DynamoS3Exception {
+        log.debug("Entering deletePrefix(), bucketName = {}, prefix = {}", bucketName, prefix);
+        ListObjectsV2Request listObjectsV2Request = ListObjectsV2Request.builder().bucket(bucketName).prefix(prefix)
+                .maxKeys(MAX_DELETE_BATCH_SIZE).build();
+        Iterator<List<String>> batches = s3Client.listObjectsV2Paginator(listObjectsV2Request).stream()
+                .map(page -> page.contents().stream().map(S3Object::key).toList()).filter(keys -> !keys.isEmpty())
+                .iterator();
+        long deletedObjects = deleteObjectBatches(bucketName, batches);
+        log.info("Deleted {} objects with prefix = {} from bucket = {}", deletedObjects, prefix, bucketName);
+        log.debug("Leaving deletePrefix(), deletedObjects = {}", deletedObjects);
+        return deletedObjects;
+    }
+
+    /**
+     * Deletes batches of objects with multi-object delete requests, at most
+     * {@link S3TransferProperties#getConcurrency()} of them in parallel on the
+     * shared transfer executor. The batches are consumed lazily, so a listing is
+     * paged while the previous page is deleted. Requests still pending on
+     * failure are cancelled.
+     * @return the number of deleted objects.
+     */
+    private long deleteObjectBatches(String bucketName, Iterator<List<String>> batches) throws DynamoS3Exception {
+        int concurrency = Math.max(1, s3TransferProperties.getConcurrency());
+        Deque<Future<DeleteObjectsResponse>> deleteFutures = new ArrayDeque<>(concurrency);
+        List<S3Error> errors = new ArrayList<>();
+        long requestedObjects = 0;
+        try {
+            while (batches.hasNext() || !deleteFutures.isEmpty()) {
+                if (batches.hasNext() && deleteFutures.size() < concurrency) {
+                    List<String> batch = batches.next();
+                    requestedObjects += batch.size();
+                    DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder().bucket(bucketName)
+                            .delete(Delete.builder().quiet(true).objects(batch.stream()
+                                    .map(objectKey -> ObjectIdentifier.builder().key(objectKey).build()).toList())
+                                    .build())
+                            .build();
+                    deleteFutures.add(s3TransferExecutor.submit(() -> s3Client.deleteObjects(deleteObjectsRequest)));
+                } else {
+                    errors.addAll(deleteFutures.poll().get().errors());
+                }
+
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while deleting objects from the S3 bucket");
+            throw new DynamoS3Exception("Interrupted while deleting objects from the S3 bucket", e);
+        } catch (ExecutionException e) {
+            throw buildDynamoS3Exception("deleting", e.getCause());
+        } catch (SdkException e) {
+            throw buildDynamoS3Exception("deleting", e);
+        } finally {
+            deleteFutures.forEach(deleteFuture -> deleteFuture.cancel(true));
+        }
+
+        if (!errors.isEmpty()) {
+            S3Error error = errors.get(0);
+            log.error("Failed to delete {} of {} objects from the S3 bucket, e.g. key = {}, error = {}", errors.size(),
+                    requestedObjects, error.key(), error.message());
+            throw new DynamoS3Exception("Failed to delete " + errors.size() + " of " + requestedObjects
+                    + " objects, e.g. " + error.key() + ": " + error.message());
+        }
+
+        return requestedObjects;
+    }
+
+    @Override
+    public String copyObject(String sourceBucketName, String sourceObjectKey, String destinationBucketName,
+            String destinationObjectKey) throws DynamoS3Exception {
+        log.debug("""
+                Entering copyObject(), sourceBucketName = {}, sourceObjectKey = {}, destinationBucketName = {}, \
+                destinationObjectKey = {}\
+                """, sourceBucketName, sourceObjectKey, destinationBucketName, destinationObjectKey);
+        try {
+            CopyObjectRequest copyObjectRequest = CopyObjectRequest.builder().sourceBucket(sourceBucketName)
+                    .sourceKey(sourceObjectKey).destinationBucket(destinationBucketName)
+                    .destinationKey(destinationObjectKey).build();
+            String etag = s3Client.copyObject(copyObjectRequest).copyObjectResult().eTag();
+            log.debug("Leaving copyObject(), etag = {}", etag);
+            return etag;
+        } catch (SdkException e) {
+            throw buildDynamoS3Exception("copying", e);
+        }
+
+    }
+
     @Override
     public byte[] downloadObject(String bucketName, String objectKey) throws DynamoS3Exception {
         log.debug("Entering downloadObject(), bucketName = {}, objectKey = {}", bucketName, objectKey);
@@ -98,4 +657,277 @@ public class S3ServiceImpl implements S3Service {
 
     }
 
+    @Override
+    public ResponseInputStream<GetObjectResponse> downloadObjectAsStream(String bucketName, String objectKey)
+            throws DynamoS3Exception {
+        log.debug("Entering downloadObjectAsStream(), bucketName = {}, objectKey = {}", bucketName, objectKey);
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder().bucket(bucketName).key(objectKey).build();
+        ResponseInputStream<GetObjectResponse> objectStream = getObject(getObjectRequest);
+        log.debug("Leaving downloadObjectAsStream(), contentLength = {}", objectStream.response().contentLength());
+        return objectStream;
+    }
+
+    @Override
+    public ResponseInputStream<GetObjectResponse> downloadObjectAsStream(String bucketName, String objectKey,
+            long firstByte, long lastByte) throws DynamoS3Exception {
+        log.debug("Entering downloadObjectAsStream(), bucketName = {}, objectKey = {}, firstByte = {}, lastByte = {}",
+                bucketName, objectKey, firstByte, lastByte);
+        if (firstByte < 0 || lastByte < firstByte) {
+            throw new DynamoS3Exception("Invalid byte range " + firstByte + "-" + lastByte);
+        }
+
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder().bucket(bucketName).key(objectKey)
+                .range(buildRange(firstByte, lastByte)).build();
+        ResponseInputStream<GetObjectResponse> objectStream = getObject(getObjectRequest);
+        log.debug("Leaving downloadObjectAsStream(), contentRange = {}", objectStream.response().contentRange());
+        return objectStream;
+    }
+
+    @Override
+    public long downloadObject(String bucketName, String objectKey, OutputStream outputStream)
+            throws DynamoS3Exception {
+        log.debug("Entering downloadObject(), bucketName = {}, objectKey = {}", bucketName, objectKey);
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder().bucket(bucketName).key(objectKey).build();
+        try (ResponseInputStream<GetObjectResponse> objectStream = getObject(getObjectRequest)) {
+            long contentLength = objectStream.response().contentLength();
+            if (contentLength <= s3TransferProperties.getMultipartThreshold().toBytes()) {
+                objectStream.transferTo(outputStream);
+            } else {
+                downloadMultipartObject(bucketName, objectKey, objectStream, outputStream);
+            }
+
+            log.debug("Leaving downloadObject(), contentLength = {}", contentLength);
+            return contentLength;
+        } catch (IOException e) {
+            log.error("Error while writing object downloaded from the S3 bucket, error = {}", e.getMessage());
+            throw new DynamoS3Exception(e.getMessage(), e);
+        } catch (SdkException e) {
+            throw buildDynamoS3Exception("downloading", e);
+        }
+
+    }
+
+    /**
+     * Opens a stream of an object, or of a byte range of it.
+     */
+    protected ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest getObjectRequest)
+            throws DynamoS3Exception {
+        try {
+            return s3Client.getObject(getObjectRequest);
+        } catch (SdkException e) {
+            throw buildDynamoS3Exception("downloading", e);
+        }
+
+    }
+
+    /**
+     * Downloads an object larger than the multipart threshold with ranged GETs.
+     * The first part is streamed from the already opened object stream while up
+     * to {@link S3TransferProperties#getConcurrency()} of the following parts
+     * are fetched in parallel on the shared transfer executor; the parts are then
+     * written in order. Parts still pending when the download fails are
+     * cancelled. The ranged
+     * GETs are conditional on the ETag of the object stream, so an object
+     * overwritten during the download fails it instead of mixing two versions.
+     */
+    private void downloadMultipartObject(String bucketName, String objectKey,
+            ResponseInputStream<GetObjectResponse> objectStream, OutputStream outputStream)
+            throws IOException, DynamoS3Exception {
+        long contentLength = objectStream.response().contentLength();
+        String etag = objectStream.response().eTag();
+        int partSize = resolvePartSize(contentLength);
+        int partCount = Math.toIntExact((contentLength + partSize - 1) / partSize);
+        int concurrency = Math.max(1, Math.min(s3TransferProperties.getConcurrency(), partCount - 1));
+        log.debug("Entering downloadMultipartObject(), objectKey = {}, partSize = {}, partCount = {}", objectKey,
+                partSize, partCount);
+
+        Deque<Future<byte[]>> partFutures = new ArrayDeque<>(concurrency);
+        int nextPartIndex = 1;
+        try {
+            while (nextPartIndex < partCount && partFutures.size() < concurrency) {
+                partFutures.add(submitPartDownload(bucketName, objectKey, etag, nextPartIndex++, partSize,
+                        contentLength));
+            }
+
+            long remaining = partSize;
+            byte[] buffer = new byte[8192];
+            while (remaining > 0) {
+                int read = objectStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new EOFException("Object stream ended before its first part was read");
+                }
+
+                outputStream.write(buffer, 0, read);
+                remaining -= read;
+            }
+
+            // The rest of the object is fetched by the ranged GETs.
+            objectStream.abort();
+
+            while (!partFutures.isEmpty()) {
+                outputStream.write(partFutures.poll().get());
+                if (nextPartIndex < partCount) {
+                    partFutures.add(submitPartDownload(bucketName, objectKey, etag, nextPartIndex++, partSize,
+                            contentLength));
+                }
+
+            }
+
+            log.debug("Leaving downloadMultipartObject()");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while downloading object from the S3 bucket, objectKey = {}", objectKey);
+            throw new DynamoS3Exception("Interrupted while downloading object from the S3 bucket", e);
+        } catch (ExecutionException e) {
+            throw buildDynamoS3Exception("downloading", e.getCause());
+        } finally {
+            partFutures.forEach(partFuture -> partFuture.cancel(true));
+            objectStream.abort();
+        }
+
+    }
+
+    private Future<byte[]> submitPartDownload(String bucketName, String objectKey, String etag, int partIndex,
+            int partSize, long contentLength) {
+        long firstByte = (long) partIndex * partSize;
+        long lastByte = Math.min(firstByte + partSize, contentLength) - 1;
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder().bucket(bucketName).key(objectKey)
+                .range(buildRange(firstByte, lastByte)).ifMatch(etag).build();
+        return s3TransferExecutor.submit(() -> s3Client.getObjectAsBytes(getObjectRequest).asByteArrayUnsafe());
+    }
+
+    private String buildRange(long firstByte, long lastByte) {
+        return "bytes=" + firstByte + "-" + lastByte;
+    }
+
+    @Override
+    public URL generatePresignedDownloadUrl(String bucketName, String objectKey, Duration expiry)
+            throws DynamoS3Exception {
+        log.debug("Entering generatePresignedDownloadUrl(), bucketName = {}, objectKey = {}, expiry = {}", bucketName,
+                objectKey, expiry);
+        Duration signatureDuration = resolveExpiry(expiry);
+        try {
+            GetObjectRequest getObjectRequest = GetObjectRequest.builder().bucket(bucketName).key(objectKey).build();
+            URL url = s3Presigner.presignGetObject(GetObjectPresignRequest.builder()
+                    .signatureDuration(signatureDuration).getObjectRequest(getObjectRequest).build()).url();
+            log.debug("Leaving generatePresignedDownloadUrl()");
+            return url;
+        } catch (SdkException e) {
+            throw buildDynamoS3Exception("presigning", e);
+        }
+
+    }
+
+    @Override
+    public URL generatePresignedUploadUrl(String bucketName, String objectKey, String contentType, Long contentLength,
+            Duration expiry) throws DynamoS3Exception {
+        log.debug("""
+                Entering generatePresignedUploadUrl(), bucketName = {}, objectKey = {}, contentType = {}, \
+                contentLength = {}, expiry = {}\
+                """, bucketName, objectKey, contentType, contentLength, expiry);
+        Duration signatureDuration = resolveExpiry(expiry);
+        try {
+            PutObjectRequest putObjectRequest = PutObjectRequest.builder().bucket(bucketName).key(objectKey)
+                    .contentType(contentType).contentLength(contentLength).build();
+            URL url = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                    .signatureDuration(signatureDuration).putObjectRequest(putObjectRequest).build()).url();
+            log.debug("Leaving generatePresignedUploadUrl()");
+            return url;
+        } catch (SdkException e) {
+            throw buildDynamoS3Exception("presigning", e);
+        }
+
+    }
+
+    @Override
+    public PresignedPost generatePresignedPost(String bucketName, String objectKey, String contentType,
+            Long maxContentLength, Duration expiry) throws DynamoS3Exception {
+        log.debug("""
+                Entering generatePresignedPost(), bucketName = {}, objectKey = {}, contentType = {}, \
+                maxContentLength = {}, expiry = {}\
+                """, bucketName, objectKey, contentType, maxContentLength, expiry);
+        Duration signatureDuration = resolveExpiry(expiry);
+        long maxLength = Objects.requireNonNullElseGet(maxContentLength,
+                () -> s3PresignProperties.getMaxContentLength().toBytes());
+        try {
+            S3ServiceClientConfiguration clientConfiguration = s3Client.serviceClientConfiguration();
+            AwsCredentialsIdentity credentials = clientConfiguration.credentialsProvider().resolveIdentity().join();
+            Instant signingTime = Instant.now();
+            Instant expiration = signingTime.plus(signatureDuration);
+            Map<String, String> formFields = S3PostPolicySigner.buildFormFields(credentials,
+                    clientConfiguration.region(), bucketName, objectKey, contentType, maxLength, signingTime,
+                    expiration);
+
+            // The form is posted to the bucket, i.e. the object URL without the key.
+            String objectUrl = s3Client.utilities()
+                    .getUrl(GetUrlRequest.builder().bucket(bucketName).key(objectKey).build()).toExternalForm();
+            URL bucketUrl = new URL(objectUrl.substring(0,
+                    objectUrl.length() - SdkHttpUtils.urlEncodeIgnoreSlashes(objectKey).length()));
+            PresignedPost presignedPost =
+                    PresignedPost.builder().url(bucketUrl).formFields(formFields).expiration(expiration).build();
+            log.debug("Leaving generatePresignedPost(), url = {}", bucketUrl);
+            return presignedPost;
+        } catch (SdkException | CompletionException e) {
+            throw buildDynamoS3Exception("presigning", e);
+        } catch (MalformedURLException e) {
+            log.error("Error while building URL of the S3 bucket, error = {}", e.getMessage());
+            throw new DynamoS3Exception(e.getMessage(), e);
+        }
+
+    }
+
+    @Override
+    public URL generatePresignedUploadPartUrl(String bucketName, String objectKey, String uploadId, int partNumber,
+            Duration expiry) throws DynamoS3Exception {
+        log.debug("""
+                Entering generatePresignedUploadPartUrl(), bucketName = {}, objectKey = {}, uploadId = {}, \
+                partNumber = {}, expiry = {}\
+                """, bucketName, objectKey, uploadId, partNumber, expiry);
+        if (partNumber < 1 || partNumber > MAX_PART_COUNT) {
+            throw new DynamoS3Exception("Part number must be between 1 and " + MAX_PART_COUNT);
+        }
+
+        Duration signatureDuration = resolveExpiry(expiry);
+        try {
+            UploadPartRequest uploadPartRequest = UploadPartRequest.builder().bucket(bucketName).key(objectKey)
+                    .uploadId(uploadId).partNumber(partNumber).build();
+            URL url = s3Presigner.presignUploadPart(UploadPartPresignRequest.builder()
+                    .signatureDuration(signatureDuration).uploadPartRequest(uploadPartRequest).build()).url();
+            log.debug("Leaving generatePresignedUploadPartUrl()");
+            return url;
+        } catch (SdkException e) {
+            throw buildDynamoS3Exception("presigning", e);
+        }
+
+    }
+
+    /**
+     * Resolves the expiry of a presigned URL or POST, defaulting to the
+     * configured expiry.
+     */
+    private Duration resolveExpiry(Duration expiry) throws DynamoS3Exception {
+        Duration signatureDuration = Objects.requireNonNullElse(expiry, s3PresignProperties.getExpiry());
+        if (signatureDuration.isNegative() || signatureDuration.isZero()
+                || signatureDuration.compareTo(MAX_PRESIGN_EXPIRY) > 0) {
+            throw new DynamoS3Exception("Presign expiry must be positive and at most " + MAX_PRESIGN_EXPIRY);
+        }
+
+        return signatureDuration;
+    }
+
+    /**
+     * Logs an error of a transfer and wraps it in a {@link DynamoS3Exception}.
+     * @param action the transfer the error occurred in, e.g. "uploading".
+     * @param cause  the error.
+     */
+    protected DynamoS3Exception buildDynamoS3Exception(String action, Throwable cause) {
+        if (cause instanceof S3Exception e) {
+            log.error("AWS S3 service error while {} object, error = {}", action, e.awsErrorDetails().errorMessage());
+        } else {
+            log.error("AWS SDK client error while {} object, error = {}", action, cause.getMessage());
+        }
+
+        return new DynamoS3Exception(cause.getMessage(), cause);
+    }
+
 }
@@ -0,0 +1,188 @@
+package net.breezeware.dynamo.aws.s3.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import net.breezeware.dynamo.aws.s3.config.S3ClientProperties;
+import net.breezeware.dynamo.aws.s3.config.S3PresignProperties;
+import net.breezeware.dynamo.aws.s3.config.S3TransferProperties;
+import net.breezeware.dynamo.aws.s3.exception.DynamoS3Exception;
+
+import lombok.extern.slf4j.Slf4j;
+
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.async.BlockingInputStreamAsyncRequestBody;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.CompletedUpload;
+import software.amazon.awssdk.transfer.s3.model.DownloadRequest;
+import software.amazon.awssdk.transfer.s3.model.Upload;
+import software.amazon.awssdk.transfer.s3.model.UploadFileRequest;
+import software.amazon.awssdk.transfer.s3.model.UploadRequest;
+
+/**
+ * S3 service implementation transferring objects with the
+ * {@link S3TransferManager} on the CRT based {@link S3AsyncClient}, active when
+ * {@code dynamo.aws.s3.client.implementation} is {@code async}. The CRT client
+ * pools its connections and splits large uploads and downloads into parts
+ * transferred in parallel on its own event loop, so transfers do not hold a
+ * thread per part. Deletes, presigning and multipart upload management are
+ * inherited from {@link S3ServiceImpl}.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(prefix = "dynamo.aws.s3.client", name = "implementation", havingValue = "async")
+public class S3TransferManagerServiceImpl extends S3ServiceImpl {
+
+    private final S3AsyncClient s3AsyncClient;
+    private final S3TransferManager s3TransferManager;
+    private final S3ClientProperties s3ClientProperties;
+
+    /**
+     * Builds the transfer manager based S3 service.
+     * @param s3Client             synchronous client of the inherited operations.
+     * @param s3Presigner          presigner of the presigned URLs.
+     * @param s3TransferProperties multipart settings.
+     * @param s3PresignProperties  presigned URL settings.
+     * @param s3AsyncClient        client of the streamed downloads.
+     * @param s3TransferManager    transfer manager of the uploads and downloads.
+     * @param s3ClientProperties   checksum settings.
+     * @param s3TransferExecutor   executor shared by the inherited transfers.
+     */
+    public S3TransferManagerServiceImpl(S3Client s3Client, S3Presigner s3Presigner,
+            S3TransferProperties s3TransferProperties, S3PresignProperties s3PresignProperties,
+            S3AsyncClient s3AsyncClient, S3TransferManager s3TransferManager, S3ClientProperties s3ClientProperties,
+            @Qualifier("s3TransferExecutor") ExecutorService s3TransferExecutor) {
+        super(s3Client, s3Presigner, s3TransferProperties, s3PresignProperties, s3TransferExecutor);
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3TransferManager = s3TransferManager;
+        this.s3ClientProperties = s3ClientProperties;
+    }
+
+    @Override
+    public String uploadObject(String bucketName, String objectKey, byte[] uploadObject) throws DynamoS3Exception {
+        log.info("Entering uploadObject(), bucketName = {}, objectKey = {}", bucketName, objectKey);
+        UploadRequest uploadRequest = UploadRequest.builder().putObjectRequest(buildPutObjectRequest(bucketName,
+                objectKey)).requestBody(AsyncRequestBody.fromBytes(uploadObject)).build();
+        String etag = await(s3TransferManager.upload(uploadRequest).completionFuture(), "uploading").response()
+                .eTag();
+        log.info("Leaving uploadObject, etag = {}", etag);
+        return etag;
+    }
+
+    @Override
+    public String uploadObject(String bucketName, String objectKey, InputStream inputStream, long contentLength)
+            throws DynamoS3Exception {
+        log.info("Entering uploadObject(), bucketName = {}, objectKey = {}, contentLength = {}", bucketName, objectKey,
+                contentLength);
+        BlockingInputStreamAsyncRequestBody requestBody = AsyncRequestBody.forBlockingInputStream(contentLength);
+        Upload upload = s3TransferManager.upload(UploadRequest.builder()
+                .putObjectRequest(buildPutObjectRequest(bucketName, objectKey)).requestBody(requestBody).build());
+        CompletableFuture<CompletedUpload> completionFuture = upload.completionFuture();
+        try {
+            // Blocks until the client has consumed the stream.
+            requestBody.writeInputStream(inputStream);
+        } catch (RuntimeException e) {
+            // A failed upload stops consuming the stream, and is reported below.
+            if (!completionFuture.isCompletedExceptionally()) {
+                completionFuture.cancel(true);
+                throw buildDynamoS3Exception("uploading", e);
+            }
+
+        }
+
+        String etag = await(completionFuture, "uploading").response().eTag();
+        log.info("Leaving uploadObject, etag = {}", etag);
+        return etag;
+    }
+
+    @Override
+    public String uploadObject(String bucketName, String objectKey, Path path) throws DynamoS3Exception {
+        log.info("Entering uploadObject(), bucketName = {}, objectKey = {}, path = {}", bucketName, objectKey, path);
+        UploadFileRequest uploadFileRequest = UploadFileRequest.builder()
+                .putObjectRequest(buildPutObjectRequest(bucketName, objectKey)).source(path).build();
+        String etag = await(s3TransferManager.uploadFile(uploadFileRequest).completionFuture(), "uploading")
+                .response().eTag();
+        log.info("Leaving uploadObject, etag = {}", etag);
+        return etag;
+    }
+
+    @Override
+    public byte[] downloadObject(String bucketName, String objectKey) throws DynamoS3Exception {
+        log.debug("Entering downloadObject(), bucketName = {}, objectKey = {}", bucketName, objectKey);
+        DownloadRequest<ResponseBytes<GetObjectResponse>> downloadRequest = DownloadRequest.builder()
+                .getObjectRequest(GetObjectRequest.builder().bucket(bucketName).key(objectKey).build())
+                .responseTransformer(AsyncResponseTransformer.toBytes()).build();
+        byte[] object = await(s3TransferManager.download(downloadRequest).completionFuture(), "downloading").result()
+                .asByteArrayUnsafe();
+        log.debug("Leaving downloadObject(), contentLength = {}", object.length);
+        return object;
+    }
+
+    /**
+     * Downloads object to an output stream. The CRT client splits large objects
+     * into ranged GETs itself, so the object is streamed as it arrives.
+     */
+    @Override
+    public long downloadObject(String bucketName, String objectKey, OutputStream outputStream)
+            throws DynamoS3Exception {
+        log.debug("Entering downloadObject(), bucketName = {}, objectKey = {}", bucketName, objectKey);
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder().bucket(bucketName).key(objectKey).build();
+        try (ResponseInputStream<GetObjectResponse> objectStream = getObject(getObjectRequest)) {
+            long contentLength = objectStream.transferTo(outputStream);
+            log.debug("Leaving downloadObject(), contentLength = {}", contentLength);
+            return contentLength;
+        } catch (IOException e) {
+            log.error("Error while writing object downloaded from the S3 bucket, error = {}", e.getMessage());
+            throw new DynamoS3Exception(e.getMessage(), e);
+        } catch (SdkException e) {
+            throw buildDynamoS3Exception("downloading", e);
+        }
+
+    }
+
+    @Override
+    protected ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest getObjectRequest)
+            throws DynamoS3Exception {
+        return await(s3AsyncClient.getObject(getObjectRequest, AsyncResponseTransformer.toBlockingInputStream()),
+                "downloading");
+    }
+
+    private PutObjectRequest buildPutObjectRequest(String bucketName, String objectKey) {
+        return PutObjectRequest.builder().bucket(bucketName).key(objectKey)
+                .checksumAlgorithm(s3ClientProperties.getChecksumAlgorithm()).build();
+    }
+
+    /**
+     * Waits for a transfer to complete, unwrapping its error.
+     */
+    private <T> T await(CompletableFuture<T> future, String action) throws DynamoS3Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw buildDynamoS3Exception(action, e.getCause() != null ? e.getCause() : e);
+        } catch (CancellationException e) {
+            throw buildDynamoS3Exception(action, e);
+        }
+
+    }
+}
@@ -4,13 +4,24 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,24 +29,54 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import net.breezeware.dynamo.aws.s3.config.S3PresignProperties;
+import net.breezeware.dynamo.aws.s3.config.S3TransferConfiguration;
+import net.breezeware.dynamo.aws.s3.config.S3TransferProperties;
+import net.breezeware.dynamo.aws.s3.entity.PresignedPost;
 import net.breezeware.dynamo.aws.s3.exception.DynamoS3Exception;
 import net.breezeware.dynamo.aws.s3.service.api.S3Service;
 
 import lombok.extern.slf4j.Slf4j;
 
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ServiceClientConfiguration;
+import software.amazon.awssdk.services.s3.S3Utilities;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CopyObjectResponse;
+import software.amazon.awssdk.services.s3.model.CopyObjectResult;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.InvalidObjectStateException;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Error;
 import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 @Slf4j
 @ExtendWith(MockitoExtension.class)
@@ -47,11 +88,19 @@ public class S3ServiceImplTest {
     @Mock
     private static S3Client errorS3Client = S3Client.builder().region(null).httpClient(null).build();
 
+    private static final S3Presigner s3Presigner = S3Presigner.builder().region(Region.US_EAST_1)
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("access-key", "secret")))
+            .build();
+
+    private static final ExecutorService s3TransferExecutor =
+            new S3TransferConfiguration().buildS3TransferExecutor(new S3TransferProperties());
+
     private S3Service s3Service;
 
     @BeforeEach
     void setUp() {
-        s3Service = new S3ServiceImpl(s3Client);
+        s3Service = new S3ServiceImpl(s3Client, s3Presigner, new S3TransferProperties(),
+                new S3PresignProperties(), s3TransferExecutor);
     }
 
     @Test
@@ -115,7 +164,95 @@ public class S3ServiceImplTest {
     }
 
     private void setupS3Service(S3Client s3Client) {
-        this.s3Service = new S3ServiceImpl(s3Client);
+        this.s3Service = new S3ServiceImpl(s3Client, s3Presigner, new S3TransferProperties(),
+                new S3PresignProperties(), s3TransferExecutor);
+    }
+
+    @Test
+    void itShouldUploadStreamBelowThresholdWithSinglePut() throws DynamoS3Exception {
+        log.info("Testing itShouldUploadStreamBelowThresholdWithSinglePut()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object.txt";
+        byte[] uploadObject = new byte[1024];
+        // when
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().eTag("1111").build());
+        // then
+        assertThat(s3Service.uploadObject(bucketName, objectKey, new ByteArrayInputStream(uploadObject),
+                uploadObject.length)).isEqualTo("1111");
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+
+        log.info("Completed testing itShouldUploadStreamBelowThresholdWithSinglePut()");
+    }
+
+    @Test
+    void itShouldUploadStreamAboveThresholdAsMultipartUpload() throws DynamoS3Exception {
+        log.info("Testing itShouldUploadStreamAboveThresholdAsMultipartUpload()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object.bin";
+        byte[] uploadObject = new byte[20 * 1024 * 1024];
+        // when
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-id").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("part").build());
+        when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().eTag("2222").build());
+        // then
+        assertThat(s3Service.uploadObject(bucketName, objectKey, new ByteArrayInputStream(uploadObject),
+                uploadObject.length)).isEqualTo("2222");
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+
+        log.info("Completed testing itShouldUploadStreamAboveThresholdAsMultipartUpload()");
+    }
+
+    @Test
+    void itShouldAbortMultipartUploadAndThrowWhenPartUploadFails() {
+        log.info("Testing itShouldAbortMultipartUploadAndThrowWhenPartUploadFails()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object.bin";
+        byte[] uploadObject = new byte[20 * 1024 * 1024];
+        // when
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-id").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenThrow(S3Exception
+                .builder().awsErrorDetails(AwsErrorDetails.builder().errorMessage("Part failed").build()).build());
+        // then
+        assertThatThrownBy(() -> s3Service.uploadObject(bucketName, objectKey, new ByteArrayInputStream(uploadObject),
+                uploadObject.length)).isInstanceOf(DynamoS3Exception.class);
+        verify(s3Client, times(1)).abortMultipartUpload(AbortMultipartUploadRequest.builder().bucket(bucketName)
+                .key(objectKey).uploadId("upload-id").build());
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+
+        log.info("Completed testing itShouldAbortMultipartUploadAndThrowWhenPartUploadFails()");
+    }
+
+    @Test
+    void itShouldAbortMultipartUploadAndThrowWhenStreamEndsEarly() {
+        log.info("Testing itShouldAbortMultipartUploadAndThrowWhenStreamEndsEarly()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object.bin";
+        byte[] uploadObject = new byte[20 * 1024 * 1024];
+        // when
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-id").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("part").build());
+        // then
+        assertThatThrownBy(() -> s3Service.uploadObject(bucketName, objectKey, new ByteArrayInputStream(uploadObject),
+                uploadObject.length + 1024L)).isInstanceOf(DynamoS3Exception.class);
+        verify(s3Client, times(1)).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+
+        log.info("Completed testing itShouldAbortMultipartUploadAndThrowWhenStreamEndsEarly()");
     }
 
     @Test
@@ -242,4 +379,326 @@ public class S3ServiceImplTest {
         log.info("Completed testing itShouldNotDownloadAndThrowsWhenClientError");
     }
 
+    @Test
+    void itShouldDownloadRangeAsStream() throws DynamoS3Exception, IOException {
+        log.info("Testing itShouldDownloadRangeAsStream()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object-key/object.txt";
+        byte[] range = new byte[100];
+        // when
+        GetObjectRequest getObjectRequest =
+                GetObjectRequest.builder().bucket(bucketName).key(objectKey).range("bytes=100-199").build();
+        when(s3Client.getObject(getObjectRequest)).thenReturn(buildResponseInputStream(range, range.length));
+        // then
+        try (ResponseInputStream<GetObjectResponse> objectStream =
+                s3Service.downloadObjectAsStream(bucketName, objectKey, 100, 199)) {
+            assertThat(objectStream.readAllBytes()).hasSize(100);
+        }
+
+        log.info("Completed testing itShouldDownloadRangeAsStream()");
+    }
+
+    @Test
+    void itShouldNotDownloadAndThrowWhenRangeIsInvalid() {
+        log.info("Testing itShouldNotDownloadAndThrowWhenRangeIsInvalid()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object-key/object.txt";
+        // then
+        assertThatThrownBy(() -> s3Service.downloadObjectAsStream(bucketName, objectKey, 200, 100))
+                .isInstanceOf(DynamoS3Exception.class);
+
+        log.info("Completed testing itShouldNotDownloadAndThrowWhenRangeIsInvalid()");
+    }
+
+    @Test
+    void itShouldDownloadToOutputStream() throws DynamoS3Exception {
+        log.info("Testing itShouldDownloadToOutputStream()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object-key/object.txt";
+        byte[] object = new byte[1024];
+        Arrays.fill(object, (byte) 1);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        // when
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(buildResponseInputStream(object, 1024));
+        // then
+        assertThat(s3Service.downloadObject(bucketName, objectKey, outputStream)).isEqualTo(1024);
+        assertThat(outputStream.toByteArray()).isEqualTo(object);
+        verify(s3Client, never()).getObjectAsBytes(any(GetObjectRequest.class));
+
+        log.info("Completed testing itShouldDownloadToOutputStream()");
+    }
+
+    @Test
+    void itShouldDownloadToOutputStreamWithRangedGets() throws DynamoS3Exception {
+        log.info("Testing itShouldDownloadToOutputStreamWithRangedGets()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object-key/object.bin";
+        int partSize = 8 * 1024 * 1024;
+        byte[] object = new byte[20 * 1024 * 1024];
+        for (int i = 0; i < object.length; i++) {
+            object[i] = (byte) (i / partSize);
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        // when
+        when(s3Client.getObject(any(GetObjectRequest.class)))
+                .thenReturn(buildResponseInputStream(object, object.length));
+        when(s3Client.getObjectAsBytes(any(GetObjectRequest.class))).thenAnswer(invocation -> {
+            GetObjectRequest getObjectRequest = invocation.getArgument(0);
+            assertThat(getObjectRequest.ifMatch()).isEqualTo("1111");
+            String[] range = getObjectRequest.range().substring("bytes=".length()).split("-");
+            byte[] part = Arrays.copyOfRange(object, Integer.parseInt(range[0]), Integer.parseInt(range[1]) + 1);
+            return ResponseBytes.fromByteArray(GetObjectResponse.builder().build(), part);
+        });
+        // then
+        assertThat(s3Service.downloadObject(bucketName, objectKey, outputStream)).isEqualTo(object.length);
+        assertThat(outputStream.toByteArray()).isEqualTo(object);
+        verify(s3Client, times(2)).getObjectAsBytes(any(GetObjectRequest.class));
+
+        log.info("Completed testing itShouldDownloadToOutputStreamWithRangedGets()");
+    }
+
+    private ResponseInputStream<GetObjectResponse> buildResponseInputStream(byte[] content, long contentLength) {
+        GetObjectResponse getObjectResponse =
+                GetObjectResponse.builder().eTag("1111").contentLength(contentLength).build();
+        return new ResponseInputStream<>(getObjectResponse,
+                AbortableInputStream.create(new ByteArrayInputStream(content)));
+    }
+
+    @Test
+    void itShouldGeneratePresignedDownloadUrl() throws DynamoS3Exception {
+        log.info("Testing itShouldGeneratePresignedDownloadUrl()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object-key/object.txt";
+        // when
+        URL url = s3Service.generatePresignedDownloadUrl(bucketName, objectKey, null);
+        // then
+        assertThat(url.getPath()).endsWith(objectKey);
+        assertThat(url.getQuery()).contains("X-Amz-Expires=900").contains("X-Amz-Signature=");
+
+        log.info("Completed testing itShouldGeneratePresignedDownloadUrl()");
+    }
+
+    @Test
+    void itShouldGeneratePresignedUploadUrlSigningContentType() throws DynamoS3Exception {
+        log.info("Testing itShouldGeneratePresignedUploadUrlSigningContentType()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object-key/object.pdf";
+        // when
+        URL url = s3Service.generatePresignedUploadUrl(bucketName, objectKey, "application/pdf", 1024L,
+                Duration.ofMinutes(5));
+        // then
+        assertThat(url.getQuery()).contains("X-Amz-Expires=300").contains("content-type");
+
+        log.info("Completed testing itShouldGeneratePresignedUploadUrlSigningContentType()");
+    }
+
+    @Test
+    void itShouldGeneratePresignedUploadPartUrl() throws DynamoS3Exception {
+        log.info("Testing itShouldGeneratePresignedUploadPartUrl()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object-key/object.bin";
+        // when
+        URL url = s3Service.generatePresignedUploadPartUrl(bucketName, objectKey, "upload-id", 3, null);
+        // then
+        assertThat(url.getQuery()).contains("partNumber=3").contains("uploadId=upload-id");
+
+        log.info("Completed testing itShouldGeneratePresignedUploadPartUrl()");
+    }
+
+    @Test
+    void itShouldNotPresignAndThrowWhenExpiryIsTooLong() {
+        log.info("Testing itShouldNotPresignAndThrowWhenExpiryIsTooLong()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object-key/object.txt";
+        // then
+        assertThatThrownBy(() -> s3Service.generatePresignedDownloadUrl(bucketName, objectKey, Duration.ofDays(8)))
+                .isInstanceOf(DynamoS3Exception.class);
+
+        log.info("Completed testing itShouldNotPresignAndThrowWhenExpiryIsTooLong()");
+    }
+
+    @Test
+    void itShouldGeneratePresignedPost() throws DynamoS3Exception {
+        log.info("Testing itShouldGeneratePresignedPost()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object-key/my image.png";
+        // when
+        when(s3Client.serviceClientConfiguration()).thenReturn(
+                S3ServiceClientConfiguration.builder().region(Region.US_EAST_1).credentialsProvider(
+                        StaticCredentialsProvider.create(AwsBasicCredentials.create("access-key", "secret"))).build());
+        when(s3Client.utilities()).thenReturn(S3Utilities.builder().region(Region.US_EAST_1).build());
+        PresignedPost presignedPost = s3Service.generatePresignedPost(bucketName, objectKey, "image/png", 1024L, null);
+        // then
+        assertThat(presignedPost.getUrl().toExternalForm()).isEqualTo("https://bucket.s3.amazonaws.com/");
+        assertThat(presignedPost.getFormFields()).containsEntry("key", objectKey)
+                .containsEntry("Content-Type", "image/png").containsKeys("policy", "x-amz-signature");
+        String policy = new String(Base64.getDecoder().decode(presignedPost.getFormFields().get("policy")));
+        assertThat(policy).contains("{\"bucket\":\"bucket\"}").contains("[\"content-length-range\",0,1024]");
+
+        log.info("Completed testing itShouldGeneratePresignedPost()");
+    }
+
+    @Test
+    void itShouldDeleteObjectsInBatches() throws DynamoS3Exception {
+        log.info("Testing itShouldDeleteObjectsInBatches()");
+
+        // given
+        String bucketName = "bucket";
+        List<String> objectKeys = IntStream.range(0, 2500).mapToObj(i -> "object-key/" + i).toList();
+        // when
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(DeleteObjectsResponse.builder().build());
+        // then
+        s3Service.deleteObjects(bucketName, objectKeys);
+        verify(s3Client, times(3)).deleteObjects(any(DeleteObjectsRequest.class));
+
+        log.info("Completed testing itShouldDeleteObjectsInBatches()");
+    }
+
+    @Test
+    void itShouldNotDeleteObjectsAndThrowWhenAnyObjectFails() {
+        log.info("Testing itShouldNotDeleteObjectsAndThrowWhenAnyObjectFails()");
+
+        // given
+        String bucketName = "bucket";
+        List<String> objectKeys = List.of("object-key/1", "object-key/2");
+        // when
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(DeleteObjectsResponse.builder()
+                .errors(S3Error.builder().key("object-key/2").message("Access Denied").build()).build());
+        // then
+        assertThatThrownBy(() -> s3Service.deleteObjects(bucketName, objectKeys))
+                .isInstanceOf(DynamoS3Exception.class).hasMessageContaining("object-key/2");
+
+        log.info("Completed testing itShouldNotDeleteObjectsAndThrowWhenAnyObjectFails()");
+    }
+
+    @Test
+    void itShouldDeletePrefix() throws DynamoS3Exception {
+        log.info("Testing itShouldDeletePrefix()");
+
+        // given
+        String bucketName = "bucket";
+        String prefix = "object-key/";
+        // when
+        when(s3Client.listObjectsV2Paginator(any(ListObjectsV2Request.class))).thenCallRealMethod();
+        when(s3Client.listObjectsV2(any(ListObjectsV2Request.class))).thenAnswer(invocation -> {
+            ListObjectsV2Request listObjectsV2Request = invocation.getArgument(0);
+            if (listObjectsV2Request.continuationToken() == null) {
+                return ListObjectsV2Response.builder().isTruncated(true).nextContinuationToken("page-2")
+                        .contents(S3Object.builder().key("object-key/1").build(),
+                                S3Object.builder().key("object-key/2").build())
+                        .build();
+            }
+
+            return ListObjectsV2Response.builder().isTruncated(false)
+                    .contents(S3Object.builder().key("object-key/3").build()).build();
+        });
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(DeleteObjectsResponse.builder().build());
+        // then
+        assertThat(s3Service.deletePrefix(bucketName, prefix)).isEqualTo(3);
+        verify(s3Client, times(2)).deleteObjects(any(DeleteObjectsRequest.class));
+
+        log.info("Completed testing itShouldDeletePrefix()");
+    }
+
+    @Test
+    void itShouldCopyObject() throws DynamoS3Exception {
+        log.info("Testing itShouldCopyObject()");
+
+        // given
+        String bucketName = "bucket";
+        // when
+        CopyObjectRequest copyObjectRequest = CopyObjectRequest.builder().sourceBucket(bucketName)
+                .sourceKey("object-key/object.txt").destinationBucket(bucketName)
+                .destinationKey("other-key/object.txt").build();
+        when(s3Client.copyObject(copyObjectRequest)).thenReturn(CopyObjectResponse.builder()
+                .copyObjectResult(CopyObjectResult.builder().eTag("1111").build()).build());
+        // then
+        assertThat(s3Service.copyObject(bucketName, "object-key/object.txt", bucketName, "other-key/object.txt"))
+                .isEqualTo("1111");
+
+        log.info("Completed testing itShouldCopyObject()");
+    }
+
+    @Test
+    void itShouldUploadContentAddressedObjectUnderDigestKey() throws DynamoS3Exception {
+        log.info("Testing itShouldUploadContentAddressedObjectUnderDigestKey()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "artifacts/2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+        byte[] uploadObject = "hello".getBytes(StandardCharsets.UTF_8);
+        // when
+        when(s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(objectKey).build()))
+                .thenThrow(NoSuchKeyException.builder().statusCode(404).build());
+        when(s3Client.putObject(eq(PutObjectRequest.builder().bucket(bucketName).key(objectKey).build()),
+                any(RequestBody.class))).thenReturn(PutObjectResponse.builder().eTag("1111").build());
+        // then
+        assertThat(s3Service.uploadContentAddressedObject(bucketName, "artifacts/",
+                new ByteArrayInputStream(uploadObject), uploadObject.length)).isEqualTo(objectKey);
+
+        log.info("Completed testing itShouldUploadContentAddressedObjectUnderDigestKey()");
+    }
+
+    @Test
+    void itShouldSkipUploadOfContentAddressedObjectWhenPresent() throws DynamoS3Exception, IOException {
+        log.info("Testing itShouldSkipUploadOfContentAddressedObjectWhenPresent()");
+
+        // given
+        String bucketName = "bucket";
+        File uploadFile = new File("src/test/resources/test.txt");
+        // when
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(HeadObjectResponse.builder().build());
+        // then
+        assertThat(s3Service.uploadContentAddressedObject(bucketName, "artifacts/", uploadFile.toPath()))
+                .startsWith("artifacts/").hasSize("artifacts/".length() + 64);
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+
+        log.info("Completed testing itShouldSkipUploadOfContentAddressedObjectWhenPresent()");
+    }
+
+    @Test
+    void itShouldUploadLargeContentAddressedObjectFromSpoolFile() throws DynamoS3Exception {
+        log.info("Testing itShouldUploadLargeContentAddressedObjectFromSpoolFile()");
+
+        // given
+        String bucketName = "bucket";
+        byte[] uploadObject = new byte[20 * 1024 * 1024];
+        // when
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+                .thenThrow(NoSuchKeyException.builder().statusCode(404).build());
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-id").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("part").build());
+        when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().eTag("2222").build());
+        // then
+        assertThat(s3Service.uploadContentAddressedObject(bucketName, "", new ByteArrayInputStream(uploadObject),
+                uploadObject.length)).hasSize(64);
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+
+        log.info("Completed testing itShouldUploadLargeContentAddressedObjectFromSpoolFile()");
+    }
+
 }
@@ -0,0 +1,135 @@
+package net.breezeware.dynamo.aws.s3.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import net.breezeware.dynamo.aws.s3.config.S3ClientProperties;
+import net.breezeware.dynamo.aws.s3.config.S3PresignProperties;
+import net.breezeware.dynamo.aws.s3.config.S3TransferConfiguration;
+import net.breezeware.dynamo.aws.s3.config.S3TransferProperties;
+import net.breezeware.dynamo.aws.s3.exception.DynamoS3Exception;
+import net.breezeware.dynamo.aws.s3.service.api.S3Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.CompletedUpload;
+import software.amazon.awssdk.transfer.s3.model.Upload;
+import software.amazon.awssdk.transfer.s3.model.UploadRequest;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+public class S3TransferManagerServiceImplTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private S3Presigner s3Presigner;
+
+    @Mock
+    private S3AsyncClient s3AsyncClient;
+
+    @Mock
+    private S3TransferManager s3TransferManager;
+
+    @Mock
+    private Upload upload;
+
+    private S3Service s3Service;
+
+    @BeforeEach
+    void setUp() {
+        s3Service = new S3TransferManagerServiceImpl(s3Client, s3Presigner, new S3TransferProperties(),
+                new S3PresignProperties(), s3AsyncClient, s3TransferManager, new S3ClientProperties(),
+                new S3TransferConfiguration().buildS3TransferExecutor(new S3TransferProperties()));
+    }
+
+    @Test
+    void itShouldUploadObjectWithChecksum() throws DynamoS3Exception {
+        log.info("Testing itShouldUploadObjectWithChecksum()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object.txt";
+        // when
+        when(s3TransferManager.upload(any(UploadRequest.class))).thenReturn(upload);
+        when(upload.completionFuture()).thenReturn(CompletableFuture.completedFuture(CompletedUpload.builder()
+                .response(PutObjectResponse.builder().eTag("1111").build()).build()));
+        // then
+        assertThat(s3Service.uploadObject(bucketName, objectKey, new byte[16])).isEqualTo("1111");
+        ArgumentCaptor<UploadRequest> uploadRequest = ArgumentCaptor.forClass(UploadRequest.class);
+        verify(s3TransferManager).upload(uploadRequest.capture());
+        assertThat(uploadRequest.getValue().putObjectRequest().checksumAlgorithm()).isEqualTo(ChecksumAlgorithm.CRC32);
+
+        log.info("Completed testing itShouldUploadObjectWithChecksum()");
+    }
+
+    @Test
+    void itShouldNotUploadAndThrowWhenTransferFails() {
+        log.info("Testing itShouldNotUploadAndThrowWhenTransferFails()");
+
+        // given
+        String bucketName = "unknown-bucket";
+        String objectKey = "object.txt";
+        // when
+        when(s3TransferManager.upload(any(UploadRequest.class))).thenReturn(upload);
+        when(upload.completionFuture()).thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder().errorMessage("Bucket not present").build()).build()));
+        // then
+        assertThatThrownBy(() -> s3Service.uploadObject(bucketName, objectKey, new byte[16]))
+                .isInstanceOf(DynamoS3Exception.class).hasCauseInstanceOf(NoSuchKeyException.class);
+
+        log.info("Completed testing itShouldNotUploadAndThrowWhenTransferFails()");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itShouldDownloadToOutputStream() throws DynamoS3Exception {
+        log.info("Testing itShouldDownloadToOutputStream()");
+
+        // given
+        String bucketName = "bucket";
+        String objectKey = "object-key/object.txt";
+        byte[] object = new byte[] { 1, 2, 3 };
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        // when
+        ResponseInputStream<GetObjectResponse> objectStream = new ResponseInputStream<>(
+                GetObjectResponse.builder().contentLength(3L).build(),
+                AbortableInputStream.create(new ByteArrayInputStream(object)));
+        when(s3AsyncClient.getObject(any(GetObjectRequest.class), any(AsyncResponseTransformer.class)))
+                .thenReturn(CompletableFuture.completedFuture(objectStream));
+        // then
+        assertThat(s3Service.downloadObject(bucketName, objectKey, outputStream)).isEqualTo(3);
+        assertThat(outputStream.toByteArray()).isEqualTo(object);
+
+        log.info("Completed testing itShouldDownloadToOutputStream()");
+    }
+
+}
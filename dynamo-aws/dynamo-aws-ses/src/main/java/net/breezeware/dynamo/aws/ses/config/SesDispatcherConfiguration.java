@@ -0,0 +1,61 @@
+package net.breezeware.dynamo.aws.ses.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import net.breezeware.dynamo.aws.ses.service.api.OutboundMailStore;
+import net.breezeware.dynamo.aws.ses.service.impl.InMemoryOutboundMailStore;
+import net.breezeware.dynamo.aws.ses.service.impl.JdbcOutboundMailStore;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outbound mail dispatcher configuration, building the
+ * {@link OutboundMailStore} selected by {@code dynamo.aws.ses.dispatcher.store}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "dynamo.aws.ses.dispatcher", name = "enabled", havingValue = "true")
+public class SesDispatcherConfiguration {
+
+    /**
+     * Builds an {@link OutboundMailStore} holding the mails in memory.
+     * @param  sesDispatcherProperties dispatcher properties.
+     * @return                         {@link InMemoryOutboundMailStore}.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "dynamo.aws.ses.dispatcher", name = "store", havingValue = "memory",
+            matchIfMissing = true)
+    public OutboundMailStore inMemoryOutboundMailStore(SesDispatcherProperties sesDispatcherProperties) {
+        log.debug("Entering inMemoryOutboundMailStore(), queueCapacity = {}",
+                sesDispatcherProperties.getQueueCapacity());
+        return new InMemoryOutboundMailStore(sesDispatcherProperties);
+    }
+
+    /**
+     * JDBC outbound mail store configuration, only loaded when the optional
+     * spring-jdbc dependency is on the classpath.
+     */
+    @Configuration
+    @ConditionalOnClass(JdbcTemplate.class)
+    @ConditionalOnProperty(prefix = "dynamo.aws.ses.dispatcher", name = "store", havingValue = "jdbc")
+    static class JdbcOutboundMailStoreConfiguration {
+
+        /**
+         * Builds an {@link OutboundMailStore} holding the mails in a table of the
+         * application database.
+         * @param  jdbcTemplate            the template of the application database.
+         * @param  sesDispatcherProperties dispatcher properties.
+         * @return                         {@link JdbcOutboundMailStore}.
+         */
+        @Bean
+        public OutboundMailStore jdbcOutboundMailStore(JdbcTemplate jdbcTemplate,
+                SesDispatcherProperties sesDispatcherProperties) {
+            log.debug("Entering jdbcOutboundMailStore(), tableName = {}", sesDispatcherProperties.getTableName());
+            return new JdbcOutboundMailStore(jdbcTemplate, sesDispatcherProperties);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package net.breezeware.dynamo.aws.ses.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outbound mail dispatcher properties, bound from the
+ * {@code dynamo.aws.ses.dispatcher} prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Configuration
+@ConfigurationProperties(prefix = "dynamo.aws.ses.dispatcher")
+public class SesDispatcherProperties {
+
+    /**
+     * Enables the outbound mail dispatcher.
+     */
+    private boolean enabled;
+
+    /**
+     * The store holding the mails waiting to be sent.
+     */
+    private Store store = Store.MEMORY;
+
+    /**
+     * The number of worker threads sending mails.
+     */
+    private int workerCount = 2;
+
+    /**
+     * The maximum number of mails waiting to be sent or being sent. Further
+     * mails are rejected.
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * The maximum number of attempts to send a mail before it is dead-lettered.
+     */
+    private int maxAttempts = 8;
+
+    /**
+     * The delay before the first retry of a mail. The delay doubles with every
+     * further attempt.
+     */
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    /**
+     * The maximum delay between two attempts to send a mail.
+     */
+    private Duration maxBackoff = Duration.ofMinutes(10);
+
+    /**
+     * The maximum time an idle worker waits for a mail before checking again.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * The maximum time the dispatcher waits for the workers to finish the mails
+     * being sent on shutdown.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    /**
+     * The number of idempotency keys of dispatched mails remembered by the
+     * {@link Store#MEMORY} store. Should exceed the queue capacity.
+     */
+    private int idempotencyKeyCapacity = 100000;
+
+    /**
+     * The maximum number of dead-lettered mails kept by the {@link Store#MEMORY}
+     * store. The oldest are dropped first.
+     */
+    private int deadLetterCapacity = 1000;
+
+    /**
+     * The table of the {@link Store#JDBC} store.
+     */
+    private String tableName = "dynamo_outbound_mail";
+
+    /**
+     * Creates the table of the {@link Store#JDBC} store if it does not exist.
+     * Supported on PostgreSQL, MySQL and H2.
+     */
+    private boolean initializeSchema = true;
+
+    /**
+     * The time a mail claimed from the {@link Store#JDBC} store is reserved for
+     * its worker. Mails of workers that stopped during a send are picked up
+     * again once the lease expires.
+     */
+    private Duration leaseDuration = Duration.ofMinutes(5);
+
+    /**
+     * The time the {@link Store#JDBC} store keeps sent mails as the record of
+     * their idempotency keys.
+     */
+    private Duration sentRetention = Duration.ofDays(7);
+
+    /**
+     * The stores of the outbound mail dispatcher.
+     */
+    public enum Store {
+        /**
+         * A bounded in-process queue. Mails not yet sent are lost when the
+         * application stops.
+         */
+        MEMORY,
+
+        /**
+         * A table of the application database, keeping mails across restarts
+         * and sharing them between the instances of the application.
+         */
+        JDBC
+    }
+}
@@ -0,0 +1,33 @@
+package net.breezeware.dynamo.aws.ses.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * SES send rate properties, bound from the {@code dynamo.aws.ses.send-rate}
+ * prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Configuration
+@ConfigurationProperties(prefix = "dynamo.aws.ses.send-rate")
+public class SesSendRateProperties {
+
+    /**
+     * The maximum number of recipients emailed per second. When not set, the
+     * maximum send rate of the account is retrieved from SES.
+     */
+    private Double maxSendRate;
+
+    /**
+     * The maximum time a send waits for the send rate before it is rejected.
+     */
+    private Duration acquireTimeout = Duration.ofMinutes(1);
+}
@@ -0,0 +1,40 @@
+package net.breezeware.dynamo.aws.ses.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Email template engine properties, bound from the
+ * {@code dynamo.aws.ses.template} prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Configuration
+@ConfigurationProperties(prefix = "dynamo.aws.ses.template")
+public class SesTemplateProperties {
+
+    /**
+     * The location of the template files. A template is read from the
+     * {@code <name>.subject}, {@code <name>.html} and {@code <name>.txt} files
+     * of the location.
+     */
+    private String location = "classpath:email-templates/";
+
+    /**
+     * Retrieves the templates not found in the location from SES.
+     */
+    private boolean sesLookupEnabled = true;
+
+    /**
+     * The time a compiled template is cached before it is loaded again. Zero
+     * caches templates until the application stops.
+     */
+    private Duration cacheTtl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,50 @@
+package net.breezeware.dynamo.aws.ses.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * SMTP connection pool properties, bound from the
+ * {@code dynamo.aws.ses.smtp.pool} prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Configuration
+@ConfigurationProperties(prefix = "dynamo.aws.ses.smtp.pool")
+public class SmtpPoolProperties {
+
+    /**
+     * Enables the SMTP connection pool. When disabled, every mail is sent over a
+     * new connection and every batch over a single new connection.
+     */
+    private boolean enabled;
+
+    /**
+     * The maximum number of open SMTP connections.
+     */
+    private int size = 4;
+
+    /**
+     * The number of mails sent over a connection before it is closed and
+     * replaced, since SMTP servers limit the mails of a session.
+     */
+    private int maxMessagesPerConnection = 100;
+
+    /**
+     * The time an unused connection is kept open. SMTP servers close idle
+     * connections after a few minutes.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /**
+     * The maximum time a send waits for a connection of the pool.
+     */
+    private Duration borrowTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,39 @@
+package net.breezeware.dynamo.aws.ses.entity;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Represents a single destination of a bulk templated email, with the template
+ * data personalizing the email sent to it.
+ */
+@Data
+@Builder
+public class BulkEmailRecipient implements Serializable {
+
+    /**
+     * The receiver's email addresses.
+     */
+    private List<String> to;
+
+    /**
+     * The carbon copy(cc) addresses.
+     */
+    private List<String> cc;
+
+    /**
+     * The blind carbon copy(bcc) addresses.
+     */
+    private List<String> bcc;
+
+    /**
+     * The placeholder values of the template for this destination, overriding
+     * the default template data of the bulk email.
+     */
+    private Map<String, Object> templateData;
+
+}
@@ -0,0 +1,51 @@
+package net.breezeware.dynamo.aws.ses.entity;
+
+import java.io.Serializable;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Represents the outcome of sending a bulk templated email to a single
+ * destination.
+ */
+@Data
+@Builder
+public class BulkEmailResult implements Serializable {
+
+    /**
+     * The status of a destination whose email was accepted by SES.
+     */
+    public static final String SUCCESS = "Success";
+
+    /**
+     * The destination the email was sent to.
+     */
+    private BulkEmailRecipient recipient;
+
+    /**
+     * The sending status of the destination. {@link #SUCCESS} if the email was
+     * accepted by SES, otherwise the SES status or error code, e.g.
+     * {@code MessageRejected} or {@code TemplateDoesNotExist}.
+     */
+    private String status;
+
+    /**
+     * The message id of the email, if it was accepted by SES.
+     */
+    private String messageId;
+
+    /**
+     * The error detail, if the email was not accepted by SES.
+     */
+    private String error;
+
+    /**
+     * Checks whether the email was accepted by SES.
+     * @return true if the email was accepted, false otherwise.
+     */
+    public boolean isSuccessful() {
+        return SUCCESS.equals(status);
+    }
+
+}
@@ -0,0 +1,101 @@
+package net.breezeware.dynamo.aws.ses.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Represents an email handed to the outbound mail dispatcher, together with its
+ * delivery state. The email is sent using the template when a template name is
+ * set, otherwise using the subject, body and attachments.
+ */
+@Data
+@Builder
+public class OutboundMail implements Serializable {
+
+    /**
+     * The key identifying the email. An email is dispatched only once per key, so
+     * retried requests do not send it again. Generated when not set.
+     */
+    private String idempotencyKey;
+
+    /**
+     * The sender's email address.
+     */
+    private String from;
+
+    /**
+     * The receiver's email addresses.
+     */
+    private List<String> to;
+
+    /**
+     * The carbon copy(cc) addresses.
+     */
+    private List<String> cc;
+
+    /**
+     * The blind carbon copy(bcc) addresses.
+     */
+    private List<String> bcc;
+
+    /**
+     * The subject of the email, when it is not sent using a template.
+     */
+    private String subject;
+
+    /**
+     * The HTML body of the email, when it is not sent using a template.
+     */
+    private String body;
+
+    /**
+     * The attachments of the email, when it is not sent using a template.
+     */
+    private List<Attachment> attachments;
+
+    /**
+     * The name of the template to use for building the email.
+     */
+    private String templateName;
+
+    /**
+     * The placeholder values of the template.
+     */
+    private Map<String, Object> templateData;
+
+    /**
+     * The delivery state of the email.
+     */
+    private OutboundMailStatus status;
+
+    /**
+     * The number of failed attempts to send the email.
+     */
+    private int attempts;
+
+    /**
+     * The time of the next attempt to send the email.
+     */
+    private Instant nextAttemptAt;
+
+    /**
+     * The error of the last failed attempt.
+     */
+    private String lastError;
+
+    /**
+     * The message id of the email, once it was accepted by SES.
+     */
+    private String messageId;
+
+    /**
+     * The time the email was dispatched.
+     */
+    private Instant createdAt;
+
+}
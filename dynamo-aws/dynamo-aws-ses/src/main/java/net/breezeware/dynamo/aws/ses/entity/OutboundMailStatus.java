@@ -0,0 +1,27 @@
+package net.breezeware.dynamo.aws.ses.entity;
+
+/**
+ * The states of an {@link OutboundMail} in the outbound mail dispatcher.
+ */
+public enum OutboundMailStatus {
+    /**
+     * Waiting for its next attempt.
+     */
+    QUEUED,
+
+    /**
+     * Being sent by a worker.
+     */
+    SENDING,
+
+    /**
+     * Accepted by SES.
+     */
+    SENT,
+
+    /**
+     * Failed with a permanent error or on its last attempt, and no longer
+     * retried.
+     */
+    DEAD_LETTERED
+}
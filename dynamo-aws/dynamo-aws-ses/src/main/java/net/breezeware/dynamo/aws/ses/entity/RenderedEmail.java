@@ -0,0 +1,31 @@
+package net.breezeware.dynamo.aws.ses.entity;
+
+import java.io.Serializable;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Represents an email template rendered with the placeholder values of a
+ * recipient.
+ */
+@Data
+@Builder
+public class RenderedEmail implements Serializable {
+
+    /**
+     * The rendered subject.
+     */
+    private String subject;
+
+    /**
+     * The rendered plain text content, null if the template has no text part.
+     */
+    private String textPart;
+
+    /**
+     * The rendered HTML content, null if the template has no HTML part.
+     */
+    private String htmlPart;
+
+}
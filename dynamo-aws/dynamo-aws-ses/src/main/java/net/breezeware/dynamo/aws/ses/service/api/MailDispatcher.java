@@ -0,0 +1,40 @@
+package net.breezeware.dynamo.aws.ses.service.api;
+
+import java.util.List;
+
+import net.breezeware.dynamo.aws.ses.entity.OutboundMail;
+import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
+
+/**
+ * Sends emails in the background, so that callers do not wait for SES. Mails
+ * are queued, sent by worker threads at the SES send rate, retried with
+ * exponential backoff on transient errors and dead-lettered on permanent
+ * errors.
+ */
+public interface MailDispatcher {
+
+    /**
+     * Queues an email to be sent.
+     * @param  mail               the email. Its idempotency key is generated
+     *                            when not set.
+     * @return                    true if the email was queued, false if an email
+     *                            with the same idempotency key was already
+     *                            dispatched.
+     * @throws DynamoSesException if the email is invalid or the queue is full.
+     */
+    boolean dispatch(OutboundMail mail) throws DynamoSesException;
+
+    /**
+     * Retrieves the emails that could not be sent, oldest first.
+     * @return the dead-lettered emails, with the error of their last attempt.
+     */
+    List<OutboundMail> retrieveDeadLetters();
+
+    /**
+     * Queues a dead-lettered email to be sent again.
+     * @param  idempotencyKey the idempotency key of the email.
+     * @return                true if the email was queued, false if no
+     *                        dead-lettered email has the key.
+     */
+    boolean redispatch(String idempotencyKey);
+}
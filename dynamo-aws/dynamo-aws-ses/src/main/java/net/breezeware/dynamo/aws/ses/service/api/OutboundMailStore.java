@@ -0,0 +1,74 @@
+package net.breezeware.dynamo.aws.ses.service.api;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import net.breezeware.dynamo.aws.ses.entity.OutboundMail;
+import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
+
+/**
+ * Holds the mails of the outbound mail dispatcher until they are sent, and the
+ * mails that could not be sent.
+ */
+public interface OutboundMailStore {
+
+    /**
+     * Adds a queued mail to the store.
+     * @param  mail               the mail, with its idempotency key, status and
+     *                            next attempt time set.
+     * @return                    true if the mail was added, false if a mail with
+     *                            the same idempotency key was already added.
+     * @throws DynamoSesException if the store is full.
+     */
+    boolean offer(OutboundMail mail) throws DynamoSesException;
+
+    /**
+     * Claims the next mail due to be sent, waiting for one if none is due.
+     * @param  timeout              the maximum time to wait for a mail.
+     * @return                      the claimed mail, in the
+     *                              {@link net.breezeware.dynamo.aws.ses.entity.OutboundMailStatus#SENDING}
+     *                              status, or empty if none became due in time.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    Optional<OutboundMail> poll(Duration timeout) throws InterruptedException;
+
+    /**
+     * Records a claimed mail as sent.
+     * @param mail the mail, with its message id set.
+     */
+    void complete(OutboundMail mail);
+
+    /**
+     * Returns a claimed mail to the store for another attempt.
+     * @param mail the mail, with its attempts, next attempt time and last error
+     *             updated.
+     */
+    void retry(OutboundMail mail);
+
+    /**
+     * Records a claimed mail as dead-lettered.
+     * @param mail the mail, with its attempts and last error updated.
+     */
+    void deadLetter(OutboundMail mail);
+
+    /**
+     * Retrieves the dead-lettered mails, oldest first.
+     * @return the dead-lettered mails.
+     */
+    List<OutboundMail> retrieveDeadLetters();
+
+    /**
+     * Queues a dead-lettered mail again, resetting its attempts.
+     * @param  idempotencyKey the idempotency key of the mail.
+     * @return                true if the mail was queued, false if no
+     *                        dead-lettered mail has the key.
+     */
+    boolean requeue(String idempotencyKey);
+
+    /**
+     * Counts the mails waiting to be sent or being sent.
+     * @return the number of mails.
+     */
+    int size();
+}
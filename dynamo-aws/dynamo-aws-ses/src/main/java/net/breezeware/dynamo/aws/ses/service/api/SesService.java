@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Map;
 
 import net.breezeware.dynamo.aws.ses.entity.Attachment;
+import net.breezeware.dynamo.aws.ses.entity.BulkEmailRecipient;
+import net.breezeware.dynamo.aws.ses.entity.BulkEmailResult;
 import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
 
 /**
@@ -37,6 +39,50 @@ public interface SesService {
     String sendMail(String from, List<String> to, List<String> cc, List<String> bcc, String subject, String body,
             List<Attachment> attachments) throws DynamoSesException;
 
+    /**
+     * Sends an email with attachments to many recipients, one email per
+     * recipient. The body and attachments are encoded once and reused for every
+     * email, and the emails are throttled to the SES send rate. The template
+     * data of the recipients is not used. If the send rate cannot be retrieved
+     * or is exceeded for longer than the acquire timeout, the remaining
+     * recipients are reported as failed.
+     * @param  from               Sender's email address.
+     * @param  subject            Subject of the emails.
+     * @param  body               HTML body content of the emails.
+     * @param  attachments        List of attachments, may be null.
+     * @param  recipients         Recipients of the emails, each with its own to,
+     *                            cc and bcc addresses.
+     * @return                    The outcome of each recipient, in the order of
+     *                            the given recipients.
+     * @throws DynamoSesException if an attachment cannot be encoded.
+     */
+    List<BulkEmailResult> sendBulkMail(String from, String subject, String body, List<Attachment> attachments,
+            List<BulkEmailRecipient> recipients) throws DynamoSesException;
+
+    /**
+     * Sends an email built from a template to many recipients, one email per
+     * recipient. Unlike {@link #sendBulkTemplatedEmail}, the template is
+     * rendered in-process for each recipient, with the default template data
+     * overridden by the template data of the recipient, and the emails may have
+     * attachments, which are encoded once. The emails are throttled to the SES
+     * send rate, and the remaining recipients are reported as failed if it
+     * cannot be retrieved or is exceeded for longer than the acquire timeout.
+     * @param  from                Sender's email address.
+     * @param  templateName        Name of the template, loaded from the
+     *                             template files or SES.
+     * @param  defaultTemplateData Map of placeholder values shared by all
+     *                             recipients, may be null.
+     * @param  attachments         List of attachments, may be null.
+     * @param  recipients          Recipients of the emails.
+     * @return                     The outcome of each recipient, in the order of
+     *                             the given recipients.
+     * @throws DynamoSesException  if the template is not found or malformed, or
+     *                             an attachment cannot be encoded.
+     */
+    List<BulkEmailResult> sendBulkRenderedEmail(String from, String templateName,
+            Map<String, Object> defaultTemplateData, List<Attachment> attachments, List<BulkEmailRecipient> recipients)
+            throws DynamoSesException;
+
     /**
      * Creates an Email Template.
      * @param  name               Name of the template.
@@ -74,6 +120,24 @@ public interface SesService {
     String sendTemplatedEmailWithBccAddress(String from, String to, String bcc, String templateName,
             Map<String, Object> templateData) throws DynamoSesException;
 
+    /**
+     * Sends an email using an email template to many destinations, each with its
+     * own template data. The destinations are sent in batches of up to 50 per SES
+     * request, throttled to the SES send rate. If the send rate cannot be
+     * retrieved or is exceeded for longer than the acquire timeout, the remaining
+     * destinations are reported as failed.
+     * @param  from                Sender's email address.
+     * @param  templateName        Name of the template to use for building the
+     *                             emails.
+     * @param  defaultTemplateData Map of placeholder values used for the
+     *                             placeholders a destination does not provide.
+     * @param  recipients          Destinations of the emails.
+     * @return                     The outcome of each destination, in the order
+     *                             of the given destinations.
+     */
+    List<BulkEmailResult> sendBulkTemplatedEmail(String from, String templateName,
+            Map<String, Object> defaultTemplateData, List<BulkEmailRecipient> recipients) throws DynamoSesException;
+
     /**
      * Retrieves an email template from AWS SES based on the specified template
      * name.
@@ -1,5 +1,10 @@
 package net.breezeware.dynamo.aws.ses.service.api;
 
+import java.util.List;
+import java.util.Map;
+
+import jakarta.mail.internet.MimeMessage;
+
 import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
 
 /**
@@ -15,4 +20,30 @@ public interface SmtpService {
      * @throws DynamoSesException if error while sending email.
      */
     void sendSmtpMail(String from, String to, String subject, String htmlBody) throws DynamoSesException;
+
+    /**
+     * Sends an email built from a template using SMTP protocol. The template is
+     * rendered in-process, the same way as for emails sent using SES.
+     * @param  from               Sender's email address.
+     * @param  to                 Receiver's email address.
+     * @param  templateName       Name of the template to use for building the
+     *                            email.
+     * @param  templateData       Map of placeholder values for the template.
+     * @throws DynamoSesException if the template is not found or malformed, or
+     *                            error while sending email.
+     */
+    void sendTemplatedSmtpMail(String from, String to, String templateName, Map<String, Object> templateData)
+            throws DynamoSesException;
+
+    /**
+     * Sends a batch of emails using SMTP protocol over a single connection, or
+     * over pooled connections when the SMTP connection pool is enabled, instead
+     * of a connection per email.
+     * @param  mimeMessages       the emails, created with
+     *                            {@code JavaMailSender.createMimeMessage()}.
+     * @throws DynamoSesException if any email is not sent. Its cause is a
+     *                            {@code MailSendException} holding the failed
+     *                            emails and their errors.
+     */
+    void send(List<MimeMessage> mimeMessages) throws DynamoSesException;
 }
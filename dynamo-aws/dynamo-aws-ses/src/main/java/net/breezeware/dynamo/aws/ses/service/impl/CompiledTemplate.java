@@ -0,0 +1,279 @@
+package net.breezeware.dynamo.aws.ses.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import net.breezeware.dynamo.aws.ses.entity.RenderedEmail;
+import net.breezeware.dynamo.aws.ses.entity.Template;
+import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
+
+/**
+ * An email template parsed once into a tree of text, placeholder and section
+ * nodes, which is rendered for each recipient without parsing the template
+ * again. Supports the Handlebars subset used by SES templates:
+ * {@code {{name}}} and {@code {{person.name}}} placeholders, unescaped
+ * {@code {{{name}}}} placeholders, {@code {{#if}}}, {@code {{#unless}}} and
+ * {@code {{#each}}} sections with {@code {{else}}} and {@code {{this}}}, and
+ * {@code {{! comments}}}. Placeholders of the HTML part are HTML-escaped,
+ * those of the subject and text part are not.
+ */
+final class CompiledTemplate {
+
+    private final List<Node> subjectPart;
+
+    private final List<Node> textPart;
+
+    private final List<Node> htmlPart;
+
+    private CompiledTemplate(List<Node> subjectPart, List<Node> textPart, List<Node> htmlPart) {
+        this.subjectPart = subjectPart;
+        this.textPart = textPart;
+        this.htmlPart = htmlPart;
+    }
+
+    /**
+     * Parses the parts of an email template.
+     * @param  template           the email template.
+     * @return                    the compiled template.
+     * @throws DynamoSesException if a part of the template is malformed.
+     */
+    static CompiledTemplate compile(Template template) throws DynamoSesException {
+        return new CompiledTemplate(parse(Objects.requireNonNullElse(template.getSubjectPart(), "")),
+                Objects.isNull(template.getTextPart()) ? null : parse(template.getTextPart()),
+                Objects.isNull(template.getHtmlPart()) ? null : parse(template.getHtmlPart()));
+    }
+
+    /**
+     * Renders the template with the given placeholder values.
+     * @param  templateData the placeholder values.
+     * @return              the rendered email.
+     */
+    RenderedEmail render(Map<String, Object> templateData) {
+        List<Object> scopes = new ArrayList<>();
+        scopes.add(Objects.requireNonNullElse(templateData, Map.of()));
+        return RenderedEmail.builder().subject(render(subjectPart, scopes, false))
+                .textPart(Objects.isNull(textPart) ? null : render(textPart, scopes, false))
+                .htmlPart(Objects.isNull(htmlPart) ? null : render(htmlPart, scopes, true)).build();
+    }
+
+    private static List<Node> parse(String source) throws DynamoSesException {
+        List<Node> root = new ArrayList<>();
+        List<Section> openSections = new ArrayList<>();
+        List<Node> target = root;
+        int position = 0;
+        while (position < source.length()) {
+            int tagStart = source.indexOf("{{", position);
+            if (tagStart < 0) {
+                target.add(new Text(source.substring(position)));
+                break;
+            }
+
+            if (tagStart > position) {
+                target.add(new Text(source.substring(position, tagStart)));
+            }
+
+            boolean raw = source.startsWith("{{{", tagStart);
+            String closing = raw ? "}}}" : "}}";
+            int tagEnd = source.indexOf(closing, tagStart);
+            if (tagEnd < 0) {
+                throw new DynamoSesException("Unclosed placeholder at index " + tagStart + " of email template");
+            }
+
+            String tag = source.substring(tagStart + closing.length(), tagEnd).trim();
+            position = tagEnd + closing.length();
+            if (raw) {
+                target.add(new Variable(splitPath(tag), false));
+            } else if (tag.startsWith("!")) {
+                continue;
+            } else if (tag.startsWith("#")) {
+                String[] kindAndPath = tag.substring(1).trim().split("\\s+", 2);
+                if (!List.of("if", "unless", "each").contains(kindAndPath[0]) || kindAndPath.length < 2) {
+                    throw new DynamoSesException("Unsupported section '{{" + tag + "}}' in email template");
+                }
+
+                Section section = new Section(kindAndPath[0], splitPath(kindAndPath[1].trim()), new ArrayList<>(),
+                        new ArrayList<>());
+                target.add(section);
+                openSections.add(section);
+                target = section.children();
+            } else if (tag.equals("else")) {
+                if (openSections.isEmpty()) {
+                    throw new DynamoSesException("'{{else}}' outside of a section in email template");
+                }
+
+                target = openSections.get(openSections.size() - 1).elseChildren();
+            } else if (tag.startsWith("/")) {
+                String kind = tag.substring(1).trim();
+                if (openSections.isEmpty() || !openSections.get(openSections.size() - 1).kind().equals(kind)) {
+                    throw new DynamoSesException("Unexpected '{{" + tag + "}}' in email template");
+                }
+
+                openSections.remove(openSections.size() - 1);
+                target = openSections.isEmpty() ? root : openSections.get(openSections.size() - 1).children();
+            } else {
+                target.add(new Variable(splitPath(tag), true));
+            }
+
+        }
+
+        if (!openSections.isEmpty()) {
+            throw new DynamoSesException(
+                    "Unclosed '{{#" + openSections.get(openSections.size() - 1).kind() + "}}' in email template");
+        }
+
+        return root;
+    }
+
+    private static String render(List<Node> nodes, List<Object> scopes, boolean html) {
+        StringBuilder output = new StringBuilder(256);
+        render(nodes, scopes, html, output);
+        return output.toString();
+    }
+
+    private static void render(List<Node> nodes, List<Object> scopes, boolean html, StringBuilder output) {
+        for (Node node : nodes) {
+            if (node instanceof Text text) {
+                output.append(text.text());
+            } else if (node instanceof Variable variable) {
+                Object value = resolve(variable.path(), scopes);
+                if (Objects.nonNull(value)) {
+                    if (html && variable.escaped()) {
+                        escapeHtml(String.valueOf(value), output);
+                    } else {
+                        output.append(value);
+                    }
+
+                }
+
+            } else if (node instanceof Section section) {
+                renderSection(section, scopes, html, output);
+            }
+
+        }
+
+    }
+
+    private static void renderSection(Section section, List<Object> scopes, boolean html, StringBuilder output) {
+        Object value = resolve(section.path(), scopes);
+        switch (section.kind()) {
+            case "if" -> render(isTruthy(value) ? section.children() : section.elseChildren(), scopes, html, output);
+            case "unless" -> render(isTruthy(value) ? section.elseChildren() : section.children(), scopes, html,
+                    output);
+            default -> {
+                Collection<?> items = toCollection(value);
+                if (items.isEmpty()) {
+                    render(section.elseChildren(), scopes, html, output);
+                }
+
+                for (Object item : items) {
+                    scopes.add(item);
+                    render(section.children(), scopes, html, output);
+                    scopes.remove(scopes.size() - 1);
+                }
+
+            }
+        }
+
+    }
+
+    /**
+     * Resolves a placeholder path, looking its first segment up from the
+     * innermost scope outwards.
+     */
+    private static Object resolve(String[] path, List<Object> scopes) {
+        Object value = null;
+        int segment = 1;
+        if (path[0].equals("this")) {
+            value = scopes.get(scopes.size() - 1);
+        } else {
+            for (int index = scopes.size() - 1; index >= 0; index--) {
+                if (scopes.get(index) instanceof Map<?, ?> scope && scope.containsKey(path[0])) {
+                    value = scope.get(path[0]);
+                    break;
+                }
+
+            }
+
+        }
+
+        for (; segment < path.length && Objects.nonNull(value); segment++) {
+            value = value instanceof Map<?, ?> map ? map.get(path[segment]) : null;
+        }
+
+        return value;
+    }
+
+    private static boolean isTruthy(Object value) {
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+
+        if (value instanceof CharSequence charSequence) {
+            return !charSequence.isEmpty();
+        }
+
+        if (value instanceof Number number) {
+            return number.doubleValue() != 0;
+        }
+
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
+        }
+
+        return Objects.nonNull(value);
+    }
+
+    private static Collection<?> toCollection(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return collection;
+        }
+
+        if (value instanceof Map<?, ?> map) {
+            return map.values();
+        }
+
+        if (value instanceof Object[] array) {
+            return Arrays.asList(array);
+        }
+
+        return List.of();
+    }
+
+    private static String[] splitPath(String expression) {
+        return expression.split("\\.");
+    }
+
+    private static void escapeHtml(String value, StringBuilder output) {
+        for (int index = 0; index < value.length(); index++) {
+            char character = value.charAt(index);
+            switch (character) {
+                case '&' -> output.append("&amp;");
+                case '<' -> output.append("&lt;");
+                case '>' -> output.append("&gt;");
+                case '"' -> output.append("&quot;");
+                case '\'' -> output.append("&#x27;");
+                case '`' -> output.append("&#x60;");
+                case '=' -> output.append("&#x3D;");
+                default -> output.append(character);
+            }
+        }
+
+    }
+
+    private sealed interface Node permits Text, Variable, Section {
+    }
+
+    private record Text(String text) implements Node {
+    }
+
+    private record Variable(String[] path, boolean escaped) implements Node {
+    }
+
+    private record Section(String kind, String[] path, List<Node> children, List<Node> elseChildren)
+            implements Node {
+    }
+}
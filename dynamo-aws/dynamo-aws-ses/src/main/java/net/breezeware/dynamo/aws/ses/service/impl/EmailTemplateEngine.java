@@ -0,0 +1,151 @@
+package net.breezeware.dynamo.aws.ses.service.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import net.breezeware.dynamo.aws.ses.config.SesTemplateProperties;
+import net.breezeware.dynamo.aws.ses.entity.RenderedEmail;
+import net.breezeware.dynamo.aws.ses.entity.Template;
+import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.GetTemplateRequest;
+import software.amazon.awssdk.services.ses.model.TemplateDoesNotExistException;
+
+/**
+ * Renders email templates in-process, so that SES and SMTP emails are rendered
+ * the same way and bulk sends do not depend on SES rendering. Templates are
+ * compiled once and cached by name. A template is loaded from the templates
+ * registered with {@link #registerTemplate(Template)}, then from the template
+ * files of the configured location, then from SES.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailTemplateEngine {
+
+    private final SesClient sesClient;
+
+    private final SesTemplateProperties sesTemplateProperties;
+
+    private final ResourceLoader resourceLoader;
+
+    private final Map<String, CachedTemplate> cache = new ConcurrentHashMap<>();
+
+    private final Map<String, CompiledTemplate> registeredTemplates = new ConcurrentHashMap<>();
+
+    /**
+     * Compiles an email template and registers it under its name, taking
+     * precedence over the template files and SES.
+     * @param  template           the email template.
+     * @throws DynamoSesException if the template is malformed.
+     */
+    public void registerTemplate(Template template) throws DynamoSesException {
+        log.debug("Entering registerTemplate(), templateName = {}", template.getTemplateName());
+        registeredTemplates.put(template.getTemplateName(), CompiledTemplate.compile(template));
+        cache.remove(template.getTemplateName());
+        log.debug("Leaving registerTemplate()");
+    }
+
+    /**
+     * Renders an email template with the given placeholder values.
+     * @param  templateName       the name of the template.
+     * @param  templateData       the placeholder values.
+     * @return                    the rendered email.
+     * @throws DynamoSesException if the template is not found or is malformed.
+     */
+    public RenderedEmail render(String templateName, Map<String, Object> templateData) throws DynamoSesException {
+        return retrieveCompiledTemplate(templateName).render(templateData);
+    }
+
+    /**
+     * Removes a cached template, so that it is loaded again on its next use.
+     * Registered templates are kept.
+     * @param templateName the name of the template.
+     */
+    public void evictTemplate(String templateName) {
+        cache.remove(templateName);
+    }
+
+    private CompiledTemplate retrieveCompiledTemplate(String templateName) throws DynamoSesException {
+        CompiledTemplate registeredTemplate = registeredTemplates.get(templateName);
+        if (Objects.nonNull(registeredTemplate)) {
+            return registeredTemplate;
+        }
+
+        CachedTemplate cachedTemplate = cache.get(templateName);
+        long ttlNanos = sesTemplateProperties.getCacheTtl().toNanos();
+        if (Objects.nonNull(cachedTemplate)
+                && (ttlNanos == 0 || System.nanoTime() - cachedTemplate.loadedAtNanos() < ttlNanos)) {
+            return cachedTemplate.compiledTemplate();
+        }
+
+        CompiledTemplate compiledTemplate = CompiledTemplate.compile(loadTemplate(templateName));
+        cache.put(templateName, new CachedTemplate(compiledTemplate, System.nanoTime()));
+        return compiledTemplate;
+    }
+
+    private Template loadTemplate(String templateName) throws DynamoSesException {
+        log.debug("Entering loadTemplate(), templateName = {}", templateName);
+        String location = sesTemplateProperties.getLocation();
+        Resource subjectResource = resourceLoader.getResource(location + templateName + ".subject");
+        Resource htmlResource = resourceLoader.getResource(location + templateName + ".html");
+        Resource textResource = resourceLoader.getResource(location + templateName + ".txt");
+        if (subjectResource.exists() && (htmlResource.exists() || textResource.exists())) {
+            Template template = Template.builder().templateName(templateName)
+                    .subjectPart(readResource(subjectResource).strip()).htmlPart(readResource(htmlResource))
+                    .textPart(readResource(textResource)).build();
+            log.debug("Leaving loadTemplate(), loaded from {}", location);
+            return template;
+        }
+
+        if (!sesTemplateProperties.isSesLookupEnabled()) {
+            throw new DynamoSesException("Email template not found, templateName = " + templateName);
+        }
+
+        try {
+            software.amazon.awssdk.services.ses.model.Template sesTemplate = sesClient
+                    .getTemplate(GetTemplateRequest.builder().templateName(templateName).build()).template();
+            log.debug("Leaving loadTemplate(), loaded from SES");
+            return Template.builder().templateName(templateName).subjectPart(sesTemplate.subjectPart())
+                    .htmlPart(sesTemplate.htmlPart()).textPart(sesTemplate.textPart()).build();
+        } catch (TemplateDoesNotExistException e) {
+            log.error("AWS SES service email template does not exist, templateName = {}", templateName);
+            throw new DynamoSesException("Email template not found, templateName = " + templateName, e);
+        } catch (SdkException e) {
+            log.error("Error while retrieving email template from SES, error = {}", e.getMessage());
+            throw new DynamoSesException(e.getMessage(), e);
+        }
+
+    }
+
+    private String readResource(Resource resource) throws DynamoSesException {
+        if (!resource.exists()) {
+            return null;
+        }
+
+        try {
+            return resource.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new DynamoSesException("Error while reading email template file " + resource.getDescription(), e);
+        }
+
+    }
+
+    /**
+     * A compiled template loaded from the template files or SES.
+     */
+    private record CachedTemplate(CompiledTemplate compiledTemplate, long loadedAtNanos) {
+    }
+}
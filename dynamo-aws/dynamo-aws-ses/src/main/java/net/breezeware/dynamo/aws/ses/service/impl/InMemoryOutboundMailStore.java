@@ -0,0 +1,168 @@
+package net.breezeware.dynamo.aws.ses.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.breezeware.dynamo.aws.ses.config.SesDispatcherProperties;
+import net.breezeware.dynamo.aws.ses.entity.OutboundMail;
+import net.breezeware.dynamo.aws.ses.entity.OutboundMailStatus;
+import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
+import net.breezeware.dynamo.aws.ses.service.api.OutboundMailStore;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link OutboundMailStore} holding the mails in a bounded in-process delay
+ * queue. The idempotency keys of the most recently dispatched mails and the
+ * most recently dead-lettered mails are kept in bounded maps.
+ */
+@Slf4j
+public class InMemoryOutboundMailStore implements OutboundMailStore {
+
+    private final SesDispatcherProperties sesDispatcherProperties;
+
+    private final DelayQueue<ScheduledMail> queue = new DelayQueue<>();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final Map<String, Boolean> idempotencyKeys;
+
+    private final Map<String, OutboundMail> deadLetters;
+
+    /**
+     * Builds the {@link InMemoryOutboundMailStore}.
+     * @param sesDispatcherProperties dispatcher properties.
+     */
+    public InMemoryOutboundMailStore(SesDispatcherProperties sesDispatcherProperties) {
+        this.sesDispatcherProperties = sesDispatcherProperties;
+        this.idempotencyKeys = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > sesDispatcherProperties.getIdempotencyKeyCapacity();
+            }
+        };
+        this.deadLetters = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, OutboundMail> eldest) {
+                boolean full = size() > sesDispatcherProperties.getDeadLetterCapacity();
+                if (full) {
+                    log.warn("Dead letter capacity exceeded, dropping mail, idempotencyKey = {}", eldest.getKey());
+                }
+
+                return full;
+            }
+        };
+    }
+
+    @Override
+    public boolean offer(OutboundMail mail) throws DynamoSesException {
+        synchronized (idempotencyKeys) {
+            if (idempotencyKeys.containsKey(mail.getIdempotencyKey())) {
+                return false;
+            }
+
+            if (pendingCount.get() >= sesDispatcherProperties.getQueueCapacity()) {
+                throw new DynamoSesException(String.format("Outbound mail queue is full, %d mails are pending",
+                        pendingCount.get()));
+            }
+
+            idempotencyKeys.put(mail.getIdempotencyKey(), Boolean.TRUE);
+            pendingCount.incrementAndGet();
+        }
+
+        queue.add(new ScheduledMail(mail));
+        return true;
+    }
+
+    @Override
+    public Optional<OutboundMail> poll(Duration timeout) throws InterruptedException {
+        ScheduledMail scheduledMail = queue.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        if (Objects.isNull(scheduledMail)) {
+            return Optional.empty();
+        }
+
+        OutboundMail mail = scheduledMail.mail();
+        mail.setStatus(OutboundMailStatus.SENDING);
+        return Optional.of(mail);
+    }
+
+    @Override
+    public void complete(OutboundMail mail) {
+        mail.setStatus(OutboundMailStatus.SENT);
+        pendingCount.decrementAndGet();
+    }
+
+    @Override
+    public void retry(OutboundMail mail) {
+        mail.setStatus(OutboundMailStatus.QUEUED);
+        queue.add(new ScheduledMail(mail));
+    }
+
+    @Override
+    public void deadLetter(OutboundMail mail) {
+        mail.setStatus(OutboundMailStatus.DEAD_LETTERED);
+        synchronized (deadLetters) {
+            deadLetters.put(mail.getIdempotencyKey(), mail);
+        }
+
+        pendingCount.decrementAndGet();
+    }
+
+    @Override
+    public List<OutboundMail> retrieveDeadLetters() {
+        synchronized (deadLetters) {
+            return new ArrayList<>(deadLetters.values());
+        }
+
+    }
+
+    @Override
+    public boolean requeue(String idempotencyKey) {
+        OutboundMail mail;
+        synchronized (deadLetters) {
+            mail = deadLetters.remove(idempotencyKey);
+        }
+
+        if (Objects.isNull(mail)) {
+            return false;
+        }
+
+        mail.setStatus(OutboundMailStatus.QUEUED);
+        mail.setAttempts(0);
+        mail.setNextAttemptAt(Instant.now());
+        pendingCount.incrementAndGet();
+        queue.add(new ScheduledMail(mail));
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return pendingCount.get();
+    }
+
+    /**
+     * A mail becoming available from the delay queue at its next attempt time.
+     */
+    private record ScheduledMail(OutboundMail mail) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), mail.getNextAttemptAt()));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return mail.getNextAttemptAt().compareTo(((ScheduledMail) other).mail().getNextAttemptAt());
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package net.breezeware.dynamo.aws.ses.service.impl;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import net.breezeware.dynamo.aws.ses.config.SesDispatcherProperties;
+import net.breezeware.dynamo.aws.ses.entity.Attachment;
+import net.breezeware.dynamo.aws.ses.entity.OutboundMail;
+import net.breezeware.dynamo.aws.ses.entity.OutboundMailStatus;
+import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
+import net.breezeware.dynamo.aws.ses.service.api.OutboundMailStore;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link OutboundMailStore} holding the mails in a table of the application
+ * database, so that queued mails survive restarts and are shared between the
+ * instances of the application. Workers claim a mail by leasing it with a
+ * conditional update, and mails of workers that stopped during a send are
+ * claimed again once their lease expires. Sent mails are kept for the sent
+ * retention as the record of their idempotency keys.
+ * <p>
+ * The queue capacity is checked in the statement inserting a mail, so it may
+ * be exceeded by at most the number of mails offered concurrently by the
+ * instances. The queries are portable SQL, but the schema initialization is
+ * only supported on PostgreSQL, MySQL and H2; on other databases, the table
+ * is to be created beforehand, with the schema initialization disabled.
+ */
+@Slf4j
+public class JdbcOutboundMailStore implements OutboundMailStore {
+
+    private static final int CLAIM_BATCH_SIZE = 10;
+
+    private static final String COLUMNS =
+            "idempotency_key, status, attempts, next_attempt_at, last_error, message_id, payload, created_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Template of the application database limited to {@link #CLAIM_BATCH_SIZE}
+     * rows, selecting the claim candidates without a dialect specific limit.
+     */
+    private final JdbcTemplate claimJdbcTemplate;
+
+    private final SesDispatcherProperties sesDispatcherProperties;
+
+    private final String tableName;
+
+    private final AtomicLong lastPurgeNanos = new AtomicLong(System.nanoTime());
+
+    /**
+     * Builds the {@link JdbcOutboundMailStore}, creating its table if enabled.
+     * @param jdbcTemplate            the template of the application database.
+     * @param sesDispatcherProperties dispatcher properties.
+     */
+    public JdbcOutboundMailStore(JdbcTemplate jdbcTemplate, SesDispatcherProperties sesDispatcherProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.claimJdbcTemplate = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+        this.claimJdbcTemplate.setMaxRows(CLAIM_BATCH_SIZE);
+        this.sesDispatcherProperties = sesDispatcherProperties;
+        this.tableName = sesDispatcherProperties.getTableName();
+        if (sesDispatcherProperties.isInitializeSchema()) {
+            initializeSchema();
+        }
+
+    }
+
+    @Override
+    public boolean offer(OutboundMail mail) throws DynamoSesException {
+        int inserted;
+        try {
+            // the mail is inserted only if the queue is not full, in the same statement counting the pending mails
+            inserted = jdbcTemplate.update("INSERT INTO " + tableName + " (" + COLUMNS + ", updated_at)"
+                    + " SELECT ?, ?, ?, ?, ?, ?, ?, ?, ? FROM (SELECT COUNT(*) AS pending FROM " + tableName
+                    + " WHERE status IN (?, ?)) pending_mails WHERE pending < ?", mail.getIdempotencyKey(),
+                    mail.getStatus().name(), mail.getAttempts(), Timestamp.from(mail.getNextAttemptAt()),
+                    mail.getLastError(), mail.getMessageId(), toPayload(mail).toString(),
+                    Timestamp.from(mail.getCreatedAt()), Timestamp.from(Instant.now()),
+                    OutboundMailStatus.QUEUED.name(), OutboundMailStatus.SENDING.name(),
+                    sesDispatcherProperties.getQueueCapacity());
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+
+        if (inserted == 0) {
+            throw new DynamoSesException(String.format("Outbound mail queue is full, %d mails are pending", size()));
+        }
+
+        return true;
+    }
+
+    @Override
+    public Optional<OutboundMail> poll(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            Optional<OutboundMail> mail = claimNextDueMail();
+            if (mail.isPresent()) {
+                return mail;
+            }
+
+            purgeSentMails();
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return Optional.empty();
+            }
+
+            TimeUnit.NANOSECONDS.sleep(Math.min(remainingNanos, sesDispatcherProperties.getPollInterval().toNanos()));
+        }
+
+    }
+
+    @Override
+    public void complete(OutboundMail mail) {
+        mail.setStatus(OutboundMailStatus.SENT);
+        Instant now = Instant.now();
+        // the next attempt time of a sent mail is its send time, used to purge it
+        mail.setNextAttemptAt(now);
+        update(mail, now);
+    }
+
+    @Override
+    public void retry(OutboundMail mail) {
+        mail.setStatus(OutboundMailStatus.QUEUED);
+        update(mail, Instant.now());
+    }
+
+    @Override
+    public void deadLetter(OutboundMail mail) {
+        mail.setStatus(OutboundMailStatus.DEAD_LETTERED);
+        update(mail, Instant.now());
+    }
+
+    @Override
+    public List<OutboundMail> retrieveDeadLetters() {
+        return jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM " + tableName + " WHERE status = ? ORDER BY updated_at",
+                (resultSet, rowNum) -> mapMail(resultSet), OutboundMailStatus.DEAD_LETTERED.name());
+    }
+
+    @Override
+    public boolean requeue(String idempotencyKey) {
+        Timestamp now = Timestamp.from(Instant.now());
+        return jdbcTemplate.update("UPDATE " + tableName
+                + " SET status = ?, attempts = 0, next_attempt_at = ?, updated_at = ?"
+                + " WHERE idempotency_key = ? AND status = ?", OutboundMailStatus.QUEUED.name(), now, now,
+                idempotencyKey, OutboundMailStatus.DEAD_LETTERED.name()) == 1;
+    }
+
+    @Override
+    public int size() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + tableName + " WHERE status IN (?, ?)", Integer.class,
+                OutboundMailStatus.QUEUED.name(), OutboundMailStatus.SENDING.name());
+        return Objects.requireNonNullElse(count, 0);
+    }
+
+    private void initializeSchema() {
+        log.debug("Entering initializeSchema(), tableName = {}", tableName);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + tableName + " ("
+                + "idempotency_key VARCHAR(255) PRIMARY KEY, status VARCHAR(32) NOT NULL, attempts INT NOT NULL, "
+                + "next_attempt_at TIMESTAMP NOT NULL, last_error TEXT, message_id VARCHAR(255), "
+                + "payload TEXT NOT NULL, created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL)");
+        String indexName = tableName + "_status_next_attempt_at_idx";
+        if (!indexExists(indexName)) {
+            jdbcTemplate.execute("CREATE INDEX " + indexName + " ON " + tableName + " (status, next_attempt_at)");
+        }
+
+        log.debug("Leaving initializeSchema()");
+    }
+
+    /**
+     * Tells whether the table has an index of the given name, from the metadata
+     * of the database, as not all databases support creating an index only if
+     * it does not exist.
+     */
+    private boolean indexExists(String indexName) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String storedTableName = metaData.storesUpperCaseIdentifiers() ? tableName.toUpperCase()
+                    : metaData.storesLowerCaseIdentifiers() ? tableName.toLowerCase() : tableName;
+            try (ResultSet indexes =
+                    metaData.getIndexInfo(connection.getCatalog(), null, storedTableName, false, true)) {
+                while (indexes.next()) {
+                    if (indexName.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+
+                }
+
+            }
+
+            return false;
+        }));
+    }
+
+    /**
+     * Claims the earliest due mail that is queued, or being sent by a worker
+     * whose lease expired, by leasing it only if no other worker claimed it since
+     * it was selected.
+     */
+    private Optional<OutboundMail> claimNextDueMail() {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<OutboundMail> candidates = claimJdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM " + tableName + " WHERE status IN (?, ?) AND next_attempt_at <= ?"
+                        + " ORDER BY next_attempt_at",
+                (resultSet, rowNum) -> mapMail(resultSet), OutboundMailStatus.QUEUED.name(),
+                OutboundMailStatus.SENDING.name(), now);
+        Timestamp leaseExpiry = Timestamp.from(now.toInstant().plus(sesDispatcherProperties.getLeaseDuration()));
+        for (OutboundMail candidate : candidates) {
+            int claimed = jdbcTemplate.update("UPDATE " + tableName
+                    + " SET status = ?, next_attempt_at = ?, updated_at = ?"
+                    + " WHERE idempotency_key = ? AND status = ? AND next_attempt_at = ?",
+                    OutboundMailStatus.SENDING.name(), leaseExpiry, now, candidate.getIdempotencyKey(),
+                    candidate.getStatus().name(), Timestamp.from(candidate.getNextAttemptAt()));
+            if (claimed == 1) {
+                candidate.setStatus(OutboundMailStatus.SENDING);
+                candidate.setNextAttemptAt(leaseExpiry.toInstant());
+                return Optional.of(candidate);
+            }
+
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Deletes the sent mails older than the sent retention, at most once per
+     * minute.
+     */
+    private void purgeSentMails() {
+        long now = System.nanoTime();
+        long lastPurge = lastPurgeNanos.get();
+        if (now - lastPurge < TimeUnit.MINUTES.toNanos(1) || !lastPurgeNanos.compareAndSet(lastPurge, now)) {
+            return;
+        }
+
+        int purged = jdbcTemplate.update("DELETE FROM " + tableName + " WHERE status = ? AND next_attempt_at < ?",
+                OutboundMailStatus.SENT.name(),
+                Timestamp.from(Instant.now().minus(sesDispatcherProperties.getSentRetention())));
+        log.debug("Purged sent mails, purged = {}", purged);
+    }
+
+    private void update(OutboundMail mail, Instant now) {
+        jdbcTemplate.update("UPDATE " + tableName + " SET status = ?, attempts = ?, next_attempt_at = ?,"
+                + " last_error = ?, message_id = ?, updated_at = ? WHERE idempotency_key = ?",
+                mail.getStatus().name(), mail.getAttempts(), Timestamp.from(mail.getNextAttemptAt()),
+                mail.getLastError(), mail.getMessageId(), Timestamp.from(now), mail.getIdempotencyKey());
+    }
+
+    private OutboundMail mapMail(ResultSet resultSet) throws SQLException {
+        JSONObject payload = new JSONObject(resultSet.getString("payload"));
+        List<Attachment> attachments = null;
+        if (payload.has("attachments")) {
+            attachments = new ArrayList<>();
+            for (Object element : payload.getJSONArray("attachments")) {
+                JSONObject attachment = (JSONObject) element;
+                attachments.add(Attachment.builder()
+                        .attachmentContent(Base64.getDecoder().decode(attachment.getString("content")))
+                        .attachmentMetaData(Attachment.MetaData.builder()
+                                .attachmentName(optString(attachment, "name"))
+                                .attachmentSize(optString(attachment, "size"))
+                                .attachmentType(optString(attachment, "type")).build())
+                        .build());
+            }
+
+        }
+
+        return OutboundMail.builder().idempotencyKey(resultSet.getString("idempotency_key"))
+                .from(optString(payload, "from")).to(optStringList(payload, "to"))
+                .cc(optStringList(payload, "cc")).bcc(optStringList(payload, "bcc"))
+                .subject(optString(payload, "subject")).body(optString(payload, "body")).attachments(attachments)
+                .templateName(optString(payload, "templateName"))
+                .templateData(payload.has("templateData") ? payload.getJSONObject("templateData").toMap() : null)
+                .status(OutboundMailStatus.valueOf(resultSet.getString("status")))
+                .attempts(resultSet.getInt("attempts"))
+                .nextAttemptAt(resultSet.getTimestamp("next_attempt_at").toInstant())
+                .lastError(resultSet.getString("last_error")).messageId(resultSet.getString("message_id"))
+                .createdAt(resultSet.getTimestamp("created_at").toInstant()).build();
+    }
+
+    private JSONObject toPayload(OutboundMail mail) {
+        JSONObject payload = new JSONObject().put("from", mail.getFrom()).put("to", mail.getTo())
+                .put("cc", mail.getCc()).put("bcc", mail.getBcc()).put("subject", mail.getSubject())
+                .put("body", mail.getBody()).put("templateName", mail.getTemplateName())
+                .put("templateData", mail.getTemplateData());
+        if (Objects.nonNull(mail.getAttachments())) {
+            JSONArray attachments = new JSONArray();
+            for (Attachment attachment : mail.getAttachments()) {
+                Attachment.MetaData metaData = attachment.getAttachmentMetaData();
+                attachments.put(new JSONObject()
+                        .put("content", Base64.getEncoder().encodeToString(attachment.getAttachmentContent()))
+                        .put("name", metaData.getAttachmentName()).put("size", metaData.getAttachmentSize())
+                        .put("type", metaData.getAttachmentType()));
+            }
+
+            payload.put("attachments", attachments);
+        }
+
+        return payload;
+    }
+
+    private String optString(JSONObject json, String key) {
+        return json.has(key) ? json.getString(key) : null;
+    }
+
+    private List<String> optStringList(JSONObject json, String key) {
+        return json.has(key) ? json.getJSONArray(key).toList().stream().map(String::valueOf).toList() : null;
+    }
+}
@@ -0,0 +1,293 @@
+package net.breezeware.dynamo.aws.ses.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import net.breezeware.dynamo.aws.ses.config.SesDispatcherProperties;
+import net.breezeware.dynamo.aws.ses.entity.BulkEmailRecipient;
+import net.breezeware.dynamo.aws.ses.entity.BulkEmailResult;
+import net.breezeware.dynamo.aws.ses.entity.OutboundMail;
+import net.breezeware.dynamo.aws.ses.entity.OutboundMailStatus;
+import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
+import net.breezeware.dynamo.aws.ses.service.api.MailDispatcher;
+import net.breezeware.dynamo.aws.ses.service.api.OutboundMailStore;
+import net.breezeware.dynamo.aws.ses.service.api.SesService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
+
+/**
+ * {@link MailDispatcher} sending the mails of an {@link OutboundMailStore} on a
+ * fixed number of worker threads. Mails are sent at the SES send rate, retried
+ * with exponential backoff and jitter on throttling and transient errors, and
+ * dead-lettered on permanent errors or once their attempts are exhausted.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "dynamo.aws.ses.dispatcher", name = "enabled", havingValue = "true")
+public class MailDispatcherImpl implements MailDispatcher {
+
+    /**
+     * The bulk email statuses and error codes of transient errors, which are
+     * retried.
+     */
+    private static final Set<String> RETRYABLE_STATUSES = Set.of("AccountThrottled", "AccountDailyQuotaExceeded",
+            "TransientFailure", "Failed", "Throttling", "ServiceUnavailable", "InternalFailure");
+
+    private final SesService sesService;
+
+    private final SesSendRateLimiter sesSendRateLimiter;
+
+    private final OutboundMailStore outboundMailStore;
+
+    private final SesDispatcherProperties sesDispatcherProperties;
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running = true;
+
+    /**
+     * Builds the {@link MailDispatcherImpl} and starts its worker threads.
+     * @param sesService              the service sending the mails.
+     * @param sesSendRateLimiter      the limiter of the SES send rate.
+     * @param outboundMailStore       the store of the mails.
+     * @param sesDispatcherProperties dispatcher properties.
+     */
+    public MailDispatcherImpl(SesService sesService, SesSendRateLimiter sesSendRateLimiter,
+            OutboundMailStore outboundMailStore, SesDispatcherProperties sesDispatcherProperties) {
+        log.debug("Entering MailDispatcherImpl(), workerCount = {}, store = {}",
+                sesDispatcherProperties.getWorkerCount(), outboundMailStore.getClass().getSimpleName());
+        this.sesService = sesService;
+        this.sesSendRateLimiter = sesSendRateLimiter;
+        this.outboundMailStore = outboundMailStore;
+        this.sesDispatcherProperties = sesDispatcherProperties;
+        for (int index = 1; index <= sesDispatcherProperties.getWorkerCount(); index++) {
+            Thread worker = new Thread(this::work, "dynamo-ses-dispatcher-" + index);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+
+        log.debug("Leaving MailDispatcherImpl()");
+    }
+
+    @Override
+    public boolean dispatch(OutboundMail mail) throws DynamoSesException {
+        log.debug("Entering dispatch(), idempotencyKey = {}, to = {}", mail.getIdempotencyKey(), mail.getTo());
+        if (Objects.isNull(mail.getFrom()) || Objects.isNull(mail.getTo()) || mail.getTo().isEmpty()) {
+            throw new DynamoSesException("Outbound mail requires a sender and at least one receiver");
+        }
+
+        if (Objects.isNull(mail.getTemplateName()) && Objects.isNull(mail.getBody())) {
+            throw new DynamoSesException("Outbound mail requires a template name or a body");
+        }
+
+        if (Objects.isNull(mail.getIdempotencyKey())) {
+            mail.setIdempotencyKey(UUID.randomUUID().toString());
+        }
+
+        Instant now = Instant.now();
+        mail.setStatus(OutboundMailStatus.QUEUED);
+        mail.setAttempts(0);
+        mail.setNextAttemptAt(now);
+        mail.setCreatedAt(now);
+        boolean queued = outboundMailStore.offer(mail);
+        if (!queued) {
+            log.info("Outbound mail already dispatched, idempotencyKey = {}", mail.getIdempotencyKey());
+        }
+
+        log.debug("Leaving dispatch(), queued = {}", queued);
+        return queued;
+    }
+
+    @Override
+    public List<OutboundMail> retrieveDeadLetters() {
+        return outboundMailStore.retrieveDeadLetters();
+    }
+
+    @Override
+    public boolean redispatch(String idempotencyKey) {
+        log.info("Entering redispatch(), idempotencyKey = {}", idempotencyKey);
+        boolean requeued = outboundMailStore.requeue(idempotencyKey);
+        log.info("Leaving redispatch(), requeued = {}", requeued);
+        return requeued;
+    }
+
+    /**
+     * Stops the worker threads, waiting up to the shutdown timeout for the mails
+     * being sent.
+     */
+    @PreDestroy
+    public void shutdown() {
+        log.debug("Entering shutdown()");
+        running = false;
+        long deadline = System.nanoTime() + sesDispatcherProperties.getShutdownTimeout().toNanos();
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            worker.interrupt();
+        }
+
+        log.debug("Leaving shutdown(), pending = {}", outboundMailStore.size());
+    }
+
+    /**
+     * Sends the mails of the store until the dispatcher is shut down.
+     */
+    private void work() {
+        while (running) {
+            try {
+                Optional<OutboundMail> mail = outboundMailStore.poll(sesDispatcherProperties.getPollInterval());
+                mail.ifPresent(this::send);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error while dispatching outbound mail, error = {}", e.getMessage(), e);
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sesDispatcherProperties.getPollInterval().toNanos());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+            }
+
+        }
+
+    }
+
+    private void send(OutboundMail mail) {
+        log.debug("Entering send(), idempotencyKey = {}, attempts = {}", mail.getIdempotencyKey(), mail.getAttempts());
+        if (Objects.nonNull(mail.getTemplateName())) {
+            sendTemplated(mail);
+        } else {
+            sendRaw(mail);
+        }
+
+        log.debug("Leaving send(), status = {}", mail.getStatus());
+    }
+
+    /**
+     * Sends a mail built from a template, as a bulk email of a single
+     * destination, which is throttled to the send rate and reports the SES
+     * status of the destination.
+     */
+    private void sendTemplated(OutboundMail mail) {
+        BulkEmailRecipient recipient = BulkEmailRecipient.builder().to(mail.getTo()).cc(mail.getCc())
+                .bcc(mail.getBcc()).templateData(mail.getTemplateData()).build();
+        try {
+            BulkEmailResult result = sesService
+                    .sendBulkTemplatedEmail(mail.getFrom(), mail.getTemplateName(), null, List.of(recipient)).get(0);
+            if (result.isSuccessful()) {
+                complete(mail, result.getMessageId());
+            } else {
+                fail(mail, result.getStatus() + ": " + result.getError(),
+                        RETRYABLE_STATUSES.contains(result.getStatus()));
+            }
+
+        } catch (DynamoSesException e) {
+            // raised when the send rate is not available in time
+            fail(mail, e.getMessage(), true);
+        }
+
+    }
+
+    private void sendRaw(OutboundMail mail) {
+        try {
+            sesSendRateLimiter.acquire(Stream.of(mail.getTo(), mail.getCc(), mail.getBcc()).filter(Objects::nonNull)
+                    .mapToInt(List::size).sum());
+        } catch (DynamoSesException e) {
+            fail(mail, e.getMessage(), true);
+            return;
+        }
+
+        try {
+            String messageId = sesService.sendMail(mail.getFrom(), mail.getTo(), mail.getCc(), mail.getBcc(),
+                    mail.getSubject(), mail.getBody(), mail.getAttachments());
+            complete(mail, messageId);
+        } catch (DynamoSesException e) {
+            fail(mail, e.getMessage(), isRetryable(e.getCause()));
+        } catch (SdkException e) {
+            fail(mail, e.getMessage(), isRetryable(e));
+        }
+
+    }
+
+    private void complete(OutboundMail mail, String messageId) {
+        mail.setMessageId(messageId);
+        mail.setLastError(null);
+        outboundMailStore.complete(mail);
+        log.info("Outbound mail sent, idempotencyKey = {}, messageId = {}", mail.getIdempotencyKey(), messageId);
+    }
+
+    private void fail(OutboundMail mail, String error, boolean retryable) {
+        mail.setAttempts(mail.getAttempts() + 1);
+        mail.setLastError(error);
+        if (retryable && mail.getAttempts() < sesDispatcherProperties.getMaxAttempts()) {
+            Duration backoff = calculateBackoff(mail.getAttempts());
+            mail.setNextAttemptAt(Instant.now().plus(backoff));
+            outboundMailStore.retry(mail);
+            log.warn("Outbound mail not sent, retrying in {}, idempotencyKey = {}, attempts = {}, error = {}", backoff,
+                    mail.getIdempotencyKey(), mail.getAttempts(), error);
+        } else {
+            outboundMailStore.deadLetter(mail);
+            log.error("Outbound mail not sent, dead-lettered, idempotencyKey = {}, attempts = {}, error = {}",
+                    mail.getIdempotencyKey(), mail.getAttempts(), error);
+        }
+
+    }
+
+    /**
+     * Calculates the delay before the next attempt, doubling the initial backoff
+     * with every failed attempt up to the maximum backoff. Half of the delay is
+     * randomized, so that mails throttled together are not retried together.
+     */
+    private Duration calculateBackoff(int attempts) {
+        long initialNanos = sesDispatcherProperties.getInitialBackoff().toNanos();
+        long maxNanos = sesDispatcherProperties.getMaxBackoff().toNanos();
+        long delayNanos = initialNanos << Math.min(attempts - 1, 30);
+        if (delayNanos <= 0 || delayNanos > maxNanos) {
+            delayNanos = maxNanos;
+        }
+
+        long halfNanos = delayNanos / 2;
+        return Duration.ofNanos(halfNanos + ThreadLocalRandom.current().nextLong(halfNanos + 1));
+    }
+
+    /**
+     * Checks whether an error is transient: a client error such as a timeout, a
+     * throttling error or a server error.
+     */
+    private boolean isRetryable(Throwable error) {
+        if (error instanceof SdkClientException) {
+            return true;
+        }
+
+        if (error instanceof AwsServiceException awsServiceException) {
+            return awsServiceException.isThrottlingException() || awsServiceException.statusCode() >= 500;
+        }
+
+        return false;
+    }
+}
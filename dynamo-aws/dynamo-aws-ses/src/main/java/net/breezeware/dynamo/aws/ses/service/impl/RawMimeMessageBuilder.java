@@ -0,0 +1,209 @@
+package net.breezeware.dynamo.aws.ses.service.impl;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.ContentDisposition;
+import jakarta.mail.internet.ContentType;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MailDateFormat;
+import jakarta.mail.internet.MimeUtility;
+import jakarta.mail.internet.ParameterList;
+
+import net.breezeware.dynamo.aws.ses.entity.Attachment;
+
+/**
+ * Assembles raw multipart MIME messages for the SES SendRawEmail action without
+ * building a {@link jakarta.mail.internet.MimeMessage}. Each body part is
+ * encoded once into its final bytes, so the encoded attachments of a message
+ * can be reused for every recipient it is sent to. A message is assembled by
+ * copying the encoded parts into a single array of exactly the message size.
+ */
+final class RawMimeMessageBuilder {
+
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final String DEFAULT_ATTACHMENT_TYPE = "application/octet-stream";
+
+    private RawMimeMessageBuilder() {
+    }
+
+    /**
+     * Encodes an HTML body part.
+     * @param  html the HTML content.
+     * @return      the encoded body part, headers included.
+     */
+    static byte[] encodeHtmlPart(String html) {
+        return encodePart("Content-Type: text/html; charset=UTF-8\r\n",
+                Objects.requireNonNullElse(html, "").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Encodes the body of an email. A body with both a text and an HTML part is
+     * encoded as a multipart/alternative part.
+     * @param  textPart the plain text content, may be null.
+     * @param  htmlPart the HTML content, may be null if the text part is set.
+     * @return          the encoded body part, headers included.
+     */
+    static byte[] encodeBodyPart(String textPart, String htmlPart) {
+        if (Objects.isNull(textPart)) {
+            return encodeHtmlPart(htmlPart);
+        }
+
+        byte[] encodedTextPart =
+                encodePart("Content-Type: text/plain; charset=UTF-8\r\n", textPart.getBytes(StandardCharsets.UTF_8));
+        if (Objects.isNull(htmlPart)) {
+            return encodedTextPart;
+        }
+
+        String boundary = "----=_Alternative_" + UUID.randomUUID();
+        return assemble(header("Content-Type", "multipart/alternative; boundary=\"" + boundary + "\"") + "\r\n",
+                boundary, List.of(encodedTextPart, encodeHtmlPart(htmlPart)));
+    }
+
+    /**
+     * Encodes an attachment body part.
+     * @param  attachment         the attachment.
+     * @return                    the encoded body part, headers included.
+     * @throws MessagingException if the attachment type cannot be parsed.
+     */
+    static byte[] encodeAttachmentPart(Attachment attachment) throws MessagingException {
+        Attachment.MetaData metaData = attachment.getAttachmentMetaData();
+        ContentType contentType = new ContentType(
+                Objects.requireNonNullElse(metaData.getAttachmentType(), DEFAULT_ATTACHMENT_TYPE));
+        ParameterList dispositionParameters = new ParameterList();
+        if (Objects.nonNull(metaData.getAttachmentName())) {
+            ParameterList typeParameters =
+                    Objects.requireNonNullElseGet(contentType.getParameterList(), ParameterList::new);
+            typeParameters.set("name", metaData.getAttachmentName(), "UTF-8");
+            contentType.setParameterList(typeParameters);
+            dispositionParameters.set("filename", metaData.getAttachmentName(), "UTF-8");
+        }
+
+        String headers = header("Content-Type", contentType.toString())
+                + header("Content-Disposition", new ContentDisposition("attachment", dispositionParameters).toString());
+        return encodePart(headers, attachment.getAttachmentContent());
+    }
+
+    /**
+     * Assembles a multipart/mixed message from encoded body parts.
+     * @param  from               Sender's email address.
+     * @param  to                 Receiver's email addresses.
+     * @param  cc                 Carbon copy(cc) addresses.
+     * @param  subject            Subject of the message.
+     * @param  encodedParts       Encoded body parts, in order.
+     * @return                    the raw message.
+     * @throws MessagingException if an address cannot be parsed.
+     */
+    static byte[] build(String from, List<String> to, List<String> cc, String subject, List<byte[]> encodedParts)
+            throws MessagingException {
+        String boundary = "----=_Part_" + UUID.randomUUID();
+        StringBuilder headers = new StringBuilder();
+        headers.append(header("From", new InternetAddress(from, true).toString()));
+        if (Objects.nonNull(to) && !to.isEmpty()) {
+            headers.append(header("To", InternetAddress.toString(parseAddresses(to), 4)));
+        }
+
+        if (Objects.nonNull(cc) && !cc.isEmpty()) {
+            headers.append(header("Cc", InternetAddress.toString(parseAddresses(cc), 4)));
+        }
+
+        try {
+            headers.append(header("Subject",
+                    MimeUtility.encodeText(Objects.requireNonNullElse(subject, ""), "UTF-8", null)));
+        } catch (UnsupportedEncodingException e) {
+            throw new MessagingException(e.getMessage(), e);
+        }
+
+        headers.append(header("Date", new MailDateFormat().format(new Date())))
+                .append(header("MIME-Version", "1.0"))
+                .append(header("Content-Type", "multipart/mixed; boundary=\"" + boundary + "\"")).append("\r\n");
+        return assemble(headers.toString(), boundary, encodedParts);
+    }
+
+    /**
+     * Assembles a multipart entity of exactly its size from encoded body parts.
+     * @param  headers      the headers of the entity, including the blank line
+     *                      ending them.
+     * @param  boundary     the boundary delimiting the body parts.
+     * @param  encodedParts the encoded body parts, in order.
+     * @return              the multipart entity.
+     */
+    private static byte[] assemble(String headers, String boundary, List<byte[]> encodedParts) {
+        byte[] headerBytes = headers.getBytes(StandardCharsets.US_ASCII);
+        byte[] delimiter = ("--" + boundary + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] closeDelimiter = ("--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        int size = headerBytes.length + closeDelimiter.length;
+        for (byte[] encodedPart : encodedParts) {
+            size = Math.addExact(size, delimiter.length + encodedPart.length + CRLF.length);
+        }
+
+        byte[] multipart = new byte[size];
+        int position = copy(headerBytes, multipart, 0);
+        for (byte[] encodedPart : encodedParts) {
+            position = copy(delimiter, multipart, position);
+            position = copy(encodedPart, multipart, position);
+            position = copy(CRLF, multipart, position);
+        }
+
+        copy(closeDelimiter, multipart, position);
+        return multipart;
+    }
+
+    /**
+     * Collects the envelope recipients of a message. Blind carbon copy(bcc)
+     * addresses are only passed to SES as recipients, never written as a header.
+     * @param  to  Receiver's email addresses.
+     * @param  cc  Carbon copy(cc) addresses.
+     * @param  bcc Blind carbon copy(bcc) addresses.
+     * @return     all recipient addresses.
+     */
+    static List<String> collectDestinations(List<String> to, List<String> cc, List<String> bcc) {
+        List<String> destinations = new ArrayList<>();
+        for (List<String> addresses : Arrays.asList(to, cc, bcc)) {
+            if (Objects.nonNull(addresses)) {
+                destinations.addAll(addresses);
+            }
+
+        }
+
+        return destinations;
+    }
+
+    private static byte[] encodePart(String headers, byte[] content) {
+        byte[] headerBytes =
+                (headers + "Content-Transfer-Encoding: base64\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] encodedContent = Base64.getMimeEncoder().encode(content);
+        byte[] part = new byte[headerBytes.length + encodedContent.length];
+        System.arraycopy(headerBytes, 0, part, 0, headerBytes.length);
+        System.arraycopy(encodedContent, 0, part, headerBytes.length, encodedContent.length);
+        return part;
+    }
+
+    private static InternetAddress[] parseAddresses(List<String> addresses) throws MessagingException {
+        InternetAddress[] internetAddresses = new InternetAddress[addresses.size()];
+        for (int index = 0; index < addresses.size(); index++) {
+            internetAddresses[index] = new InternetAddress(addresses.get(index), true);
+        }
+
+        return internetAddresses;
+    }
+
+    private static String header(String name, String value) {
+        return name + ": " + MimeUtility.fold(name.length() + 2, value) + "\r\n";
+    }
+
+    private static int copy(byte[] source, byte[] target, int position) {
+        System.arraycopy(source, 0, target, position, source.length);
+        return position + source.length;
+    }
+}
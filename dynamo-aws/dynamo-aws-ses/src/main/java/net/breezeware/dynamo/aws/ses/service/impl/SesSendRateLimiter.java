@@ -0,0 +1,121 @@
+package net.breezeware.dynamo.aws.ses.service.impl;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import net.breezeware.dynamo.aws.ses.config.SesSendRateProperties;
+import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.ses.SesClient;
+
+/**
+ * Token bucket limiting the number of recipients emailed per second to the SES
+ * send rate. The bucket holds up to one second of permits, so short bursts are
+ * sent immediately while sustained sends are spread at the send rate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SesSendRateLimiter {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final SesClient sesClient;
+    private final SesSendRateProperties sesSendRateProperties;
+
+    private double permitsPerSecond;
+    private double storedPermits;
+    private long lastRefillNanos;
+
+    /**
+     * Waits until the given number of recipients can be emailed without
+     * exceeding the send rate.
+     * @param  permits            the number of recipients to be emailed.
+     * @throws DynamoSesException if the send rate cannot be retrieved, the wait
+     *                            exceeds the acquire timeout or the thread is
+     *                            interrupted.
+     */
+    public void acquire(int permits) throws DynamoSesException {
+        log.debug("Entering acquire(), permits = {}", permits);
+        long waitNanos = reserve(permits);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DynamoSesException("Interrupted while waiting for the SES send rate", e);
+            }
+
+        }
+
+        log.debug("Leaving acquire(), waitNanos = {}", waitNanos);
+    }
+
+    /**
+     * Retrieves the send rate the limiter is configured with, retrieving the
+     * maximum send rate of the account from SES on first use when it is not
+     * configured.
+     * @return                    the number of recipients emailed per second.
+     * @throws DynamoSesException if the send rate cannot be retrieved.
+     */
+    public synchronized double getPermitsPerSecond() throws DynamoSesException {
+        if (permitsPerSecond <= 0) {
+            double rate = resolvePermitsPerSecond();
+            if (rate <= 0) {
+                throw new DynamoSesException("SES send rate must be positive, maxSendRate = " + rate);
+            }
+
+            permitsPerSecond = rate;
+            storedPermits = Math.max(1, permitsPerSecond);
+            lastRefillNanos = System.nanoTime();
+        }
+
+        return permitsPerSecond;
+    }
+
+    /**
+     * Takes the given number of permits from the bucket, letting it go into debt
+     * when it holds fewer permits, and calculates the time until the debt is
+     * repaid.
+     */
+    private synchronized long reserve(int permits) throws DynamoSesException {
+        double rate = getPermitsPerSecond();
+        long now = System.nanoTime();
+        storedPermits =
+                Math.min(Math.max(1, rate), storedPermits + (now - lastRefillNanos) * rate / NANOS_PER_SECOND);
+        lastRefillNanos = now;
+
+        double missingPermits = permits - storedPermits;
+        long waitNanos = missingPermits > 0 ? (long) (missingPermits * NANOS_PER_SECOND / rate) : 0;
+        if (waitNanos > sesSendRateProperties.getAcquireTimeout().toNanos()) {
+            throw new DynamoSesException(String.format(
+                    "Sending to %d recipients exceeds the SES send rate of %s per second for longer than %s",
+                    permits, rate, sesSendRateProperties.getAcquireTimeout()));
+        }
+
+        storedPermits -= permits;
+        return waitNanos;
+    }
+
+    private double resolvePermitsPerSecond() throws DynamoSesException {
+        if (Objects.nonNull(sesSendRateProperties.getMaxSendRate())) {
+            return sesSendRateProperties.getMaxSendRate();
+        }
+
+        try {
+            double maxSendRate = sesClient.getSendQuota().maxSendRate();
+            log.info("Retrieved SES account maximum send rate, maxSendRate = {}", maxSendRate);
+            return maxSendRate;
+        } catch (SdkException e) {
+            log.error("Error while retrieving SES send quota, error = {}", e.getMessage());
+            throw new DynamoSesException(e.getMessage(), e);
+        }
+
+    }
+}
@@ -1,29 +1,23 @@
 package net.breezeware.dynamo.aws.ses.service.impl;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Properties;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
-import jakarta.activation.DataHandler;
-import jakarta.activation.DataSource;
-import jakarta.mail.Message.RecipientType;
 import jakarta.mail.MessagingException;
-import jakarta.mail.Session;
-import jakarta.mail.internet.InternetAddress;
-import jakarta.mail.internet.MimeBodyPart;
-import jakarta.mail.internet.MimeMessage;
-import jakarta.mail.internet.MimeMultipart;
-import jakarta.mail.util.ByteArrayDataSource;
 
 import org.json.JSONObject;
 import org.springframework.stereotype.Service;
 
 import net.breezeware.dynamo.aws.ses.entity.Attachment;
+import net.breezeware.dynamo.aws.ses.entity.BulkEmailRecipient;
+import net.breezeware.dynamo.aws.ses.entity.BulkEmailResult;
+import net.breezeware.dynamo.aws.ses.entity.RenderedEmail;
 import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
 import net.breezeware.dynamo.aws.ses.service.api.SesService;
 
@@ -38,6 +32,9 @@ import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.AccountSendingPausedException;
 import software.amazon.awssdk.services.ses.model.AlreadyExistsException;
 import software.amazon.awssdk.services.ses.model.Body;
+import software.amazon.awssdk.services.ses.model.BulkEmailDestination;
+import software.amazon.awssdk.services.ses.model.BulkEmailDestinationStatus;
+import software.amazon.awssdk.services.ses.model.BulkEmailStatus;
 import software.amazon.awssdk.services.ses.model.ConfigurationSetDoesNotExistException;
 import software.amazon.awssdk.services.ses.model.ConfigurationSetSendingPausedException;
 import software.amazon.awssdk.services.ses.model.Content;
@@ -52,6 +49,7 @@ import software.amazon.awssdk.services.ses.model.MailFromDomainNotVerifiedExcept
 import software.amazon.awssdk.services.ses.model.Message;
 import software.amazon.awssdk.services.ses.model.MessageRejectedException;
 import software.amazon.awssdk.services.ses.model.RawMessage;
+import software.amazon.awssdk.services.ses.model.SendBulkTemplatedEmailRequest;
 import software.amazon.awssdk.services.ses.model.SendEmailRequest;
 import software.amazon.awssdk.services.ses.model.SendEmailResponse;
 import software.amazon.awssdk.services.ses.model.SendRawEmailRequest;
@@ -69,8 +67,15 @@ import software.amazon.awssdk.services.ses.model.TemplateDoesNotExistException;
 @AllArgsConstructor
 public class SesServiceImpl implements SesService {
 
-    private static final Session mailSession = Session.getDefaultInstance(new Properties());
+    /**
+     * The maximum number of destinations of a single SES SendBulkTemplatedEmail
+     * request.
+     */
+    private static final int MAX_BULK_DESTINATIONS = 50;
+
     private final SesClient sesClient;
+    private final SesSendRateLimiter sesSendRateLimiter;
+    private final EmailTemplateEngine emailTemplateEngine;
 
     @Override
     public String sendMail(String from, String to, String subject, String body) throws DynamoSesException {
@@ -126,60 +131,14 @@ public class SesServiceImpl implements SesService {
                 from, to, cc, bcc, subject, body, attachments);
 
         try {
-            MimeMessage mimeMessage = new MimeMessage(mailSession);
-            mimeMessage.setFrom(from);
-            setRecipients(to, RecipientType.TO, mimeMessage);
-            setRecipients(cc, RecipientType.CC, mimeMessage);
-            setRecipients(bcc, RecipientType.BCC, mimeMessage);
-            mimeMessage.setSubject(subject, "UTF-8");
-
-            MimeBodyPart bodyPart = new MimeBodyPart();
-            bodyPart.setContent(body, "text/html; charset=UTF-8");
-            log.debug("Configured MIME body part with body content, bodyPart = {}", bodyPart);
-
-            // body text
-            MimeMultipart parts = new MimeMultipart();
-            parts.addBodyPart(bodyPart);
-
-            // body attachment
-            if (Objects.nonNull(attachments) && !attachments.isEmpty()) {
-
-                for (Attachment attachment : attachments) {
-                    log.debug("Handling attachmentPart, attachment = {}", attachment);
-                    MimeBodyPart attachmentPart = new MimeBodyPart();
-                    ByteArrayInputStream byteArrayInputStream =
-                            new ByteArrayInputStream(attachment.getAttachmentContent());
-                    DataSource source = new ByteArrayDataSource(byteArrayInputStream,
-                            attachment.getAttachmentMetaData().getAttachmentType());
-                    attachmentPart.setDataHandler(new DataHandler(source));
-                    attachmentPart.setFileName(attachment.getAttachmentMetaData().getAttachmentName());
-                    log.debug("Configured MIME body part with attachment, attachmentPart = {}", attachmentPart);
-                    parts.addBodyPart(attachmentPart);
-                }
-
-            }
-
-            log.info("# of body parts = {}", parts.getCount());
-            mimeMessage.setContent(parts);
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            mimeMessage.writeTo(outputStream);
-
-            ByteBuffer buf = ByteBuffer.wrap(outputStream.toByteArray());
-            byte[] arr = new byte[buf.remaining()];
-            buf.get(arr);
-
-            SdkBytes data = SdkBytes.fromByteArray(arr);
-            RawMessage rawMessage = RawMessage.builder().data(data).build();
-            SendRawEmailRequest rawEmailRequest = SendRawEmailRequest.builder().rawMessage(rawMessage).build();
-
-            SendRawEmailResponse sendRawEmailResponse = sesClient.sendRawEmail(rawEmailRequest);
-            String messageId = sendRawEmailResponse.messageId();
+            List<byte[]> encodedParts = encodeParts(RawMimeMessageBuilder.encodeHtmlPart(body), attachments);
+            log.info("# of body parts = {}", encodedParts.size());
+            String messageId = sendRawEmail(from, to, cc, bcc, subject, encodedParts);
             log.info("Email sent successfully from '{}' to '{}'", from, to);
             log.debug("Leaving sendMail(), messageId = {}", messageId);
             return messageId;
 
-        } catch (MessagingException | IOException e) {
+        } catch (MessagingException e) {
             log.error("Error while building MimeMessage, error = {}", e.getMessage());
             throw new DynamoSesException(e);
         } catch (MessageRejectedException e) {
@@ -209,35 +168,161 @@ public class SesServiceImpl implements SesService {
 
     }
 
+    @Override
+    public List<BulkEmailResult> sendBulkMail(String from, String subject, String body, List<Attachment> attachments,
+            List<BulkEmailRecipient> recipients) throws DynamoSesException {
+        log.debug("Entering sendBulkMail(), from = {}, subject = {}, # of attachments = {}, # of recipients = {}",
+                from, subject, Objects.isNull(attachments) ? 0 : attachments.size(), recipients.size());
+
+        List<byte[]> encodedParts = encodeParts(RawMimeMessageBuilder.encodeHtmlPart(body), attachments);
+        List<BulkEmailResult> results = sendRawEmailToEach(from, recipients, recipient -> subject,
+                recipient -> encodedParts);
+
+        log.info("Bulk email sent from '{}', {} of {} recipients succeeded", from,
+                results.stream().filter(BulkEmailResult::isSuccessful).count(), results.size());
+        log.debug("Leaving sendBulkMail()");
+        return results;
+    }
+
+    @Override
+    public List<BulkEmailResult> sendBulkRenderedEmail(String from, String templateName,
+            Map<String, Object> defaultTemplateData, List<Attachment> attachments, List<BulkEmailRecipient> recipients)
+            throws DynamoSesException {
+        log.debug("Entering sendBulkRenderedEmail(), from = {}, templateName = {}, # of recipients = {}", from,
+                templateName, recipients.size());
+
+        List<byte[]> attachmentParts = encodeParts(null, attachments);
+        Map<BulkEmailRecipient, RenderedEmail> renderedEmails = new IdentityHashMap<>();
+        for (BulkEmailRecipient recipient : recipients) {
+            Map<String, Object> templateData =
+                    new HashMap<>(Objects.requireNonNullElse(defaultTemplateData, Map.of()));
+            if (Objects.nonNull(recipient.getTemplateData())) {
+                templateData.putAll(recipient.getTemplateData());
+            }
+
+            renderedEmails.put(recipient, emailTemplateEngine.render(templateName, templateData));
+        }
+
+        List<BulkEmailResult> results =
+                sendRawEmailToEach(from, recipients, recipient -> renderedEmails.get(recipient).getSubject(),
+                        recipient -> {
+                            RenderedEmail renderedEmail = renderedEmails.get(recipient);
+                            List<byte[]> encodedParts = new ArrayList<>(attachmentParts.size() + 1);
+                            encodedParts.add(RawMimeMessageBuilder.encodeBodyPart(renderedEmail.getTextPart(),
+                                    renderedEmail.getHtmlPart()));
+                            encodedParts.addAll(attachmentParts);
+                            return encodedParts;
+                        });
+
+        log.info("Bulk email sent using locally rendered template = {} from '{}', {} of {} recipients succeeded",
+                templateName, from, results.stream().filter(BulkEmailResult::isSuccessful).count(), results.size());
+        log.debug("Leaving sendBulkRenderedEmail()");
+        return results;
+    }
+
+    /**
+     * Sends a raw email to each recipient, throttled to the send rate, and
+     * reports the outcome of each recipient. If the send rate cannot be
+     * acquired, that recipient and the remaining ones are reported as failed.
+     * @param  from               Sender's email address.
+     * @param  recipients         Recipients of the emails.
+     * @param  subjects           Provides the subject of the email of a
+     *                            recipient.
+     * @param  encodedParts       Provides the encoded body parts of the email of
+     *                            a recipient.
+     * @return                    The outcome of each recipient.
+     */
+    private List<BulkEmailResult> sendRawEmailToEach(String from, List<BulkEmailRecipient> recipients,
+            Function<BulkEmailRecipient, String> subjects, Function<BulkEmailRecipient, List<byte[]>> encodedParts) {
+        List<BulkEmailResult> results = new ArrayList<>(recipients.size());
+        BulkEmailResult abortedResult = null;
+        for (BulkEmailRecipient recipient : recipients) {
+            if (Objects.nonNull(abortedResult)) {
+                addFailedResults(results, List.of(recipient), abortedResult.getStatus(), abortedResult.getError());
+                continue;
+            }
+
+            try {
+                sesSendRateLimiter.acquire(countAddresses(recipient));
+            } catch (DynamoSesException e) {
+                // the send rate is not available to the remaining recipients either, so they are not sent
+                log.error("SES send rate not acquired. Remaining emails not sent! error = {}", e.getMessage());
+                abortedResult = BulkEmailResult.builder().status(BulkEmailStatus.FAILED.toString())
+                        .error(e.getMessage()).build();
+                addFailedResults(results, List.of(recipient), abortedResult.getStatus(), abortedResult.getError());
+                continue;
+            }
+
+            try {
+                String messageId = sendRawEmail(from, recipient.getTo(), recipient.getCc(), recipient.getBcc(),
+                        subjects.apply(recipient), encodedParts.apply(recipient));
+                results.add(BulkEmailResult.builder().recipient(recipient).status(BulkEmailResult.SUCCESS)
+                        .messageId(messageId).build());
+            } catch (MessagingException e) {
+                addFailedResults(results, List.of(recipient), BulkEmailStatus.INVALID_PARAMETER_VALUE.toString(),
+                        e.getMessage());
+            } catch (MailFromDomainNotVerifiedException | ConfigurationSetDoesNotExistException
+                    | ConfigurationSetSendingPausedException | AccountSendingPausedException e) {
+                // these errors fail every remaining recipient as well, so they are not sent
+                log.error("AWS SES service send bulk email error. Remaining emails not sent! error = {}",
+                        e.getMessage());
+                abortedResult = BulkEmailResult.builder().status(errorCode(e)).error(e.getMessage()).build();
+                addFailedResults(results, List.of(recipient), abortedResult.getStatus(), abortedResult.getError());
+            } catch (AwsServiceException e) {
+                addFailedResults(results, List.of(recipient), errorCode(e), e.getMessage());
+            } catch (SdkClientException e) {
+                addFailedResults(results, List.of(recipient), BulkEmailStatus.FAILED.toString(), e.getMessage());
+            }
+
+        }
+
+        return results;
+    }
+
     /**
-     * Sets the recipient addresses for the given recipient type in the provided
-     * MimeMessage. This method takes a list of email addresses in string format,
-     * converts them to InternetAddress objects, and sets them as the recipients of
-     * the specified recipient type in the MimeMessage.
-     * @param  addressList        A List of String representing the email addresses
-     *                            of the recipients. Must not be null or empty.
-     * @param  recipientType      The type of the recipients, such as TO, CC, or
-     *                            BCC, defined in javax.mail.Message.RecipientType.
-     *                            Must not be null.
-     * @param  mimeMessage        The MimeMessage instance to which the recipient
-     *                            addresses will be set. Must not be null.
-     * @throws MessagingException if an error occurs while setting the recipients in
-     *                            the MimeMessage.
+     * Encodes the attachments of a raw email into MIME body parts, following the
+     * encoded body.
+     * @param  bodyPart           Encoded body of the email, may be null.
+     * @param  attachments        Attachments of the email, may be null.
+     * @return                    the encoded body parts.
+     * @throws DynamoSesException if an attachment type cannot be parsed.
      */
-    private void setRecipients(List<String> addressList, RecipientType recipientType, MimeMessage mimeMessage)
-            throws MessagingException {
-        log.info("Entering setRecipients()");
-        InternetAddress[] internetAddresses;
-        if (Objects.nonNull(addressList) && !addressList.isEmpty()) {
-            internetAddresses = new InternetAddress[addressList.size()];
-            for (int addressIndex = 0; addressIndex < addressList.size(); addressIndex++) {
-                internetAddresses[addressIndex] = new InternetAddress(addressList.get(addressIndex));
+    private List<byte[]> encodeParts(byte[] bodyPart, List<Attachment> attachments) throws DynamoSesException {
+        List<byte[]> encodedParts = new ArrayList<>();
+        if (Objects.nonNull(bodyPart)) {
+            encodedParts.add(bodyPart);
+        }
+
+        if (Objects.nonNull(attachments)) {
+            try {
+                for (Attachment attachment : attachments) {
+                    log.debug("Encoding attachmentPart, attachment = {}", attachment.getAttachmentMetaData());
+                    encodedParts.add(RawMimeMessageBuilder.encodeAttachmentPart(attachment));
+                }
+
+            } catch (MessagingException e) {
+                log.error("Error while encoding attachment, error = {}", e.getMessage());
+                throw new DynamoSesException(e);
             }
 
-            mimeMessage.setRecipients(recipientType, internetAddresses);
         }
 
-        log.info("Leaving setRecipients()");
+        return encodedParts;
+    }
+
+    /**
+     * Assembles a raw email from encoded body parts and sends it using SES. The
+     * assembled message is handed to the SDK without copying it again.
+     * @return                    MessageId of the email.
+     * @throws MessagingException if an address cannot be parsed.
+     */
+    private String sendRawEmail(String from, List<String> to, List<String> cc, List<String> bcc, String subject,
+            List<byte[]> encodedParts) throws MessagingException {
+        byte[] message = RawMimeMessageBuilder.build(from, to, cc, subject, encodedParts);
+        SendRawEmailRequest rawEmailRequest = SendRawEmailRequest.builder()
+                .destinations(RawMimeMessageBuilder.collectDestinations(to, cc, bcc))
+                .rawMessage(RawMessage.builder().data(SdkBytes.fromByteArrayUnsafe(message)).build()).build();
+        return sesClient.sendRawEmail(rawEmailRequest).messageId();
     }
 
     public void createEmailTemplate(String name, String subject, String htmlPart, String textPart)
@@ -248,6 +333,7 @@ public class SesServiceImpl implements SesService {
         CreateTemplateRequest createTemplateRequest = CreateTemplateRequest.builder().template(template).build();
         try {
             CreateTemplateResponse createTemplateResponse = sesClient.createTemplate(createTemplateRequest);
+            emailTemplateEngine.evictTemplate(name);
             log.debug("Leaving createEmailTemplate(), createTemplateResponse = {}", createTemplateResponse);
         } catch (AlreadyExistsException e) {
             log.error("AWS SES service email template exists error. Error creating email template, error = {}",
@@ -361,6 +447,115 @@ public class SesServiceImpl implements SesService {
 
     }
 
+    @Override
+    public List<BulkEmailResult> sendBulkTemplatedEmail(String from, String templateName,
+            Map<String, Object> defaultTemplateData, List<BulkEmailRecipient> recipients) throws DynamoSesException {
+        log.debug("Entering sendBulkTemplatedEmail(), from = {}, templateName = {}, # of recipients = {}", from,
+                templateName, recipients.size());
+
+        String defaultTemplateDataString =
+                JSONObject.wrap(Objects.requireNonNullElse(defaultTemplateData, Map.of())).toString();
+        List<BulkEmailResult> results = new ArrayList<>(recipients.size());
+        BulkEmailResult abortedResult = null;
+        for (int fromIndex = 0; fromIndex < recipients.size(); fromIndex += MAX_BULK_DESTINATIONS) {
+            List<BulkEmailRecipient> batch =
+                    recipients.subList(fromIndex, Math.min(fromIndex + MAX_BULK_DESTINATIONS, recipients.size()));
+            if (Objects.nonNull(abortedResult)) {
+                addFailedResults(results, batch, abortedResult.getStatus(), abortedResult.getError());
+                continue;
+            }
+
+            try {
+                sesSendRateLimiter.acquire(batch.stream().mapToInt(this::countAddresses).sum());
+            } catch (DynamoSesException e) {
+                // the send rate is not available to the remaining batches either, so they are not sent
+                log.error("SES send rate not acquired. Remaining emails not sent! error = {}", e.getMessage());
+                abortedResult = BulkEmailResult.builder().status(BulkEmailStatus.FAILED.toString())
+                        .error(e.getMessage()).build();
+                addFailedResults(results, batch, abortedResult.getStatus(), abortedResult.getError());
+                continue;
+            }
+
+            try {
+                SendBulkTemplatedEmailRequest sendBulkTemplatedEmailRequest = SendBulkTemplatedEmailRequest.builder()
+                        .source(from).template(templateName).defaultTemplateData(defaultTemplateDataString)
+                        .destinations(batch.stream().map(this::buildBulkEmailDestination).toList()).build();
+                List<BulkEmailDestinationStatus> statuses =
+                        sesClient.sendBulkTemplatedEmail(sendBulkTemplatedEmailRequest).status();
+                for (int index = 0; index < batch.size(); index++) {
+                    if (index < statuses.size()) {
+                        BulkEmailDestinationStatus status = statuses.get(index);
+                        results.add(BulkEmailResult.builder().recipient(batch.get(index))
+                                .status(status.statusAsString()).messageId(status.messageId()).error(status.error())
+                                .build());
+                    } else {
+                        addFailedResults(results, List.of(batch.get(index)), BulkEmailStatus.FAILED.toString(),
+                                "No status returned by SES for the destination");
+                    }
+
+                }
+
+            } catch (TemplateDoesNotExistException | MailFromDomainNotVerifiedException
+                    | ConfigurationSetDoesNotExistException | ConfigurationSetSendingPausedException
+                    | AccountSendingPausedException e) {
+                // these errors fail every remaining batch as well, so they are not sent
+                log.error("AWS SES service send bulk email error. Remaining emails not sent! error = {}",
+                        e.getMessage());
+                abortedResult = BulkEmailResult.builder().status(errorCode(e)).error(e.getMessage()).build();
+                addFailedResults(results, batch, abortedResult.getStatus(), abortedResult.getError());
+            } catch (AwsServiceException e) {
+                log.error("AWS SES service send bulk email error. Batch of {} emails not sent! error = {}",
+                        batch.size(), e.getMessage());
+                addFailedResults(results, batch, errorCode(e), e.getMessage());
+            } catch (SdkClientException e) {
+                log.error("AWS SDK client error while sending bulk mail using SES, error = {}", e.getMessage());
+                addFailedResults(results, batch, BulkEmailStatus.FAILED.toString(), e.getMessage());
+            }
+
+        }
+
+        log.info("Bulk email sent using template = {} from '{}', {} of {} destinations succeeded", templateName, from,
+                results.stream().filter(BulkEmailResult::isSuccessful).count(), results.size());
+        log.debug("Leaving sendBulkTemplatedEmail()");
+        return results;
+    }
+
+    /**
+     * Counts the addresses of a bulk email destination, each of which takes a
+     * permit of the SES send rate.
+     */
+    private int countAddresses(BulkEmailRecipient recipient) {
+        return Stream.of(recipient.getTo(), recipient.getCc(), recipient.getBcc()).filter(Objects::nonNull)
+                .mapToInt(List::size).sum();
+    }
+
+    private BulkEmailDestination buildBulkEmailDestination(BulkEmailRecipient recipient) {
+        Destination destination = Destination.builder().toAddresses(recipient.getTo())
+                .ccAddresses(recipient.getCc()).bccAddresses(recipient.getBcc()).build();
+        BulkEmailDestination.Builder builder = BulkEmailDestination.builder().destination(destination);
+        if (Objects.nonNull(recipient.getTemplateData())) {
+            builder.replacementTemplateData(JSONObject.wrap(recipient.getTemplateData()).toString());
+        }
+
+        return builder.build();
+    }
+
+    private void addFailedResults(List<BulkEmailResult> results, List<BulkEmailRecipient> recipients, String status,
+            String error) {
+        for (BulkEmailRecipient recipient : recipients) {
+            results.add(BulkEmailResult.builder().recipient(recipient).status(status).error(error).build());
+        }
+
+    }
+
+    private String errorCode(AwsServiceException e) {
+        if (Objects.nonNull(e.awsErrorDetails()) && Objects.nonNull(e.awsErrorDetails().errorCode())) {
+            return e.awsErrorDetails().errorCode();
+        }
+
+        return BulkEmailStatus.FAILED.toString();
+    }
+
     @Override
     public net.breezeware.dynamo.aws.ses.entity.Template getEmailTemplate(String templateName)
             throws DynamoSesException {
@@ -1,5 +1,9 @@
 package net.breezeware.dynamo.aws.ses.service.impl;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
@@ -10,6 +14,7 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import net.breezeware.dynamo.aws.ses.entity.RenderedEmail;
 import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
 import net.breezeware.dynamo.aws.ses.service.api.SmtpService;
 
@@ -19,7 +24,9 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Implementation of the {@link SmtpService} interface that uses the SMTP
  * protocol to send emails using Spring's {@link JavaMailSender}. This class is
- * responsible for sending emails with HTML content via the SMTP server.
+ * responsible for sending emails with HTML content via the SMTP server. When the
+ * {@link SmtpTransportPool} is enabled, emails are sent over pooled, persistent
+ * connections.
  */
 @Service
 @Slf4j
@@ -28,6 +35,8 @@ import lombok.extern.slf4j.Slf4j;
 public class SmtpServiceImpl implements SmtpService {
 
     private final JavaMailSender javaMailSender;
+    private final EmailTemplateEngine emailTemplateEngine;
+    private final SmtpTransportPool smtpTransportPool;
 
     @Override
     public void sendSmtpMail(String from, String to, String subject, String htmlBody) throws DynamoSesException {
@@ -43,7 +52,7 @@ public class SmtpServiceImpl implements SmtpService {
             // 'true'. If not configured, default value is "false", setting content type as
             // "text/plain".
             mimeMessageHelper.setText(htmlBody, true);
-            javaMailSender.send(mimeMessage);
+            deliver(mimeMessage);
             log.info("Successfully sent mail using SMTP protocol from '{}' to '{}'", from, to);
             log.debug("Leaving sendSmtpMail()");
         } catch (MessagingException e) {
@@ -58,4 +67,84 @@ public class SmtpServiceImpl implements SmtpService {
         }
 
     }
+
+    @Override
+    public void sendTemplatedSmtpMail(String from, String to, String templateName, Map<String, Object> templateData)
+            throws DynamoSesException {
+        log.debug("Entering sendTemplatedSmtpMail(), from = {}, to = {}, templateName = {}, templateData = {}", from,
+                to, templateName, templateData);
+        RenderedEmail renderedEmail = emailTemplateEngine.render(templateName, templateData);
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        try {
+            boolean alternative = Objects.nonNull(renderedEmail.getTextPart())
+                    && Objects.nonNull(renderedEmail.getHtmlPart());
+            MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, alternative, "UTF-8");
+            mimeMessageHelper.setFrom(from);
+            mimeMessageHelper.setTo(to);
+            mimeMessageHelper.setSubject(renderedEmail.getSubject());
+            if (alternative) {
+                mimeMessageHelper.setText(renderedEmail.getTextPart(), renderedEmail.getHtmlPart());
+            } else if (Objects.nonNull(renderedEmail.getHtmlPart())) {
+                mimeMessageHelper.setText(renderedEmail.getHtmlPart(), true);
+            } else {
+                mimeMessageHelper.setText(renderedEmail.getTextPart(), false);
+            }
+
+            deliver(mimeMessage);
+            log.info("Successfully sent mail using template = {} and SMTP protocol from '{}' to '{}'", templateName,
+                    from, to);
+            log.debug("Leaving sendTemplatedSmtpMail()");
+        } catch (MessagingException e) {
+            log.error("Error while creating MIME message. Mail not sent! error = {}", e.getMessage());
+            throw new DynamoSesException(e);
+        } catch (MailAuthenticationException e) {
+            log.error("Mail authentication failed error. Mail not sent! error = {}", e.getMessage());
+            throw new DynamoSesException(e);
+        } catch (MailException e) {
+            log.error("Error while sending mail. Mail not sent! error = {}", e.getMessage());
+            throw new DynamoSesException(e);
+        }
+
+    }
+
+    @Override
+    public void send(List<MimeMessage> mimeMessages) throws DynamoSesException {
+        log.debug("Entering send(), # of mimeMessages = {}", mimeMessages.size());
+        if (mimeMessages.isEmpty()) {
+            log.debug("Leaving send(), no mails to send");
+            return;
+        }
+
+        try {
+            if (smtpTransportPool.isEnabled()) {
+                smtpTransportPool.send(mimeMessages);
+            } else {
+                // JavaMailSender sends all mails of a single call over one connection
+                javaMailSender.send(mimeMessages.toArray(MimeMessage[]::new));
+            }
+
+        } catch (MailAuthenticationException e) {
+            log.error("Mail authentication failed error. Mails not sent! error = {}", e.getMessage());
+            throw new DynamoSesException(e);
+        } catch (MailException e) {
+            log.error("Error while sending mails. Mails not sent! error = {}", e.getMessage());
+            throw new DynamoSesException(e);
+        }
+
+        log.info("Successfully sent {} mails using SMTP protocol", mimeMessages.size());
+        log.debug("Leaving send()");
+    }
+
+    /**
+     * Sends a single mail over a pooled connection when the SMTP connection pool
+     * is enabled, otherwise over a new connection.
+     */
+    private void deliver(MimeMessage mimeMessage) throws DynamoSesException {
+        if (smtpTransportPool.isEnabled()) {
+            smtpTransportPool.send(List.of(mimeMessage));
+        } else {
+            javaMailSender.send(mimeMessage);
+        }
+
+    }
 }
@@ -0,0 +1,273 @@
+package net.breezeware.dynamo.aws.ses.service.impl;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import net.breezeware.dynamo.aws.ses.config.SmtpPoolProperties;
+import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pool of connected SMTP transports, so that mails are sent over open
+ * connections instead of connecting, negotiating TLS and authenticating for
+ * every mail. Connections are replaced after the configured number of mails and
+ * closed when idle for longer than the maximum idle time. The transports are
+ * created from the session and server settings of the
+ * {@link JavaMailSenderImpl}.
+ */
+@Slf4j
+@Component
+@Profile("SmtpEmail")
+public class SmtpTransportPool {
+
+    private final JavaMailSenderImpl javaMailSender;
+
+    private final SmtpPoolProperties smtpPoolProperties;
+
+    private final BlockingDeque<PooledTransport> idleTransports = new LinkedBlockingDeque<>();
+
+    private final Semaphore permits;
+
+    /**
+     * Builds the {@link SmtpTransportPool}.
+     * @param javaMailSender     the mail sender providing the session and server
+     *                           settings.
+     * @param smtpPoolProperties SMTP connection pool properties.
+     */
+    public SmtpTransportPool(JavaMailSender javaMailSender, SmtpPoolProperties smtpPoolProperties) {
+        this.smtpPoolProperties = smtpPoolProperties;
+        this.permits = new Semaphore(smtpPoolProperties.getSize(), true);
+        if (javaMailSender instanceof JavaMailSenderImpl javaMailSenderImpl) {
+            this.javaMailSender = javaMailSenderImpl;
+        } else {
+            this.javaMailSender = null;
+            if (smtpPoolProperties.isEnabled()) {
+                log.warn("SMTP connection pool disabled, the mail sender is not a JavaMailSenderImpl");
+            }
+
+        }
+
+    }
+
+    /**
+     * Checks whether mails are sent over the pooled connections.
+     * @return true if the pool is enabled and usable.
+     */
+    public boolean isEnabled() {
+        return smtpPoolProperties.isEnabled() && Objects.nonNull(javaMailSender);
+    }
+
+    /**
+     * Sends mails over pooled connections, in order. A mail failing because of a
+     * broken connection is sent once more over a new connection. The remaining
+     * mails are sent when a mail fails.
+     * @param  mimeMessages       the mails.
+     * @throws DynamoSesException if any mail is not sent. Its cause is a
+     *                            {@link MailSendException} holding the failed
+     *                            mails and their errors.
+     */
+    public void send(List<MimeMessage> mimeMessages) throws DynamoSesException {
+        log.debug("Entering send(), # of mimeMessages = {}", mimeMessages.size());
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        PooledTransport pooledTransport = null;
+        try {
+            for (MimeMessage mimeMessage : mimeMessages) {
+                try {
+                    prepare(mimeMessage);
+                } catch (MessagingException e) {
+                    failedMessages.put(mimeMessage, e);
+                    continue;
+                }
+
+                for (int attempt = 1; attempt <= 2; attempt++) {
+                    if (Objects.isNull(pooledTransport)) {
+                        pooledTransport = borrow();
+                    }
+
+                    try {
+                        pooledTransport.transport().sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+                        pooledTransport.messageCount++;
+                        break;
+                    } catch (SendFailedException e) {
+                        // the server rejected the recipients of this mail, the connection is still usable
+                        pooledTransport.messageCount++;
+                        failedMessages.put(mimeMessage, e);
+                        break;
+                    } catch (MessagingException e) {
+                        log.warn("Error while sending mail over pooled connection, attempt = {}, error = {}", attempt,
+                                e.getMessage());
+                        close(pooledTransport);
+                        permits.release();
+                        pooledTransport = null;
+                        if (attempt == 2) {
+                            failedMessages.put(mimeMessage, e);
+                        }
+
+                    }
+
+                }
+
+                if (Objects.nonNull(pooledTransport)
+                        && pooledTransport.messageCount >= smtpPoolProperties.getMaxMessagesPerConnection()) {
+                    release(pooledTransport);
+                    pooledTransport = null;
+                }
+
+            }
+
+        } finally {
+            if (Objects.nonNull(pooledTransport)) {
+                release(pooledTransport);
+            }
+
+        }
+
+        if (!failedMessages.isEmpty()) {
+            log.error("{} of {} mails not sent over pooled SMTP connections", failedMessages.size(),
+                    mimeMessages.size());
+            throw new DynamoSesException(
+                    String.format("%d of %d mails not sent", failedMessages.size(), mimeMessages.size()),
+                    new MailSendException(failedMessages));
+        }
+
+        log.debug("Leaving send()");
+    }
+
+    /**
+     * Closes the idle connections of the pool.
+     */
+    @PreDestroy
+    public void shutdown() {
+        log.debug("Entering shutdown(), # of idleTransports = {}", idleTransports.size());
+        PooledTransport pooledTransport;
+        while ((pooledTransport = idleTransports.pollFirst()) != null) {
+            close(pooledTransport);
+        }
+
+        log.debug("Leaving shutdown()");
+    }
+
+    /**
+     * Takes the most recently used idle connection, or opens a new one when none
+     * is idle, waiting for the borrow timeout when all connections are in use.
+     */
+    private PooledTransport borrow() throws DynamoSesException {
+        try {
+            if (!permits.tryAcquire(smtpPoolProperties.getBorrowTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new DynamoSesException(String.format("No SMTP connection available within %s",
+                        smtpPoolProperties.getBorrowTimeout()));
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DynamoSesException("Interrupted while waiting for an SMTP connection", e);
+        }
+
+        long maxIdleNanos = smtpPoolProperties.getMaxIdleTime().toNanos();
+        PooledTransport pooledTransport;
+        while ((pooledTransport = idleTransports.pollFirst()) != null) {
+            if (System.nanoTime() - pooledTransport.lastUsedNanos < maxIdleNanos
+                    && pooledTransport.transport().isConnected()) {
+                return pooledTransport;
+            }
+
+            close(pooledTransport);
+        }
+
+        try {
+            Transport transport = javaMailSender.getSession()
+                    .getTransport(Objects.requireNonNullElse(javaMailSender.getProtocol(), "smtp"));
+            transport.connect(javaMailSender.getHost(), javaMailSender.getPort(), javaMailSender.getUsername(),
+                    javaMailSender.getPassword());
+            log.debug("Opened SMTP connection, host = {}", javaMailSender.getHost());
+            return new PooledTransport(transport);
+        } catch (MessagingException e) {
+            permits.release();
+            log.error("Error while opening SMTP connection, error = {}", e.getMessage());
+            throw new DynamoSesException(e);
+        }
+
+    }
+
+    /**
+     * Returns a connection to the pool, closing it once it reached the maximum
+     * number of mails.
+     */
+    private void release(PooledTransport pooledTransport) {
+        if (pooledTransport.messageCount >= smtpPoolProperties.getMaxMessagesPerConnection()) {
+            close(pooledTransport);
+        } else {
+            pooledTransport.lastUsedNanos = System.nanoTime();
+            idleTransports.offerFirst(pooledTransport);
+        }
+
+        permits.release();
+    }
+
+    private void close(PooledTransport pooledTransport) {
+        try {
+            pooledTransport.transport().close();
+        } catch (MessagingException e) {
+            log.debug("Error while closing SMTP connection, error = {}", e.getMessage());
+        }
+
+    }
+
+    /**
+     * Sets the sent date and writes the headers of a mail before it is sent, as
+     * {@link JavaMailSenderImpl} does.
+     */
+    private void prepare(MimeMessage mimeMessage) throws MessagingException {
+        if (Objects.isNull(mimeMessage.getSentDate())) {
+            mimeMessage.setSentDate(new Date());
+        }
+
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (Objects.nonNull(messageId)) {
+            // preserve an explicitly specified message id, which saveChanges replaces
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+
+    }
+
+    /**
+     * An open SMTP connection and the number of mails sent over it.
+     */
+    private static final class PooledTransport {
+
+        private final Transport transport;
+
+        private int messageCount;
+
+        private long lastUsedNanos = System.nanoTime();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        private Transport transport() {
+            return transport;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package net.breezeware.dynamo.aws.ses.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import net.breezeware.dynamo.aws.ses.config.SesDispatcherProperties;
+import net.breezeware.dynamo.aws.ses.entity.Attachment;
+import net.breezeware.dynamo.aws.ses.entity.OutboundMail;
+import net.breezeware.dynamo.aws.ses.entity.OutboundMailStatus;
+import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class JdbcOutboundMailStoreTest {
+
+    @Test
+    void ignoresDuplicateIdempotencyKey() throws DynamoSesException, InterruptedException {
+        log.info("Testing ignoresDuplicateIdempotencyKey()");
+
+        // given
+        JdbcTemplate jdbcTemplate = buildJdbcTemplate("duplicate-key");
+        SesDispatcherProperties sesDispatcherProperties = new SesDispatcherProperties();
+        JdbcOutboundMailStore outboundMailStore = new JdbcOutboundMailStore(jdbcTemplate, sesDispatcherProperties);
+        OutboundMail mail = buildMail("invite-1");
+        // when
+        boolean queued = outboundMailStore.offer(mail);
+        boolean duplicateQueued = new JdbcOutboundMailStore(jdbcTemplate, sesDispatcherProperties).offer(mail);
+        Optional<OutboundMail> claimed = outboundMailStore.poll(Duration.ofSeconds(1));
+        // then
+        assertThat(queued).isTrue();
+        assertThat(duplicateQueued).isFalse();
+        assertThat(outboundMailStore.size()).isOne();
+        assertThat(claimed).hasValueSatisfying(claimedMail -> {
+            assertThat(claimedMail.getStatus()).isEqualTo(OutboundMailStatus.SENDING);
+            assertThat(claimedMail.getTo()).containsExactly("to@example.com");
+            assertThat(claimedMail.getAttachments().get(0).getAttachmentContent()).containsExactly(1, 2, 3);
+            assertThat(claimedMail.getAttachments().get(0).getAttachmentMetaData().getAttachmentName())
+                    .isEqualTo("test.txt");
+        });
+
+        OutboundMail claimedMail = claimed.orElseThrow();
+        claimedMail.setMessageId("mail-sent-123");
+        outboundMailStore.complete(claimedMail);
+        assertThat(outboundMailStore.size()).isZero();
+        assertThat(outboundMailStore.offer(mail)).isFalse();
+
+        log.info("Completed testing ignoresDuplicateIdempotencyKey()");
+    }
+
+    @Test
+    void rejectsMailsBeyondQueueCapacity() throws DynamoSesException {
+        log.info("Testing rejectsMailsBeyondQueueCapacity()");
+
+        // given
+        SesDispatcherProperties sesDispatcherProperties = new SesDispatcherProperties();
+        sesDispatcherProperties.setQueueCapacity(1);
+        JdbcOutboundMailStore outboundMailStore =
+                new JdbcOutboundMailStore(buildJdbcTemplate("queue-capacity"), sesDispatcherProperties);
+        // when
+        outboundMailStore.offer(buildMail("invite-1"));
+        // then
+        assertThatThrownBy(() -> outboundMailStore.offer(buildMail("invite-2")))
+                .isInstanceOf(DynamoSesException.class).hasMessageContaining("queue is full");
+        assertThat(outboundMailStore.size()).isOne();
+
+        log.info("Completed testing rejectsMailsBeyondQueueCapacity()");
+    }
+
+    @Test
+    void reclaimsMailOnceLeaseExpires() throws DynamoSesException, InterruptedException {
+        log.info("Testing reclaimsMailOnceLeaseExpires()");
+
+        // given
+        SesDispatcherProperties sesDispatcherProperties = new SesDispatcherProperties();
+        sesDispatcherProperties.setLeaseDuration(Duration.ofMillis(200));
+        sesDispatcherProperties.setPollInterval(Duration.ofMillis(50));
+        JdbcOutboundMailStore outboundMailStore =
+                new JdbcOutboundMailStore(buildJdbcTemplate("lease-expiry"), sesDispatcherProperties);
+        outboundMailStore.offer(buildMail("invite-1"));
+        // when
+        Optional<OutboundMail> claimed = outboundMailStore.poll(Duration.ofSeconds(1));
+        Optional<OutboundMail> claimedWhileLeased = outboundMailStore.poll(Duration.ZERO);
+        Optional<OutboundMail> reclaimed = outboundMailStore.poll(Duration.ofSeconds(2));
+        // then
+        assertThat(claimed).isPresent();
+        assertThat(claimedWhileLeased).isEmpty();
+        assertThat(reclaimed).hasValueSatisfying(reclaimedMail -> {
+            assertThat(reclaimedMail.getIdempotencyKey()).isEqualTo("invite-1");
+            assertThat(reclaimedMail.getStatus()).isEqualTo(OutboundMailStatus.SENDING);
+            assertThat(reclaimedMail.getNextAttemptAt()).isAfter(claimed.get().getNextAttemptAt());
+        });
+
+        log.info("Completed testing reclaimsMailOnceLeaseExpires()");
+    }
+
+    @Test
+    void deadLettersMailAndRequeuesIt() throws DynamoSesException, InterruptedException {
+        log.info("Testing deadLettersMailAndRequeuesIt()");
+
+        // given
+        JdbcOutboundMailStore outboundMailStore =
+                new JdbcOutboundMailStore(buildJdbcTemplate("dead-letter"), new SesDispatcherProperties());
+        outboundMailStore.offer(buildMail("invite-1"));
+        OutboundMail claimedMail = outboundMailStore.poll(Duration.ofSeconds(1)).orElseThrow();
+        claimedMail.setAttempts(1);
+        claimedMail.setLastError("rejected");
+        // when
+        outboundMailStore.deadLetter(claimedMail);
+        // then
+        assertThat(outboundMailStore.size()).isZero();
+        assertThat(outboundMailStore.retrieveDeadLetters()).extracting(OutboundMail::getLastError)
+                .containsExactly("rejected");
+        assertThat(outboundMailStore.requeue("invite-2")).isFalse();
+        assertThat(outboundMailStore.requeue("invite-1")).isTrue();
+        assertThat(outboundMailStore.requeue("invite-1")).isFalse();
+        assertThat(outboundMailStore.size()).isOne();
+        assertThat(outboundMailStore.retrieveDeadLetters()).isEmpty();
+        OutboundMail requeuedMail = outboundMailStore.poll(Duration.ofSeconds(1)).orElseThrow();
+        assertThat(requeuedMail.getAttempts()).isZero();
+        assertThat(requeuedMail.getStatus()).isEqualTo(OutboundMailStatus.SENDING);
+
+        log.info("Completed testing deadLettersMailAndRequeuesIt()");
+    }
+
+    private JdbcTemplate buildJdbcTemplate(String databaseName) {
+        return new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1", "sa", ""));
+    }
+
+    private OutboundMail buildMail(String idempotencyKey) {
+        return OutboundMail.builder().idempotencyKey(idempotencyKey).from("from@example.com")
+                .to(List.of("to@example.com")).subject("subject").body("body")
+                .attachments(List.of(Attachment.builder().attachmentContent(new byte[] { 1, 2, 3 })
+                        .attachmentMetaData(Attachment.MetaData.builder().attachmentName("test.txt")
+                                .attachmentType("text/plain").attachmentSize("3").build())
+                        .build()))
+                .status(OutboundMailStatus.QUEUED).nextAttemptAt(Instant.now()).createdAt(Instant.now()).build();
+    }
+}
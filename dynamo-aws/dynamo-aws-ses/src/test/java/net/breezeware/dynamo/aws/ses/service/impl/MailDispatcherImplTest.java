@@ -0,0 +1,201 @@
+package net.breezeware.dynamo.aws.ses.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import net.breezeware.dynamo.aws.ses.config.SesDispatcherProperties;
+import net.breezeware.dynamo.aws.ses.config.SesSendRateProperties;
+import net.breezeware.dynamo.aws.ses.entity.BulkEmailResult;
+import net.breezeware.dynamo.aws.ses.entity.OutboundMail;
+import net.breezeware.dynamo.aws.ses.entity.OutboundMailStatus;
+import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
+import net.breezeware.dynamo.aws.ses.service.api.SesService;
+
+import lombok.extern.slf4j.Slf4j;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.SesException;
+
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+class MailDispatcherImplTest {
+
+    @Mock
+    private SesService sesService;
+    @Mock
+    private SesClient sesClient;
+
+    private MailDispatcherImpl mailDispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (mailDispatcher != null) {
+            mailDispatcher.shutdown();
+        }
+
+    }
+
+    @Test
+    void sendsDispatchedMailInBackground() throws DynamoSesException, InterruptedException {
+        log.info("Testing sendsDispatchedMailInBackground()");
+
+        // given
+        SesDispatcherProperties sesDispatcherProperties = buildSesDispatcherProperties(1);
+        InMemoryOutboundMailStore outboundMailStore = new InMemoryOutboundMailStore(sesDispatcherProperties);
+        mailDispatcher = buildMailDispatcher(outboundMailStore, sesDispatcherProperties);
+        OutboundMail mail = OutboundMail.builder().from("from@example.com").to(List.of("to@example.com"))
+                .subject("subject").body("<h1>body</h1>").build();
+        // when
+        when(sesService.sendMail(eq("from@example.com"), eq(List.of("to@example.com")), isNull(), isNull(),
+                eq("subject"), eq("<h1>body</h1>"), isNull())).thenReturn("mail-sent-123");
+        boolean queued = mailDispatcher.dispatch(mail);
+        // then
+        assertThat(queued).isTrue();
+        assertThat(mail.getIdempotencyKey()).isNotNull();
+        verify(sesService, timeout(5000)).sendMail(any(), anyList(), any(), any(), any(), any(), any());
+        awaitStatus(mail, OutboundMailStatus.SENT);
+        assertThat(mail.getMessageId()).isEqualTo("mail-sent-123");
+        assertThat(outboundMailStore.size()).isZero();
+
+        log.info("Completed testing sendsDispatchedMailInBackground()");
+    }
+
+    @Test
+    void ignoresMailWithDispatchedIdempotencyKey() throws DynamoSesException {
+        log.info("Testing ignoresMailWithDispatchedIdempotencyKey()");
+
+        // given
+        SesDispatcherProperties sesDispatcherProperties = buildSesDispatcherProperties(0);
+        mailDispatcher = buildMailDispatcher(new InMemoryOutboundMailStore(sesDispatcherProperties),
+                sesDispatcherProperties);
+        // when
+        boolean firstQueued = mailDispatcher.dispatch(buildTemplatedMail("invite-1"));
+        boolean secondQueued = mailDispatcher.dispatch(buildTemplatedMail("invite-1"));
+        // then
+        assertThat(firstQueued).isTrue();
+        assertThat(secondQueued).isFalse();
+
+        log.info("Completed testing ignoresMailWithDispatchedIdempotencyKey()");
+    }
+
+    @Test
+    void rejectsMailWhenQueueIsFull() throws DynamoSesException {
+        log.info("Testing rejectsMailWhenQueueIsFull()");
+
+        // given
+        SesDispatcherProperties sesDispatcherProperties = buildSesDispatcherProperties(0);
+        sesDispatcherProperties.setQueueCapacity(1);
+        mailDispatcher = buildMailDispatcher(new InMemoryOutboundMailStore(sesDispatcherProperties),
+                sesDispatcherProperties);
+        // when
+        mailDispatcher.dispatch(buildTemplatedMail("invite-1"));
+        // then
+        assertThatThrownBy(() -> mailDispatcher.dispatch(buildTemplatedMail("invite-2")))
+                .isInstanceOf(DynamoSesException.class);
+
+        log.info("Completed testing rejectsMailWhenQueueIsFull()");
+    }
+
+    @Test
+    void retriesThrottledMailWithBackoff() throws DynamoSesException, InterruptedException {
+        log.info("Testing retriesThrottledMailWithBackoff()");
+
+        // given
+        SesDispatcherProperties sesDispatcherProperties = buildSesDispatcherProperties(1);
+        mailDispatcher = buildMailDispatcher(new InMemoryOutboundMailStore(sesDispatcherProperties),
+                sesDispatcherProperties);
+        OutboundMail mail = OutboundMail.builder().from("from@example.com").to(List.of("to@example.com"))
+                .subject("subject").body("body").build();
+        // when
+        when(sesService.sendMail(any(), anyList(), any(), any(), any(), any(), any()))
+                .thenThrow(SesException.builder().statusCode(400).message("Maximum sending rate exceeded.")
+                        .awsErrorDetails(AwsErrorDetails.builder().errorCode("Throttling").build()).build())
+                .thenReturn("mail-sent-123");
+        mailDispatcher.dispatch(mail);
+        // then
+        verify(sesService, timeout(5000).times(2)).sendMail(any(), anyList(), any(), any(), any(), any(), any());
+        awaitStatus(mail, OutboundMailStatus.SENT);
+        assertThat(mail.getAttempts()).isEqualTo(1);
+        assertThat(mail.getLastError()).isNull();
+
+        log.info("Completed testing retriesThrottledMailWithBackoff()");
+    }
+
+    @Test
+    void deadLettersRejectedMailAndRedispatchesIt() throws DynamoSesException, InterruptedException {
+        log.info("Testing deadLettersRejectedMailAndRedispatchesIt()");
+
+        // given
+        SesDispatcherProperties sesDispatcherProperties = buildSesDispatcherProperties(1);
+        mailDispatcher = buildMailDispatcher(new InMemoryOutboundMailStore(sesDispatcherProperties),
+                sesDispatcherProperties);
+        OutboundMail mail = buildTemplatedMail("invite-1");
+        // when
+        when(sesService.sendBulkTemplatedEmail(eq("from@example.com"), eq("invitation"), isNull(), anyList()))
+                .thenReturn(List.of(BulkEmailResult.builder().status("MessageRejected").error("Address blacklisted")
+                        .build()))
+                .thenReturn(List.of(BulkEmailResult.builder().status(BulkEmailResult.SUCCESS)
+                        .messageId("mail-sent-123").build()));
+        mailDispatcher.dispatch(mail);
+        awaitStatus(mail, OutboundMailStatus.DEAD_LETTERED);
+        // then
+        assertThat(mailDispatcher.retrieveDeadLetters()).extracting(OutboundMail::getIdempotencyKey)
+                .containsExactly("invite-1");
+        assertThat(mail.getLastError()).isEqualTo("MessageRejected: Address blacklisted");
+        assertThat(mailDispatcher.redispatch("invite-1")).isTrue();
+        awaitStatus(mail, OutboundMailStatus.SENT);
+        assertThat(mailDispatcher.retrieveDeadLetters()).isEmpty();
+        verify(sesService, times(2)).sendBulkTemplatedEmail(any(), any(), any(), anyList());
+
+        log.info("Completed testing deadLettersRejectedMailAndRedispatchesIt()");
+    }
+
+    private SesDispatcherProperties buildSesDispatcherProperties(int workerCount) {
+        SesDispatcherProperties sesDispatcherProperties = new SesDispatcherProperties();
+        sesDispatcherProperties.setWorkerCount(workerCount);
+        sesDispatcherProperties.setInitialBackoff(Duration.ofMillis(10));
+        sesDispatcherProperties.setPollInterval(Duration.ofMillis(50));
+        return sesDispatcherProperties;
+    }
+
+    private MailDispatcherImpl buildMailDispatcher(InMemoryOutboundMailStore outboundMailStore,
+            SesDispatcherProperties sesDispatcherProperties) {
+        SesSendRateLimiter sesSendRateLimiter =
+                new SesSendRateLimiter(sesClient, new SesSendRateProperties(1000.0, Duration.ofMinutes(1)));
+        return new MailDispatcherImpl(sesService, sesSendRateLimiter, outboundMailStore, sesDispatcherProperties);
+    }
+
+    private OutboundMail buildTemplatedMail(String idempotencyKey) {
+        return OutboundMail.builder().idempotencyKey(idempotencyKey).from("from@example.com")
+                .to(List.of("to@example.com")).templateName("invitation").templateData(Map.of("name", "User"))
+                .build();
+    }
+
+    private void awaitStatus(OutboundMail mail, OutboundMailStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (mail.getStatus() != status && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(mail.getStatus()).isEqualTo(status);
+    }
+}
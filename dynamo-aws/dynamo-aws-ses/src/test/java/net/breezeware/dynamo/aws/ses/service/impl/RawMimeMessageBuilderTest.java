@@ -0,0 +1,36 @@
+package net.breezeware.dynamo.aws.ses.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import jakarta.mail.MessagingException;
+
+import org.junit.jupiter.api.Test;
+
+import net.breezeware.dynamo.aws.ses.entity.Attachment;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class RawMimeMessageBuilderTest {
+
+    @Test
+    void encodesNonAsciiAttachmentNameInContentTypeAndDisposition() throws MessagingException {
+        log.info("Testing encodesNonAsciiAttachmentNameInContentTypeAndDisposition()");
+
+        // given
+        Attachment attachment = Attachment.builder().attachmentContent(new byte[] { 1, 2, 3 })
+                .attachmentMetaData(Attachment.MetaData.builder().attachmentName("résumé.pdf")
+                        .attachmentType("application/pdf").build())
+                .build();
+        // when
+        String attachmentPart = new String(RawMimeMessageBuilder.encodeAttachmentPart(attachment),
+                StandardCharsets.US_ASCII);
+        // then
+        assertThat(attachmentPart).contains("name*=UTF-8''r%C3%A9sum%C3%A9.pdf")
+                .contains("filename*=UTF-8''r%C3%A9sum%C3%A9.pdf").doesNotContain("?");
+
+        log.info("Completed testing encodesNonAsciiAttachmentNameInContentTypeAndDisposition()");
+    }
+}
@@ -1,8 +1,10 @@
 package net.breezeware.dynamo.aws.ses.service.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,32 +13,51 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.stream.IntStream;
 
 import jakarta.mail.Session;
+import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
 
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import net.breezeware.dynamo.aws.ses.config.SesSendRateProperties;
+import net.breezeware.dynamo.aws.ses.config.SesTemplateProperties;
+import net.breezeware.dynamo.aws.ses.config.SmtpPoolProperties;
 import net.breezeware.dynamo.aws.ses.entity.Attachment;
+import net.breezeware.dynamo.aws.ses.entity.BulkEmailRecipient;
+import net.breezeware.dynamo.aws.ses.entity.BulkEmailResult;
+import net.breezeware.dynamo.aws.ses.entity.RenderedEmail;
 import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
 import net.breezeware.dynamo.aws.ses.service.api.SesService;
 import net.breezeware.dynamo.aws.ses.service.api.SmtpService;
 
 import lombok.extern.slf4j.Slf4j;
 
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.BulkEmailDestinationStatus;
+import software.amazon.awssdk.services.ses.model.BulkEmailStatus;
 import software.amazon.awssdk.services.ses.model.CreateTemplateRequest;
+import software.amazon.awssdk.services.ses.model.GetSendQuotaResponse;
 import software.amazon.awssdk.services.ses.model.GetTemplateRequest;
 import software.amazon.awssdk.services.ses.model.GetTemplateResponse;
+import software.amazon.awssdk.services.ses.model.MessageRejectedException;
+import software.amazon.awssdk.services.ses.model.SendBulkTemplatedEmailRequest;
+import software.amazon.awssdk.services.ses.model.SendBulkTemplatedEmailResponse;
 import software.amazon.awssdk.services.ses.model.SendEmailRequest;
 import software.amazon.awssdk.services.ses.model.SendEmailResponse;
 import software.amazon.awssdk.services.ses.model.SendRawEmailRequest;
@@ -44,6 +65,7 @@ import software.amazon.awssdk.services.ses.model.SendRawEmailResponse;
 import software.amazon.awssdk.services.ses.model.SendTemplatedEmailRequest;
 import software.amazon.awssdk.services.ses.model.SendTemplatedEmailResponse;
 import software.amazon.awssdk.services.ses.model.Template;
+import software.amazon.awssdk.services.ses.model.TemplateDoesNotExistException;
 
 @Slf4j
 @ExtendWith(MockitoExtension.class)
@@ -56,11 +78,17 @@ class SesServiceImplTest {
 
     private SesService sesService;
     private SmtpService smtpService;
+    private EmailTemplateEngine emailTemplateEngine;
 
     @BeforeEach
     void setUp() {
-        sesService = new SesServiceImpl(sesClient);
-        smtpService = new SmtpServiceImpl(javaMailSender);
+        emailTemplateEngine = new EmailTemplateEngine(sesClient, new SesTemplateProperties(),
+                new DefaultResourceLoader());
+        sesService = new SesServiceImpl(sesClient,
+                new SesSendRateLimiter(sesClient, new SesSendRateProperties(1000.0, Duration.ofMinutes(1))),
+                emailTemplateEngine);
+        smtpService = new SmtpServiceImpl(javaMailSender, emailTemplateEngine,
+                new SmtpTransportPool(javaMailSender, new SmtpPoolProperties()));
     }
 
     @Test
@@ -109,6 +137,77 @@ class SesServiceImplTest {
         log.info("Completed testing sendsEmail()");
     }
 
+    @Test
+    void buildsRawEmailWithAttachment() throws Exception {
+        log.info("Testing buildsRawEmailWithAttachment()");
+
+        // given
+        byte[] attachmentContent = Files.readAllBytes(Path.of("src/test/resources/test.txt"));
+        Attachment attachment = Attachment.builder().attachmentContent(attachmentContent)
+                .attachmentMetaData(Attachment.MetaData.builder().attachmentName("résumé.txt")
+                        .attachmentType("text/plain").build())
+                .build();
+        // when
+        when(sesClient.sendRawEmail(any(SendRawEmailRequest.class)))
+                .thenReturn(SendRawEmailResponse.builder().messageId("mail-sent-123").build());
+        sesService.sendMail("from@example.com", List.of("to@example.com"), List.of("cc@example.com"),
+                List.of("bcc@example.com"), "Rapport trimestriel ✓", "<h1>Bonjour</h1>", List.of(attachment));
+        // then
+        ArgumentCaptor<SendRawEmailRequest> requestCaptor = ArgumentCaptor.forClass(SendRawEmailRequest.class);
+        verify(sesClient).sendRawEmail(requestCaptor.capture());
+        SendRawEmailRequest request = requestCaptor.getValue();
+        assertThat(request.destinations()).containsExactly("to@example.com", "cc@example.com", "bcc@example.com");
+
+        MimeMessage mimeMessage = new MimeMessage(Session.getDefaultInstance(new Properties()),
+                request.rawMessage().data().asInputStream());
+        assertThat(mimeMessage.getSubject()).isEqualTo("Rapport trimestriel ✓");
+        assertThat(mimeMessage.getHeader("To", ",")).isEqualTo("to@example.com");
+        assertThat(mimeMessage.getHeader("Cc", ",")).isEqualTo("cc@example.com");
+        assertThat(mimeMessage.getHeader("Bcc")).isNull();
+        MimeMultipart multipart = (MimeMultipart) mimeMessage.getContent();
+        assertThat(multipart.getCount()).isEqualTo(2);
+        assertThat(multipart.getBodyPart(0).getContent()).isEqualTo("<h1>Bonjour</h1>");
+        MimeBodyPart attachmentPart = (MimeBodyPart) multipart.getBodyPart(1);
+        assertThat(attachmentPart.getFileName()).isEqualTo("résumé.txt");
+        assertThat(attachmentPart.getInputStream().readAllBytes()).isEqualTo(attachmentContent);
+
+        log.info("Completed testing buildsRawEmailWithAttachment()");
+    }
+
+    @Test
+    void sendsBulkMailToEachRecipient() throws DynamoSesException {
+        log.info("Testing sendsBulkMailToEachRecipient()");
+
+        // given
+        Attachment attachment = Attachment.builder().attachmentContent(new byte[] { 1, 2, 3 })
+                .attachmentMetaData(Attachment.MetaData.builder().attachmentName("report.bin").build()).build();
+        List<BulkEmailRecipient> recipients =
+                List.of(BulkEmailRecipient.builder().to(List.of("to1@example.com")).build(),
+                        BulkEmailRecipient.builder().to(List.of("to2@example.com")).build(),
+                        BulkEmailRecipient.builder().to(List.of("to3@example.com")).bcc(List.of("bcc@example.com"))
+                                .build());
+        // when
+        when(sesClient.sendRawEmail(any(SendRawEmailRequest.class)))
+                .thenReturn(SendRawEmailResponse.builder().messageId("mail-sent-1").build())
+                .thenThrow(MessageRejectedException.builder().message("Address blacklisted")
+                        .awsErrorDetails(AwsErrorDetails.builder().errorCode("MessageRejected").build()).build())
+                .thenReturn(SendRawEmailResponse.builder().messageId("mail-sent-3").build());
+        List<BulkEmailResult> results =
+                sesService.sendBulkMail("from@example.com", "Report", "<h1>Report</h1>", List.of(attachment),
+                        recipients);
+        // then
+        ArgumentCaptor<SendRawEmailRequest> requestCaptor = ArgumentCaptor.forClass(SendRawEmailRequest.class);
+        verify(sesClient, times(3)).sendRawEmail(requestCaptor.capture());
+        assertThat(requestCaptor.getAllValues().get(2).destinations()).containsExactly("to3@example.com",
+                "bcc@example.com");
+        assertThat(results).extracting(BulkEmailResult::getStatus).containsExactly("Success", "MessageRejected",
+                "Success");
+        assertThat(results).extracting(BulkEmailResult::getMessageId).containsExactly("mail-sent-1", null,
+                "mail-sent-3");
+
+        log.info("Completed testing sendsBulkMailToEachRecipient()");
+    }
+
     @Test
     void createsEmailTemplate() throws DynamoSesException {
         log.info("Testing createsEmailTemplate()");
@@ -148,6 +247,156 @@ class SesServiceImplTest {
         log.info("Completed testing sendsTemplatedEmail()");
     }
 
+    @Test
+    void sendsBulkTemplatedEmailInBatches() throws DynamoSesException {
+        log.info("Testing sendsBulkTemplatedEmailInBatches()");
+
+        // given
+        List<BulkEmailRecipient> recipients = IntStream.range(0, 120)
+                .mapToObj(index -> BulkEmailRecipient.builder().to(List.of("to" + index + "@example.com"))
+                        .templateData(Map.of("name", "User " + index)).build())
+                .toList();
+        // when
+        when(sesClient.sendBulkTemplatedEmail(any(SendBulkTemplatedEmailRequest.class))).thenAnswer(invocation -> {
+            SendBulkTemplatedEmailRequest request = invocation.getArgument(0);
+            return SendBulkTemplatedEmailResponse.builder().status(request.destinations().stream()
+                    .map(destination -> BulkEmailDestinationStatus.builder().status(BulkEmailStatus.SUCCESS)
+                            .messageId("mail-sent-" + destination.destination().toAddresses().get(0)).build())
+                    .toList()).build();
+        });
+        List<BulkEmailResult> results =
+                sesService.sendBulkTemplatedEmail("from@example.com", "template-name", Map.of(), recipients);
+        // then
+        ArgumentCaptor<SendBulkTemplatedEmailRequest> requestCaptor =
+                ArgumentCaptor.forClass(SendBulkTemplatedEmailRequest.class);
+        verify(sesClient, times(3)).sendBulkTemplatedEmail(requestCaptor.capture());
+        assertThat(requestCaptor.getAllValues()).extracting(request -> request.destinations().size())
+                .containsExactly(50, 50, 20);
+        assertThat(requestCaptor.getAllValues().get(0).destinations().get(0).replacementTemplateData())
+                .isEqualTo("{\"name\":\"User 0\"}");
+        assertThat(results).hasSize(120).allMatch(BulkEmailResult::isSuccessful);
+        assertThat(results.get(119).getRecipient()).isSameAs(recipients.get(119));
+        assertThat(results.get(119).getMessageId()).isEqualTo("mail-sent-to119@example.com");
+
+        log.info("Completed testing sendsBulkTemplatedEmailInBatches()");
+    }
+
+    @Test
+    void reportsBulkTemplatedEmailResultPerDestination() throws DynamoSesException {
+        log.info("Testing reportsBulkTemplatedEmailResultPerDestination()");
+
+        // given
+        List<BulkEmailRecipient> recipients =
+                List.of(BulkEmailRecipient.builder().to(List.of("to1@example.com")).build(),
+                        BulkEmailRecipient.builder().to(List.of("to2@example.com")).build());
+        // when
+        when(sesClient.sendBulkTemplatedEmail(any(SendBulkTemplatedEmailRequest.class)))
+                .thenReturn(SendBulkTemplatedEmailResponse.builder()
+                        .status(BulkEmailDestinationStatus.builder().status(BulkEmailStatus.SUCCESS)
+                                .messageId("mail-sent-123").build(),
+                                BulkEmailDestinationStatus.builder().status(BulkEmailStatus.MESSAGE_REJECTED)
+                                        .error("Address blacklisted").build())
+                        .build());
+        List<BulkEmailResult> results =
+                sesService.sendBulkTemplatedEmail("from@example.com", "template-name", null, recipients);
+        // then
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).isSuccessful()).isTrue();
+        assertThat(results.get(0).getMessageId()).isEqualTo("mail-sent-123");
+        assertThat(results.get(1).isSuccessful()).isFalse();
+        assertThat(results.get(1).getStatus()).isEqualTo("MessageRejected");
+        assertThat(results.get(1).getError()).isEqualTo("Address blacklisted");
+
+        log.info("Completed testing reportsBulkTemplatedEmailResultPerDestination()");
+    }
+
+    @Test
+    void stopsBulkTemplatedEmailWhenTemplateDoesNotExist() throws DynamoSesException {
+        log.info("Testing stopsBulkTemplatedEmailWhenTemplateDoesNotExist()");
+
+        // given
+        List<BulkEmailRecipient> recipients = IntStream.range(0, 60)
+                .mapToObj(index -> BulkEmailRecipient.builder().to(List.of("to" + index + "@example.com")).build())
+                .toList();
+        // when
+        when(sesClient.sendBulkTemplatedEmail(any(SendBulkTemplatedEmailRequest.class)))
+                .thenThrow(TemplateDoesNotExistException.builder().message("Template does not exist")
+                        .awsErrorDetails(AwsErrorDetails.builder().errorCode("TemplateDoesNotExist").build())
+                        .build());
+        List<BulkEmailResult> results =
+                sesService.sendBulkTemplatedEmail("from@example.com", "template-name", Map.of(), recipients);
+        // then
+        verify(sesClient, times(1)).sendBulkTemplatedEmail(any(SendBulkTemplatedEmailRequest.class));
+        assertThat(results).hasSize(60).noneMatch(BulkEmailResult::isSuccessful)
+                .allMatch(result -> "TemplateDoesNotExist".equals(result.getStatus()));
+
+        log.info("Completed testing stopsBulkTemplatedEmailWhenTemplateDoesNotExist()");
+    }
+
+    @Test
+    void throttlesSendsToAccountSendRate() throws DynamoSesException {
+        log.info("Testing throttlesSendsToAccountSendRate()");
+
+        // given
+        SesSendRateLimiter sesSendRateLimiter =
+                new SesSendRateLimiter(sesClient, new SesSendRateProperties(null, Duration.ofMinutes(1)));
+        // when
+        when(sesClient.getSendQuota()).thenReturn(GetSendQuotaResponse.builder().maxSendRate(10.0).build());
+        long startNanos = System.nanoTime();
+        sesSendRateLimiter.acquire(10);
+        long burstNanos = System.nanoTime() - startNanos;
+        sesSendRateLimiter.acquire(5);
+        long throttledNanos = System.nanoTime() - startNanos;
+        // then
+        assertThat(sesSendRateLimiter.getPermitsPerSecond()).isEqualTo(10.0);
+        assertThat(burstNanos).isLessThan(Duration.ofMillis(300).toNanos());
+        assertThat(throttledNanos).isGreaterThanOrEqualTo(Duration.ofMillis(400).toNanos());
+        verify(sesClient, times(1)).getSendQuota();
+
+        log.info("Completed testing throttlesSendsToAccountSendRate()");
+    }
+
+    @Test
+    void rejectsSendsExceedingAcquireTimeout() throws DynamoSesException {
+        log.info("Testing rejectsSendsExceedingAcquireTimeout()");
+
+        // given
+        SesSendRateLimiter sesSendRateLimiter =
+                new SesSendRateLimiter(sesClient, new SesSendRateProperties(1.0, Duration.ofMillis(100)));
+        // when
+        sesSendRateLimiter.acquire(1);
+        // then
+        assertThatThrownBy(() -> sesSendRateLimiter.acquire(5)).isInstanceOf(DynamoSesException.class);
+
+        log.info("Completed testing rejectsSendsExceedingAcquireTimeout()");
+    }
+
+    @Test
+    void failsRemainingRecipientsWhenSendRateIsExceeded() throws DynamoSesException {
+        log.info("Testing failsRemainingRecipientsWhenSendRateIsExceeded()");
+
+        // given
+        SesService throttledSesService = new SesServiceImpl(sesClient,
+                new SesSendRateLimiter(sesClient, new SesSendRateProperties(1.0, Duration.ofMillis(100))),
+                emailTemplateEngine);
+        List<BulkEmailRecipient> recipients =
+                List.of(BulkEmailRecipient.builder().to(List.of("to1@example.com")).build(),
+                        BulkEmailRecipient.builder().to(List.of("to2@example.com")).build(),
+                        BulkEmailRecipient.builder().to(List.of("to3@example.com")).build());
+        // when
+        when(sesClient.sendRawEmail(any(SendRawEmailRequest.class)))
+                .thenReturn(SendRawEmailResponse.builder().messageId("mail-sent-1").build());
+        List<BulkEmailResult> results =
+                throttledSesService.sendBulkMail("from@example.com", "Report", "<h1>Report</h1>", null, recipients);
+        // then
+        verify(sesClient, times(1)).sendRawEmail(any(SendRawEmailRequest.class));
+        assertThat(results).extracting(BulkEmailResult::getStatus).containsExactly("Success", "Failed", "Failed");
+        assertThat(results.get(2).getRecipient()).isSameAs(recipients.get(2));
+        assertThat(results.get(2).getError()).contains("exceeds the SES send rate");
+
+        log.info("Completed testing failsRemainingRecipientsWhenSendRateIsExceeded()");
+    }
+
     @Test
     void sendsSmtpEmail() throws DynamoSesException {
         log.info("Testing sendsSmtpEmail()");
@@ -167,6 +416,130 @@ class SesServiceImplTest {
         log.info("Completed testing sendsSmtpEmail()");
     }
 
+    @Test
+    void rendersTemplateLocally() throws DynamoSesException {
+        log.info("Testing rendersTemplateLocally()");
+
+        // given
+        emailTemplateEngine.registerTemplate(net.breezeware.dynamo.aws.ses.entity.Template.builder()
+                .templateName("invitation").subjectPart("{{form-name}} & more")
+                .htmlPart("<p>{{form-name}}</p>{{{signature}}}{{#unless link}}<p>No link</p>{{/unless}}"
+                        + "{{! comment }}")
+                .textPart("{{form-name}}: {{link}}").build());
+        // when
+        RenderedEmail renderedEmail = emailTemplateEngine.render("invitation",
+                Map.of("form-name", "Q&A <Survey>", "signature", "<b>Team</b>", "link", ""));
+        // then
+        assertThat(renderedEmail.getSubject()).isEqualTo("Q&A <Survey> & more");
+        assertThat(renderedEmail.getHtmlPart())
+                .isEqualTo("<p>Q&amp;A &lt;Survey&gt;</p><b>Team</b><p>No link</p>");
+        assertThat(renderedEmail.getTextPart()).isEqualTo("Q&A <Survey>: ");
+
+        log.info("Completed testing rendersTemplateLocally()");
+    }
+
+    @Test
+    void rendersTemplateFromTemplateFiles() throws DynamoSesException {
+        log.info("Testing rendersTemplateFromTemplateFiles()");
+
+        // when
+        RenderedEmail renderedEmail = emailTemplateEngine.render("welcome",
+                Map.of("name", "Jane", "roles", List.of("admin", "editor"), "company", Map.of("name", "Breeze")));
+        RenderedEmail renderedEmailWithoutRoles = emailTemplateEngine.render("welcome", Map.of("name", "John"));
+        // then
+        assertThat(renderedEmail.getSubject()).isEqualTo("Welcome Jane");
+        assertThat(renderedEmail.getHtmlPart())
+                .isEqualTo("<h1>Hello Jane</h1><ul><li>admin</li><li>editor</li></ul>");
+        assertThat(renderedEmail.getTextPart()).isEqualTo("Hello Jane, your company is Breeze.");
+        assertThat(renderedEmailWithoutRoles.getHtmlPart()).isEqualTo("<h1>Hello John</h1><p>No roles</p>");
+        verify(sesClient, never()).getTemplate(any(GetTemplateRequest.class));
+
+        log.info("Completed testing rendersTemplateFromTemplateFiles()");
+    }
+
+    @Test
+    void cachesTemplateRetrievedFromSes() throws DynamoSesException {
+        log.info("Testing cachesTemplateRetrievedFromSes()");
+
+        // given
+        when(sesClient.getTemplate(any(GetTemplateRequest.class))).thenReturn(GetTemplateResponse.builder()
+                .template(Template.builder().templateName("reset-password").subjectPart("Reset password")
+                        .htmlPart("<p>Your code is {{otp}}</p>").build())
+                .build());
+        // when
+        RenderedEmail firstRenderedEmail = emailTemplateEngine.render("reset-password", Map.of("otp", "1234"));
+        RenderedEmail secondRenderedEmail = emailTemplateEngine.render("reset-password", Map.of("otp", "5678"));
+        // then
+        assertThat(firstRenderedEmail.getHtmlPart()).isEqualTo("<p>Your code is 1234</p>");
+        assertThat(secondRenderedEmail.getHtmlPart()).isEqualTo("<p>Your code is 5678</p>");
+        assertThat(secondRenderedEmail.getTextPart()).isNull();
+        verify(sesClient, times(1)).getTemplate(any(GetTemplateRequest.class));
+
+        log.info("Completed testing cachesTemplateRetrievedFromSes()");
+    }
+
+    @Test
+    void rejectsMalformedTemplate() {
+        log.info("Testing rejectsMalformedTemplate()");
+
+        // given
+        net.breezeware.dynamo.aws.ses.entity.Template template = net.breezeware.dynamo.aws.ses.entity.Template
+                .builder().templateName("broken").subjectPart("Subject").htmlPart("{{#each items}}<li>{{this}}</li>")
+                .build();
+        // then
+        assertThatThrownBy(() -> emailTemplateEngine.registerTemplate(template))
+                .isInstanceOf(DynamoSesException.class);
+
+        log.info("Completed testing rejectsMalformedTemplate()");
+    }
+
+    @Test
+    void sendsBulkRenderedEmail() throws Exception {
+        log.info("Testing sendsBulkRenderedEmail()");
+
+        // given
+        List<BulkEmailRecipient> recipients =
+                List.of(BulkEmailRecipient.builder().to(List.of("jane@example.com"))
+                        .templateData(Map.of("name", "Jane")).build(),
+                        BulkEmailRecipient.builder().to(List.of("john@example.com"))
+                                .templateData(Map.of("name", "John")).build());
+        // when
+        when(sesClient.sendRawEmail(any(SendRawEmailRequest.class)))
+                .thenReturn(SendRawEmailResponse.builder().messageId("mail-sent-123").build());
+        List<BulkEmailResult> results = sesService.sendBulkRenderedEmail("from@example.com", "welcome",
+                Map.of("company", Map.of("name", "Breeze")), null, recipients);
+        // then
+        ArgumentCaptor<SendRawEmailRequest> requestCaptor = ArgumentCaptor.forClass(SendRawEmailRequest.class);
+        verify(sesClient, times(2)).sendRawEmail(requestCaptor.capture());
+        assertThat(results).allMatch(BulkEmailResult::isSuccessful);
+        MimeMessage mimeMessage = new MimeMessage(Session.getDefaultInstance(new Properties()),
+                requestCaptor.getAllValues().get(1).rawMessage().data().asInputStream());
+        assertThat(mimeMessage.getSubject()).isEqualTo("Welcome John");
+        MimeMultipart alternative =
+                (MimeMultipart) ((MimeMultipart) mimeMessage.getContent()).getBodyPart(0).getContent();
+        assertThat(alternative.getBodyPart(0).getContent()).isEqualTo("Hello John, your company is Breeze.");
+        assertThat(alternative.getBodyPart(1).getContent()).isEqualTo("<h1>Hello John</h1><p>No roles</p>");
+
+        log.info("Completed testing sendsBulkRenderedEmail()");
+    }
+
+    @Test
+    void sendsTemplatedSmtpEmail() throws Exception {
+        log.info("Testing sendsTemplatedSmtpEmail()");
+
+        // given
+        final Session mailSession = Session.getDefaultInstance(new Properties());
+        // when
+        when(javaMailSender.createMimeMessage()).thenReturn(new MimeMessage(mailSession));
+        smtpService.sendTemplatedSmtpMail("from@example.com", "to@example.com", "welcome", Map.of("name", "Jane"));
+        // then
+        ArgumentCaptor<MimeMessage> mimeMessageCaptor = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(javaMailSender, times(1)).send(mimeMessageCaptor.capture());
+        assertThat(mimeMessageCaptor.getValue().getSubject()).isEqualTo("Welcome Jane");
+
+        log.info("Completed testing sendsTemplatedSmtpEmail()");
+    }
+
     @Test
     void testGetEmailTemplate() throws DynamoSesException {
         log.info("Testing testGetEmailTemplate()");
@@ -0,0 +1,156 @@
+package net.breezeware.dynamo.aws.ses.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Provider;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.URLName;
+import jakarta.mail.internet.MimeMessage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import net.breezeware.dynamo.aws.ses.config.SmtpPoolProperties;
+import net.breezeware.dynamo.aws.ses.exception.DynamoSesException;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class SmtpTransportPoolTest {
+
+    private static final AtomicInteger CONNECTIONS = new AtomicInteger();
+    private static final List<String> SENT_SUBJECTS = new ArrayList<>();
+
+    private JavaMailSenderImpl javaMailSender;
+    private SmtpTransportPool smtpTransportPool;
+
+    @BeforeEach
+    void setUp() throws MessagingException {
+        CONNECTIONS.set(0);
+        SENT_SUBJECTS.clear();
+        Session session = Session.getInstance(new Properties());
+        session.setProvider(new Provider(Provider.Type.TRANSPORT, "smtp", RecordingTransport.class.getName(),
+                "test", "1.0"));
+        javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setSession(session);
+        javaMailSender.setHost("localhost");
+    }
+
+    @AfterEach
+    void tearDown() {
+        smtpTransportPool.shutdown();
+    }
+
+    @Test
+    void reusesConnectionAcrossSends() throws Exception {
+        log.info("Testing reusesConnectionAcrossSends()");
+
+        // given
+        smtpTransportPool = new SmtpTransportPool(javaMailSender, buildSmtpPoolProperties(100));
+        // when
+        smtpTransportPool.send(List.of(buildMimeMessage("first", "to@example.com")));
+        smtpTransportPool.send(List.of(buildMimeMessage("second", "to@example.com")));
+        // then
+        assertThat(SENT_SUBJECTS).containsExactly("first", "second");
+        assertThat(CONNECTIONS.get()).isEqualTo(1);
+
+        log.info("Completed testing reusesConnectionAcrossSends()");
+    }
+
+    @Test
+    void replacesConnectionAfterMessageLimit() throws Exception {
+        log.info("Testing replacesConnectionAfterMessageLimit()");
+
+        // given
+        smtpTransportPool = new SmtpTransportPool(javaMailSender, buildSmtpPoolProperties(2));
+        List<MimeMessage> mimeMessages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            mimeMessages.add(buildMimeMessage("mail-" + i, "to@example.com"));
+        }
+
+        // when
+        smtpTransportPool.send(mimeMessages);
+        // then
+        assertThat(SENT_SUBJECTS).hasSize(5);
+        assertThat(CONNECTIONS.get()).isEqualTo(3);
+
+        log.info("Completed testing replacesConnectionAfterMessageLimit()");
+    }
+
+    @Test
+    void sendsRemainingMessagesWhenRecipientRejected() throws Exception {
+        log.info("Testing sendsRemainingMessagesWhenRecipientRejected()");
+
+        // given
+        smtpTransportPool = new SmtpTransportPool(javaMailSender, buildSmtpPoolProperties(100));
+        MimeMessage rejected = buildMimeMessage("rejected", "rejected@example.com");
+        List<MimeMessage> mimeMessages = List.of(buildMimeMessage("first", "to@example.com"), rejected,
+                buildMimeMessage("last", "to@example.com"));
+        // when
+        // then
+        assertThatThrownBy(() -> smtpTransportPool.send(mimeMessages)).isInstanceOf(DynamoSesException.class)
+                .hasMessage("1 of 3 mails not sent").cause().isInstanceOf(MailSendException.class)
+                .satisfies(e -> assertThat(((MailSendException) e).getFailedMessages()).containsOnlyKeys(rejected));
+        assertThat(SENT_SUBJECTS).containsExactly("first", "last");
+        assertThat(CONNECTIONS.get()).isEqualTo(1);
+
+        log.info("Completed testing sendsRemainingMessagesWhenRecipientRejected()");
+    }
+
+    private SmtpPoolProperties buildSmtpPoolProperties(int maxMessagesPerConnection) {
+        return new SmtpPoolProperties(true, 2, maxMessagesPerConnection, Duration.ofSeconds(30),
+                Duration.ofSeconds(1));
+    }
+
+    private MimeMessage buildMimeMessage(String subject, String to) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, false, "UTF-8");
+        mimeMessageHelper.setFrom("from@example.com");
+        mimeMessageHelper.setTo(to);
+        mimeMessageHelper.setSubject(subject);
+        mimeMessageHelper.setText("<h1>body</h1>", true);
+        return mimeMessage;
+    }
+
+    /**
+     * Transport recording the connections opened and the mails sent, rejecting
+     * mails to {@code rejected@example.com}.
+     */
+    public static class RecordingTransport extends Transport {
+
+        public RecordingTransport(Session session, URLName urlName) {
+            super(session, urlName);
+        }
+
+        @Override
+        protected boolean protocolConnect(String host, int port, String user, String password) {
+            CONNECTIONS.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public void sendMessage(Message message, Address[] addresses) throws MessagingException {
+            if ("rejected@example.com".equals(addresses[0].toString())) {
+                throw new SendFailedException("Recipient rejected");
+            }
+
+            SENT_SUBJECTS.add(message.getSubject());
+        }
+    }
+}
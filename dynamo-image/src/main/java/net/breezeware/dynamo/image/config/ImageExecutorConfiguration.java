@@ -0,0 +1,53 @@
+package net.breezeware.dynamo.image.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import net.breezeware.dynamo.image.config.properties.ImageProperties;
+import net.breezeware.dynamo.image.config.properties.VariantProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executor configuration for the Dynamo Image module.
+ */
+@Slf4j
+@Configuration
+public class ImageExecutorConfiguration {
+
+    /**
+     * Builds the bounded {@link ExecutorService} used to encode image variants in
+     * parallel. When both the worker threads and the queue are full, the submitting
+     * thread encodes the variant itself.
+     * @param  imageProperties image module properties.
+     * @return                 {@link ExecutorService} for image variant encoding.
+     */
+    @Bean(name = "imageVariantExecutor", destroyMethod = "shutdown")
+    public ExecutorService buildImageVariantExecutor(ImageProperties imageProperties) {
+        VariantProperties variantProperties = imageProperties.getVariant();
+        log.debug("Entering buildImageVariantExecutor(), parallelism = {}, queueCapacity = {}",
+                variantProperties.getParallelism(), variantProperties.getQueueCapacity());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "dynamo-image-variant-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        ExecutorService imageVariantExecutor = new ThreadPoolExecutor(variantProperties.getParallelism(),
+                variantProperties.getParallelism(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(variantProperties.getQueueCapacity()), threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        log.debug("Leaving buildImageVariantExecutor()");
+        return imageVariantExecutor;
+    }
+}
@@ -0,0 +1,21 @@
+package net.breezeware.dynamo.image.config.properties;
+
+import java.time.Duration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Decoding memory budget properties, bound from the {@code dynamo.image.budget}
+ * prefix. Budgets are expressed in decoded pixels, each of which takes about 4
+ * bytes of heap.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetProperties {
+    private long maxPixelsPerImage = 40_000_000L;
+    private long maxConcurrentPixels = 160_000_000L;
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+}
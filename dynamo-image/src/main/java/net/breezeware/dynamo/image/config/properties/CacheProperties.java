@@ -0,0 +1,22 @@
+package net.breezeware.dynamo.image.config.properties;
+
+import org.springframework.util.unit.DataSize;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compressed image cache properties, bound from the {@code dynamo.image.cache}
+ * prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheProperties {
+    private boolean enabled = true;
+    private DataSize heapMaxSize = DataSize.ofMegabytes(64);
+    private boolean diskEnabled = false;
+    private String diskDirectory = System.getProperty("java.io.tmpdir") + "/dynamo-image-cache";
+    private DataSize diskMaxSize = DataSize.ofGigabytes(1);
+}
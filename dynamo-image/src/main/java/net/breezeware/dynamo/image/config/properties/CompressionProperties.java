@@ -0,0 +1,17 @@
+package net.breezeware.dynamo.image.config.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Image compression properties, bound from the {@code dynamo.image.compression}
+ * prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompressionProperties {
+    private QualityProperties quality = new QualityProperties();
+    private String format = "jpeg";
+}
@@ -0,0 +1,27 @@
+package net.breezeware.dynamo.image.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration properties of the Dynamo Image module, bound from the
+ * {@code dynamo.image} prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Configuration
+@ConfigurationProperties(prefix = "dynamo.image")
+public class ImageProperties {
+    private CompressionProperties compression = new CompressionProperties();
+    private VariantProperties variant = new VariantProperties();
+    private NegotiationProperties negotiation = new NegotiationProperties();
+    private BudgetProperties budget = new BudgetProperties();
+    private CacheProperties cache = new CacheProperties();
+    private PerceptualProperties perceptual = new PerceptualProperties();
+    private ProcessingProperties processing = new ProcessingProperties();
+}
@@ -0,0 +1,19 @@
+package net.breezeware.dynamo.image.config.properties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Output format negotiation properties, bound from the
+ * {@code dynamo.image.negotiation} prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NegotiationProperties {
+    private List<String> preferredFormats = new ArrayList<>(List.of("jpeg", "png"));
+}
@@ -0,0 +1,18 @@
+package net.breezeware.dynamo.image.config.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Perceptual quality compression properties, bound from the
+ * {@code dynamo.image.perceptual} prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PerceptualProperties {
+    private float maxQuality = 0.95f;
+    private int searchIterations = 6;
+    private int analysisSize = 256;
+}
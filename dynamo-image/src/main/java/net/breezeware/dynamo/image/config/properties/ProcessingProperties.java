@@ -0,0 +1,38 @@
+package net.breezeware.dynamo.image.config.properties;
+
+import java.time.Duration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Image processing executor properties, bound from the
+ * {@code dynamo.image.processing} prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessingProperties {
+    private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private int queueCapacity = 50;
+    private Duration timeout = Duration.ofSeconds(60);
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+
+    /**
+     * Policy applied to an image processing request when both the worker threads
+     * and the queue are full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Rejects the request with a {@code DynamoImageException}.
+         */
+        ABORT,
+
+        /**
+         * Processes the request on the calling thread once a thread of the
+         * processing parallelism is free.
+         */
+        CALLER_RUNS
+    }
+}
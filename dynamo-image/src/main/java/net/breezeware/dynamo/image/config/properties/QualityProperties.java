@@ -0,0 +1,18 @@
+package net.breezeware.dynamo.image.config.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compression quality range, bound from the
+ * {@code dynamo.image.compression.quality} prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QualityProperties {
+    private float max = 0.5f;
+    private float min = 0.1f;
+    private float step = 0.1f;
+}
@@ -0,0 +1,17 @@
+package net.breezeware.dynamo.image.config.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Image variant generation properties, bound from the
+ * {@code dynamo.image.variant} prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VariantProperties {
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 100;
+}
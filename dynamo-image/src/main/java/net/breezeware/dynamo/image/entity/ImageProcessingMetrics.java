@@ -0,0 +1,66 @@
+package net.breezeware.dynamo.image.entity;
+
+import java.io.Serializable;
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Point-in-time snapshot of the image processing executor metrics.
+ */
+@Data
+@Builder
+public class ImageProcessingMetrics implements Serializable {
+
+    /**
+     * The number of requests waiting in the queue for a worker thread.
+     */
+    private int queueDepth;
+
+    /**
+     * The maximum number of requests the queue can hold.
+     */
+    private int queueCapacity;
+
+    /**
+     * The number of requests being processed.
+     */
+    private int activeCount;
+
+    /**
+     * The number of requests processed successfully.
+     */
+    private long completedCount;
+
+    /**
+     * The number of requests whose processing failed.
+     */
+    private long failedCount;
+
+    /**
+     * The number of requests rejected because the queue was full.
+     */
+    private long rejectedCount;
+
+    /**
+     * The number of requests abandoned after exceeding the processing timeout.
+     */
+    private long timedOutCount;
+
+    /**
+     * The average time requests waited in the queue before being processed.
+     */
+    private Duration averageQueueWaitTime;
+
+    /**
+     * The average processing time of a request, excluding the queue wait.
+     */
+    private Duration averageProcessingTime;
+
+    /**
+     * The longest processing time of a request, excluding the queue wait.
+     */
+    private Duration maxProcessingTime;
+
+}
@@ -0,0 +1,41 @@
+package net.breezeware.dynamo.image.entity;
+
+import java.io.Serializable;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Represents a generated rendition of a source image along with its
+ * dimensions.
+ */
+@Data
+@Builder
+public class ImageVariant implements Serializable {
+
+    /**
+     * The name of the {@link VariantSpec} this variant was generated from.
+     */
+    private String name;
+
+    /**
+     * The compressed image data of the variant.
+     */
+    private byte[] imageBytes;
+
+    /**
+     * The MIME type of the compressed image data, e.g. {@code image/jpeg}.
+     */
+    private String mimeType;
+
+    /**
+     * The width of the variant in pixels.
+     */
+    private int widthInPixels;
+
+    /**
+     * The height of the variant in pixels.
+     */
+    private int heightInPixels;
+
+}
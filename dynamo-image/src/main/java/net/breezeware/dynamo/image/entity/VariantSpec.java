@@ -0,0 +1,43 @@
+package net.breezeware.dynamo.image.entity;
+
+import java.io.Serializable;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Describes a rendition (e.g. thumbnail, medium, full) to be generated from a
+ * source image. The target width takes precedence over the target height; when
+ * neither is set, the variant keeps the source dimensions.
+ */
+@Data
+@Builder
+public class VariantSpec implements Serializable {
+
+    /**
+     * The name identifying the variant, e.g. {@code thumb}.
+     */
+    private String name;
+
+    /**
+     * The target size in bytes for the compressed variant.
+     */
+    private int targetSizeInBytes;
+
+    /**
+     * The target width in pixels for the variant, or 0 if not constrained.
+     */
+    private int targetWidthInPixels;
+
+    /**
+     * The target height in pixels for the variant, or 0 if not constrained.
+     */
+    private int targetHeightInPixels;
+
+    /**
+     * The informal name of the output format of the variant, e.g. {@code webp}.
+     * Defaults to the configured compression format when not set.
+     */
+    private String formatName;
+
+}
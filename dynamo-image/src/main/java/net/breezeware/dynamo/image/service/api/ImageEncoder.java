@@ -0,0 +1,67 @@
+package net.breezeware.dynamo.image.service.api;
+
+import java.awt.image.BufferedImage;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+
+import net.breezeware.dynamo.image.exception.DynamoImageException;
+
+/**
+ * Encoder for a single image output format. Implementations registered as Spring
+ * beans take precedence over the built-in ImageIO based encoders for the same
+ * format, which allows plugging in codecs for formats such as WebP or AVIF.
+ * Implementations must be thread-safe.
+ */
+public interface ImageEncoder {
+
+    /**
+     * Efficiency rank of formats without a well-known rank.
+     */
+    int DEFAULT_EFFICIENCY_RANK = 100;
+
+    /**
+     * Efficiency ranks of well-known formats, from the smallest typical output
+     * for photographic content to the largest.
+     */
+    Map<String, Integer> WELL_KNOWN_EFFICIENCY_RANKS =
+            Map.of("avif", 10, "webp", 20, "jpeg", 30, "jpg", 30, "png", 60, "gif", 70, "bmp", 90);
+
+    /**
+     * Retrieves the informal name of the format produced by this encoder, e.g.
+     * {@code webp}.
+     * @return the format name.
+     */
+    String getFormatName();
+
+    /**
+     * Retrieves the MIME type of the format produced by this encoder, e.g.
+     * {@code image/webp}.
+     * @return the MIME type.
+     */
+    String getMimeType();
+
+    /**
+     * Retrieves the efficiency rank of the format produced by this encoder. Format
+     * negotiation picks the acceptable format with the lowest rank, i.e. the
+     * smallest expected output.
+     * @return the efficiency rank, by default the well-known rank of the format or
+     *         {@link #DEFAULT_EFFICIENCY_RANK}.
+     */
+    default int getEfficiencyRank() {
+        return WELL_KNOWN_EFFICIENCY_RANKS.getOrDefault(getFormatName().toLowerCase(Locale.ROOT),
+                DEFAULT_EFFICIENCY_RANK);
+    }
+
+    /**
+     * Encodes the image with the specified compression quality.
+     * @param  image                The image to be encoded.
+     * @param  compressionQuality   The compression quality to be applied (between
+     *                              0.0 and 1.0). Lossless encoders may ignore it.
+     * @param  outputStream         The output stream to which the encoded image
+     *                              data will be written.
+     * @throws DynamoImageException If an error occurs during image encoding.
+     */
+    void encode(BufferedImage image, float compressionQuality, OutputStream outputStream)
+            throws DynamoImageException;
+}
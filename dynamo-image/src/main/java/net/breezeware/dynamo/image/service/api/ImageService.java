@@ -1,5 +1,12 @@
 package net.breezeware.dynamo.image.service.api;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import net.breezeware.dynamo.image.entity.ImageProcessingMetrics;
+import net.breezeware.dynamo.image.entity.ImageVariant;
+import net.breezeware.dynamo.image.entity.VariantSpec;
 import net.breezeware.dynamo.image.exception.DynamoImageException;
 
 public interface ImageService {
@@ -41,4 +48,132 @@ public interface ImageService {
      */
     byte[] compressImageWithTargetSizeAndHeight(byte[] inputImageBytes, int targetSizeInBytes, int targetHeightInPixels)
             throws DynamoImageException;
+
+    /**
+     * Compresses the input image to achieve the target size in bytes, encoding it
+     * in the specified output format.
+     * @param  inputImageBytes      The input image data as a byte array.
+     * @param  targetSizeInBytes    The target size in bytes for the compressed
+     *                              image.
+     * @param  formatName           The informal name of the output format, e.g.
+     *                              {@code webp}, typically obtained from
+     *                              {@link #negotiateFormat(String)}.
+     * @return                      The compressed image data as a byte array.
+     * @throws DynamoImageException If no encoder is available for the format or an
+     *                              error occurs during image compression.
+     */
+    byte[] compressImageWithTargetSizeAndFormat(byte[] inputImageBytes, int targetSizeInBytes, String formatName)
+            throws DynamoImageException;
+
+    /**
+     * Compresses the input image to the smallest size whose perceptual quality,
+     * measured as the structural similarity index (SSIM) to the input image, is
+     * at least the given minimum.
+     * @param  inputImageBytes      The input image data as a byte array.
+     * @param  minimumSsim          The minimum SSIM of the compressed image,
+     *                              between 0 (exclusive) and 1, e.g. 0.95.
+     * @return                      The compressed image data as a byte array.
+     * @throws DynamoImageException If an error occurs during image compression.
+     */
+    byte[] compressImageWithPerceptualQuality(byte[] inputImageBytes, double minimumSsim)
+            throws DynamoImageException;
+
+    /**
+     * Compresses the input image fit to the specified width to the smallest size
+     * whose perceptual quality, measured as the structural similarity index (SSIM)
+     * to the resized image, is at least the given minimum.
+     * @param  inputImageBytes      The input image data as a byte array.
+     * @param  minimumSsim          The minimum SSIM of the compressed image,
+     *                              between 0 (exclusive) and 1, e.g. 0.95.
+     * @param  targetWidthInPixels  The target width in pixels for the compressed
+     *                              image.
+     * @return                      The compressed image data as a byte array.
+     * @throws DynamoImageException If an error occurs during image compression.
+     */
+    byte[] compressImageWithPerceptualQualityAndWidth(byte[] inputImageBytes, double minimumSsim,
+            int targetWidthInPixels) throws DynamoImageException;
+
+    /**
+     * Compresses the image read from the input stream to achieve the target size
+     * in bytes and writes it to the output stream. The image dimension is checked
+     * against the configured pixel budget before the image is decoded. Neither
+     * stream is closed.
+     * @param  inputImageStream     The input stream of the input image.
+     * @param  targetSizeInBytes    The target size in bytes for the compressed
+     *                              image.
+     * @param  outputStream         The output stream to which the compressed image
+     *                              data is written.
+     * @throws DynamoImageException If the image exceeds the pixel budget or an
+     *                              error occurs during image compression.
+     */
+    void compressImageWithTargetSize(InputStream inputImageStream, int targetSizeInBytes, OutputStream outputStream)
+            throws DynamoImageException;
+
+    /**
+     * Compresses the image read from the input stream to achieve the target size
+     * in bytes and fit to the specified width, and writes it to the output stream.
+     * Images exceeding the pixel budget are decoded at a reduced resolution that
+     * still covers the target width, or rejected. Neither stream is closed.
+     * @param  inputImageStream     The input stream of the input image.
+     * @param  targetSizeInBytes    The target size in bytes for the compressed
+     *                              image.
+     * @param  targetWidthInPixels  The target width in pixels for the compressed
+     *                              image.
+     * @param  outputStream         The output stream to which the compressed image
+     *                              data is written.
+     * @throws DynamoImageException If the image exceeds the pixel budget or an
+     *                              error occurs during image compression.
+     */
+    void compressImageWithTargetSizeAndWidth(InputStream inputImageStream, int targetSizeInBytes,
+            int targetWidthInPixels, OutputStream outputStream) throws DynamoImageException;
+
+    /**
+     * Compresses the image read from the input stream to achieve the target size
+     * in bytes and fit to the specified height, and writes it to the output
+     * stream. Images exceeding the pixel budget are decoded at a reduced
+     * resolution that still covers the target height, or rejected. Neither stream
+     * is closed.
+     * @param  inputImageStream     The input stream of the input image.
+     * @param  targetSizeInBytes    The target size in bytes for the compressed
+     *                              image.
+     * @param  targetHeightInPixels The target height in pixels for the compressed
+     *                              image.
+     * @param  outputStream         The output stream to which the compressed image
+     *                              data is written.
+     * @throws DynamoImageException If the image exceeds the pixel budget or an
+     *                              error occurs during image compression.
+     */
+    void compressImageWithTargetSizeAndHeight(InputStream inputImageStream, int targetSizeInBytes,
+            int targetHeightInPixels, OutputStream outputStream) throws DynamoImageException;
+
+    /**
+     * Negotiates the output format with the smallest expected size that is
+     * acceptable to the client, based on the efficiency rank of the encoders of
+     * the configured preferred formats.
+     * @param  acceptHeader The value of the HTTP {@code Accept} header of the
+     *                      client, may be null.
+     * @return              The negotiated format name, or the default compression
+     *                      format if no preferred format is acceptable.
+     */
+    String negotiateFormat(String acceptHeader);
+
+    /**
+     * Retrieves a snapshot of the metrics of the bounded executor the images are
+     * processed on, such as the queue depth and processing times.
+     * @return {@link ImageProcessingMetrics} of the image processing executor.
+     */
+    ImageProcessingMetrics retrieveProcessingMetrics();
+
+    /**
+     * Generates several renditions of the input image in a single call. The input
+     * image is decoded once, each variant is resized from the nearest larger
+     * variant already produced, and the variants are encoded in parallel.
+     * @param  inputImageBytes      The input image data as a byte array.
+     * @param  variantSpecs         The specifications of the variants to generate.
+     * @return                      The generated variants, in the order of the
+     *                              given specifications.
+     * @throws DynamoImageException If an error occurs while generating a variant.
+     */
+    List<ImageVariant> generateVariants(byte[] inputImageBytes, List<VariantSpec> variantSpecs)
+            throws DynamoImageException;
 }
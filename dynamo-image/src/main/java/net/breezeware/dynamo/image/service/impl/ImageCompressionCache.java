@@ -0,0 +1,325 @@
+package net.breezeware.dynamo.image.service.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import net.breezeware.dynamo.image.config.properties.CacheProperties;
+import net.breezeware.dynamo.image.config.properties.ImageProperties;
+import net.breezeware.dynamo.image.config.properties.PerceptualProperties;
+import net.breezeware.dynamo.image.config.properties.QualityProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache of compressed images keyed by the SHA-256 digest of the source image and
+ * the compression parameters. Entries are kept in a size-bounded, least recently
+ * used heap tier and, optionally, in a size-bounded, least recently used
+ * directory on disk, whose recency is tracked by the file modification time.
+ */
+@Slf4j
+@Component
+public class ImageCompressionCache {
+
+    private final CacheProperties cacheProperties;
+
+    private final QualityProperties qualityProperties;
+
+    private final PerceptualProperties perceptualProperties;
+
+    private final Map<String, byte[]> heapEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long heapSizeInBytes;
+
+    private final Path diskDirectory;
+
+    private final AtomicLong diskSizeInBytes = new AtomicLong();
+
+    /**
+     * Builds the {@link ImageCompressionCache}.
+     * @param imageProperties image module properties.
+     */
+    public ImageCompressionCache(ImageProperties imageProperties) {
+        this.cacheProperties = imageProperties.getCache();
+        this.qualityProperties = imageProperties.getCompression().getQuality();
+        this.perceptualProperties = imageProperties.getPerceptual();
+        this.diskDirectory = initializeDiskDirectory();
+    }
+
+    /**
+     * Computes the hex encoded SHA-256 digest of a source image, computed once
+     * per source image and shared by the cache keys of its compressed images.
+     * @param  inputImageBytes The byte array representing the input image.
+     * @return                 The hex encoded digest, or an empty string when the
+     *                         cache is disabled, since no key is looked up.
+     */
+    public String digest(byte[] inputImageBytes) {
+        if (!cacheProperties.isEnabled()) {
+            return "";
+        }
+
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(inputImageBytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 message digest is not available", e);
+        }
+
+    }
+
+    /**
+     * Builds the cache key of a compressed image.
+     * @param  sourceDigest         The {@link #digest(byte[])} of the input image.
+     * @param  targetSizeInBytes    The target size (in bytes) of the compressed
+     *                              image.
+     * @param  targetWidthInPixels  The target width (in pixels) of the compressed
+     *                              image.
+     * @param  targetHeightInPixels The target height (in pixels) of the compressed
+     *                              image.
+     * @param  formatName           The informal name of the output image format.
+     * @return                      The cache key.
+     */
+    public String buildKey(String sourceDigest, int targetSizeInBytes, int targetWidthInPixels,
+            int targetHeightInPixels, String formatName) {
+        return "%s-%s-%s-%s-%s-%s".formatted(sourceDigest, targetSizeInBytes, targetWidthInPixels,
+                targetHeightInPixels, formatName.toLowerCase(Locale.ROOT), qualityFingerprint());
+    }
+
+    /**
+     * Builds the cache key of an image compressed to a perceptual quality.
+     * @param  sourceDigest        The {@link #digest(byte[])} of the input image.
+     * @param  minimumSsim         The minimum SSIM of the compressed image.
+     * @param  targetWidthInPixels The target width (in pixels) of the compressed
+     *                             image.
+     * @param  formatName          The informal name of the output image format.
+     * @return                     The cache key.
+     */
+    public String buildPerceptualKey(String sourceDigest, double minimumSsim, int targetWidthInPixels,
+            String formatName) {
+        return "%s-ssim%s-%s-%s-%s".formatted(sourceDigest, minimumSsim, targetWidthInPixels,
+                formatName.toLowerCase(Locale.ROOT), qualityFingerprint());
+    }
+
+    /**
+     * Retrieves a compressed image from the cache, looking up the heap tier first
+     * and then the disk tier. Disk hits refresh the modification time of the file
+     * and are promoted to the heap tier.
+     * @param  key The cache key.
+     * @return     A copy of the cached compressed image, if present.
+     */
+    public Optional<byte[]> get(String key) {
+        if (!cacheProperties.isEnabled()) {
+            return Optional.empty();
+        }
+
+        synchronized (heapEntries) {
+            byte[] compressedImageBytes = heapEntries.get(key);
+            if (compressedImageBytes != null) {
+                log.debug("Compressed image cache heap hit, key = {}", key);
+                return Optional.of(compressedImageBytes.clone());
+            }
+
+        }
+
+        if (diskDirectory != null) {
+            try {
+                Path entryPath = diskDirectory.resolve(key);
+                byte[] compressedImageBytes = Files.readAllBytes(entryPath);
+                log.debug("Compressed image cache disk hit, key = {}", key);
+                Files.setLastModifiedTime(entryPath, FileTime.from(Instant.now()));
+                putInHeap(key, compressedImageBytes.clone());
+                return Optional.of(compressedImageBytes);
+            } catch (NoSuchFileException e) {
+                log.debug("Compressed image cache miss, key = {}", key);
+            } catch (IOException e) {
+                log.warn("Unable to read compressed image cache entry {}. Details: {}", key, e.getMessage());
+            }
+
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Stores a compressed image in the cache.
+     * @param key                  The cache key.
+     * @param compressedImageBytes The compressed image data.
+     */
+    public void put(String key, byte[] compressedImageBytes) {
+        if (!cacheProperties.isEnabled()) {
+            return;
+        }
+
+        putInHeap(key, compressedImageBytes.clone());
+        if (diskDirectory != null) {
+            putOnDisk(key, compressedImageBytes);
+        }
+
+    }
+
+    /**
+     * Stores a compressed image in the heap tier, evicting the least recently used
+     * entries beyond the heap size limit.
+     * @param key                  The cache key.
+     * @param compressedImageBytes The compressed image data owned by the cache.
+     */
+    private void putInHeap(String key, byte[] compressedImageBytes) {
+        long heapMaxSizeInBytes = cacheProperties.getHeapMaxSize().toBytes();
+        if (compressedImageBytes.length > heapMaxSizeInBytes) {
+            return;
+        }
+
+        synchronized (heapEntries) {
+            byte[] previousEntry = heapEntries.put(key, compressedImageBytes);
+            heapSizeInBytes += compressedImageBytes.length - (previousEntry != null ? previousEntry.length : 0);
+
+            Iterator<byte[]> entryIterator = heapEntries.values().iterator();
+            while (heapSizeInBytes > heapMaxSizeInBytes && entryIterator.hasNext()) {
+                heapSizeInBytes -= entryIterator.next().length;
+                entryIterator.remove();
+            }
+
+        }
+
+    }
+
+    /**
+     * Stores a compressed image in the disk tier, evicting the least recently used
+     * files beyond the disk size limit.
+     * @param key                  The cache key.
+     * @param compressedImageBytes The compressed image data.
+     */
+    private void putOnDisk(String key, byte[] compressedImageBytes) {
+        Path entryPath = diskDirectory.resolve(key);
+        if (Files.exists(entryPath)) {
+            return;
+        }
+
+        try {
+            Path temporaryPath = Files.createTempFile(diskDirectory, key, ".tmp");
+            Files.write(temporaryPath, compressedImageBytes);
+            Files.move(temporaryPath, entryPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Unable to write compressed image cache entry {}. Details: {}", key, e.getMessage());
+            return;
+        }
+
+        if (diskSizeInBytes.addAndGet(compressedImageBytes.length) > cacheProperties.getDiskMaxSize().toBytes()) {
+            evictFromDisk();
+        }
+
+    }
+
+    /**
+     * Deletes the least recently used files of the disk tier, i.e. the ones with
+     * the oldest modification time, until it is back within its size limit.
+     */
+    private synchronized void evictFromDisk() {
+        long diskMaxSizeInBytes = cacheProperties.getDiskMaxSize().toBytes();
+        try (Stream<Path> entryPaths = Files.list(diskDirectory)) {
+            List<Path> sortedEntryPaths = entryPaths.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparingLong(this::lastModifiedMillis)).toList();
+            for (Path entryPath : sortedEntryPaths) {
+                if (diskSizeInBytes.get() <= diskMaxSizeInBytes) {
+                    break;
+                }
+
+                long entrySize = Files.size(entryPath);
+                if (Files.deleteIfExists(entryPath)) {
+                    diskSizeInBytes.addAndGet(-entrySize);
+                }
+
+            }
+
+        } catch (IOException e) {
+            log.warn("Unable to evict compressed image cache entries. Details: {}", e.getMessage());
+        }
+
+    }
+
+    /**
+     * Creates the disk tier directory and computes its current size.
+     * @return The disk tier directory, or null if the disk tier is disabled or
+     *         unavailable.
+     */
+    private Path initializeDiskDirectory() {
+        if (!cacheProperties.isEnabled() || !cacheProperties.isDiskEnabled()) {
+            return null;
+        }
+
+        Path directory = Paths.get(cacheProperties.getDiskDirectory());
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> entryPaths = Files.list(directory)) {
+                diskSizeInBytes.set(entryPaths.filter(Files::isRegularFile).mapToLong(this::sizeOf).sum());
+            }
+
+            log.info("Compressed image disk cache initialized, directory = {}, size = {} bytes", directory,
+                    diskSizeInBytes.get());
+            return directory;
+        } catch (IOException e) {
+            log.warn("Compressed image disk cache disabled, directory {} is unavailable. Details: {}", directory,
+                    e.getMessage());
+            return null;
+        }
+
+    }
+
+    /**
+     * Builds a fingerprint of the compression quality settings, so that changing
+     * them invalidates the entries persisted on disk.
+     * @return The quality fingerprint.
+     */
+    private String qualityFingerprint() {
+        return Integer.toHexString(Objects.hash(qualityProperties.getMax(), qualityProperties.getMin(),
+                qualityProperties.getStep(), perceptualProperties.getMaxQuality(),
+                perceptualProperties.getSearchIterations(), perceptualProperties.getAnalysisSize()));
+    }
+
+    /**
+     * Retrieves the last modified time of a file, or 0 if it cannot be read.
+     * @param  path The path of the file.
+     * @return      The last modified time in milliseconds.
+     */
+    private long lastModifiedMillis(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+
+    }
+
+    /**
+     * Retrieves the size of a file, or 0 if it cannot be read.
+     * @param  path The path of the file.
+     * @return      The size of the file in bytes.
+     */
+    private long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0L;
+        }
+
+    }
+}
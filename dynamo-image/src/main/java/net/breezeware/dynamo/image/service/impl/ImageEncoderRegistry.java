@@ -0,0 +1,213 @@
+package net.breezeware.dynamo.image.service.impl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import net.breezeware.dynamo.image.config.properties.ImageProperties;
+import net.breezeware.dynamo.image.exception.DynamoImageException;
+import net.breezeware.dynamo.image.service.api.ImageEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of the available {@link ImageEncoder} instances. Encoders registered
+ * as Spring beans are used first, otherwise an {@link ImageIoImageEncoder} is
+ * created for any format with an ImageIO writer on the classpath.
+ */
+@Slf4j
+@Component
+public class ImageEncoderRegistry {
+
+    private final ImageProperties imageProperties;
+
+    private final List<ImageEncoder> customImageEncoders;
+
+    /**
+     * Encoders of the supported formats. Unsupported formats are not cached, so
+     * arbitrary format names cannot grow the map.
+     */
+    private final Map<String, ImageEncoder> imageEncoders = new ConcurrentHashMap<>();
+
+    /**
+     * Builds the {@link ImageEncoderRegistry}.
+     * @param imageProperties image module properties.
+     * @param imageEncoders   custom image encoders registered as beans.
+     */
+    public ImageEncoderRegistry(ImageProperties imageProperties, ObjectProvider<ImageEncoder> imageEncoders) {
+        this.imageProperties = imageProperties;
+        this.customImageEncoders = imageEncoders.orderedStream().toList();
+        log.info("Registered custom image encoders = {}",
+                customImageEncoders.stream().map(ImageEncoder::getFormatName).toList());
+        List<String> unsupportedPreferredFormats = imageProperties.getNegotiation().getPreferredFormats().stream()
+                .filter(preferredFormat -> findEncoder(preferredFormat).isEmpty()).toList();
+        if (!unsupportedPreferredFormats.isEmpty()) {
+            log.warn("No image encoder available for the preferred formats {}, they are skipped during format "
+                    + "negotiation", unsupportedPreferredFormats);
+        }
+
+    }
+
+    /**
+     * Finds the encoder for the given format.
+     * @param  formatName The informal name of the image format.
+     * @return            The {@link ImageEncoder} if the format is supported.
+     */
+    public Optional<ImageEncoder> findEncoder(String formatName) {
+        return Optional.ofNullable(imageEncoders.computeIfAbsent(formatName.toLowerCase(Locale.ROOT),
+                lowerCaseFormatName -> createEncoder(lowerCaseFormatName).orElse(null)));
+    }
+
+    /**
+     * Retrieves the encoder for the given format.
+     * @param  formatName           The informal name of the image format.
+     * @return                      The {@link ImageEncoder} for the format.
+     * @throws DynamoImageException If no encoder is available for the format.
+     */
+    public ImageEncoder retrieveEncoder(String formatName) throws DynamoImageException {
+        Optional<ImageEncoder> imageEncoder = findEncoder(formatName);
+        if (imageEncoder.isEmpty()) {
+            String errorMessage = "No image encoder available for the format '%s'".formatted(formatName);
+            log.error(errorMessage);
+            throw new DynamoImageException(errorMessage);
+        }
+
+        return imageEncoder.get();
+    }
+
+    /**
+     * Picks, among the configured preferred formats that have an encoder and are
+     * acceptable according to the given HTTP {@code Accept} header, the one with
+     * the smallest expected output, i.e. the lowest
+     * {@link ImageEncoder#getEfficiencyRank() efficiency rank}. Formats of equal
+     * rank are picked in the configured order. Falls back to the default
+     * compression format when no preferred format is acceptable.
+     * @param  acceptHeader The value of the HTTP {@code Accept} header, may be
+     *                      null.
+     * @return              The negotiated format name.
+     */
+    public String negotiateFormat(String acceptHeader) {
+        log.debug("Entering negotiateFormat(), acceptHeader = {}", acceptHeader);
+
+        String defaultFormat = imageProperties.getCompression().getFormat();
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            log.debug("Leaving negotiateFormat(), no accept header, format = {}", defaultFormat);
+            return defaultFormat;
+        }
+
+        Map<String, Float> acceptedMediaTypes = parseAcceptHeader(acceptHeader);
+        String negotiatedFormat = null;
+        int negotiatedEfficiencyRank = Integer.MAX_VALUE;
+        for (String preferredFormat : imageProperties.getNegotiation().getPreferredFormats()) {
+            Optional<ImageEncoder> imageEncoder = findEncoder(preferredFormat);
+            if (imageEncoder.isPresent() && imageEncoder.get().getEfficiencyRank() < negotiatedEfficiencyRank
+                    && resolveQualityFactor(acceptedMediaTypes,
+                            imageEncoder.get().getMimeType().toLowerCase(Locale.ROOT)) > 0) {
+                negotiatedFormat = preferredFormat;
+                negotiatedEfficiencyRank = imageEncoder.get().getEfficiencyRank();
+            }
+
+        }
+
+        if (negotiatedFormat == null) {
+            log.debug("Leaving negotiateFormat(), no acceptable preferred format, format = {}", defaultFormat);
+            return defaultFormat;
+        }
+
+        log.debug("Leaving negotiateFormat(), format = {}", negotiatedFormat);
+        return negotiatedFormat;
+    }
+
+    /**
+     * Creates the encoder for the given format, preferring custom encoders over
+     * ImageIO based ones.
+     * @param  formatName The lower-cased informal name of the image format.
+     * @return            The {@link ImageEncoder} if the format is supported.
+     */
+    private Optional<ImageEncoder> createEncoder(String formatName) {
+        for (ImageEncoder customImageEncoder : customImageEncoders) {
+            if (customImageEncoder.getFormatName().equalsIgnoreCase(formatName)) {
+                return Optional.of(customImageEncoder);
+            }
+
+        }
+
+        if (!ImageIO.getImageWritersByFormatName(formatName).hasNext()) {
+            log.debug("No image writer available for the format {}", formatName);
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(
+                    new ImageIoImageEncoder(formatName, imageProperties.getProcessing().getParallelism()));
+        } catch (DynamoImageException e) {
+            return Optional.empty();
+        }
+
+    }
+
+    /**
+     * Parses an HTTP {@code Accept} header into media ranges and their quality
+     * factors.
+     * @param  acceptHeader The value of the HTTP {@code Accept} header.
+     * @return              The lower-cased media ranges mapped to their quality
+     *                      factor.
+     */
+    private Map<String, Float> parseAcceptHeader(String acceptHeader) {
+        Map<String, Float> acceptedMediaTypes = new HashMap<>();
+        for (String mediaRange : acceptHeader.split(",")) {
+            String[] mediaRangeParts = mediaRange.split(";");
+            String mediaType = mediaRangeParts[0].trim().toLowerCase(Locale.ROOT);
+            if (mediaType.isEmpty()) {
+                continue;
+            }
+
+            float qualityFactor = 1.0f;
+            for (int index = 1; index < mediaRangeParts.length; index++) {
+                String parameter = mediaRangeParts[index].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        qualityFactor = Float.parseFloat(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        qualityFactor = 0.0f;
+                    }
+
+                }
+
+            }
+
+            acceptedMediaTypes.put(mediaType, qualityFactor);
+        }
+
+        return acceptedMediaTypes;
+    }
+
+    /**
+     * Resolves the quality factor of a MIME type from the most specific matching
+     * media range.
+     * @param  acceptedMediaTypes The media ranges mapped to their quality factor.
+     * @param  mimeType           The lower-cased MIME type, e.g.
+     *                            {@code image/webp}.
+     * @return                    The quality factor, or 0 if not acceptable.
+     */
+    private float resolveQualityFactor(Map<String, Float> acceptedMediaTypes, String mimeType) {
+        if (acceptedMediaTypes.containsKey(mimeType)) {
+            return acceptedMediaTypes.get(mimeType);
+        }
+
+        String typeWildcard = mimeType.substring(0, mimeType.indexOf('/') + 1) + "*";
+        if (acceptedMediaTypes.containsKey(typeWildcard)) {
+            return acceptedMediaTypes.get(typeWildcard);
+        }
+
+        return acceptedMediaTypes.getOrDefault("*/*", 0.0f);
+    }
+}
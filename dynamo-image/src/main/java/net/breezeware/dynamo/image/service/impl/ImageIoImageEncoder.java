@@ -0,0 +1,150 @@
+package net.breezeware.dynamo.image.service.impl;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.spi.ImageWriterSpi;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import net.breezeware.dynamo.image.exception.DynamoImageException;
+import net.breezeware.dynamo.image.service.api.ImageEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link ImageEncoder} backed by the ImageIO writer registered for a format.
+ * Any ImageIO writer plugin on the classpath (e.g. a WebP writer) is supported.
+ * Image writers are not thread-safe, so each encoding borrows a writer and its
+ * write parameters from a bounded pool owned by the encoder. Writers beyond the
+ * pool capacity are disposed once used.
+ */
+@Slf4j
+public class ImageIoImageEncoder implements ImageEncoder {
+
+    private final String formatName;
+
+    private final String mimeType;
+
+    private final ImageWriterSpi imageWriterSpi;
+
+    private final BlockingQueue<WriterContext> idleWriterContexts;
+
+    /**
+     * Builds an {@link ImageIoImageEncoder} for the given format, pooling up to one
+     * idle writer per available processor.
+     * @param  formatName           The informal name of the image format.
+     * @throws DynamoImageException If no image writer is available for the format.
+     */
+    public ImageIoImageEncoder(String formatName) throws DynamoImageException {
+        this(formatName, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Builds an {@link ImageIoImageEncoder} for the given format.
+     * @param  formatName           The informal name of the image format.
+     * @param  maxIdleWriters       The maximum number of idle writers kept for
+     *                              reuse, typically the number of threads encoding
+     *                              images concurrently.
+     * @throws DynamoImageException If no image writer is available for the format.
+     */
+    public ImageIoImageEncoder(String formatName, int maxIdleWriters) throws DynamoImageException {
+        Iterator<ImageWriter> availableImageWriters = ImageIO.getImageWritersByFormatName(formatName);
+        if (!availableImageWriters.hasNext()) {
+            String errorMessage = "No image writer available for the format '%s'".formatted(formatName);
+            log.error(errorMessage);
+            throw new DynamoImageException(errorMessage);
+        }
+
+        this.imageWriterSpi = availableImageWriters.next().getOriginatingProvider();
+        String[] mimeTypes = imageWriterSpi.getMIMETypes();
+
+        this.formatName = formatName;
+        this.mimeType = mimeTypes != null && mimeTypes.length > 0 ? mimeTypes[0] : "image/" + formatName;
+        this.idleWriterContexts = new ArrayBlockingQueue<>(Math.max(1, maxIdleWriters));
+    }
+
+    @Override
+    public String getFormatName() {
+        return formatName;
+    }
+
+    @Override
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    @Override
+    public void encode(BufferedImage image, float compressionQuality, OutputStream outputStream)
+            throws DynamoImageException {
+        WriterContext context = idleWriterContexts.poll();
+        if (context == null) {
+            context = createWriterContext();
+        }
+
+        ImageWriter imageWriter = context.imageWriter();
+        ImageWriteParam writeParam = context.writeParam();
+
+        if (writeParam.canWriteCompressed()) {
+            writeParam.setCompressionQuality(compressionQuality);
+        }
+
+        try (ImageOutputStream imageOutputStream = new MemoryCacheImageOutputStream(outputStream)) {
+            imageWriter.setOutput(imageOutputStream);
+            imageWriter.write(null, new IIOImage(image, null, null), writeParam);
+        } catch (IOException e) {
+            log.error("Error occurred while encoding image as {}. Details: {}", formatName, e.getMessage(), e);
+            throw new DynamoImageException(e.getMessage(), e);
+        } finally {
+            imageWriter.setOutput(null);
+            if (!idleWriterContexts.offer(context)) {
+                imageWriter.dispose();
+            }
+
+        }
+
+    }
+
+    /**
+     * Creates a new image writer and its explicit-compression write parameters.
+     * @return                      The new {@link WriterContext}.
+     * @throws DynamoImageException If the image writer cannot be created.
+     */
+    private WriterContext createWriterContext() throws DynamoImageException {
+        try {
+            ImageWriter imageWriter = imageWriterSpi.createWriterInstance();
+            ImageWriteParam writeParam = imageWriter.getDefaultWriteParam();
+            if (writeParam.canWriteCompressed()) {
+                writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                String[] compressionTypes = writeParam.getCompressionTypes();
+                if (writeParam.getCompressionType() == null && compressionTypes != null
+                        && compressionTypes.length > 0) {
+                    writeParam.setCompressionType(compressionTypes[0]);
+                }
+
+            }
+
+            return new WriterContext(imageWriter, writeParam);
+        } catch (IOException e) {
+            log.error("Error occurred while creating image writer for {}. Details: {}", formatName, e.getMessage(), e);
+            throw new DynamoImageException(e.getMessage(), e);
+        }
+
+    }
+
+    /**
+     * Pooled image writer along with its write parameters.
+     * @param imageWriter the image writer.
+     * @param writeParam  the write parameters of the image writer.
+     */
+    private record WriterContext(ImageWriter imageWriter, ImageWriteParam writeParam) {
+    }
+}
@@ -0,0 +1,148 @@
+package net.breezeware.dynamo.image.service.impl;
+
+import java.awt.Dimension;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.stereotype.Component;
+
+import net.breezeware.dynamo.image.config.properties.BudgetProperties;
+import net.breezeware.dynamo.image.config.properties.ImageProperties;
+import net.breezeware.dynamo.image.exception.DynamoImageException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Guards the heap used by decoded images. Each image is limited to a maximum
+ * number of decoded pixels, and the pixels of all images being processed
+ * concurrently share a global budget.
+ */
+@Slf4j
+@Component
+public class ImagePixelBudget {
+
+    /**
+     * Number of pixels represented by a single semaphore permit.
+     */
+    private static final long PIXELS_PER_PERMIT = 1_000L;
+
+    private final BudgetProperties budgetProperties;
+
+    private final int totalPermits;
+
+    private final Semaphore pixelPermits;
+
+    /**
+     * Builds the {@link ImagePixelBudget}.
+     * @param imageProperties image module properties.
+     */
+    public ImagePixelBudget(ImageProperties imageProperties) {
+        this.budgetProperties = imageProperties.getBudget();
+        this.totalPermits = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(1L, budgetProperties.getMaxConcurrentPixels() / PIXELS_PER_PERMIT));
+        this.pixelPermits = new Semaphore(totalPermits, true);
+    }
+
+    /**
+     * Resolves the source subsampling factor to decode an image with, based on the
+     * dimension probed from its header. Images within the per-image pixel budget
+     * are decoded at full resolution. Larger images are decoded at a reduced
+     * resolution, as long as the decoded image still covers the required
+     * dimension.
+     * @param  sourceDimension      The dimension of the encoded image.
+     * @param  requiredDimension    The smallest dimension the decoded image must
+     *                              cover, or the source dimension if the image is
+     *                              needed at full resolution.
+     * @return                      The subsampling factor, 1 for full resolution.
+     * @throws DynamoImageException If the image cannot be decoded within the
+     *                              per-image pixel budget.
+     */
+    public int resolveSubsampling(Dimension sourceDimension, Dimension requiredDimension)
+            throws DynamoImageException {
+        long sourcePixels = (long) sourceDimension.width * sourceDimension.height;
+        long maxPixelsPerImage = budgetProperties.getMaxPixelsPerImage();
+        if (sourcePixels <= maxPixelsPerImage) {
+            return 1;
+        }
+
+        int requiredSubsampling = (int) Math.ceil(Math.sqrt((double) sourcePixels / maxPixelsPerImage));
+        int allowedSubsampling = Math.min(sourceDimension.width / Math.max(1, requiredDimension.width),
+                sourceDimension.height / Math.max(1, requiredDimension.height));
+
+        if (requiredSubsampling > allowedSubsampling) {
+            String errorMessage = """
+                    Image of %sx%s pixels exceeds the maximum of %s pixels per image and cannot be decoded at a \
+                    reduced resolution covering %sx%s pixels\
+                    """.formatted(sourceDimension.width, sourceDimension.height, maxPixelsPerImage,
+                    requiredDimension.width, requiredDimension.height);
+            log.error(errorMessage);
+            throw new DynamoImageException(errorMessage);
+        }
+
+        log.debug("Decoding image of {}x{} pixels with subsampling factor {}", sourceDimension.width,
+                sourceDimension.height, requiredSubsampling);
+        return requiredSubsampling;
+    }
+
+    /**
+     * Reserves budget for an image of the given number of decoded pixels, waiting
+     * up to the configured timeout for other images to release their budget. An
+     * image larger than the whole global budget waits for the entire budget.
+     * @param  decodedPixels        The number of decoded pixels of the image.
+     * @return                      The {@link Reservation} to be closed once the
+     *                              image has been processed.
+     * @throws DynamoImageException If the budget cannot be reserved in time.
+     */
+    public Reservation reserve(long decodedPixels) throws DynamoImageException {
+        int permits = (int) Math.min(totalPermits,
+                Math.max(1L, (decodedPixels + PIXELS_PER_PERMIT - 1) / PIXELS_PER_PERMIT));
+        long timeoutInMillis = budgetProperties.getAcquireTimeout().toMillis();
+
+        try {
+            if (!pixelPermits.tryAcquire(permits, timeoutInMillis, TimeUnit.MILLISECONDS)) {
+                String errorMessage = """
+                        Image processing memory budget exhausted. Unable to reserve %s pixels within %s ms\
+                        """.formatted(decodedPixels, timeoutInMillis);
+                log.error(errorMessage);
+                throw new DynamoImageException(errorMessage);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DynamoImageException("Interrupted while reserving image processing memory budget", e);
+        }
+
+        return new Reservation(permits);
+    }
+
+    /**
+     * Retrieves the number of pixels currently available in the global budget.
+     * @return the available pixels.
+     */
+    public long getAvailablePixels() {
+        return pixelPermits.availablePermits() * PIXELS_PER_PERMIT;
+    }
+
+    /**
+     * Budget reserved for a single image, released when closed.
+     */
+    public final class Reservation implements AutoCloseable {
+
+        private final int permits;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(int permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                pixelPermits.release(permits);
+            }
+
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package net.breezeware.dynamo.image.service.impl;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import net.breezeware.dynamo.image.config.properties.ImageProperties;
+import net.breezeware.dynamo.image.config.properties.ProcessingProperties;
+import net.breezeware.dynamo.image.entity.ImageProcessingMetrics;
+import net.breezeware.dynamo.image.exception.DynamoImageException;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the CPU bound image processing on a dedicated, bounded pool of worker
+ * threads, isolating it from the request threads of the application. Requests
+ * beyond the queue capacity are rejected or run on the calling thread once a
+ * thread of the processing budget is free, and requests not completed within
+ * the processing timeout are abandoned. Subtasks
+ * forked by the processing, such as variant encodings, share the thread budget
+ * of the processing threads.
+ */
+@Slf4j
+@Component
+public class ImageProcessingExecutor {
+
+    private final ProcessingProperties processingProperties;
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    /**
+     * Permits of the threads processing images, held by the processing tasks
+     * running on the pool and by their forked subtasks.
+     */
+    private final Semaphore threadPermits;
+
+    private final LongAdder completedCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final LongAdder timedOutCount = new LongAdder();
+
+    private final LongAdder startedCount = new LongAdder();
+
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+
+    private final LongAdder totalProcessingNanos = new LongAdder();
+
+    private final AtomicLong maxProcessingNanos = new AtomicLong();
+
+    /**
+     * Builds the {@link ImageProcessingExecutor}.
+     * @param imageProperties image module properties.
+     */
+    public ImageProcessingExecutor(ImageProperties imageProperties) {
+        this.processingProperties = imageProperties.getProcessing();
+        log.debug("Entering ImageProcessingExecutor(), parallelism = {}, queueCapacity = {}, timeout = {}",
+                processingProperties.getParallelism(), processingProperties.getQueueCapacity(),
+                processingProperties.getTimeout());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "dynamo-image-processing-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        this.threadPermits = new Semaphore(processingProperties.getParallelism());
+        this.threadPoolExecutor = new ThreadPoolExecutor(processingProperties.getParallelism(),
+                processingProperties.getParallelism(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(processingProperties.getQueueCapacity()), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+
+        log.debug("Leaving ImageProcessingExecutor()");
+    }
+
+    /**
+     * Runs an image processing task on the processing executor and waits for its
+     * result.
+     * @param  <R>                  The type of the task result.
+     * @param  imageTask            The image processing task.
+     * @return                      The task result.
+     * @throws DynamoImageException If the executor is saturated, the task does not
+     *                              complete within the processing timeout or the
+     *                              task fails.
+     */
+    public <R> R execute(ImageTask<R> imageTask) throws DynamoImageException {
+        long submittedAt = System.nanoTime();
+        Callable<R> measuredTask = () -> {
+            threadPermits.acquire();
+            try {
+                return runMeasured(imageTask, submittedAt);
+            } finally {
+                threadPermits.release();
+            }
+
+        };
+
+        Future<R> future;
+        try {
+            future = threadPoolExecutor.submit(measuredTask);
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            if (processingProperties.getRejectionPolicy() == ProcessingProperties.RejectionPolicy.CALLER_RUNS
+                    && !threadPoolExecutor.isShutdown()) {
+                log.warn("Image processing queue is full, processing image on the calling thread");
+                return runOnCallingThread(imageTask, submittedAt);
+            }
+
+            String errorMessage = """
+                    Image processing capacity exceeded. %d images are being processed and %d are queued.\
+                    """.formatted(threadPoolExecutor.getActiveCount(), threadPoolExecutor.getQueue().size());
+            log.error(errorMessage);
+            throw new DynamoImageException(errorMessage);
+        }
+
+        Duration timeout = processingProperties.getTimeout();
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOutCount.increment();
+            String errorMessage = "Image processing did not complete within %s".formatted(timeout);
+            log.error(errorMessage);
+            throw new DynamoImageException(errorMessage);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new DynamoImageException("Interrupted while waiting for image processing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DynamoImageException dynamoImageException) {
+                throw dynamoImageException;
+            }
+
+            log.error("Error occurred while processing image. Details: {}", e.getCause().getMessage(), e.getCause());
+            throw new DynamoImageException(e.getCause().getMessage(), e.getCause());
+        }
+
+    }
+
+    /**
+     * Runs a subtask of an image processing task, such as the encoding of an
+     * image variant, on the given executor when a thread of the processing
+     * budget is free, and on the calling thread otherwise. The processing tasks
+     * and their subtasks together use at most
+     * {@code dynamo.image.processing.parallelism} threads.
+     * @param  <R>       The type of the subtask result.
+     * @param  imageTask The image processing subtask.
+     * @param  executor  The executor running the subtask.
+     * @return           The future of the subtask result.
+     */
+    public <R> Future<R> fork(ImageTask<R> imageTask, ExecutorService executor) {
+        if (threadPermits.tryAcquire()) {
+            try {
+                return executor.submit(() -> {
+                    try {
+                        return imageTask.call();
+                    } finally {
+                        threadPermits.release();
+                    }
+
+                });
+            } catch (RejectedExecutionException e) {
+                threadPermits.release();
+            }
+
+        }
+
+        FutureTask<R> futureTask = new FutureTask<>(imageTask::call);
+        futureTask.run();
+        return futureTask;
+    }
+
+    /**
+     * Retrieves a snapshot of the processing executor metrics.
+     * @return {@link ImageProcessingMetrics} of the processing executor.
+     */
+    public ImageProcessingMetrics getMetrics() {
+        long started = startedCount.sum();
+        long finished = completedCount.sum() + failedCount.sum();
+        return ImageProcessingMetrics.builder().queueDepth(threadPoolExecutor.getQueue().size())
+                .queueCapacity(processingProperties.getQueueCapacity())
+                .activeCount(threadPoolExecutor.getActiveCount()).completedCount(completedCount.sum())
+                .failedCount(failedCount.sum()).rejectedCount(rejectedCount.sum()).timedOutCount(timedOutCount.sum())
+                .averageQueueWaitTime(Duration.ofNanos(started == 0 ? 0 : totalQueueWaitNanos.sum() / started))
+                .averageProcessingTime(Duration.ofNanos(finished == 0 ? 0 : totalProcessingNanos.sum() / finished))
+                .maxProcessingTime(Duration.ofNanos(maxProcessingNanos.get())).build();
+    }
+
+    /**
+     * Stops accepting image processing tasks and interrupts the running ones.
+     */
+    @PreDestroy
+    public void shutdown() {
+        log.debug("Entering shutdown()");
+        threadPoolExecutor.shutdownNow();
+        log.debug("Leaving shutdown()");
+    }
+
+    /**
+     * Runs an image processing task on the calling thread once a thread of the
+     * processing budget is free, waiting at most the processing timeout for it.
+     * @param  <R>                  The type of the task result.
+     * @param  imageTask            The image processing task.
+     * @param  submittedAt          The {@link System#nanoTime()} the task was
+     *                              submitted at.
+     * @return                      The task result.
+     * @throws DynamoImageException If no thread of the processing budget becomes
+     *                              free within the processing timeout or the task
+     *                              fails.
+     */
+    private <R> R runOnCallingThread(ImageTask<R> imageTask, long submittedAt) throws DynamoImageException {
+        Duration timeout = processingProperties.getTimeout();
+        try {
+            if (!threadPermits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                timedOutCount.increment();
+                String errorMessage = "No image processing thread became available within %s".formatted(timeout);
+                log.error(errorMessage);
+                throw new DynamoImageException(errorMessage);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DynamoImageException("Interrupted while waiting for an image processing thread", e);
+        }
+
+        try {
+            return runMeasured(imageTask, submittedAt);
+        } finally {
+            threadPermits.release();
+        }
+
+    }
+
+    /**
+     * Runs an image processing task, recording its queue wait and processing time.
+     * @param  <R>                  The type of the task result.
+     * @param  imageTask            The image processing task.
+     * @param  submittedAt          The {@link System#nanoTime()} the task was
+     *                              submitted at.
+     * @return                      The task result.
+     * @throws DynamoImageException If the task fails.
+     */
+    private <R> R runMeasured(ImageTask<R> imageTask, long submittedAt) throws DynamoImageException {
+        long startedAt = System.nanoTime();
+        startedCount.increment();
+        totalQueueWaitNanos.add(startedAt - submittedAt);
+        boolean completed = false;
+        try {
+            R result = imageTask.call();
+            completed = true;
+            return result;
+        } finally {
+            long processingNanos = System.nanoTime() - startedAt;
+            totalProcessingNanos.add(processingNanos);
+            maxProcessingNanos.accumulateAndGet(processingNanos, Math::max);
+            if (completed) {
+                completedCount.increment();
+            } else {
+                failedCount.increment();
+            }
+
+        }
+
+    }
+
+    /**
+     * An image processing task.
+     * @param <R> The type of the task result.
+     */
+    @FunctionalInterface
+    public interface ImageTask<R> {
+
+        /**
+         * Runs the image processing task.
+         * @return                      The task result.
+         * @throws DynamoImageException If the task fails.
+         */
+        R call() throws DynamoImageException;
+    }
+}
@@ -1,23 +1,45 @@
 package net.breezeware.dynamo.image.service.impl;
 
+import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
 
 import javax.imageio.ImageIO;
-import javax.imageio.ImageWriteParam;
-import javax.imageio.ImageWriter;
-import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 
 import org.imgscalr.Scalr;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import net.breezeware.dynamo.image.config.properties.ImageProperties;
+import net.breezeware.dynamo.image.config.properties.PerceptualProperties;
+import net.breezeware.dynamo.image.config.properties.QualityProperties;
+import net.breezeware.dynamo.image.entity.ImageProcessingMetrics;
+import net.breezeware.dynamo.image.entity.ImageVariant;
+import net.breezeware.dynamo.image.entity.VariantSpec;
 import net.breezeware.dynamo.image.exception.DynamoImageException;
+import net.breezeware.dynamo.image.service.api.ImageEncoder;
 import net.breezeware.dynamo.image.service.api.ImageService;
+import net.breezeware.dynamo.image.utils.ImageQualityUtils;
+import net.breezeware.dynamo.image.utils.ImageQualityUtils.LumaPlane;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -25,17 +47,49 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class ImageServiceImpl implements ImageService {
 
-    @Value("${dynamo.image.compression.quality.max}")
-    private float maxCompressionQuality;
+    /**
+     * Number of rasters of the decoded image size held at the peak of the
+     * processing of an image: the decoded image and its resized or RGB converted
+     * working copy.
+     */
+    private static final int PEAK_RASTER_COPIES = 2;
+
+    private final ImageProperties imageProperties;
+
+    private final ImageEncoderRegistry imageEncoderRegistry;
+
+    private final ImagePixelBudget imagePixelBudget;
 
-    @Value("${dynamo.image.compression.quality.min}")
-    private float minCompressionQuality;
+    private final ImageCompressionCache imageCompressionCache;
 
-    @Value("${dynamo.image.compression.quality.step}")
-    private float compressionQualityStep;
+    private final ExecutorService imageVariantExecutor;
 
-    @Value("${dynamo.image.compression.format}")
-    private String compressionFormat;
+    private final ImageProcessingExecutor imageProcessingExecutor;
+
+    /**
+     * Builds the {@link ImageServiceImpl}.
+     * @param imageProperties         image module properties.
+     * @param imageEncoderRegistry    registry of the available image encoders.
+     * @param imagePixelBudget        budget guarding the heap used by decoded
+     *                                images.
+     * @param imageCompressionCache   cache of compressed images.
+     * @param imageVariantExecutor    executor used to encode image variants in
+     *                                parallel, within the thread budget of the
+     *                                processing executor.
+     * @param imageProcessingExecutor bounded executor running the image
+     *                                processing.
+     */
+    public ImageServiceImpl(ImageProperties imageProperties, ImageEncoderRegistry imageEncoderRegistry,
+            ImagePixelBudget imagePixelBudget, ImageCompressionCache imageCompressionCache,
+            @Qualifier("imageVariantExecutor") ExecutorService imageVariantExecutor,
+            ImageProcessingExecutor imageProcessingExecutor) {
+        this.imageProperties = imageProperties;
+        this.imageEncoderRegistry = imageEncoderRegistry;
+        this.imagePixelBudget = imagePixelBudget;
+        this.imageCompressionCache = imageCompressionCache;
+        this.imageVariantExecutor = imageVariantExecutor;
+        this.imageProcessingExecutor = imageProcessingExecutor;
+    }
 
     @Override
     public byte[] compressImageWithTargetSize(byte[] inputImageBytes, int targetSizeInBytes)
@@ -44,7 +98,7 @@ public class ImageServiceImpl implements ImageService {
         log.debug("Entering compressImageWithTargetSize(), inputImageBytes length = {}, targetSizeInBytes = {}",
                 inputImageBytes.length, targetSizeInBytes);
 
-        byte[] compressedImageBytes = compressImage(inputImageBytes, targetSizeInBytes, 0, 0);
+        byte[] compressedImageBytes = compressImage(inputImageBytes, targetSizeInBytes, 0, 0, defaultFormat());
 
         log.debug("Leaving compressImageWithTargetSize()");
 
@@ -61,7 +115,8 @@ public class ImageServiceImpl implements ImageService {
                 targetSizeInBytes = {}, targetWidthInPixels = {}\
                 """, inputImageBytes.length, targetSizeInBytes, targetWidthInPixels);
 
-        byte[] compressedImageBytes = compressImage(inputImageBytes, targetSizeInBytes, targetWidthInPixels, 0);
+        byte[] compressedImageBytes = compressImage(inputImageBytes, targetSizeInBytes, targetWidthInPixels, 0,
+                defaultFormat());
 
         log.debug("Leaving compressImageWithTargetSizeAndWidth()");
 
@@ -77,13 +132,256 @@ public class ImageServiceImpl implements ImageService {
                 targetSizeInBytes = {}, targetHeightInPixels = {}\
                 """, inputImageBytes.length, targetSizeInBytes, targetHeightInPixels);
 
-        byte[] compressedImageBytes = compressImage(inputImageBytes, targetSizeInBytes, 0, targetHeightInPixels);
+        byte[] compressedImageBytes = compressImage(inputImageBytes, targetSizeInBytes, 0, targetHeightInPixels,
+                defaultFormat());
 
         log.debug("Leaving compressImageWithTargetSizeAndHeight()");
 
         return compressedImageBytes;
     }
 
+    @Override
+    public byte[] compressImageWithTargetSizeAndFormat(byte[] inputImageBytes, int targetSizeInBytes,
+            String formatName) throws DynamoImageException {
+
+        log.debug("""
+                Entering compressImageWithTargetSizeAndFormat(), inputImageBytes length = {}, \
+                targetSizeInBytes = {}, formatName = {}\
+                """, inputImageBytes.length, targetSizeInBytes, formatName);
+
+        byte[] compressedImageBytes = compressImage(inputImageBytes, targetSizeInBytes, 0, 0, formatName);
+
+        log.debug("Leaving compressImageWithTargetSizeAndFormat()");
+
+        return compressedImageBytes;
+    }
+
+    @Override
+    public byte[] compressImageWithPerceptualQuality(byte[] inputImageBytes, double minimumSsim)
+            throws DynamoImageException {
+
+        log.debug("Entering compressImageWithPerceptualQuality(), inputImageBytes length = {}, minimumSsim = {}",
+                inputImageBytes.length, minimumSsim);
+
+        byte[] compressedImageBytes = compressImageWithPerceptualQuality(inputImageBytes, minimumSsim, 0);
+
+        log.debug("Leaving compressImageWithPerceptualQuality()");
+
+        return compressedImageBytes;
+    }
+
+    @Override
+    public byte[] compressImageWithPerceptualQualityAndWidth(byte[] inputImageBytes, double minimumSsim,
+            int targetWidthInPixels) throws DynamoImageException {
+
+        log.debug("""
+                Entering compressImageWithPerceptualQualityAndWidth(), inputImageBytes length = {}, \
+                minimumSsim = {}, targetWidthInPixels = {}\
+                """, inputImageBytes.length, minimumSsim, targetWidthInPixels);
+
+        byte[] compressedImageBytes =
+                compressImageWithPerceptualQuality(inputImageBytes, minimumSsim, targetWidthInPixels);
+
+        log.debug("Leaving compressImageWithPerceptualQualityAndWidth()");
+
+        return compressedImageBytes;
+    }
+
+    @Override
+    public void compressImageWithTargetSize(InputStream inputImageStream, int targetSizeInBytes,
+            OutputStream outputStream) throws DynamoImageException {
+
+        log.debug("Entering compressImageWithTargetSize(), targetSizeInBytes = {}", targetSizeInBytes);
+
+        compressImage(inputImageStream, targetSizeInBytes, 0, 0, outputStream);
+
+        log.debug("Leaving compressImageWithTargetSize()");
+    }
+
+    @Override
+    public void compressImageWithTargetSizeAndWidth(InputStream inputImageStream, int targetSizeInBytes,
+            int targetWidthInPixels, OutputStream outputStream) throws DynamoImageException {
+
+        log.debug("Entering compressImageWithTargetSizeAndWidth(), targetSizeInBytes = {}, targetWidthInPixels = {}",
+                targetSizeInBytes, targetWidthInPixels);
+
+        compressImage(inputImageStream, targetSizeInBytes, targetWidthInPixels, 0, outputStream);
+
+        log.debug("Leaving compressImageWithTargetSizeAndWidth()");
+    }
+
+    @Override
+    public void compressImageWithTargetSizeAndHeight(InputStream inputImageStream, int targetSizeInBytes,
+            int targetHeightInPixels, OutputStream outputStream) throws DynamoImageException {
+
+        log.debug("Entering compressImageWithTargetSizeAndHeight(), targetSizeInBytes = {}, targetHeightInPixels = {}",
+                targetSizeInBytes, targetHeightInPixels);
+
+        compressImage(inputImageStream, targetSizeInBytes, 0, targetHeightInPixels, outputStream);
+
+        log.debug("Leaving compressImageWithTargetSizeAndHeight()");
+    }
+
+    @Override
+    public String negotiateFormat(String acceptHeader) {
+        return imageEncoderRegistry.negotiateFormat(acceptHeader);
+    }
+
+    @Override
+    public ImageProcessingMetrics retrieveProcessingMetrics() {
+        return imageProcessingExecutor.getMetrics();
+    }
+
+    @Override
+    public List<ImageVariant> generateVariants(byte[] inputImageBytes, List<VariantSpec> variantSpecs)
+            throws DynamoImageException {
+
+        log.debug("Entering generateVariants(), inputImageBytes length = {}, variantSpecs = {}",
+                inputImageBytes.length, variantSpecs);
+
+        if (variantSpecs == null || variantSpecs.isEmpty()) {
+            String errorMessage = "Invalid input parameter: variantSpecs must contain at least one variant";
+            log.error(errorMessage);
+            throw new DynamoImageException(errorMessage);
+        }
+
+        List<ImageEncoder> variantEncoders = new ArrayList<>(variantSpecs.size());
+        for (VariantSpec variantSpec : variantSpecs) {
+            validateTargetSize(variantSpec.getTargetSizeInBytes());
+            variantEncoders.add(imageEncoderRegistry.retrieveEncoder(
+                    variantSpec.getFormatName() != null ? variantSpec.getFormatName() : defaultFormat()));
+        }
+
+        String sourceDigest = imageCompressionCache.digest(inputImageBytes);
+        List<ImageVariant> imageVariants = new ArrayList<>(Collections.nCopies(variantSpecs.size(), null));
+        List<Integer> missingIndexes = new ArrayList<>(variantSpecs.size());
+        List<String> missingCacheKeys = new ArrayList<>(variantSpecs.size());
+        for (int index = 0; index < variantSpecs.size(); index++) {
+            VariantSpec variantSpec = variantSpecs.get(index);
+            ImageEncoder imageEncoder = variantEncoders.get(index);
+            String cacheKey = imageCompressionCache.buildKey(sourceDigest, variantSpec.getTargetSizeInBytes(),
+                    variantSpec.getTargetWidthInPixels(), variantSpec.getTargetHeightInPixels(),
+                    imageEncoder.getFormatName());
+            // a cached variant whose header cannot be read is generated again
+            ImageVariant cachedImageVariant = imageCompressionCache.get(cacheKey)
+                    .map(cachedImageBytes -> buildImageVariant(variantSpec, imageEncoder, cachedImageBytes))
+                    .orElse(null);
+            if (cachedImageVariant != null) {
+                imageVariants.set(index, cachedImageVariant);
+            } else {
+                missingIndexes.add(index);
+                missingCacheKeys.add(cacheKey);
+            }
+
+        }
+
+        if (missingIndexes.isEmpty()) {
+            log.debug("Leaving generateVariants(), all variants retrieved from cache");
+            return imageVariants;
+        }
+
+        List<VariantSpec> missingVariantSpecs = missingIndexes.stream().map(variantSpecs::get).toList();
+        List<ImageEncoder> missingVariantEncoders = missingIndexes.stream().map(variantEncoders::get).toList();
+        try (ImageInputStream imageInputStream = createImageInputStream(inputImageBytes)) {
+            List<ImageVariant> generatedImageVariants = decodeImage(imageInputStream,
+                    sourceDimension -> resolveRequiredDimension(sourceDimension, missingVariantSpecs),
+                    inputImage -> generateVariants(inputImage, missingVariantSpecs, missingVariantEncoders));
+
+            for (int index = 0; index < generatedImageVariants.size(); index++) {
+                ImageVariant generatedImageVariant = generatedImageVariants.get(index);
+                imageVariants.set(missingIndexes.get(index), generatedImageVariant);
+                imageCompressionCache.put(missingCacheKeys.get(index), generatedImageVariant.getImageBytes());
+            }
+
+            log.debug("Leaving generateVariants(), generated {} of {} variants", generatedImageVariants.size(),
+                    imageVariants.size());
+
+            return imageVariants;
+        } catch (IOException e) {
+            log.error("Error occurred while generating image variants. Details: {}", e.getMessage(), e);
+            throw new DynamoImageException(e.getMessage(), e);
+        }
+
+    }
+
+    /**
+     * Generates the variants of a decoded image.
+     * @param  inputImage           The decoded input image.
+     * @param  variantSpecs         The specifications of the variants to generate.
+     * @param  variantEncoders      The encoders of the variants, in the order of
+     *                              the specifications.
+     * @return                      The generated variants, in the order of the
+     *                              given specifications.
+     * @throws DynamoImageException If an error occurs while generating a variant.
+     */
+    private List<ImageVariant> generateVariants(BufferedImage inputImage, List<VariantSpec> variantSpecs,
+            List<ImageEncoder> variantEncoders) throws DynamoImageException {
+
+        // Resize from the largest to the smallest variant, so that each variant is
+        // derived from the nearest larger image instead of the full-size source.
+        Dimension inputDimension = new Dimension(inputImage.getWidth(), inputImage.getHeight());
+        List<Dimension> targetDimensions = new ArrayList<>(variantSpecs.size());
+        for (VariantSpec variantSpec : variantSpecs) {
+            targetDimensions.add(resolveTargetDimension(inputDimension, variantSpec.getTargetWidthInPixels(),
+                    variantSpec.getTargetHeightInPixels()));
+        }
+
+        List<Integer> resizeOrder = new ArrayList<>(variantSpecs.size());
+        for (int index = 0; index < variantSpecs.size(); index++) {
+            resizeOrder.add(index);
+        }
+
+        resizeOrder.sort(Comparator.comparingLong((Integer index) -> (long) targetDimensions.get(index).width
+                * targetDimensions.get(index).height).reversed());
+
+        List<Future<ImageVariant>> variantFutures = new ArrayList<>(Collections.nCopies(variantSpecs.size(), null));
+        List<BufferedImage> resizedImages = new ArrayList<>(variantSpecs.size());
+
+        try {
+            for (int index : resizeOrder) {
+                Dimension targetDimension = targetDimensions.get(index);
+                BufferedImage baseImage = inputImage;
+                for (BufferedImage resizedImage : resizedImages) {
+                    if (resizedImage.getWidth() >= targetDimension.width
+                            && resizedImage.getHeight() >= targetDimension.height) {
+                        baseImage = resizedImage;
+                    }
+
+                }
+
+                BufferedImage variantImage = resizeImageToDimension(baseImage, targetDimension);
+                resizedImages.add(variantImage);
+
+                VariantSpec variantSpec = variantSpecs.get(index);
+                ImageEncoder imageEncoder = variantEncoders.get(index);
+                variantFutures.set(index, imageProcessingExecutor
+                        .fork(() -> encodeVariant(variantImage, variantSpec, imageEncoder), imageVariantExecutor));
+            }
+
+            List<ImageVariant> imageVariants = new ArrayList<>(variantSpecs.size());
+            for (Future<ImageVariant> variantFuture : variantFutures) {
+                imageVariants.add(variantFuture.get());
+            }
+
+            return imageVariants;
+
+        } catch (ExecutionException e) {
+            cancelVariantFutures(variantFutures);
+            if (e.getCause() instanceof DynamoImageException dynamoImageException) {
+                throw dynamoImageException;
+            }
+
+            log.error("Error occurred while generating image variants. Details: {}", e.getMessage(), e);
+            throw new DynamoImageException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            cancelVariantFutures(variantFutures);
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while generating image variants");
+            throw new DynamoImageException("Interrupted while generating image variants", e);
+        }
+
+    }
+
     /**
      * Compresses an image based on specified parameters.
      * @param  inputImageBytes      The byte array representing the input image.
@@ -93,18 +391,164 @@ public class ImageServiceImpl implements ImageService {
      *                              image.
      * @param  targetHeightInPixels The target height (in pixels) for resizing the
      *                              image.
+     * @param  formatName           The informal name of the output image format.
      * @return                      A byte array containing the compressed image
      *                              data.
      * @throws DynamoImageException If an error occurs during image compression.
      */
     private byte[] compressImage(byte[] inputImageBytes, int targetSizeInBytes, int targetWidthInPixels,
-            int targetHeightInPixels) throws DynamoImageException {
+            int targetHeightInPixels, String formatName) throws DynamoImageException {
 
         log.debug("""
                 Entering compressImage(), inputImageBytesSize = {}, targetSizeInBytes = {}, targetWidthInPixels = {}, \
-                targetHeightInPixels = {}\
-                """, inputImageBytes.length, targetSizeInBytes, targetWidthInPixels, targetHeightInPixels);
+                targetHeightInPixels = {}, formatName = {}\
+                """, inputImageBytes.length, targetSizeInBytes, targetWidthInPixels, targetHeightInPixels, formatName);
+
+        String cacheKey = imageCompressionCache.buildKey(imageCompressionCache.digest(inputImageBytes),
+                targetSizeInBytes, targetWidthInPixels, targetHeightInPixels, formatName);
+        Optional<byte[]> cachedImageBytes = imageCompressionCache.get(cacheKey);
+        if (cachedImageBytes.isPresent()) {
+            log.debug("Leaving compressImage(), compressed image retrieved from cache");
+            return cachedImageBytes.get();
+        }
+
+        try (ImageInputStream imageInputStream = createImageInputStream(inputImageBytes)) {
+            ByteArrayOutputStream compressedOutputStream = compressImage(imageInputStream, targetSizeInBytes,
+                    targetWidthInPixels, targetHeightInPixels, formatName);
+            byte[] compressedImageBytes = compressedOutputStream.toByteArray();
+            imageCompressionCache.put(cacheKey, compressedImageBytes);
+
+            log.debug("Leaving compressImage()");
+
+            return compressedImageBytes;
+        } catch (IOException e) {
+            log.error("Error occurred while compressing image. Details: {}", e.getMessage(), e);
+            throw new DynamoImageException(e.getMessage(), e);
+        }
+
+    }
+
+    /**
+     * Compresses an image read from an input stream and writes the compressed image
+     * to an output stream, using the default compression format. Neither stream is
+     * closed.
+     * @param  inputImageStream     The input stream of the input image.
+     * @param  targetSizeInBytes    The target size (in bytes) for the compressed
+     *                              image.
+     * @param  targetWidthInPixels  The target width (in pixels) for resizing the
+     *                              image.
+     * @param  targetHeightInPixels The target height (in pixels) for resizing the
+     *                              image.
+     * @param  outputStream         The output stream to which the compressed image
+     *                              data will be written.
+     * @throws DynamoImageException If an error occurs during image compression.
+     */
+    private void compressImage(InputStream inputImageStream, int targetSizeInBytes, int targetWidthInPixels,
+            int targetHeightInPixels, OutputStream outputStream) throws DynamoImageException {
+        try (ImageInputStream imageInputStream = new MemoryCacheImageInputStream(inputImageStream)) {
+            ByteArrayOutputStream compressedOutputStream = compressImage(imageInputStream, targetSizeInBytes,
+                    targetWidthInPixels, targetHeightInPixels, defaultFormat());
+            compressedOutputStream.writeTo(outputStream);
+        } catch (IOException e) {
+            log.error("Error occurred while compressing image. Details: {}", e.getMessage(), e);
+            throw new DynamoImageException(e.getMessage(), e);
+        }
+
+    }
+
+    /**
+     * Compresses an image read from an {@link ImageInputStream}. The image
+     * dimension is probed from its header and checked against the pixel budget
+     * before the image is decoded.
+     * @param  imageInputStream     The image input stream of the input image.
+     * @param  targetSizeInBytes    The target size (in bytes) for the compressed
+     *                              image.
+     * @param  targetWidthInPixels  The target width (in pixels) for resizing the
+     *                              image.
+     * @param  targetHeightInPixels The target height (in pixels) for resizing the
+     *                              image.
+     * @param  formatName           The informal name of the output image format.
+     * @return                      A ByteArrayOutputStream containing the
+     *                              compressed image data.
+     * @throws DynamoImageException If an error occurs during image compression.
+     */
+    private ByteArrayOutputStream compressImage(ImageInputStream imageInputStream, int targetSizeInBytes,
+            int targetWidthInPixels, int targetHeightInPixels, String formatName) throws DynamoImageException {
+        validateTargetSize(targetSizeInBytes);
+        ImageEncoder imageEncoder = imageEncoderRegistry.retrieveEncoder(formatName);
+
+        return decodeImage(imageInputStream,
+                sourceDimension -> resolveTargetDimension(sourceDimension, targetWidthInPixels, targetHeightInPixels),
+                inputImage -> {
+                    BufferedImage resizedImage = resizeImage(inputImage, targetWidthInPixels, targetHeightInPixels);
+                    BufferedImage rgbImage = convertToRgb(resizedImage);
+                    return compressImageWithQualityIterative(rgbImage, targetSizeInBytes, imageEncoder);
+                });
+    }
+
+    /**
+     * Compresses an image to the smallest size meeting a perceptual quality floor.
+     * @param  inputImageBytes      The byte array representing the input image.
+     * @param  minimumSsim          The minimum SSIM of the compressed image.
+     * @param  targetWidthInPixels  The target width (in pixels) for resizing the
+     *                              image, or 0 to keep the input width.
+     * @return                      A byte array containing the compressed image
+     *                              data.
+     * @throws DynamoImageException If an error occurs during image compression.
+     */
+    private byte[] compressImageWithPerceptualQuality(byte[] inputImageBytes, double minimumSsim,
+            int targetWidthInPixels) throws DynamoImageException {
+        if (minimumSsim <= 0 || minimumSsim > 1) {
+            String errorMessage = "Invalid input parameter: minimumSsim must be within (0, 1]. Actual value: %s"
+                    .formatted(minimumSsim);
+            log.error(errorMessage);
+            throw new DynamoImageException(errorMessage);
+        }
+
+        String formatName = defaultFormat();
+        ImageEncoder imageEncoder = imageEncoderRegistry.retrieveEncoder(formatName);
 
+        String cacheKey = imageCompressionCache.buildPerceptualKey(imageCompressionCache.digest(inputImageBytes),
+                minimumSsim, targetWidthInPixels, formatName);
+        Optional<byte[]> cachedImageBytes = imageCompressionCache.get(cacheKey);
+        if (cachedImageBytes.isPresent()) {
+            log.debug("Compressed image retrieved from cache");
+            return cachedImageBytes.get();
+        }
+
+        try (ImageInputStream imageInputStream = createImageInputStream(inputImageBytes)) {
+            ByteArrayOutputStream compressedOutputStream = decodeImage(imageInputStream,
+                    sourceDimension -> resolveTargetDimension(sourceDimension, targetWidthInPixels, 0),
+                    inputImage -> {
+                        BufferedImage resizedImage = resizeImage(inputImage, targetWidthInPixels, 0);
+                        BufferedImage rgbImage = convertToRgb(resizedImage);
+                        return compressImageWithQualitySearch(rgbImage, minimumSsim, imageEncoder);
+                    });
+            byte[] compressedImageBytes = compressedOutputStream.toByteArray();
+            imageCompressionCache.put(cacheKey, compressedImageBytes);
+            return compressedImageBytes;
+        } catch (IOException e) {
+            log.error("Error occurred while compressing image. Details: {}", e.getMessage(), e);
+            throw new DynamoImageException(e.getMessage(), e);
+        }
+
+    }
+
+    /**
+     * Retrieves the default output format of compressed images.
+     * @return the configured compression format name.
+     */
+    private String defaultFormat() {
+        return imageProperties.getCompression().getFormat();
+    }
+
+    /**
+     * Validates the target size of a compressed image.
+     * @param  targetSizeInBytes    The target size (in bytes) for the compressed
+     *                              image.
+     * @throws DynamoImageException If the target size is not greater than 0.
+     */
+    private void validateTargetSize(int targetSizeInBytes) throws DynamoImageException {
         if (targetSizeInBytes <= 0) {
             String errorMessage = "Invalid input parameter: targetSizeInBytes must be greater than 0. Actual value: %s"
                     .formatted(targetSizeInBytes);
@@ -112,24 +556,116 @@ public class ImageServiceImpl implements ImageService {
             throw new DynamoImageException(errorMessage);
         }
 
-        try {
-            BufferedImage inputImage = ImageIO.read(new ByteArrayInputStream(inputImageBytes));
-            inputImage = resizeImage(inputImage, targetWidthInPixels, targetHeightInPixels);
+    }
+
+    /**
+     * Creates an in-memory {@link ImageInputStream} over the input image data.
+     * @param  inputImageBytes The byte array representing the input image.
+     * @return                 The {@link ImageInputStream} of the input image.
+     */
+    private ImageInputStream createImageInputStream(byte[] inputImageBytes) {
+        return new MemoryCacheImageInputStream(new ByteArrayInputStream(inputImageBytes));
+    }
 
-            ByteArrayOutputStream compressedOutputStream =
-                    compressImageWithQualityIterative(inputImage, targetSizeInBytes);
+    /**
+     * Decodes an image within the pixel budget and processes it. The image
+     * dimension is probed from the image header first, so that images exceeding
+     * the budget are decoded at a reduced resolution or rejected before any pixel
+     * data is allocated. The budget reserved for the decoded image and its working
+     * copy is held until the processing completes. Decoding and processing run on
+     * the bounded image processing executor.
+     * @param  <R>                       The type of the processing result.
+     * @param  imageInputStream          The image input stream of the input image.
+     * @param  requiredDimensionResolver Resolves, from the source dimension, the
+     *                                   smallest dimension the decoded image must
+     *                                   cover.
+     * @param  imageProcessor            The processing applied to the decoded
+     *                                   image.
+     * @return                           The processing result.
+     * @throws DynamoImageException      If the image cannot be read, its format is
+     *                                   not supported, it exceeds the pixel budget,
+     *                                   the processing executor is saturated or
+     *                                   times out, or the processing fails.
+     */
+    private <R> R decodeImage(ImageInputStream imageInputStream, UnaryOperator<Dimension> requiredDimensionResolver,
+            ImageProcessor<R> imageProcessor) throws DynamoImageException {
+        return imageProcessingExecutor
+                .execute(() -> readImage(imageInputStream, requiredDimensionResolver, imageProcessor));
+    }
 
-            log.debug("Leaving compressImage()");
+    /**
+     * Decodes the input image on the calling thread and applies the processing
+     * to it, within the pixel budget.
+     * @param  <R>                       The type of the processing result.
+     * @param  imageInputStream          The image input stream of the input image.
+     * @param  requiredDimensionResolver Resolves, from the source dimension, the
+     *                                   smallest dimension the decoded image must
+     *                                   cover.
+     * @param  imageProcessor            The processing applied to the decoded
+     *                                   image.
+     * @return                           The processing result.
+     * @throws DynamoImageException      If the image cannot be read, its format is
+     *                                   not supported, it exceeds the pixel budget
+     *                                   or the processing fails.
+     */
+    private <R> R readImage(ImageInputStream imageInputStream, UnaryOperator<Dimension> requiredDimensionResolver,
+            ImageProcessor<R> imageProcessor) throws DynamoImageException {
+        Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageInputStream);
+        if (!imageReaders.hasNext()) {
+            String errorMessage = "Unsupported image format. No image reader is able to decode the input image";
+            log.error(errorMessage);
+            throw new DynamoImageException(errorMessage);
+        }
 
-            return compressedOutputStream.toByteArray();
+        ImageReader imageReader = imageReaders.next();
+        try {
+            imageReader.setInput(imageInputStream, true, true);
+            Dimension sourceDimension = new Dimension(imageReader.getWidth(0), imageReader.getHeight(0));
+            int subsampling = imagePixelBudget.resolveSubsampling(sourceDimension,
+                    requiredDimensionResolver.apply(sourceDimension));
+            long decodedPixels = (long) ((sourceDimension.width + subsampling - 1) / subsampling)
+                    * ((sourceDimension.height + subsampling - 1) / subsampling);
+
+            ImagePixelBudget.Reservation reservation = imagePixelBudget.reserve(decodedPixels * PEAK_RASTER_COPIES);
+            try {
+                ImageReadParam readParam = imageReader.getDefaultReadParam();
+                if (subsampling > 1) {
+                    readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+
+                BufferedImage inputImage = imageReader.read(0, readParam);
+                return imageProcessor.process(inputImage);
+            } finally {
+                reservation.close();
+            }
 
         } catch (IOException e) {
-            log.error("Error occurred while compressing image. Details: {}", e.getMessage(), e);
+            log.error("Error occurred while reading image. Details: {}", e.getMessage(), e);
             throw new DynamoImageException(e.getMessage(), e);
+        } finally {
+            imageReader.dispose();
         }
 
     }
 
+    /**
+     * Resolves the smallest dimension covering all the variants to generate.
+     * @param  sourceDimension The dimension of the input image.
+     * @param  variantSpecs    The specifications of the variants to generate.
+     * @return                 The required {@link Dimension}.
+     */
+    private Dimension resolveRequiredDimension(Dimension sourceDimension, List<VariantSpec> variantSpecs) {
+        Dimension requiredDimension = new Dimension(1, 1);
+        for (VariantSpec variantSpec : variantSpecs) {
+            Dimension targetDimension = resolveTargetDimension(sourceDimension, variantSpec.getTargetWidthInPixels(),
+                    variantSpec.getTargetHeightInPixels());
+            requiredDimension.width = Math.max(requiredDimension.width, targetDimension.width);
+            requiredDimension.height = Math.max(requiredDimension.height, targetDimension.height);
+        }
+
+        return requiredDimension;
+    }
+
     /**
      * Resizes the input image based on the specified width and height parameters.
      * @param  inputImage           The input image to be resized.
@@ -161,22 +697,140 @@ public class ImageServiceImpl implements ImageService {
 
     }
 
+    /**
+     * Resolves the dimension of a resized image, preserving the aspect ratio of the
+     * input image. The target width takes precedence over the target height.
+     * @param  inputDimension       The dimension of the input image.
+     * @param  targetWidthInPixels  The target width (in pixels), or 0 if not
+     *                              constrained.
+     * @param  targetHeightInPixels The target height (in pixels), or 0 if not
+     *                              constrained.
+     * @return                      The target {@link Dimension}.
+     */
+    private Dimension resolveTargetDimension(Dimension inputDimension, int targetWidthInPixels,
+            int targetHeightInPixels) {
+        if (targetWidthInPixels > 0) {
+            float scale = (float) targetWidthInPixels / inputDimension.width;
+            int targetHeight = Math.max(1, Math.round(inputDimension.height * scale));
+            return new Dimension(targetWidthInPixels, targetHeight);
+        } else if (targetHeightInPixels > 0) {
+            float scale = (float) targetHeightInPixels / inputDimension.height;
+            int targetWidth = Math.max(1, Math.round(inputDimension.width * scale));
+            return new Dimension(targetWidth, targetHeightInPixels);
+        }
+
+        return new Dimension(inputDimension);
+    }
+
+    /**
+     * Resizes the base image to the exact target dimension. The base image is
+     * returned as is if it already has the target dimension.
+     * @param  baseImage       The image to be resized.
+     * @param  targetDimension The target dimension of the resized image.
+     * @return                 The resized BufferedImage.
+     */
+    private BufferedImage resizeImageToDimension(BufferedImage baseImage, Dimension targetDimension) {
+        if (baseImage.getWidth() == targetDimension.width && baseImage.getHeight() == targetDimension.height) {
+            return baseImage;
+        }
+
+        return Scalr.resize(baseImage, Scalr.Method.QUALITY, Scalr.Mode.FIT_EXACT, targetDimension.width,
+                targetDimension.height, Scalr.OP_ANTIALIAS);
+    }
+
+    /**
+     * Encodes a resized variant image to the target size of its specification.
+     * @param  variantImage         The resized variant image.
+     * @param  variantSpec          The specification of the variant.
+     * @param  imageEncoder         The encoder of the variant output format.
+     * @return                      The generated {@link ImageVariant}.
+     * @throws DynamoImageException If an error occurs during image compression.
+     */
+    private ImageVariant encodeVariant(BufferedImage variantImage, VariantSpec variantSpec,
+            ImageEncoder imageEncoder) throws DynamoImageException {
+        log.debug("Entering encodeVariant(), variantSpec = {}", variantSpec);
+
+        BufferedImage rgbImage = convertToRgb(variantImage);
+        ByteArrayOutputStream compressedOutputStream =
+                compressImageWithQualityIterative(rgbImage, variantSpec.getTargetSizeInBytes(), imageEncoder);
+
+        log.debug("Leaving encodeVariant(), variant = {}, size = {} bytes", variantSpec.getName(),
+                compressedOutputStream.size());
+
+        return ImageVariant.builder().name(variantSpec.getName()).imageBytes(compressedOutputStream.toByteArray())
+                .mimeType(imageEncoder.getMimeType()).widthInPixels(rgbImage.getWidth())
+                .heightInPixels(rgbImage.getHeight()).build();
+    }
+
+    /**
+     * Builds an {@link ImageVariant} from cached compressed image data, reading
+     * the dimension from the image header.
+     * @param  variantSpec          The specification of the variant.
+     * @param  imageEncoder         The encoder of the variant output format.
+     * @param  compressedImageBytes The cached compressed image data.
+     * @return                      The {@link ImageVariant}, or null if the image
+     *                              header cannot be read.
+     */
+    private ImageVariant buildImageVariant(VariantSpec variantSpec, ImageEncoder imageEncoder,
+            byte[] compressedImageBytes) {
+        try (ImageInputStream imageInputStream = createImageInputStream(compressedImageBytes)) {
+            Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageInputStream);
+            if (!imageReaders.hasNext()) {
+                return null;
+            }
+
+            ImageReader imageReader = imageReaders.next();
+            try {
+                imageReader.setInput(imageInputStream, true, true);
+                return ImageVariant.builder().name(variantSpec.getName()).imageBytes(compressedImageBytes)
+                        .mimeType(imageEncoder.getMimeType())
+                        .widthInPixels(imageReader.getWidth(0)).heightInPixels(imageReader.getHeight(0)).build();
+            } finally {
+                imageReader.dispose();
+            }
+
+        } catch (IOException e) {
+            log.warn("Unable to read cached image variant {}. Details: {}", variantSpec.getName(), e.getMessage());
+            return null;
+        }
+
+    }
+
+    /**
+     * Cancels the variant encodings that have not completed yet.
+     * @param variantFutures The futures of the submitted variant encodings.
+     */
+    private void cancelVariantFutures(List<Future<ImageVariant>> variantFutures) {
+        for (Future<ImageVariant> variantFuture : variantFutures) {
+            if (variantFuture != null) {
+                variantFuture.cancel(true);
+            }
+
+        }
+
+    }
+
     /**
      * Compresses the input image iteratively with varying compression qualities
-     * until the target size is met.
-     * @param  inputImage           The input image to be compressed.
+     * until the target size is met. The output buffer is shared by all iterations.
+     * @param  rgbImage             The RGB image to be compressed.
      * @param  targetSizeInBytes    The target size (in bytes) for the compressed
      *                              image.
+     * @param  imageEncoder         The encoder of the output image format.
      * @return                      A ByteArrayOutputStream containing the
      *                              compressed image data.
      * @throws DynamoImageException If an error occurs during image compression.
      */
-    private ByteArrayOutputStream compressImageWithQualityIterative(BufferedImage inputImage, int targetSizeInBytes)
-            throws DynamoImageException {
+    private ByteArrayOutputStream compressImageWithQualityIterative(BufferedImage rgbImage, int targetSizeInBytes,
+            ImageEncoder imageEncoder) throws DynamoImageException {
 
-        log.debug("Entering compressImageWithQualityIterative(), inputImage = {}, targetSizeInBytes = {}", inputImage,
+        log.debug("Entering compressImageWithQualityIterative(), rgbImage = {}, targetSizeInBytes = {}", rgbImage,
                 targetSizeInBytes);
 
+        QualityProperties qualityProperties = imageProperties.getCompression().getQuality();
+        float maxCompressionQuality = qualityProperties.getMax();
+        float minCompressionQuality = qualityProperties.getMin();
+
         if (maxCompressionQuality <= minCompressionQuality) {
             String errorMessage = """
                     Invalid compression quality range. The maximum compression quality (%.2f) must be \
@@ -186,21 +840,21 @@ public class ImageServiceImpl implements ImageService {
             throw new DynamoImageException(errorMessage);
         }
 
-        ByteArrayOutputStream compressedOutputStream = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressedOutputStream = new ByteArrayOutputStream(targetSizeInBytes);
         float currentCompressionQuality = maxCompressionQuality;
 
         while (currentCompressionQuality > minCompressionQuality) {
 
             compressedOutputStream.reset();
-            compressImageWithQuality(inputImage, currentCompressionQuality, compressedOutputStream, compressionFormat);
+            compressImageWithQuality(imageEncoder, rgbImage, currentCompressionQuality, compressedOutputStream);
 
             if (compressedOutputStream.size() <= targetSizeInBytes) {
                 log.debug("Image compressed successfully. Size: {} bytes, Width: {} pixels, Height: {} pixels",
-                        compressedOutputStream.size(), inputImage.getWidth(), inputImage.getHeight());
+                        compressedOutputStream.size(), rgbImage.getWidth(), rgbImage.getHeight());
                 return compressedOutputStream;
             }
 
-            currentCompressionQuality -= compressionQualityStep;
+            currentCompressionQuality -= qualityProperties.getStep();
         }
 
         log.debug("Leaving compressImageWithQualityIterative()");
@@ -209,50 +863,123 @@ public class ImageServiceImpl implements ImageService {
     }
 
     /**
-     * Compresses the input image with the specified compression quality.
-     * @param  inputImage           The input image to be compressed.
-     * @param  compressionQuality   The compression quality to be applied (between
-     *                              0.1 and 1.0).
-     * @param  outputStream         The output stream to which the compressed image
-     *                              data will be written.
+     * Binary searches the lowest compression quality whose output has at least
+     * the minimum SSIM to the input image. The SSIM is computed on downscaled
+     * luma planes to keep each search step cheap.
+     * @param  rgbImage             The RGB image to be compressed.
+     * @param  minimumSsim          The minimum SSIM of the compressed image.
+     * @param  imageEncoder         The encoder of the output image format.
+     * @return                      A ByteArrayOutputStream containing the
+     *                              compressed image data.
      * @throws DynamoImageException If an error occurs during image compression.
      */
-    private void compressImageWithQuality(BufferedImage inputImage, float compressionQuality, OutputStream outputStream,
-            String formatName) throws DynamoImageException {
+    private ByteArrayOutputStream compressImageWithQualitySearch(BufferedImage rgbImage, double minimumSsim,
+            ImageEncoder imageEncoder) throws DynamoImageException {
 
-        log.debug("Entering compressImageWithQuality(), inputImage = {}, compressionQuality = {}", inputImage,
-                compressionQuality);
+        log.debug("Entering compressImageWithQualitySearch(), rgbImage = {}, minimumSsim = {}", rgbImage,
+                minimumSsim);
+
+        PerceptualProperties perceptualProperties = imageProperties.getPerceptual();
+        float lowerQuality = imageProperties.getCompression().getQuality().getMin();
+        float upperQuality = perceptualProperties.getMaxQuality();
 
-        if (inputImage == null || compressionQuality < 0.1f || compressionQuality > 1.0f) {
+        if (upperQuality <= lowerQuality) {
             String errorMessage = """
-                    Invalid input parameters for image compression. \
-                    inputImage: %s, compressionQuality: %s\
-                    """.formatted(inputImage, compressionQuality);
+                    Invalid perceptual quality range. The maximum perceptual quality (%.2f) must be \
+                    greater than the minimum compression quality (%.2f).\
+                    """.formatted(upperQuality, lowerQuality);
             log.error(errorMessage);
             throw new DynamoImageException(errorMessage);
         }
 
-        BufferedImage rgbImage = convertToRgb(inputImage);
-        ImageWriter imageWriter = ImageIO.getImageWritersByFormatName(formatName).next();
+        LumaPlane referenceLumaPlane =
+                ImageQualityUtils.computeLumaPlane(rgbImage, perceptualProperties.getAnalysisSize());
+        ByteArrayOutputStream bestOutputStream = new ByteArrayOutputStream();
+        ByteArrayOutputStream candidateOutputStream = new ByteArrayOutputStream();
 
-        ImageWriteParam writeParam = imageWriter.getDefaultWriteParam();
-        writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
-        writeParam.setCompressionQuality(compressionQuality);
+        // The upper bound is the fallback when no lower quality meets the floor.
+        compressImageWithQuality(imageEncoder, rgbImage, upperQuality, bestOutputStream);
+        float bestQuality = upperQuality;
 
-        try {
-            ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream);
+        for (int iteration = 0; iteration < perceptualProperties.getSearchIterations(); iteration++) {
+            float candidateQuality = (lowerQuality + upperQuality) / 2;
+            candidateOutputStream.reset();
+            compressImageWithQuality(imageEncoder, rgbImage, candidateQuality, candidateOutputStream);
 
-            imageWriter.setOutput(imageOutputStream);
-            imageWriter.write(null, new javax.imageio.IIOImage(rgbImage, null, null), writeParam);
+            double candidateSsim = computeSsim(referenceLumaPlane, candidateOutputStream, perceptualProperties);
+            if (candidateSsim >= minimumSsim) {
+                upperQuality = candidateQuality;
+                bestQuality = candidateQuality;
+                ByteArrayOutputStream previousBestOutputStream = bestOutputStream;
+                bestOutputStream = candidateOutputStream;
+                candidateOutputStream = previousBestOutputStream;
+            } else {
+                lowerQuality = candidateQuality;
+            }
+
+        }
+
+        log.debug("Leaving compressImageWithQualitySearch(), quality = {}, size = {} bytes", bestQuality,
+                bestOutputStream.size());
+
+        return bestOutputStream;
+    }
 
-            imageWriter.dispose();
-            imageOutputStream.close();
+    /**
+     * Computes the SSIM of a compressed image to the reference luma plane.
+     * @param  referenceLumaPlane    The luma plane of the uncompressed image.
+     * @param  compressedImageStream The compressed image data.
+     * @param  perceptualProperties  The perceptual quality properties.
+     * @return                       The SSIM of the compressed image.
+     * @throws DynamoImageException  If the compressed image cannot be decoded.
+     */
+    private double computeSsim(LumaPlane referenceLumaPlane, ByteArrayOutputStream compressedImageStream,
+            PerceptualProperties perceptualProperties) throws DynamoImageException {
+        try {
+            BufferedImage compressedImage = ImageIO.read(new ByteArrayInputStream(compressedImageStream.toByteArray()));
+            if (compressedImage == null) {
+                String errorMessage = "Unable to decode the compressed image to evaluate its perceptual quality";
+                log.error(errorMessage);
+                throw new DynamoImageException(errorMessage);
+            }
 
+            LumaPlane compressedLumaPlane =
+                    ImageQualityUtils.computeLumaPlane(compressedImage, perceptualProperties.getAnalysisSize());
+            return ImageQualityUtils.computeSsim(referenceLumaPlane, compressedLumaPlane);
         } catch (IOException e) {
-            log.error("Error occurred while compressing image. Details: {}", e.getMessage(), e);
+            log.error("Error occurred while decoding compressed image. Details: {}", e.getMessage(), e);
             throw new DynamoImageException(e.getMessage(), e);
         }
 
+    }
+
+    /**
+     * Compresses the input image with the specified compression quality.
+     * @param  imageEncoder         The encoder of the output image format.
+     * @param  rgbImage             The RGB image to be compressed.
+     * @param  compressionQuality   The compression quality to be applied (between
+     *                              0.1 and 1.0).
+     * @param  outputStream         The output stream to which the compressed image
+     *                              data will be written.
+     * @throws DynamoImageException If an error occurs during image compression.
+     */
+    private void compressImageWithQuality(ImageEncoder imageEncoder, BufferedImage rgbImage,
+            float compressionQuality, OutputStream outputStream) throws DynamoImageException {
+
+        log.debug("Entering compressImageWithQuality(), rgbImage = {}, compressionQuality = {}", rgbImage,
+                compressionQuality);
+
+        if (rgbImage == null || compressionQuality < 0.1f || compressionQuality > 1.0f) {
+            String errorMessage = """
+                    Invalid input parameters for image compression. \
+                    inputImage: %s, compressionQuality: %s\
+                    """.formatted(rgbImage, compressionQuality);
+            log.error(errorMessage);
+            throw new DynamoImageException(errorMessage);
+        }
+
+        imageEncoder.encode(rgbImage, compressionQuality, outputStream);
+
         log.debug("Leaving compressImageWithQuality()");
     }
 
@@ -261,10 +988,15 @@ public class ImageServiceImpl implements ImageService {
      * image is already in the RGB color space, the same image is returned. If the
      * input image has a different color space, it is converted to RGB.
      * @param  inputImage The original {@link BufferedImage} to be converted.
-     * @return            A new {@link BufferedImage} in the RGB color space.
+     * @return            A {@link BufferedImage} in the RGB color space.
      */
     private BufferedImage convertToRgb(BufferedImage inputImage) {
         log.debug("Entering convertToRgb()");
+        if (inputImage.getType() == BufferedImage.TYPE_INT_RGB) {
+            log.debug("Leaving convertToRgb(), image is already in the RGB color space");
+            return inputImage;
+        }
+
         BufferedImage rgbImage =
                 new BufferedImage(inputImage.getWidth(), inputImage.getHeight(), BufferedImage.TYPE_INT_RGB);
         Graphics2D g = rgbImage.createGraphics();
@@ -273,4 +1005,20 @@ public class ImageServiceImpl implements ImageService {
         log.debug("Leaving convertToRgb()");
         return rgbImage;
     }
+
+    /**
+     * Processing applied to a decoded image.
+     * @param <R> The type of the processing result.
+     */
+    @FunctionalInterface
+    private interface ImageProcessor<R> {
+
+        /**
+         * Processes the decoded image.
+         * @param  inputImage           The decoded input image.
+         * @return                      The processing result.
+         * @throws DynamoImageException If an error occurs during processing.
+         */
+        R process(BufferedImage inputImage) throws DynamoImageException;
+    }
 }
@@ -0,0 +1,133 @@
+package net.breezeware.dynamo.image.utils;
+
+import java.awt.image.BufferedImage;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Utility for measuring the perceptual quality of compressed images using the
+ * structural similarity index (SSIM) computed on a downscaled luma plane.
+ */
+@Slf4j
+public class ImageQualityUtils {
+
+    /**
+     * Size of the square SSIM window in pixels.
+     */
+    private static final int WINDOW_SIZE = 8;
+
+    /**
+     * Distance between two SSIM windows in pixels.
+     */
+    private static final int WINDOW_STRIDE = 4;
+
+    private static final double C1 = Math.pow(0.01 * 255, 2);
+
+    private static final double C2 = Math.pow(0.03 * 255, 2);
+
+    /**
+     * Computes the luma plane of an image, box-downscaled so that its larger side
+     * does not exceed the given size.
+     * @param  image            The image.
+     * @param  maxSizeInPixels  The maximum width or height of the luma plane.
+     * @return                  The {@link LumaPlane} of the image.
+     */
+    public static LumaPlane computeLumaPlane(BufferedImage image, int maxSizeInPixels) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = Math.min(1.0, (double) maxSizeInPixels / Math.max(width, height));
+        int planeWidth = Math.max(1, (int) Math.round(width * scale));
+        int planeHeight = Math.max(1, (int) Math.round(height * scale));
+
+        double[] lumaSums = new double[planeWidth * planeHeight];
+        int[] pixelCounts = new int[planeWidth * planeHeight];
+        int[] rowPixels = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, rowPixels, 0, width);
+            int planeRowOffset = Math.min(planeHeight - 1, (int) ((long) y * planeHeight / height)) * planeWidth;
+            for (int x = 0; x < width; x++) {
+                int rgb = rowPixels[x];
+                double luma = 0.299 * ((rgb >> 16) & 0xff) + 0.587 * ((rgb >> 8) & 0xff) + 0.114 * (rgb & 0xff);
+                int planeIndex = planeRowOffset + Math.min(planeWidth - 1, (int) ((long) x * planeWidth / width));
+                lumaSums[planeIndex] += luma;
+                pixelCounts[planeIndex]++;
+            }
+
+        }
+
+        float[] luma = new float[planeWidth * planeHeight];
+        for (int index = 0; index < luma.length; index++) {
+            luma[index] = pixelCounts[index] > 0 ? (float) (lumaSums[index] / pixelCounts[index]) : 0f;
+        }
+
+        return new LumaPlane(planeWidth, planeHeight, luma);
+    }
+
+    /**
+     * Computes the mean structural similarity index of two luma planes of the same
+     * dimension.
+     * @param  reference The luma plane of the reference image.
+     * @param  candidate The luma plane of the compressed image.
+     * @return           The SSIM, between -1 and 1 where 1 means identical.
+     * @throws IllegalArgumentException If the planes have different dimensions.
+     */
+    public static double computeSsim(LumaPlane reference, LumaPlane candidate) {
+        if (reference.width() != candidate.width() || reference.height() != candidate.height()) {
+            throw new IllegalArgumentException("Luma planes must have the same dimension to compute the SSIM");
+        }
+
+        int windowWidth = Math.min(WINDOW_SIZE, reference.width());
+        int windowHeight = Math.min(WINDOW_SIZE, reference.height());
+        int windowPixels = windowWidth * windowHeight;
+        double ssimSum = 0;
+        int windowCount = 0;
+
+        for (int top = 0; top + windowHeight <= reference.height(); top += WINDOW_STRIDE) {
+            for (int left = 0; left + windowWidth <= reference.width(); left += WINDOW_STRIDE) {
+                double referenceSum = 0;
+                double candidateSum = 0;
+                double referenceSquareSum = 0;
+                double candidateSquareSum = 0;
+                double productSum = 0;
+                for (int y = top; y < top + windowHeight; y++) {
+                    int rowOffset = y * reference.width();
+                    for (int x = left; x < left + windowWidth; x++) {
+                        double referenceLuma = reference.luma()[rowOffset + x];
+                        double candidateLuma = candidate.luma()[rowOffset + x];
+                        referenceSum += referenceLuma;
+                        candidateSum += candidateLuma;
+                        referenceSquareSum += referenceLuma * referenceLuma;
+                        candidateSquareSum += candidateLuma * candidateLuma;
+                        productSum += referenceLuma * candidateLuma;
+                    }
+
+                }
+
+                double referenceMean = referenceSum / windowPixels;
+                double candidateMean = candidateSum / windowPixels;
+                double referenceVariance = referenceSquareSum / windowPixels - referenceMean * referenceMean;
+                double candidateVariance = candidateSquareSum / windowPixels - candidateMean * candidateMean;
+                double covariance = productSum / windowPixels - referenceMean * candidateMean;
+
+                ssimSum += ((2 * referenceMean * candidateMean + C1) * (2 * covariance + C2))
+                        / ((referenceMean * referenceMean + candidateMean * candidateMean + C1)
+                                * (referenceVariance + candidateVariance + C2));
+                windowCount++;
+            }
+
+        }
+
+        double ssim = windowCount > 0 ? ssimSum / windowCount : 1.0;
+        log.debug("Computed SSIM = {} over {} windows", ssim, windowCount);
+        return ssim;
+    }
+
+    /**
+     * Luma (brightness) plane of an image.
+     * @param width  the width of the plane in pixels.
+     * @param height the height of the plane in pixels.
+     * @param luma   the row-major luma values, between 0 and 255.
+     */
+    public record LumaPlane(int width, int height, float[] luma) {
+    }
+}
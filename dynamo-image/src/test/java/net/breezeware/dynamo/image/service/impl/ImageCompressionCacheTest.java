@@ -0,0 +1,145 @@
+package net.breezeware.dynamo.image.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import net.breezeware.dynamo.image.config.properties.CacheProperties;
+import net.breezeware.dynamo.image.config.properties.ImageProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class ImageCompressionCacheTest {
+
+    @TempDir
+    Path diskDirectory;
+
+    @Test
+    void buildsKeyFromDigestAndParameters() {
+        log.info("Testing buildsKeyFromDigestAndParameters()");
+
+        // given
+        ImageCompressionCache imageCompressionCache = buildImageCompressionCache(DataSize.ofKilobytes(1), false);
+        String sourceDigest = imageCompressionCache.digest(new byte[] { 1, 2, 3 });
+        // when
+        String key = imageCompressionCache.buildKey(sourceDigest, 1000, 200, 0, "JPEG");
+        // then
+        assertThat(sourceDigest).hasSize(64).isEqualTo(imageCompressionCache.digest(new byte[] { 1, 2, 3 }))
+                .isNotEqualTo(imageCompressionCache.digest(new byte[] { 1, 2, 4 }));
+        assertThat(key).startsWith(sourceDigest + "-1000-200-0-jpeg-")
+                .isNotEqualTo(imageCompressionCache.buildKey(sourceDigest, 1000, 0, 200, "jpeg"));
+
+        log.info("Completed testing buildsKeyFromDigestAndParameters()");
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesBeyondHeapMaxSize() {
+        log.info("Testing evictsLeastRecentlyUsedEntriesBeyondHeapMaxSize()");
+
+        // given
+        ImageCompressionCache imageCompressionCache = buildImageCompressionCache(DataSize.ofBytes(250), false);
+        imageCompressionCache.put("first", new byte[100]);
+        imageCompressionCache.put("second", new byte[100]);
+        // when
+        imageCompressionCache.get("first");
+        imageCompressionCache.put("third", new byte[100]);
+        imageCompressionCache.put("too-large", new byte[300]);
+        // then
+        assertThat(imageCompressionCache.get("first")).isPresent();
+        assertThat(imageCompressionCache.get("second")).isEmpty();
+        assertThat(imageCompressionCache.get("third")).isPresent();
+        assertThat(imageCompressionCache.get("too-large")).isEmpty();
+
+        log.info("Completed testing evictsLeastRecentlyUsedEntriesBeyondHeapMaxSize()");
+    }
+
+    @Test
+    void returnsCopyOfCachedEntry() {
+        log.info("Testing returnsCopyOfCachedEntry()");
+
+        // given
+        ImageCompressionCache imageCompressionCache = buildImageCompressionCache(DataSize.ofKilobytes(1), false);
+        byte[] compressedImageBytes = { 1, 2, 3 };
+        imageCompressionCache.put("key", compressedImageBytes);
+        // when
+        compressedImageBytes[0] = 9;
+        imageCompressionCache.get("key").orElseThrow()[1] = 9;
+        // then
+        assertThat(imageCompressionCache.get("key")).hasValueSatisfying(
+                cachedImageBytes -> assertThat(cachedImageBytes).containsExactly(1, 2, 3));
+
+        log.info("Completed testing returnsCopyOfCachedEntry()");
+    }
+
+    @Test
+    void evictsLeastRecentlyModifiedFilesBeyondDiskMaxSize() throws IOException {
+        log.info("Testing evictsLeastRecentlyModifiedFilesBeyondDiskMaxSize()");
+
+        // given
+        ImageCompressionCache imageCompressionCache = buildImageCompressionCache(DataSize.ofBytes(250), true);
+        imageCompressionCache.put("first", new byte[100]);
+        imageCompressionCache.put("second", new byte[100]);
+        Files.setLastModifiedTime(diskDirectory.resolve("first"), FileTime.from(Instant.now().minusSeconds(60)));
+        Files.setLastModifiedTime(diskDirectory.resolve("second"), FileTime.from(Instant.now().minusSeconds(30)));
+        // when
+        imageCompressionCache.put("third", new byte[100]);
+        // then
+        assertThat(diskDirectory.resolve("first")).doesNotExist();
+        assertThat(diskDirectory.resolve("second")).exists();
+        assertThat(diskDirectory.resolve("third")).exists();
+
+        log.info("Completed testing evictsLeastRecentlyModifiedFilesBeyondDiskMaxSize()");
+    }
+
+    @Test
+    void keepsRecentlyReadFilesWhenEvictingFromDisk() throws IOException {
+        log.info("Testing keepsRecentlyReadFilesWhenEvictingFromDisk()");
+
+        // given
+        buildImageCompressionCache(DataSize.ofBytes(250), true).put("first", new byte[100]);
+        ImageCompressionCache imageCompressionCache = buildImageCompressionCache(DataSize.ofBytes(250), true);
+        imageCompressionCache.put("second", new byte[100]);
+        Files.setLastModifiedTime(diskDirectory.resolve("first"), FileTime.from(Instant.now().minusSeconds(60)));
+        Files.setLastModifiedTime(diskDirectory.resolve("second"), FileTime.from(Instant.now().minusSeconds(30)));
+        // when
+        imageCompressionCache.get("first");
+        imageCompressionCache.put("third", new byte[100]);
+        // then
+        assertThat(diskDirectory.resolve("first")).exists();
+        assertThat(diskDirectory.resolve("second")).doesNotExist();
+        assertThat(diskDirectory.resolve("third")).exists();
+
+        log.info("Completed testing keepsRecentlyReadFilesWhenEvictingFromDisk()");
+    }
+
+    @Test
+    void promotesDiskEntryOfPreviousCache() {
+        log.info("Testing promotesDiskEntryOfPreviousCache()");
+
+        // given
+        buildImageCompressionCache(DataSize.ofKilobytes(1), true).put("key", new byte[] { 1, 2, 3 });
+        // when
+        ImageCompressionCache imageCompressionCache = buildImageCompressionCache(DataSize.ofKilobytes(1), true);
+        // then
+        assertThat(imageCompressionCache.get("key")).hasValueSatisfying(
+                cachedImageBytes -> assertThat(cachedImageBytes).containsExactly(1, 2, 3));
+
+        log.info("Completed testing promotesDiskEntryOfPreviousCache()");
+    }
+
+    private ImageCompressionCache buildImageCompressionCache(DataSize maxSize, boolean diskEnabled) {
+        ImageProperties imageProperties = new ImageProperties();
+        imageProperties.setCache(
+                new CacheProperties(true, maxSize, diskEnabled, diskDirectory.toString(), maxSize));
+        return new ImageCompressionCache(imageProperties);
+    }
+}
@@ -0,0 +1,118 @@
+package net.breezeware.dynamo.image.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import net.breezeware.dynamo.image.config.properties.ImageProperties;
+import net.breezeware.dynamo.image.config.properties.NegotiationProperties;
+import net.breezeware.dynamo.image.service.api.ImageEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class ImageEncoderRegistryTest {
+
+    @Test
+    void negotiatesSmallestAcceptedFormatRegardlessOfConfiguredOrder() {
+        log.info("Testing negotiatesSmallestAcceptedFormatRegardlessOfConfiguredOrder()");
+
+        // given
+        ImageEncoderRegistry imageEncoderRegistry = buildImageEncoderRegistry(List.of("png", "jpeg"));
+        // when
+        String formatName = imageEncoderRegistry.negotiateFormat("image/png,image/jpeg;q=0.8");
+        // then
+        assertThat(formatName).isEqualTo("jpeg");
+
+        log.info("Completed testing negotiatesSmallestAcceptedFormatRegardlessOfConfiguredOrder()");
+    }
+
+    @Test
+    void negotiatesMoreEfficientFormatOfCustomEncoder() {
+        log.info("Testing negotiatesMoreEfficientFormatOfCustomEncoder()");
+
+        // given
+        ImageEncoderRegistry imageEncoderRegistry = buildImageEncoderRegistry(List.of("png", "jpeg", "webp"),
+                new StubImageEncoder("webp", "image/webp"));
+        // when
+        // then
+        assertThat(imageEncoderRegistry.negotiateFormat("image/webp,image/*,*/*;q=0.8")).isEqualTo("webp");
+        assertThat(imageEncoderRegistry.negotiateFormat("image/png,image/jpeg")).isEqualTo("jpeg");
+        assertThat(imageEncoderRegistry.findEncoder("WEBP")).containsSame(imageEncoderRegistry.findEncoder("webp")
+                .orElseThrow());
+
+        log.info("Completed testing negotiatesMoreEfficientFormatOfCustomEncoder()");
+    }
+
+    @Test
+    void skipsFormatsRejectedWithZeroQualityFactor() {
+        log.info("Testing skipsFormatsRejectedWithZeroQualityFactor()");
+
+        // given
+        ImageEncoderRegistry imageEncoderRegistry = buildImageEncoderRegistry(List.of("png", "jpeg"));
+        // when
+        // then
+        assertThat(imageEncoderRegistry.negotiateFormat("image/*, image/jpeg; q=0")).isEqualTo("png");
+        assertThat(imageEncoderRegistry.negotiateFormat("*/*;q=0.5, image/JPEG;q=0")).isEqualTo("png");
+        assertThat(imageEncoderRegistry.negotiateFormat("image/jpeg;q=invalid, image/png")).isEqualTo("png");
+
+        log.info("Completed testing skipsFormatsRejectedWithZeroQualityFactor()");
+    }
+
+    @Test
+    void fallsBackToDefaultFormat() {
+        log.info("Testing fallsBackToDefaultFormat()");
+
+        // given
+        ImageEncoderRegistry imageEncoderRegistry = buildImageEncoderRegistry(List.of("avif", "png"));
+        // when
+        // then
+        assertThat(imageEncoderRegistry.negotiateFormat(null)).isEqualTo("jpeg");
+        assertThat(imageEncoderRegistry.negotiateFormat(" ")).isEqualTo("jpeg");
+        assertThat(imageEncoderRegistry.negotiateFormat("text/html,application/json")).isEqualTo("jpeg");
+        assertThat(imageEncoderRegistry.negotiateFormat("image/avif")).isEqualTo("jpeg");
+        assertThat(imageEncoderRegistry.findEncoder("avif")).isEmpty();
+
+        log.info("Completed testing fallsBackToDefaultFormat()");
+    }
+
+    private ImageEncoderRegistry buildImageEncoderRegistry(List<String> preferredFormats,
+            ImageEncoder... customImageEncoders) {
+        ImageProperties imageProperties = new ImageProperties();
+        imageProperties.setNegotiation(new NegotiationProperties(preferredFormats));
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ImageEncoder> imageEncoders = mock(ObjectProvider.class);
+        when(imageEncoders.orderedStream()).thenReturn(Stream.of(customImageEncoders));
+        return new ImageEncoderRegistry(imageProperties, imageEncoders);
+    }
+
+    /**
+     * Encoder of a format without an ImageIO writer, which writes nothing.
+     * @param formatName the informal name of the format.
+     * @param mimeType   the MIME type of the format.
+     */
+    private record StubImageEncoder(String formatName, String mimeType) implements ImageEncoder {
+
+        @Override
+        public String getFormatName() {
+            return formatName;
+        }
+
+        @Override
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        @Override
+        public void encode(BufferedImage image, float compressionQuality, OutputStream outputStream) {
+        }
+    }
+}
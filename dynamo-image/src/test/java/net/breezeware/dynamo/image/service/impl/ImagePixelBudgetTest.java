@@ -0,0 +1,96 @@
+package net.breezeware.dynamo.image.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.Dimension;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.breezeware.dynamo.image.config.properties.BudgetProperties;
+import net.breezeware.dynamo.image.config.properties.ImageProperties;
+import net.breezeware.dynamo.image.exception.DynamoImageException;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class ImagePixelBudgetTest {
+
+    private ImagePixelBudget imagePixelBudget;
+
+    @BeforeEach
+    void setUp() {
+        ImageProperties imageProperties = new ImageProperties();
+        imageProperties.setBudget(new BudgetProperties(1_000_000L, 10_000L, Duration.ofMillis(10)));
+        imagePixelBudget = new ImagePixelBudget(imageProperties);
+    }
+
+    @Test
+    void decodesImageWithinBudgetAtFullResolution() throws DynamoImageException {
+        log.info("Testing decodesImageWithinBudgetAtFullResolution()");
+
+        // given
+        Dimension sourceDimension = new Dimension(1000, 1000);
+        // when
+        int subsampling = imagePixelBudget.resolveSubsampling(sourceDimension, sourceDimension);
+        // then
+        assertThat(subsampling).isEqualTo(1);
+
+        log.info("Completed testing decodesImageWithinBudgetAtFullResolution()");
+    }
+
+    @Test
+    void subsamplesImageBeyondBudgetWhenResizedToSmallerTarget() throws DynamoImageException {
+        log.info("Testing subsamplesImageBeyondBudgetWhenResizedToSmallerTarget()");
+
+        // given
+        Dimension sourceDimension = new Dimension(4000, 3000);
+        // when
+        int subsampling = imagePixelBudget.resolveSubsampling(sourceDimension, new Dimension(1000, 750));
+        // then
+        assertThat(subsampling).isEqualTo(4);
+
+        log.info("Completed testing subsamplesImageBeyondBudgetWhenResizedToSmallerTarget()");
+    }
+
+    @Test
+    void rejectsImageBeyondBudgetWhenTargetIsTooLarge() {
+        log.info("Testing rejectsImageBeyondBudgetWhenTargetIsTooLarge()");
+
+        // given
+        Dimension sourceDimension = new Dimension(4000, 3000);
+        // when
+        // then
+        assertThatThrownBy(() -> imagePixelBudget.resolveSubsampling(sourceDimension, new Dimension(2000, 1500)))
+                .isInstanceOf(DynamoImageException.class).hasMessageContaining("exceeds the maximum");
+        assertThatThrownBy(() -> imagePixelBudget.resolveSubsampling(sourceDimension, sourceDimension))
+                .isInstanceOf(DynamoImageException.class);
+
+        log.info("Completed testing rejectsImageBeyondBudgetWhenTargetIsTooLarge()");
+    }
+
+    @Test
+    void rejectsReservationBeyondConcurrentBudgetUntilReleased() throws DynamoImageException {
+        log.info("Testing rejectsReservationBeyondConcurrentBudgetUntilReleased()");
+
+        // given
+        ImagePixelBudget.Reservation reservation = imagePixelBudget.reserve(8_000L);
+        // when
+        // then
+        assertThat(imagePixelBudget.getAvailablePixels()).isEqualTo(2_000L);
+        assertThatThrownBy(() -> imagePixelBudget.reserve(5_000L)).isInstanceOf(DynamoImageException.class)
+                .hasMessageContaining("budget exhausted");
+
+        // when
+        reservation.close();
+        reservation.close();
+        // then
+        assertThat(imagePixelBudget.getAvailablePixels()).isEqualTo(10_000L);
+        imagePixelBudget.reserve(50_000L);
+        assertThat(imagePixelBudget.getAvailablePixels()).isZero();
+
+        log.info("Completed testing rejectsReservationBeyondConcurrentBudgetUntilReleased()");
+    }
+}
@@ -0,0 +1,196 @@
+package net.breezeware.dynamo.image.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.breezeware.dynamo.image.config.properties.ImageProperties;
+import net.breezeware.dynamo.image.config.properties.ProcessingProperties;
+import net.breezeware.dynamo.image.entity.ImageProcessingMetrics;
+import net.breezeware.dynamo.image.exception.DynamoImageException;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class ImageProcessingExecutorTest {
+
+    private ImageProcessingExecutor imageProcessingExecutor;
+
+    private ExecutorService callerExecutor;
+
+    private CountDownLatch releaseLatch;
+
+    @BeforeEach
+    void setUp() {
+        callerExecutor = Executors.newCachedThreadPool();
+        releaseLatch = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseLatch.countDown();
+        if (imageProcessingExecutor != null) {
+            imageProcessingExecutor.shutdown();
+        }
+
+        callerExecutor.shutdownNow();
+    }
+
+    @Test
+    void rejectsTasksBeyondQueueCapacity() throws InterruptedException {
+        log.info("Testing rejectsTasksBeyondQueueCapacity()");
+
+        // given
+        imageProcessingExecutor = buildImageProcessingExecutor(ProcessingProperties.RejectionPolicy.ABORT,
+                Duration.ofSeconds(10));
+        occupyWorkerAndQueue();
+        // when
+        // then
+        assertThatThrownBy(() -> imageProcessingExecutor.execute(() -> 1)).isInstanceOf(DynamoImageException.class)
+                .hasMessageContaining("capacity exceeded");
+        ImageProcessingMetrics imageProcessingMetrics = imageProcessingExecutor.getMetrics();
+        assertThat(imageProcessingMetrics.getRejectedCount()).isEqualTo(1);
+        assertThat(imageProcessingMetrics.getActiveCount()).isEqualTo(1);
+        assertThat(imageProcessingMetrics.getQueueDepth()).isEqualTo(1);
+        assertThat(imageProcessingMetrics.getQueueCapacity()).isEqualTo(1);
+
+        log.info("Completed testing rejectsTasksBeyondQueueCapacity()");
+    }
+
+    @Test
+    void runsRejectedTaskOnCallingThreadOnlyWithinThreadBudget() throws InterruptedException {
+        log.info("Testing runsRejectedTaskOnCallingThreadOnlyWithinThreadBudget()");
+
+        // given
+        imageProcessingExecutor = buildImageProcessingExecutor(ProcessingProperties.RejectionPolicy.CALLER_RUNS,
+                Duration.ofMillis(200));
+        occupyWorkerAndQueue();
+        AtomicBoolean taskRan = new AtomicBoolean();
+        // when
+        // then
+        assertThatThrownBy(() -> imageProcessingExecutor.execute(() -> taskRan.getAndSet(true)))
+                .isInstanceOf(DynamoImageException.class).hasMessageContaining("No image processing thread");
+        assertThat(taskRan).isFalse();
+        assertThat(imageProcessingExecutor.getMetrics().getRejectedCount()).isEqualTo(1);
+        assertThat(imageProcessingExecutor.getMetrics().getTimedOutCount()).isPositive();
+
+        log.info("Completed testing runsRejectedTaskOnCallingThreadOnlyWithinThreadBudget()");
+    }
+
+    @Test
+    void cancelsTaskNotCompletedWithinTimeout() throws InterruptedException {
+        log.info("Testing cancelsTaskNotCompletedWithinTimeout()");
+
+        // given
+        imageProcessingExecutor = buildImageProcessingExecutor(ProcessingProperties.RejectionPolicy.ABORT,
+                Duration.ofMillis(100));
+        CountDownLatch interruptedLatch = new CountDownLatch(1);
+        // when
+        // then
+        assertThatThrownBy(() -> imageProcessingExecutor.execute(() -> {
+            try {
+                releaseLatch.await();
+            } catch (InterruptedException e) {
+                interruptedLatch.countDown();
+            }
+
+            return 1;
+        })).isInstanceOf(DynamoImageException.class).hasMessageContaining("did not complete within");
+        assertThat(interruptedLatch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(imageProcessingExecutor.getMetrics().getTimedOutCount()).isEqualTo(1);
+
+        log.info("Completed testing cancelsTaskNotCompletedWithinTimeout()");
+    }
+
+    @Test
+    void recordsCompletedFailedAndProcessingTimeMetrics() throws DynamoImageException {
+        log.info("Testing recordsCompletedFailedAndProcessingTimeMetrics()");
+
+        // given
+        imageProcessingExecutor = buildImageProcessingExecutor(ProcessingProperties.RejectionPolicy.ABORT,
+                Duration.ofSeconds(10));
+        // when
+        imageProcessingExecutor.execute(() -> sleep(Duration.ofMillis(50)));
+        imageProcessingExecutor.execute(() -> 1);
+        assertThatThrownBy(() -> imageProcessingExecutor.execute(() -> {
+            throw new DynamoImageException("Unable to process image");
+        })).isInstanceOf(DynamoImageException.class).hasMessage("Unable to process image");
+        // then
+        ImageProcessingMetrics imageProcessingMetrics = imageProcessingExecutor.getMetrics();
+        assertThat(imageProcessingMetrics.getCompletedCount()).isEqualTo(2);
+        assertThat(imageProcessingMetrics.getFailedCount()).isEqualTo(1);
+        assertThat(imageProcessingMetrics.getRejectedCount()).isZero();
+        assertThat(imageProcessingMetrics.getTimedOutCount()).isZero();
+        assertThat(imageProcessingMetrics.getQueueDepth()).isZero();
+        assertThat(imageProcessingMetrics.getMaxProcessingTime()).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        assertThat(imageProcessingMetrics.getAverageProcessingTime()).isPositive()
+                .isLessThanOrEqualTo(imageProcessingMetrics.getMaxProcessingTime());
+        assertThat(imageProcessingMetrics.getAverageQueueWaitTime()).isGreaterThanOrEqualTo(Duration.ZERO);
+
+        log.info("Completed testing recordsCompletedFailedAndProcessingTimeMetrics()");
+    }
+
+    private ImageProcessingExecutor buildImageProcessingExecutor(ProcessingProperties.RejectionPolicy rejectionPolicy,
+            Duration timeout) {
+        ImageProperties imageProperties = new ImageProperties();
+        imageProperties.setProcessing(new ProcessingProperties(1, 1, timeout, rejectionPolicy));
+        return new ImageProcessingExecutor(imageProperties);
+    }
+
+    /**
+     * Occupies the single worker thread and the single queue slot with tasks
+     * blocked until the release latch is counted down.
+     */
+    private void occupyWorkerAndQueue() throws InterruptedException {
+        CountDownLatch startedLatch = new CountDownLatch(1);
+        callerExecutor.submit(() -> imageProcessingExecutor.execute(() -> {
+            startedLatch.countDown();
+            return awaitRelease();
+        }));
+        assertThat(startedLatch.await(5, TimeUnit.SECONDS)).isTrue();
+        callerExecutor.submit(() -> imageProcessingExecutor.execute(this::awaitRelease));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (imageProcessingExecutor.getMetrics().getQueueDepth() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+    }
+
+    /**
+     * Blocks until the release latch is counted down, ignoring the interruption of
+     * a timed out task so that it keeps its thread.
+     */
+    private Integer awaitRelease() {
+        while (releaseLatch.getCount() > 0) {
+            try {
+                releaseLatch.await();
+            } catch (InterruptedException e) {
+                log.debug("Ignoring interruption until released");
+            }
+
+        }
+
+        return 1;
+    }
+
+    private Integer sleep(Duration duration) throws DynamoImageException {
+        try {
+            Thread.sleep(duration.toMillis());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DynamoImageException("Interrupted", e);
+        }
+
+    }
+}
@@ -0,0 +1,452 @@
+package net.breezeware.dynamo.image.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import org.imgscalr.Scalr;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import net.breezeware.dynamo.image.config.properties.BudgetProperties;
+import net.breezeware.dynamo.image.config.properties.ImageProperties;
+import net.breezeware.dynamo.image.config.properties.QualityProperties;
+import net.breezeware.dynamo.image.entity.ImageVariant;
+import net.breezeware.dynamo.image.entity.VariantSpec;
+import net.breezeware.dynamo.image.exception.DynamoImageException;
+import net.breezeware.dynamo.image.service.api.ImageEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class ImageServiceImplTest {
+
+    private ImageProperties imageProperties;
+
+    private ImagePixelBudget imagePixelBudget;
+
+    private ImageProcessingExecutor imageProcessingExecutor;
+
+    private ExecutorService imageVariantExecutor;
+
+    @BeforeEach
+    void setUp() {
+        imageProperties = new ImageProperties();
+        imageProperties.getCache().setEnabled(false);
+        imageVariantExecutor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (imageProcessingExecutor != null) {
+            imageProcessingExecutor.shutdown();
+        }
+
+        imageVariantExecutor.shutdownNow();
+    }
+
+    @Test
+    void compressesImageIdenticallyToFreshWritersPerIteration() throws DynamoImageException, IOException {
+        log.info("Testing compressesImageIdenticallyToFreshWritersPerIteration()");
+
+        // given
+        ImageServiceImpl imageService = buildImageService();
+        byte[] inputImageBytes = buildSourceImageBytes(320, 240);
+        int targetSizeInBytes = 6_000;
+        // when
+        byte[] compressedImageBytes = imageService.compressImageWithTargetSize(inputImageBytes, targetSizeInBytes);
+        // then
+        assertThat(compressedImageBytes).isEqualTo(compressWithFreshWriters(inputImageBytes, targetSizeInBytes));
+        assertThat(compressedImageBytes).hasSizeLessThanOrEqualTo(targetSizeInBytes);
+
+        log.info("Completed testing compressesImageIdenticallyToFreshWritersPerIteration()");
+    }
+
+    @Test
+    void reusesWritersAndBuffersWithoutChangingOutput() throws DynamoImageException, IOException {
+        log.info("Testing reusesWritersAndBuffersWithoutChangingOutput()");
+
+        // given
+        ImageServiceImpl imageService = buildImageService();
+        byte[] largeImageBytes = buildSourceImageBytes(640, 480);
+        byte[] smallImageBytes = buildSourceImageBytes(160, 120);
+        byte[] expectedImageBytes = imageService.compressImageWithTargetSize(smallImageBytes, 3_000);
+        // when
+        imageService.compressImageWithTargetSize(largeImageBytes, 1_000_000);
+        byte[] compressedImageBytes = imageService.compressImageWithTargetSize(smallImageBytes, 3_000);
+        // then
+        assertThat(compressedImageBytes).isEqualTo(expectedImageBytes);
+        assertThat(ImageIO.read(new ByteArrayInputStream(compressedImageBytes)))
+                .satisfies(compressedImage -> {
+                    assertThat(compressedImage.getWidth()).isEqualTo(160);
+                    assertThat(compressedImage.getHeight()).isEqualTo(120);
+                });
+
+        log.info("Completed testing reusesWritersAndBuffersWithoutChangingOutput()");
+    }
+
+    @Test
+    void returnsLowestQualityOutputWhenTargetSizeIsUnreachable() throws DynamoImageException, IOException {
+        log.info("Testing returnsLowestQualityOutputWhenTargetSizeIsUnreachable()");
+
+        // given
+        ImageServiceImpl imageService = buildImageService();
+        byte[] inputImageBytes = buildSourceImageBytes(320, 240);
+        // when
+        byte[] compressedImageBytes = imageService.compressImageWithTargetSize(inputImageBytes, 100);
+        // then
+        assertThat(compressedImageBytes).hasSizeGreaterThan(100)
+                .isEqualTo(compressWithFreshWriters(inputImageBytes, 100));
+
+        log.info("Completed testing returnsLowestQualityOutputWhenTargetSizeIsUnreachable()");
+    }
+
+    @Test
+    void resizesImageToTargetWidthWithinTargetSize() throws DynamoImageException, IOException {
+        log.info("Testing resizesImageToTargetWidthWithinTargetSize()");
+
+        // given
+        ImageServiceImpl imageService = buildImageService();
+        byte[] inputImageBytes = buildSourceImageBytes(640, 480);
+        // when
+        byte[] compressedImageBytes = imageService.compressImageWithTargetSizeAndWidth(inputImageBytes, 8_000, 200);
+        // then
+        BufferedImage compressedImage = ImageIO.read(new ByteArrayInputStream(compressedImageBytes));
+        assertThat(compressedImage.getWidth()).isEqualTo(200);
+        assertThat(compressedImage.getHeight()).isEqualTo(150);
+        assertThat(compressedImageBytes).hasSizeLessThanOrEqualTo(8_000);
+
+        log.info("Completed testing resizesImageToTargetWidthWithinTargetSize()");
+    }
+
+    @Test
+    void rejectsInvalidTargetSize() throws IOException {
+        log.info("Testing rejectsInvalidTargetSize()");
+
+        // given
+        ImageServiceImpl imageService = buildImageService();
+        byte[] inputImageBytes = buildSourceImageBytes(32, 32);
+        // when
+        // then
+        assertThatThrownBy(() -> imageService.compressImageWithTargetSize(inputImageBytes, 0))
+                .isInstanceOf(DynamoImageException.class).hasMessageContaining("targetSizeInBytes");
+
+        log.info("Completed testing rejectsInvalidTargetSize()");
+    }
+
+    @Test
+    void generatesVariantsFromSingleDecodeInSpecificationOrder() throws DynamoImageException, IOException {
+        log.info("Testing generatesVariantsFromSingleDecodeInSpecificationOrder()");
+
+        // given
+        ImageServiceImpl imageService = buildImageService();
+        byte[] inputImageBytes = buildSourceImageBytes(800, 600);
+        List<VariantSpec> variantSpecs = List.of(buildVariantSpec("thumb", 100), buildVariantSpec("full", 400),
+                buildVariantSpec("medium", 200));
+        // when
+        List<ImageVariant> imageVariants = imageService.generateVariants(inputImageBytes, variantSpecs);
+        // then
+        verify(imagePixelBudget, times(1)).resolveSubsampling(any(), any());
+        assertThat(imageVariants).extracting(ImageVariant::getName).containsExactly("thumb", "full", "medium");
+        assertThat(imageVariants).extracting(ImageVariant::getWidthInPixels).containsExactly(100, 400, 200);
+        assertThat(imageVariants).extracting(ImageVariant::getHeightInPixels).containsExactly(75, 300, 150);
+        for (ImageVariant imageVariant : imageVariants) {
+            BufferedImage variantImage = ImageIO.read(new ByteArrayInputStream(imageVariant.getImageBytes()));
+            assertThat(variantImage.getWidth()).isEqualTo(imageVariant.getWidthInPixels());
+            assertThat(imageVariant.getMimeType()).isEqualTo("image/jpeg");
+        }
+
+        log.info("Completed testing generatesVariantsFromSingleDecodeInSpecificationOrder()");
+    }
+
+    @Test
+    void resizesVariantsFromLargestToSmallest() throws DynamoImageException, IOException {
+        log.info("Testing resizesVariantsFromLargestToSmallest()");
+
+        // given
+        imageProperties.getProcessing().setParallelism(1);
+        RecordingImageEncoder recordingImageEncoder = new RecordingImageEncoder();
+        ImageServiceImpl imageService = buildImageService(recordingImageEncoder);
+        List<VariantSpec> variantSpecs = List.of(buildVariantSpec("thumb", 100), buildVariantSpec("full", 400),
+                buildVariantSpec("medium", 200));
+        // when
+        List<ImageVariant> imageVariants =
+                imageService.generateVariants(buildSourceImageBytes(800, 600), variantSpecs);
+        // then
+        assertThat(recordingImageEncoder.getEncodedWidths()).containsExactly(400, 200, 100);
+        assertThat(imageVariants).extracting(ImageVariant::getName).containsExactly("thumb", "full", "medium");
+
+        log.info("Completed testing resizesVariantsFromLargestToSmallest()");
+    }
+
+    @Test
+    void generatesOnlyVariantsMissingFromCache() throws DynamoImageException, IOException {
+        log.info("Testing generatesOnlyVariantsMissingFromCache()");
+
+        // given
+        imageProperties.getCache().setEnabled(true);
+        imageProperties.getProcessing().setParallelism(1);
+        RecordingImageEncoder recordingImageEncoder = new RecordingImageEncoder();
+        ImageServiceImpl imageService = buildImageService(recordingImageEncoder);
+        byte[] inputImageBytes = buildSourceImageBytes(800, 600);
+        ImageVariant cachedImageVariant =
+                imageService.generateVariants(inputImageBytes, List.of(buildVariantSpec("medium", 200))).get(0);
+        recordingImageEncoder.getEncodedWidths().clear();
+        // when
+        List<ImageVariant> imageVariants = imageService.generateVariants(inputImageBytes,
+                List.of(buildVariantSpec("thumb", 100), buildVariantSpec("medium", 200)));
+        // then
+        assertThat(recordingImageEncoder.getEncodedWidths()).containsExactly(100);
+        assertThat(imageVariants).extracting(ImageVariant::getName).containsExactly("thumb", "medium");
+        assertThat(imageVariants.get(1).getImageBytes()).isEqualTo(cachedImageVariant.getImageBytes());
+        assertThat(imageVariants.get(1).getWidthInPixels()).isEqualTo(200);
+
+        log.info("Completed testing generatesOnlyVariantsMissingFromCache()");
+    }
+
+    @Test
+    void skipsDecodeWhenAllVariantsAreCached() throws DynamoImageException, IOException {
+        log.info("Testing skipsDecodeWhenAllVariantsAreCached()");
+
+        // given
+        imageProperties.getCache().setEnabled(true);
+        ImageServiceImpl imageService = buildImageService();
+        byte[] inputImageBytes = buildSourceImageBytes(800, 600);
+        List<VariantSpec> variantSpecs = List.of(buildVariantSpec("thumb", 100), buildVariantSpec("medium", 200));
+        List<ImageVariant> generatedImageVariants = imageService.generateVariants(inputImageBytes, variantSpecs);
+        // when
+        List<ImageVariant> imageVariants = imageService.generateVariants(inputImageBytes, variantSpecs);
+        // then
+        verify(imagePixelBudget, times(1)).resolveSubsampling(any(), any());
+        assertThat(imageVariants).extracting(ImageVariant::getImageBytes)
+                .containsExactlyElementsOf(generatedImageVariants.stream().map(ImageVariant::getImageBytes).toList());
+
+        log.info("Completed testing skipsDecodeWhenAllVariantsAreCached()");
+    }
+
+    @Test
+    void rejectsEmptyVariantSpecifications() throws DynamoImageException, IOException {
+        log.info("Testing rejectsEmptyVariantSpecifications()");
+
+        // given
+        ImageServiceImpl imageService = buildImageService();
+        byte[] inputImageBytes = buildSourceImageBytes(32, 32);
+        // when
+        // then
+        assertThatThrownBy(() -> imageService.generateVariants(inputImageBytes, List.of()))
+                .isInstanceOf(DynamoImageException.class).hasMessageContaining("variantSpecs");
+        verify(imagePixelBudget, never()).resolveSubsampling(any(), any());
+
+        log.info("Completed testing rejectsEmptyVariantSpecifications()");
+    }
+
+    @Test
+    void rejectsStreamedImageBeyondPixelBudgetBeforeDecode() throws DynamoImageException, IOException {
+        log.info("Testing rejectsStreamedImageBeyondPixelBudgetBeforeDecode()");
+
+        // given
+        imageProperties.setBudget(new BudgetProperties(10_000L, 1_000_000L, Duration.ofMillis(10)));
+        ImageServiceImpl imageService = buildImageService();
+        // only the image header, decoding the pixel data would fail
+        byte[] imageHeaderBytes = Arrays.copyOf(buildSourceImageBytes(320, 240), 64);
+        ByteArrayOutputStream compressedOutputStream = new ByteArrayOutputStream();
+        // when
+        // then
+        assertThatThrownBy(() -> imageService.compressImageWithTargetSize(
+                new ByteArrayInputStream(imageHeaderBytes), 6_000, compressedOutputStream))
+                .isInstanceOf(DynamoImageException.class).hasMessageContaining("exceeds the maximum");
+        verify(imagePixelBudget, never()).reserve(anyLong());
+        assertThat(compressedOutputStream.size()).isZero();
+
+        log.info("Completed testing rejectsStreamedImageBeyondPixelBudgetBeforeDecode()");
+    }
+
+    @Test
+    void decodesStreamedImageBeyondPixelBudgetAtReducedResolution() throws DynamoImageException, IOException {
+        log.info("Testing decodesStreamedImageBeyondPixelBudgetAtReducedResolution()");
+
+        // given
+        imageProperties.setBudget(new BudgetProperties(10_000L, 1_000_000L, Duration.ofMillis(10)));
+        ImageServiceImpl imageService = buildImageService();
+        ByteArrayOutputStream compressedOutputStream = new ByteArrayOutputStream();
+        // when
+        imageService.compressImageWithTargetSizeAndWidth(new ByteArrayInputStream(buildSourceImageBytes(320, 240)),
+                6_000, 80, compressedOutputStream);
+        // then
+        BufferedImage compressedImage =
+                ImageIO.read(new ByteArrayInputStream(compressedOutputStream.toByteArray()));
+        assertThat(compressedImage.getWidth()).isEqualTo(80);
+        assertThat(compressedImage.getHeight()).isEqualTo(60);
+        // 320x240 subsampled by 3, reserved for the decoded image and its working copy
+        verify(imagePixelBudget).reserve(2L * 107 * 80);
+        assertThat(imagePixelBudget.getAvailablePixels()).isEqualTo(1_000_000L);
+
+        log.info("Completed testing decodesStreamedImageBeyondPixelBudgetAtReducedResolution()");
+    }
+
+    @Test
+    void rejectsStreamedImageWhenConcurrentPixelBudgetIsExhausted() throws DynamoImageException, IOException {
+        log.info("Testing rejectsStreamedImageWhenConcurrentPixelBudgetIsExhausted()");
+
+        // given
+        imageProperties.setBudget(new BudgetProperties(1_000_000L, 200_000L, Duration.ofMillis(10)));
+        ImageServiceImpl imageService = buildImageService();
+        byte[] inputImageBytes = buildSourceImageBytes(320, 240);
+        ByteArrayOutputStream compressedOutputStream = new ByteArrayOutputStream();
+        ImagePixelBudget.Reservation reservation = imagePixelBudget.reserve(100_000L);
+        // when
+        // then
+        assertThatThrownBy(() -> imageService.compressImageWithTargetSize(new ByteArrayInputStream(inputImageBytes),
+                6_000, compressedOutputStream)).isInstanceOf(DynamoImageException.class)
+                .hasMessageContaining("budget exhausted");
+        assertThat(imagePixelBudget.getAvailablePixels()).isEqualTo(100_000L);
+
+        // when
+        reservation.close();
+        imageService.compressImageWithTargetSize(new ByteArrayInputStream(inputImageBytes), 6_000,
+                compressedOutputStream);
+        // then
+        assertThat(compressedOutputStream.size()).isPositive();
+
+        log.info("Completed testing rejectsStreamedImageWhenConcurrentPixelBudgetIsExhausted()");
+    }
+
+    private ImageServiceImpl buildImageService(ImageEncoder... customImageEncoders) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ImageEncoder> imageEncoders = mock(ObjectProvider.class);
+        when(imageEncoders.orderedStream()).thenReturn(Stream.of(customImageEncoders));
+        imagePixelBudget = spy(new ImagePixelBudget(imageProperties));
+        imageProcessingExecutor = new ImageProcessingExecutor(imageProperties);
+        return new ImageServiceImpl(imageProperties, new ImageEncoderRegistry(imageProperties, imageEncoders),
+                imagePixelBudget, new ImageCompressionCache(imageProperties), imageVariantExecutor,
+                imageProcessingExecutor);
+    }
+
+    private VariantSpec buildVariantSpec(String name, int targetWidthInPixels) {
+        return VariantSpec.builder().name(name).targetSizeInBytes(200_000).targetWidthInPixels(targetWidthInPixels)
+                .build();
+    }
+
+    private byte[] buildSourceImageBytes(int width, int height) throws IOException {
+        BufferedImage sourceImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int red = x * 255 / width;
+                int green = y * 255 / height;
+                int blue = random.nextInt(256);
+                sourceImage.setRGB(x, y, red << 16 | green << 8 | blue);
+            }
+
+        }
+
+        ByteArrayOutputStream sourceOutputStream = new ByteArrayOutputStream();
+        ImageIO.write(sourceImage, "png", sourceOutputStream);
+        return sourceOutputStream.toByteArray();
+    }
+
+    /**
+     * Compresses an image the way the compression loop did before writers and
+     * buffers were reused, creating a new writer and buffer on each iteration.
+     */
+    private byte[] compressWithFreshWriters(byte[] inputImageBytes, int targetSizeInBytes) throws IOException {
+        BufferedImage inputImage = ImageIO.read(new ByteArrayInputStream(inputImageBytes));
+        BufferedImage resizedImage = Scalr.resize(inputImage, Scalr.Method.QUALITY, Scalr.Mode.AUTOMATIC,
+                inputImage.getWidth(), inputImage.getHeight(), Scalr.OP_ANTIALIAS);
+        BufferedImage rgbImage = new BufferedImage(resizedImage.getWidth(), resizedImage.getHeight(),
+                BufferedImage.TYPE_INT_RGB);
+        rgbImage.createGraphics().drawImage(resizedImage, 0, 0, null);
+
+        QualityProperties qualityProperties = imageProperties.getCompression().getQuality();
+        float compressionQuality = qualityProperties.getMax();
+        byte[] compressedImageBytes = new byte[0];
+        while (compressionQuality > qualityProperties.getMin()) {
+            ImageWriter imageWriter = ImageIO.getImageWritersByFormatName("jpeg").next();
+            ImageWriteParam writeParam = imageWriter.getDefaultWriteParam();
+            writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            writeParam.setCompressionQuality(compressionQuality);
+            ByteArrayOutputStream compressedOutputStream = new ByteArrayOutputStream();
+            try (MemoryCacheImageOutputStream imageOutputStream =
+                    new MemoryCacheImageOutputStream(compressedOutputStream)) {
+                imageWriter.setOutput(imageOutputStream);
+                imageWriter.write(null, new IIOImage(rgbImage, null, null), writeParam);
+            } finally {
+                imageWriter.dispose();
+            }
+
+            compressedImageBytes = compressedOutputStream.toByteArray();
+            if (compressedImageBytes.length <= targetSizeInBytes) {
+                return compressedImageBytes;
+            }
+
+            compressionQuality -= qualityProperties.getStep();
+        }
+
+        return compressedImageBytes;
+    }
+
+    /**
+     * JPEG encoder recording the width of each image it encodes.
+     */
+    private static class RecordingImageEncoder implements ImageEncoder {
+
+        private final ImageIoImageEncoder imageIoImageEncoder;
+
+        private final List<Integer> encodedWidths = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingImageEncoder() throws DynamoImageException {
+            this.imageIoImageEncoder = new ImageIoImageEncoder("jpeg");
+        }
+
+        List<Integer> getEncodedWidths() {
+            return encodedWidths;
+        }
+
+        @Override
+        public String getFormatName() {
+            return imageIoImageEncoder.getFormatName();
+        }
+
+        @Override
+        public String getMimeType() {
+            return imageIoImageEncoder.getMimeType();
+        }
+
+        @Override
+        public void encode(BufferedImage image, float compressionQuality, OutputStream outputStream)
+                throws DynamoImageException {
+            encodedWidths.add(image.getWidth());
+            imageIoImageEncoder.encode(image, compressionQuality, outputStream);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package net.breezeware.dynamo.image.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import net.breezeware.dynamo.image.utils.ImageQualityUtils.LumaPlane;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class ImageQualityUtilsTest {
+
+    @Test
+    void computesSsimOfOneForIdenticalImages() {
+        log.info("Testing computesSsimOfOneForIdenticalImages()");
+
+        // given
+        BufferedImage image = buildGradientImage(128, 96);
+        // when
+        double ssim = ImageQualityUtils.computeSsim(ImageQualityUtils.computeLumaPlane(image, 64),
+                ImageQualityUtils.computeLumaPlane(buildGradientImage(128, 96), 64));
+        // then
+        assertThat(ssim).isCloseTo(1.0, offset(1e-9));
+
+        log.info("Completed testing computesSsimOfOneForIdenticalImages()");
+    }
+
+    @Test
+    void computesLowerSsimForMoreDistortedImages() {
+        log.info("Testing computesLowerSsimForMoreDistortedImages()");
+
+        // given
+        LumaPlane reference = ImageQualityUtils.computeLumaPlane(buildGradientImage(128, 128), 128);
+        // when
+        double slightlyDistortedSsim = ImageQualityUtils.computeSsim(reference,
+                ImageQualityUtils.computeLumaPlane(addNoise(buildGradientImage(128, 128), 4), 128));
+        double heavilyDistortedSsim = ImageQualityUtils.computeSsim(reference,
+                ImageQualityUtils.computeLumaPlane(addNoise(buildGradientImage(128, 128), 64), 128));
+        // then
+        assertThat(slightlyDistortedSsim).isLessThan(1.0).isGreaterThan(heavilyDistortedSsim);
+        assertThat(heavilyDistortedSsim).isLessThan(0.5);
+
+        log.info("Completed testing computesLowerSsimForMoreDistortedImages()");
+    }
+
+    @Test
+    void downscalesLumaPlaneToMaxSize() {
+        log.info("Testing downscalesLumaPlaneToMaxSize()");
+
+        // given
+        BufferedImage image = buildGradientImage(400, 200);
+        // when
+        LumaPlane lumaPlane = ImageQualityUtils.computeLumaPlane(image, 100);
+        // then
+        assertThat(lumaPlane.width()).isEqualTo(100);
+        assertThat(lumaPlane.height()).isEqualTo(50);
+        assertThat(lumaPlane.luma()).hasSize(5000);
+        assertThatThrownBy(() -> ImageQualityUtils.computeSsim(lumaPlane,
+                ImageQualityUtils.computeLumaPlane(image, 50))).isInstanceOf(IllegalArgumentException.class);
+
+        log.info("Completed testing downscalesLumaPlaneToMaxSize()");
+    }
+
+    private BufferedImage buildGradientImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int value = (x * 255 / width + y * 255 / height) / 2;
+                image.setRGB(x, y, value << 16 | value << 8 | value);
+            }
+
+        }
+
+        return image;
+    }
+
+    private BufferedImage addNoise(BufferedImage image, int amplitude) {
+        Random random = new Random(42);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int value = (image.getRGB(x, y) & 0xff) + random.nextInt(2 * amplitude + 1) - amplitude;
+                value = Math.max(0, Math.min(255, value));
+                image.setRGB(x, y, value << 16 | value << 8 | value);
+            }
+
+        }
+
+        return image;
+    }
+}